@@ -9,6 +9,7 @@
 package beaver;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -171,6 +172,7 @@ public abstract class Parser
 	{
 		private Scanner  scanner;
 		private Symbol[] buffer;
+		private boolean  buffering;
 		private int      n_marked;
 		private int      n_read;
 		private int      n_written;
@@ -190,7 +192,7 @@ public abstract class Parser
         
 		public Symbol nextToken() throws IOException
 		{
-			if (buffer != null)
+			if (buffering)
 			{				
 				if (n_read < n_written)
 					return buffer[n_read++];
@@ -200,20 +202,63 @@ public abstract class Parser
 					n_read++;
 					return buffer[n_written++] = readToken();
 				}
-				buffer = null;
+				release();
 			}
 			return readToken();
 		}
 
 		/**
-		 * Prepare a stream to accumulate tokens.
+		 * Prepare a stream to accumulate tokens. The accumulator is kept between error recoveries, so it is only
+		 * reallocated when it is too small.
 		 * 
 		 * @param size number of shifted tokens to accumulate
 		 */
 		public void alloc(int size)
 		{
-			buffer = new Symbol[(n_marked = size) + 1];
+			if (buffer == null || buffer.length < size + 1)
+			{
+				buffer = new Symbol[size + 1];
+			}
+			else
+			{
+				Arrays.fill(buffer, null);
+			}
+			n_marked = size;
 			n_read = n_written = 0;
+			buffering = true;
+		}
+
+		/**
+		 * Stop delivering accumulated tokens and drop our references to them
+		 */
+		private void release()
+		{
+			buffering = false;
+			Arrays.fill(buffer, 0, n_written, null);
+		}
+
+		/**
+		 * Point this stream to a new source of tokens
+		 * 
+		 * @param scanner
+		 */
+		void reset(Scanner scanner)
+		{
+			this.scanner = scanner;
+			if (buffering)
+			{
+				release();
+			}
+		}
+
+		/**
+		 * Return the scanner tokens are read from
+		 * 
+		 * @return scanner
+		 */
+		Scanner getScanner()
+		{
+			return scanner;
 		}
 		
 		/**
@@ -419,12 +464,32 @@ public abstract class Parser
 	/** Parsing events notification "gateway" */
 	protected Events report;
 	
+	/** Token stream reused by every parse of this parser. */
+	private TokenStream token_stream;
+
+	/** Error recovery simulator reused by every parse of this parser. */
+	private Simulator simulator;
+
+	/** Terminal IDs for which isReusableTerminal() holds, indexed by ID. */
+	private boolean[] reusable_terminals;
+
+	/** Whether any terminal of the grammar is reusable at all. */
+	private boolean recycle_terminals;
+
+	/** Symbol at the bottom of the stack. It is only ever read, so one is enough. */
+	private final Symbol none_symbol = new Symbol("none");
+
+	/** Initial size of the stacks. */
+	private static final int INITIAL_STACK_SIZE = 256;
+
+	/** Stacks that grew larger than this while parsing an unusual source are not kept for the next parse. */
+	private static final int MAX_RETAINED_STACK_SIZE = 4096;
 
 	protected Parser(ParsingTables tables)
 	{
 		this.tables = tables;
 		this.accept_action_id = (short) ~tables.rule_infos.length;
-		this.states = new short[256];
+		this.states = new short[INITIAL_STACK_SIZE];
 	}
 
     /**
@@ -436,7 +501,7 @@ public abstract class Parser
 	public Object parse(Scanner source) throws IOException, Parser.Exception
 	{
 		init();
-		return parse(new TokenStream(source));
+		return parse(getTokenStream(source));
 	}
     
     /**
@@ -451,11 +516,25 @@ public abstract class Parser
     public Object parse(Scanner source, short alt_goal_marker_id) throws IOException, Parser.Exception
     {
         init();
-        TokenStream in = new TokenStream(source, new Symbol(alt_goal_marker_id));
+        TokenStream in = getTokenStream(source);
+        in.alloc(1);
+        in.insert(new Symbol(alt_goal_marker_id));
         return parse(in);
     }
     
     private Object parse(TokenStream in) throws IOException, Parser.Exception
+    {
+        try
+        {
+            return doParse(in);
+        }
+        finally
+        {
+            release(in);
+        }
+    }
+
+    private Object doParse(TokenStream in) throws IOException, Parser.Exception
     {
         while (true)
         {
@@ -471,7 +550,6 @@ public abstract class Parser
                 else if (act == accept_action_id)
                 {
                     Symbol goal = _symbols[top];
-                    _symbols = null; // drop this stack to prevent loitering
                     return goal.value;
                 }
                 else if (act < 0)
@@ -484,7 +562,6 @@ public abstract class Parser
                     }
                     else if (act == accept_action_id)
                     {
-                        _symbols = null; // no loitering
                         return nt.value;
                     }
                     else
@@ -512,6 +589,38 @@ public abstract class Parser
 	 */
 	protected abstract Symbol invokeReduceAction(int rule_num, int offset);
 
+	/**
+	 * Returns the error recovery simulator of this parser. The simulator is created once and reused by all error
+	 * recoveries, including the ones done by custom recovery strategies.
+	 * 
+	 * @return simulator
+	 */
+	public Simulator getSimulator()
+	{
+		if (simulator == null)
+		{
+			simulator = new Simulator();
+		}
+		return simulator;
+	}
+
+	/**
+	 * Tells whether the parser may hand terminals with the specified ID back to the scanner once they have been
+	 * reduced, so the scanner can reuse the Symbol instance for the next token of that type (see
+	 * {@link Scanner#newSymbol(short, int, int, Object)}).
+	 * <p>
+	 * Generated parsers may override this for punctuation tokens, as long as no action routine of the grammar keeps a
+	 * reference to those tokens. By default no terminal is reused.
+	 * </p>
+	 * 
+	 * @param id terminal ID
+	 * @return true if reduced terminals with this ID can be reused
+	 */
+	protected boolean isReusableTerminal(short id)
+	{
+		return false;
+	}
+
 	/**
 	 * Performs stacks and, if not initialized yet, reduce actions array initialization.
 	 */
@@ -519,12 +628,67 @@ public abstract class Parser
 	{
 		if (report == null) report = new Events();
 		
-		_symbols = new Symbol[states.length];
+		if (reusable_terminals == null)
+		{
+			reusable_terminals = new boolean[tables.n_term];
+			for (short id = 0; id < tables.n_term; id++)
+			{
+				if (isReusableTerminal(id))
+				{
+					reusable_terminals[id] = recycle_terminals = true;
+				}
+			}
+		}
+
+		if (_symbols == null || _symbols.length != states.length)
+		{
+			_symbols = new Symbol[states.length];
+		}
 		top = 0; // i.e. it's not empty
-		_symbols[top] = new Symbol("none"); // need a symbol here for a default reduce on the very first erroneous token  
+		_symbols[top] = none_symbol; // need a symbol here for a default reduce on the very first erroneous token  
 		states[top] = 1; // initial/first state
 	}
 
+	/**
+	 * Returns the token stream of this parser pointed at the specified source.
+	 * 
+	 * @param source
+	 * @return token stream
+	 */
+	private TokenStream getTokenStream(Scanner source)
+	{
+		if (token_stream == null)
+		{
+			token_stream = new TokenStream(source);
+		}
+		else
+		{
+			token_stream.reset(source);
+		}
+		return token_stream;
+	}
+
+	/**
+	 * Drops the references the stacks and the token stream hold on to, so the parse results are not kept alive by
+	 * this parser. The stacks themselves are kept for the next parse unless they grew unusually large.
+	 * 
+	 * @param in token stream of the finished parse
+	 */
+	private void release(TokenStream in)
+	{
+		in.reset(null);
+
+		if (states.length > MAX_RETAINED_STACK_SIZE)
+		{
+			states = new short[INITIAL_STACK_SIZE];
+			_symbols = null;
+		}
+		else if (_symbols != null)
+		{
+			Arrays.fill(_symbols, null);
+		}
+	}
+
 	/**
 	 * Increases the stack capacity if it has no room for new entries.
 	 */
@@ -578,10 +742,39 @@ public abstract class Parser
 		{
 			lhs_sym.start = _symbols[top + 1].start;
 			lhs_sym.end = _symbols[top + rhs_size].end;
+
+			if (recycle_terminals)
+			{
+				recycleTerminals(top + 1, top + rhs_size, lhs_sym);
+			}
 		}
 		return lhs_sym;
 	}
 
+	/**
+	 * Hands the reusable terminals of a reduced production back to the scanner.
+	 * 
+	 * @param first
+	 *            index of the first right hand side symbol on the stack
+	 * @param last
+	 *            index of the last right hand side symbol on the stack
+	 * @param lhs_sym
+	 *            the symbol produced by the reduction. It is never recycled, even when an action routine returns one
+	 *            of its arguments
+	 */
+	private void recycleTerminals(int first, int last, Symbol lhs_sym)
+	{
+		Scanner scanner = token_stream.getScanner();
+		for (int i = first; i <= last; i++)
+		{
+			Symbol sym = _symbols[i];
+			if (sym != lhs_sym && sym.id >= 0 && sym.id < reusable_terminals.length && reusable_terminals[sym.id])
+			{
+				scanner.recycle(sym);
+			}
+		}
+	}
+
     /**
      * Implements parsing error recovery. Tries several simple approches first, like deleting "bad" token
      * or replacing the latter with one of the expected in his state (if possible). If simple methods did
@@ -600,7 +793,7 @@ public abstract class Parser
 		if (token.id == 0) // end of input
 			throw new Parser.Exception("Cannot recover from the syntax error");
 		
-		Simulator sim = new Simulator();
+		Simulator sim = getSimulator();
 		in.alloc(3);
 		if (sim.parse(in)) // just delete "token" from the stream
 		{
@@ -36,5 +36,57 @@ public abstract class Scanner
 		}
 	}
 
+	/**
+	 * Terminals handed back by the parser after they have been reduced, indexed by terminal ID.
+	 */
+	private Symbol[] recycled;
+
 	public abstract Symbol nextToken() throws IOException, Scanner.Exception;
+
+	/**
+	 * Creates a token. If the parser handed back a token with the same ID and value, that instance is reused instead
+	 * of allocating a new one. Parsers only hand back tokens of the types they declare reusable (see
+	 * {@link Parser#isReusableTerminal(short)}), so for all other types this always creates a new Symbol.
+	 * 
+	 * @param id terminal ID
+	 * @param start
+	 * @param end
+	 * @param value
+	 * @return token
+	 */
+	protected Symbol newSymbol(short id, int start, int end, Object value)
+	{
+		if (recycled != null && id >= 0 && id < recycled.length)
+		{
+			Symbol symbol = recycled[id];
+			if (symbol != null && (symbol.value == value || (symbol.value != null && symbol.value.equals(value))))
+			{
+				recycled[id] = null;
+				symbol.start = start;
+				symbol.end = end;
+				return symbol;
+			}
+		}
+		return new Symbol(id, start, end, value);
+	}
+
+	/**
+	 * Called by the parser for a token that is no longer referenced by the parser or by any value it produced.
+	 * 
+	 * @param symbol
+	 */
+	void recycle(Symbol symbol)
+	{
+		short id = symbol.id;
+		if (recycled == null || recycled.length <= id)
+		{
+			Symbol[] new_recycled = new Symbol[id + 1];
+			if (recycled != null)
+			{
+				System.arraycopy(recycled, 0, new_recycled, 0, recycled.length);
+			}
+			recycled = new_recycled;
+		}
+		recycled[id] = symbol;
+	}
 }
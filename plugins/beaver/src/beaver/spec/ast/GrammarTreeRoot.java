@@ -13,6 +13,8 @@ package beaver.spec.ast;
  */
 public class GrammarTreeRoot extends Node
 {
+	private static final long serialVersionUID = 1L;
+
 	public final Declaration[] declarations;
 	public final Rule[] rules;
 	
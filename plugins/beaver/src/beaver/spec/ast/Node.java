@@ -15,6 +15,8 @@ import beaver.Symbol;
  */
 public abstract class Node extends Symbol
 {
+	private static final long serialVersionUID = 1L;
+
 	public void setLocation(int start, int end)
 	{
 		this.start = start;
@@ -7,11 +7,18 @@
  */
 package com.aptana.buildpath.core;
 
+import java.io.File;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.Plugin;
 import org.osgi.framework.BundleContext;
 
+import com.aptana.core.build.BuildPriorities;
 import com.aptana.core.build.IBuildParticipantManager;
 import com.aptana.core.internal.build.BuildParticipantManager;
+import com.aptana.core.internal.build.ProblemCache;
+import com.aptana.core.util.StringUtil;
 
 public class BuildPathCorePlugin extends Plugin
 {
@@ -20,6 +27,8 @@ public class BuildPathCorePlugin extends Plugin
 	public static final String PLUGIN_ID = "com.aptana.buildpath.core"; //$NON-NLS-1$
 
 	private IBuildParticipantManager fBuildParticipantManager;
+	private ProblemCache fProblemCache;
+	private BuildPriorities fBuildPriorities;
 
 	/**
 	 * Returns the shared instance
@@ -48,6 +57,8 @@ public class BuildPathCorePlugin extends Plugin
 	public void stop(BundleContext bundleContext) throws Exception
 	{
 		fBuildParticipantManager = null;
+		fProblemCache = null;
+		fBuildPriorities = null;
 		plugin = null;
 		super.stop(bundleContext);
 	}
@@ -60,4 +71,66 @@ public class BuildPathCorePlugin extends Plugin
 		}
 		return fBuildParticipantManager;
 	}
+
+	/**
+	 * Returns the files editors want built ahead of the rest of their project
+	 * 
+	 * @return
+	 */
+	public synchronized BuildPriorities getBuildPriorities()
+	{
+		if (fBuildPriorities == null)
+		{
+			fBuildPriorities = new BuildPriorities();
+		}
+		return fBuildPriorities;
+	}
+
+	/**
+	 * Returns the persistent cache of problems reported by build participants, or null if the cache has been disabled
+	 * 
+	 * @return
+	 */
+	public synchronized ProblemCache getProblemCache()
+	{
+		boolean enabled = Platform.getPreferencesService().getBoolean(PLUGIN_ID,
+				IPreferenceConstants.PROBLEM_CACHE_ENABLED, false, null);
+		if (!enabled)
+		{
+			return null;
+		}
+
+		if (fProblemCache == null)
+		{
+			IPath location = getStateLocation().append("problemCache"); //$NON-NLS-1$
+			int maxSize = Platform.getPreferencesService().getInt(PLUGIN_ID,
+					IPreferenceConstants.PROBLEM_CACHE_MAX_SIZE, IPreferenceConstants.DEFAULT_PROBLEM_CACHE_MAX_SIZE,
+					null);
+			fProblemCache = new ProblemCache(location.toFile(), maxSize * 1024L * 1024L);
+		}
+		return fProblemCache;
+	}
+
+	/**
+	 * Returns the directory build profile reports get written to, or null if builds aren't being profiled
+	 * 
+	 * @return
+	 */
+	public File getBuildProfileLocation()
+	{
+		boolean enabled = Platform.getPreferencesService().getBoolean(PLUGIN_ID,
+				IPreferenceConstants.BUILD_PROFILE_ENABLED, false, null);
+		if (!enabled)
+		{
+			return null;
+		}
+
+		String directory = Platform.getPreferencesService().getString(PLUGIN_ID,
+				IPreferenceConstants.BUILD_PROFILE_DIRECTORY, null, null);
+		if (StringUtil.isEmpty(directory))
+		{
+			return getStateLocation().append("buildProfiles").toFile(); //$NON-NLS-1$
+		}
+		return new File(directory);
+	}
 }
@@ -0,0 +1,44 @@
+/**
+ * Aptana Studio
+ * Copyright (c) 2005-2012 by Appcelerator, Inc. All Rights Reserved.
+ * Licensed under the terms of the GNU Public License (GPL) v3 (with exceptions).
+ * Please see the license.html included with this distribution for details.
+ * Any modifications to this file must keep this entire header intact.
+ */
+package com.aptana.buildpath.core;
+
+public interface IPreferenceConstants
+{
+	/**
+	 * Boolean preference controlling whether the unified builder may build files on multiple threads
+	 */
+	public static final String PARALLEL_BUILD_ENABLED = "PARALLEL_BUILD_ENABLED"; //$NON-NLS-1$
+
+	/**
+	 * The maximum number of worker threads used for parallel builds. Zero or less means one per available processor.
+	 */
+	public static final String PARALLEL_BUILD_THREADS = "PARALLEL_BUILD_THREADS"; //$NON-NLS-1$
+
+	/**
+	 * Boolean preference controlling whether the problems reported by validators are persisted and reused for files
+	 * whose contents haven't changed
+	 */
+	public static final String PROBLEM_CACHE_ENABLED = "PROBLEM_CACHE_ENABLED"; //$NON-NLS-1$
+
+	/**
+	 * The maximum size of the persistent problem cache, in megabytes
+	 */
+	public static final String PROBLEM_CACHE_MAX_SIZE = "PROBLEM_CACHE_MAX_SIZE"; //$NON-NLS-1$
+	public static final int DEFAULT_PROBLEM_CACHE_MAX_SIZE = 32;
+
+	/**
+	 * Boolean preference controlling whether builds record the time spent per participant, content type and file and
+	 * write a report at the end of each build
+	 */
+	public static final String BUILD_PROFILE_ENABLED = "BUILD_PROFILE_ENABLED"; //$NON-NLS-1$
+
+	/**
+	 * The directory build profile reports are written to. Defaults to the plugin's state location when empty.
+	 */
+	public static final String BUILD_PROFILE_DIRECTORY = "BUILD_PROFILE_DIRECTORY"; //$NON-NLS-1$
+}
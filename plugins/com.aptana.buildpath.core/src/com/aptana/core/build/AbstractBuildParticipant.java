@@ -12,11 +12,11 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -31,6 +31,7 @@ import org.eclipse.core.runtime.content.IContentType;
 import org.eclipse.core.runtime.content.IContentTypeManager;
 import org.eclipse.core.runtime.preferences.IEclipsePreferences;
 import org.eclipse.core.runtime.preferences.IScopeContext;
+import org.osgi.framework.Bundle;
 import org.osgi.service.prefs.BackingStoreException;
 
 import com.aptana.buildpath.core.BuildPathCorePlugin;
@@ -39,6 +40,7 @@ import com.aptana.core.resources.TaskTag;
 import com.aptana.core.util.CollectionsUtil;
 import com.aptana.core.util.EclipseUtil;
 import com.aptana.core.util.StringUtil;
+import com.aptana.index.core.build.BuildContext;
 import com.aptana.parsing.ast.IParseNode;
 
 /**
@@ -51,6 +53,55 @@ import com.aptana.parsing.ast.IParseNode;
 public abstract class AbstractBuildParticipant implements IBuildParticipant, IExecutableExtension
 {
 
+	/**
+	 * What a participant does with files that look minified or are too large to handle in full (see
+	 * {@link BuildContext#isMinified()}).
+	 */
+	public enum MinifiedFilePolicy
+	{
+		/**
+		 * Build them like any other file
+		 */
+		BUILD,
+		/**
+		 * Only do the cheap part of the work, like indexing the top-level symbols
+		 */
+		TOP_LEVEL,
+		/**
+		 * Don't build them at all
+		 */
+		SKIP;
+
+		/**
+		 * Parses the value of the minifiedFiles extension attribute or preference: build, topLevel or skip.
+		 * 
+		 * @param value
+		 * @param defaultPolicy
+		 *            returned when the value is empty or unknown
+		 * @return
+		 */
+		public static MinifiedFilePolicy fromString(String value, MinifiedFilePolicy defaultPolicy)
+		{
+			if (!StringUtil.isEmpty(value))
+			{
+				for (MinifiedFilePolicy policy : values())
+				{
+					if (policy.toString().equalsIgnoreCase(value))
+					{
+						return policy;
+					}
+				}
+			}
+			return defaultPolicy;
+		}
+
+		@Override
+		public String toString()
+		{
+			return (this == TOP_LEVEL) ? "topLevel" : name().toLowerCase(); //$NON-NLS-1$
+		}
+	}
+
 	public static final String FILTER_DELIMITER = "####"; //$NON-NLS-1$
 	private static final Pattern filterSplitter = Pattern.compile(FILTER_DELIMITER);
 
@@ -64,19 +115,24 @@ public abstract class AbstractBuildParticipant implements IBuildParticipant, IEx
 	private static final String NAME = "name"; //$NON-NLS-1$
 	private static final String ID = "id"; //$NON-NLS-1$
 	private static final String ATTR_PRIORITY = "priority"; //$NON-NLS-1$
+	private static final String ATTR_THREAD_SAFE = "threadSafe"; //$NON-NLS-1$
+	private static final String ATTR_MINIFIED_FILES = "minifiedFiles"; //$NON-NLS-1$
 	public static final int DEFAULT_PRIORITY = 50;
 
 	private int fPriority = DEFAULT_PRIORITY;
 	private Set<IContentType> contentTypes = Collections.emptySet();
 	private String fId;
 	private String fName;
+	private boolean fThreadSafe;
+	private MinifiedFilePolicy fMinifiedFilePolicy = MinifiedFilePolicy.BUILD;
 	private String contributor;
 	private Set<String> projectNatures;
 
 	/**
-	 * We lazily compile the filters into {@link Pattern}s as we try to match them.
+	 * We lazily compile the filters into {@link Pattern}s as we try to match them. Thread-safe participants match
+	 * filters from several build threads at once; two of them compiling the same expression is harmless.
 	 */
-	private Map<String, Pattern> compiledFilters = new HashMap<String, Pattern>();
+	private Map<String, Pattern> compiledFilters = new ConcurrentHashMap<String, Pattern>();
 
 	public int getPriority()
 	{
@@ -107,6 +163,14 @@ public abstract class AbstractBuildParticipant implements IBuildParticipant, IEx
 		return false;
 	}
 
+	/**
+	 * Participants are assumed to keep per-file state unless their extension declares them as threadSafe.
+	 */
+	public boolean isThreadSafe()
+	{
+		return fThreadSafe;
+	}
+
 	public boolean isEnabled(BuildType type)
 	{
 		if (isRequired())
@@ -153,6 +217,7 @@ public abstract class AbstractBuildParticipant implements IBuildParticipant, IEx
 		prefs.remove(getEnablementPreferenceKey(BuildType.BUILD));
 		prefs.remove(getEnablementPreferenceKey(BuildType.RECONCILE));
 		prefs.remove(getFiltersPreferenceKey());
+		prefs.remove(getMinifiedFilePolicyPreferenceKey());
 		try
 		{
 			prefs.flush();
@@ -197,11 +262,89 @@ public abstract class AbstractBuildParticipant implements IBuildParticipant, IEx
 		}
 	}
 
+	/**
+	 * How this participant treats minified and oversized files. Defaults to the minifiedFiles attribute of the
+	 * participant's extension, which the user may override. Required participants always use the extension's value.
+	 * 
+	 * @return
+	 */
+	public MinifiedFilePolicy getMinifiedFilePolicy()
+	{
+		if (isRequired())
+		{
+			return fMinifiedFilePolicy;
+		}
+		String rawPolicy = Platform.getPreferencesService().getString(getPreferenceNode(),
+				getMinifiedFilePolicyPreferenceKey(), null,
+				new IScopeContext[] { EclipseUtil.instanceScope(), EclipseUtil.defaultScope() });
+		return MinifiedFilePolicy.fromString(rawPolicy, fMinifiedFilePolicy);
+	}
+
+	public void setMinifiedFilePolicy(IScopeContext context, MinifiedFilePolicy policy)
+	{
+		if (isRequired())
+		{
+			return;
+		}
+
+		IEclipsePreferences prefs = context.getNode(getPreferenceNode());
+		prefs.put(getMinifiedFilePolicyPreferenceKey(), policy.toString());
+		try
+		{
+			prefs.flush();
+		}
+		catch (BackingStoreException e)
+		{
+			IdeLog.logError(BuildPathCorePlugin.getDefault(), e);
+		}
+	}
+
+	/**
+	 * Determine if this participant should leave the file alone because it looks minified and the participant's
+	 * policy is to skip such files.
+	 * 
+	 * @param context
+	 * @return
+	 */
+	protected boolean isSkipped(BuildContext context)
+	{
+		return context != null && getMinifiedFilePolicy() == MinifiedFilePolicy.SKIP && context.isMinified();
+	}
+
+	/**
+	 * Returns a string capturing everything besides the contents of a file that affects the problems this participant
+	 * reports for it. Results cached for a file are only reused while this key stays the same. By default this covers
+	 * the version of the contributing plugin and the user's filters; subclasses with additional settings should append
+	 * them.
+	 * 
+	 * @return
+	 */
+	public String getOptionsKey()
+	{
+		StringBuilder key = new StringBuilder();
+		Bundle bundle = (contributor == null) ? null : Platform.getBundle(contributor);
+		if (bundle != null)
+		{
+			key.append(bundle.getVersion());
+		}
+		for (String filter : getFilters())
+		{
+			key.append(FILTER_DELIMITER).append(filter);
+		}
+		key.append(FILTER_DELIMITER).append(getMinifiedFilePolicy());
+		return key.toString();
+	}
+
 	protected String getFiltersPreferenceKey()
 	{
 		return MessageFormat.format("{0}_filters", getId()); //$NON-NLS-1$
 	}
 
+	protected String getMinifiedFilePolicyPreferenceKey()
+	{
+		return MessageFormat.format("{0}_minified_files", getId()); //$NON-NLS-1$
+	}
+
 	/**
 	 * The string id of the root preference node. Typically the contributing plugin's id. this is the qualifier we use
 	 * to search for pref values for this participant.
@@ -281,10 +424,20 @@ public abstract class AbstractBuildParticipant implements IBuildParticipant, IEx
 			text = text.toLowerCase();
 		}
 
-		String[] lines = StringUtil.LINE_SPLITTER.split(text);
 		Collection<IProblem> tasks = new ArrayList<IProblem>();
-		for (String line : lines)
+		int commentStart = commentNode.getStartingOffset() + initialOffset;
+		// Only look up the line the comment starts on when it holds a task, and only once
+		int commentLine = 0;
+
+		// Walk the lines of the comment keeping track of where each one starts, rather than searching for it
+		Matcher m = StringUtil.LINE_SPLITTER.matcher(text);
+		int lineIndex = 0;
+		int lineOfComment = 0;
+		while (lineIndex <= text.length())
 		{
+			boolean found = m.find();
+			int lineEnd = found ? m.start() : text.length();
+			String line = text.substring(lineIndex, lineEnd);
 			for (TaskTag entry : TaskTag.getTaskTags())
 			{
 				String tag = entry.getName();
@@ -304,12 +457,22 @@ public abstract class AbstractBuildParticipant implements IBuildParticipant, IEx
 				{
 					message = message.substring(0, message.length() - commentEnding.length()).trim();
 				}
+				if (commentLine == 0)
+				{
+					commentLine = getLineNumber(commentStart, source);
+				}
 				// Start of comment + index of line + index of tag on line + initial offset
-				int lineIndex = text.indexOf(line);
-				int start = commentNode.getStartingOffset() + lineIndex + index + initialOffset;
-				tasks.add(createTask(filePath, message, entry.getPriority(), getLineNumber(start, source), start, start
+				int start = commentStart + lineIndex + index;
+				int lineNumber = (commentLine == -1) ? -1 : commentLine + lineOfComment;
+				tasks.add(createTask(filePath, message, entry.getPriority(), lineNumber, start, start
 						+ message.length()));
 			}
+			if (!found)
+			{
+				break;
+			}
+			lineIndex = m.end();
+			lineOfComment++;
 		}
 		return tasks;
 	}
@@ -392,6 +555,9 @@ public abstract class AbstractBuildParticipant implements IBuildParticipant, IEx
 		}
 		this.fId = config.getAttribute(ID);
 		this.fName = config.getAttribute(NAME);
+		this.fThreadSafe = Boolean.parseBoolean(config.getAttribute(ATTR_THREAD_SAFE));
+		this.fMinifiedFilePolicy = MinifiedFilePolicy.fromString(config.getAttribute(ATTR_MINIFIED_FILES),
+				MinifiedFilePolicy.BUILD);
 		this.contributor = config.getContributor().getName();
 
 		// Read in the content types
@@ -0,0 +1,183 @@
+/**
+ * Aptana Studio
+ * Copyright (c) 2005-2012 by Appcelerator, Inc. All Rights Reserved.
+ * Licensed under the terms of the GNU Public License (GPL) v3 (with exceptions).
+ * Please see the license.html included with this distribution for details.
+ * Any modifications to this file must keep this entire header intact.
+ */
+package com.aptana.core.build;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+
+/**
+ * Keeps track of the files the user is working on, so the {@link UnifiedBuilder} can build them ahead of the rest of a
+ * project. Editors report the files they open and close, and ask for a file to be built as soon as possible when it
+ * gets saved. Files saved most recently come first, then files open in an editor, then everything else.
+ */
+public class BuildPriorities
+{
+	public static final int NORMAL = 0;
+	public static final int OPEN = 1;
+	public static final int URGENT = 2;
+
+	/**
+	 * Number of editors open on each file
+	 */
+	private final Map<IFile, Integer> fOpenFiles;
+
+	/**
+	 * Files waiting to be built as soon as possible, mapped to the order in which they were requested
+	 */
+	private final Map<IFile, Long> fUrgentFiles;
+	private long fModificationCount;
+
+	public BuildPriorities()
+	{
+		fOpenFiles = new HashMap<IFile, Integer>();
+		fUrgentFiles = new HashMap<IFile, Long>();
+	}
+
+	public synchronized void fileOpened(IFile file)
+	{
+		if (file == null)
+		{
+			return;
+		}
+		Integer count = fOpenFiles.get(file);
+		fOpenFiles.put(file, (count == null) ? 1 : count + 1);
+		fModificationCount++;
+	}
+
+	public synchronized void fileClosed(IFile file)
+	{
+		Integer count = fOpenFiles.get(file);
+		if (count == null)
+		{
+			return;
+		}
+		if (count <= 1)
+		{
+			fOpenFiles.remove(file);
+		}
+		else
+		{
+			fOpenFiles.put(file, count - 1);
+		}
+		fModificationCount++;
+	}
+
+	/**
+	 * Ask for the file to be built before anything else, including in a build that's already running. The request
+	 * holds until the file has been built.
+	 *
+	 * @param file
+	 */
+	public synchronized void prioritize(IFile file)
+	{
+		if (file == null)
+		{
+			return;
+		}
+		fModificationCount++;
+		fUrgentFiles.put(file, fModificationCount);
+	}
+
+	/**
+	 * Called by the builder once it starts building the file
+	 *
+	 * @param file
+	 */
+	public synchronized void fileBuilt(IFile file)
+	{
+		if (fUrgentFiles.remove(file) != null)
+		{
+			fModificationCount++;
+		}
+	}
+
+	/**
+	 * Called by the builder when the file has been deleted, so a pending request for it doesn't linger
+	 *
+	 * @param file
+	 */
+	public synchronized void fileRemoved(IFile file)
+	{
+		if (fUrgentFiles.remove(file) != null)
+		{
+			fModificationCount++;
+		}
+	}
+
+	/**
+	 * Called by the builder once it's done with a project. Requests for the project's files made before the build
+	 * started are dropped: the build either took care of them or had nothing to build for them. Requests for files that
+	 * no longer exist are dropped as well.
+	 *
+	 * @param project
+	 * @param modificationCount
+	 *            the {@link #getModificationCount()} from when the build started
+	 */
+	public synchronized void buildFinished(IProject project, long modificationCount)
+	{
+		boolean changed = false;
+		Iterator<Map.Entry<IFile, Long>> iterator = fUrgentFiles.entrySet().iterator();
+		while (iterator.hasNext())
+		{
+			Map.Entry<IFile, Long> entry = iterator.next();
+			IFile file = entry.getKey();
+			if ((entry.getValue() <= modificationCount && project.equals(file.getProject())) || !file.exists())
+			{
+				iterator.remove();
+				changed = true;
+			}
+		}
+		if (changed)
+		{
+			fModificationCount++;
+		}
+	}
+
+	/**
+	 * Returns {@link #URGENT}, {@link #OPEN} or {@link #NORMAL}
+	 *
+	 * @param file
+	 * @return
+	 */
+	public synchronized int getPriority(IFile file)
+	{
+		if (fUrgentFiles.containsKey(file))
+		{
+			return URGENT;
+		}
+		return fOpenFiles.containsKey(file) ? OPEN : NORMAL;
+	}
+
+	/**
+	 * Returns when the file was prioritized, relative to other prioritized files, or -1 if it isn't. Later requests
+	 * have larger values.
+	 *
+	 * @param file
+	 * @return
+	 */
+	public synchronized long getPrioritizedOrder(IFile file)
+	{
+		Long order = fUrgentFiles.get(file);
+		return (order == null) ? -1 : order;
+	}
+
+	/**
+	 * Incremented whenever the priority of any file changes, so a running build knows when to reorder the files it has
+	 * left.
+	 *
+	 * @return
+	 */
+	public synchronized long getModificationCount()
+	{
+		return fModificationCount;
+	}
+}
@@ -140,4 +140,13 @@ public interface IBuildParticipant
 	 * @return
 	 */
 	public boolean isEnabled(IProject project);
+
+	/**
+	 * Determine if {@link #buildFile(BuildContext, IProgressMonitor)} may be called for different files at the same
+	 * time from multiple threads. When every participant for a file is thread-safe, the builder is free to build that
+	 * file on a worker thread in parallel with others.
+	 * 
+	 * @return
+	 */
+	public boolean isThreadSafe();
 }
@@ -0,0 +1,31 @@
+/**
+ * Aptana Studio
+ * Copyright (c) 2005-2012 by Appcelerator, Inc. All Rights Reserved.
+ * Licensed under the terms of the Eclipse Public License (EPL).
+ * Please see the license-epl.html included with this distribution for details.
+ * Any modifications to this file must keep this entire header intact.
+ */
+package com.aptana.core.build;
+
+import java.util.Set;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.IProgressMonitor;
+
+/**
+ * Build participants that track dependencies between files implement this so incremental builds can rebuild the
+ * files affected by a change, not just the changed files themselves. After building the files in the resource delta,
+ * the builder asks every participant implementing this interface for dependents and builds those too, repeating until
+ * no new dependents turn up.
+ */
+public interface IDependentFileContributor
+{
+	/**
+	 * Returns the files that depend on the files built or deleted since the last call, and that need to be rebuilt
+	 * because something they depend on changed in a way that matters to them. Never returns null.
+	 * 
+	 * @param monitor
+	 * @return
+	 */
+	public Set<IFile> getDependentFiles(IProgressMonitor monitor);
+}
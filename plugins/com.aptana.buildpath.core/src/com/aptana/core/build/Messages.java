@@ -13,6 +13,8 @@ public class Messages extends NLS
 {
 	private static final String BUNDLE_NAME = "com.aptana.core.build.messages"; //$NON-NLS-1$
 	
+	public static String UnifiedBuilder_BuildingDependentFiles;
+	public static String UnifiedBuilder_BuildingInParallel;
 	public static String UnifiedBuilder_FinishedBuild;
 	public static String UnifiedBuilder_PerformingFullBuildNullDelta;
 	public static String UnifiedBuilder_PerformingFullBuld;
@@ -23,6 +23,7 @@ import com.aptana.buildpath.core.BuildPathCorePlugin;
 import com.aptana.core.util.IOUtil;
 import com.aptana.core.util.StringUtil;
 import com.aptana.index.core.build.BuildContext;
+import com.aptana.internal.index.core.ParseResultCache;
 
 /**
  * Special subclass of {@link BuildContext} that is used for reconciling. The contents/inputStream are attached to the
@@ -117,4 +118,14 @@ public class ReconcileContext extends BuildContext
 		return contentType;
 	}
 
+	/**
+	 * Editor contents change on every keystroke, so caching their trees would only fill the cache with intermediate
+	 * edits nobody will parse again.
+	 */
+	@Override
+	protected ParseResultCache getParseResultCache()
+	{
+		return null;
+	}
+
 }
@@ -7,14 +7,28 @@
  */
 package com.aptana.core.build;
 
+import java.io.File;
+import java.io.IOException;
 import java.net.URI;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.core.filesystem.EFS;
 import org.eclipse.core.filesystem.IFileStore;
@@ -33,15 +47,21 @@ import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.core.runtime.jobs.ISchedulingRule;
 
 import com.aptana.buildpath.core.BuildPathCorePlugin;
+import com.aptana.buildpath.core.IPreferenceConstants;
 import com.aptana.core.CorePlugin;
 import com.aptana.core.IDebugScopes;
 import com.aptana.core.IFilter;
 import com.aptana.core.IMap;
 import com.aptana.core.build.IBuildParticipant.BuildType;
+import com.aptana.core.internal.build.BuildProfile;
+import com.aptana.core.internal.build.ProblemCache;
 import com.aptana.core.logging.IdeLog;
 import com.aptana.core.resources.IMarkerConstants;
 import com.aptana.core.util.ArrayUtil;
@@ -59,6 +79,37 @@ public class UnifiedBuilder extends IncrementalProjectBuilder
 
 	public static final String ID = "com.aptana.ide.core.unifiedBuilder"; //$NON-NLS-1$
 
+	/**
+	 * Builds of fewer files than this aren't worth spinning up worker threads for
+	 */
+	private static final int PARALLEL_BUILD_THRESHOLD = 10;
+
+	/**
+	 * The number of built files whose markers we collect before applying them in a single workspace operation
+	 */
+	private static final int MARKER_BATCH_SIZE = 50;
+
+	/**
+	 * The longest we hold on to the problems of built files before applying them, in milliseconds. Keeps markers
+	 * trickling in when individual files take a long time to build.
+	 */
+	private static final long MARKER_BATCH_INTERVAL = 500;
+
+	/**
+	 * How long the builder thread waits for a worker to finish a file before checking for cancellation again
+	 */
+	private static final long WORKER_POLL_INTERVAL = 100;
+
+	/**
+	 * The number of participants and files listed in the summary of a build profile
+	 */
+	private static final int BUILD_PROFILE_SUMMARY_SIZE = 10;
+
+	/**
+	 * Collects timings for the build in progress when profiling is enabled, null otherwise
+	 */
+	private BuildProfile fProfile;
+
 	public UnifiedBuilder()
 	{
 	}
@@ -138,38 +189,61 @@ public class UnifiedBuilder extends IncrementalProjectBuilder
 		// in sub-methods. We do pre- and post- setups on them, so we need to retain instances.
 		List<IBuildParticipant> participants = getBuildParticipantManager().getAllBuildParticipants();
 		participants = filterToEnabled(participants, project);
-		buildStarting(participants, kind, sub.newChild(10));
-
-		if (kind == IncrementalProjectBuilder.FULL_BUILD)
-		{
-			if (logTraceEnabled)
-			{
-				logTrace(MessageFormat.format(Messages.UnifiedBuilder_PerformingFullBuld, projectName));
-			}
-			fullBuild(participants, sub.newChild(80));
-		}
-		else
+		File profileLocation = getBuildProfileLocation();
+		fProfile = (profileLocation == null) ? null : new BuildProfile(projectName);
+		BuildPriorities priorities = getBuildPriorities();
+		long prioritiesCount = (priorities == null) ? 0 : priorities.getModificationCount();
+		try
 		{
-			IResourceDelta delta = getResourceDelta();
-			if (delta == null)
+			buildStarting(participants, kind, sub.newChild(10));
+
+			if (kind == IncrementalProjectBuilder.FULL_BUILD)
 			{
 				if (logTraceEnabled)
 				{
-					logTrace(MessageFormat.format(Messages.UnifiedBuilder_PerformingFullBuildNullDelta, projectName));
+					logTrace(MessageFormat.format(Messages.UnifiedBuilder_PerformingFullBuld, projectName));
 				}
 				fullBuild(participants, sub.newChild(80));
 			}
 			else
 			{
-				if (logTraceEnabled)
+				IResourceDelta delta = getResourceDelta();
+				if (delta == null)
 				{
-					logTrace(MessageFormat.format(Messages.UnifiedBuilder_PerformingIncrementalBuild, projectName));
+					if (logTraceEnabled)
+					{
+						logTrace(MessageFormat.format(Messages.UnifiedBuilder_PerformingFullBuildNullDelta,
+								projectName));
+					}
+					fullBuild(participants, sub.newChild(80));
+				}
+				else
+				{
+					if (logTraceEnabled)
+					{
+						logTrace(MessageFormat.format(Messages.UnifiedBuilder_PerformingIncrementalBuild,
+								projectName));
+					}
+					incrementalBuild(participants, delta, sub.newChild(80));
 				}
-				incrementalBuild(participants, delta, sub.newChild(80));
 			}
-		}
 
-		buildEnding(participants, sub.newChild(10));
+			// only forget the requests we served if the build wasn't cut short
+			if (priorities != null)
+			{
+				priorities.buildFinished(project, prioritiesCount);
+			}
+		}
+		finally
+		{
+			// participants clean up whatever they set up, even when the build is canceled
+			buildEnding(participants, sub.newChild(10));
+			if (fProfile != null)
+			{
+				saveBuildProfile(fProfile, profileLocation);
+				fProfile = null;
+			}
+		}
 
 		if (logTraceEnabled)
 		{
@@ -179,6 +253,32 @@ public class UnifiedBuilder extends IncrementalProjectBuilder
 		return null;
 	}
 
+	/**
+	 * Returns the directory to write build profile reports to, or null if builds shouldn't be profiled
+	 * 
+	 * @return
+	 */
+	protected File getBuildProfileLocation()
+	{
+		BuildPathCorePlugin plugin = BuildPathCorePlugin.getDefault();
+		return (plugin == null) ? null : plugin.getBuildProfileLocation();
+	}
+
+	private void saveBuildProfile(BuildProfile profile, File location)
+	{
+		profile.buildFinished();
+		IdeLog.logInfo(BuildPathCorePlugin.getDefault(), profile.getSummary(BUILD_PROFILE_SUMMARY_SIZE),
+				IDebugScopes.BUILDER);
+		try
+		{
+			profile.save(location);
+		}
+		catch (IOException e)
+		{
+			IdeLog.logError(BuildPathCorePlugin.getDefault(), "Error writing build profile", e); //$NON-NLS-1$
+		}
+	}
+
 	protected boolean traceLoggingEnabled()
 	{
 		return IdeLog.isTraceEnabled(CorePlugin.getDefault(), IDebugScopes.BUILDER);
@@ -226,10 +326,13 @@ public class UnifiedBuilder extends IncrementalProjectBuilder
 			delta.accept(collector);
 
 			// Notify of the removed files
-			removeFiles(participants, collector.removedFiles, sub.newChild(25));
+			removeFiles(participants, collector.removedFiles, sub.newChild(20));
 
 			// Now build the new/updated files
-			buildFiles(participants, collector.updatedFiles, sub.newChild(75));
+			buildFiles(participants, collector.updatedFiles, sub.newChild(60));
+
+			// And finally the files depending on what we just built
+			buildDependentFiles(participants, collector.updatedFiles, sub.newChild(20));
 		}
 		catch (CoreException e)
 		{
@@ -237,6 +340,57 @@ public class UnifiedBuilder extends IncrementalProjectBuilder
 		}
 	}
 
+	/**
+	 * Rebuilds the files participants report as depending on the files built so far, until there are no new
+	 * dependents. Every file is built at most once per build.
+	 * 
+	 * @param participants
+	 * @param builtFiles
+	 * @param monitor
+	 * @throws CoreException
+	 */
+	private void buildDependentFiles(List<IBuildParticipant> participants, Set<IFile> builtFiles,
+			IProgressMonitor monitor) throws CoreException
+	{
+		SubMonitor sub = SubMonitor.convert(monitor, 100);
+		Set<IFile> built = new HashSet<IFile>(builtFiles);
+		Set<IFile> dependents = getDependentFiles(participants, built, sub.newChild(10));
+		while (!dependents.isEmpty() && !sub.isCanceled())
+		{
+			if (traceLoggingEnabled())
+			{
+				logTrace(MessageFormat.format(Messages.UnifiedBuilder_BuildingDependentFiles, dependents.size(),
+						getProjectHandle().getName()));
+			}
+			built.addAll(dependents);
+			buildFiles(participants, dependents, sub.newChild(60));
+			sub.setWorkRemaining(100);
+			dependents = getDependentFiles(participants, built, sub.newChild(10));
+		}
+		sub.done();
+	}
+
+	private Set<IFile> getDependentFiles(List<IBuildParticipant> participants, Set<IFile> built,
+			IProgressMonitor monitor)
+	{
+		SubMonitor sub = SubMonitor.convert(monitor, participants.size());
+		Set<IFile> result = new HashSet<IFile>();
+		for (IBuildParticipant participant : participants)
+		{
+			if (participant instanceof IDependentFileContributor)
+			{
+				result.addAll(((IDependentFileContributor) participant).getDependentFiles(sub.newChild(1)));
+			}
+			else
+			{
+				sub.worked(1);
+			}
+		}
+		result.removeAll(built);
+		sub.done();
+		return result;
+	}
+
 	private void removeFiles(List<IBuildParticipant> participants, Set<IFile> filesToRemoveFromIndex,
 			IProgressMonitor monitor) throws CoreException
 	{
@@ -245,9 +399,14 @@ public class UnifiedBuilder extends IncrementalProjectBuilder
 			return;
 		}
 
+		BuildPriorities priorities = getBuildPriorities();
 		SubMonitor sub = SubMonitor.convert(monitor, 16 * filesToRemoveFromIndex.size());
 		for (IFile file : filesToRemoveFromIndex)
 		{
+			if (priorities != null)
+			{
+				priorities.fileRemoved(file);
+			}
 			BuildContext context = new BuildContext(file);
 			sub.worked(1);
 			List<IBuildParticipant> filteredParticipants = getBuildParticipantManager().filterParticipants(
@@ -265,10 +424,18 @@ public class UnifiedBuilder extends IncrementalProjectBuilder
 			return;
 		}
 
+		BuildProfile profile = fProfile;
+		String contentType = (profile == null) ? null : getContentType(context);
+		String path = (profile == null) ? null : getPath(context);
 		SubMonitor sub = SubMonitor.convert(monitor, participants.size());
 		for (IBuildParticipant participant : participants)
 		{
+			BuildProfile.Sample start = (profile == null) ? null : profile.start();
 			participant.deleteFile(context, sub.newChild(1));
+			if (profile != null)
+			{
+				profile.record(participant.getId(), contentType, path, start);
+			}
 		}
 		sub.done();
 	}
@@ -419,17 +586,38 @@ public class UnifiedBuilder extends IncrementalProjectBuilder
 			return;
 		}
 
+		int workers = getWorkerCount(files.size());
+		if (workers > 1)
+		{
+			doBuildFilesInParallel(participants, files, workers, monitor);
+			return;
+		}
+
 		SubMonitor sub = SubMonitor.convert(monitor, 15 * files.size());
-		for (IFile file : files)
+		MarkerUpdateQueue markers = new MarkerUpdateQueue();
+		FileQueue queue = new FileQueue(files, getBuildPriorities());
+		while (queue.hasNext())
 		{
-			BuildContext context = new BuildContext(file);
+			BuildContext context = new BuildContext(queue.next());
 			sub.worked(1);
 
 			List<IBuildParticipant> filteredParticipants = getBuildParticipantManager().filterParticipants(
 					participants, context.getContentType());
 			sub.worked(2);
 
-			buildFile(context, filteredParticipants, sub.newChild(12));
+			if (CollectionsUtil.isEmpty(filteredParticipants))
+			{
+				sub.worked(10);
+			}
+			else
+			{
+				runParticipants(context, applyCachedProblems(context, filteredParticipants), sub.newChild(10));
+				markers.add(context);
+			}
+			if (markers.isFull())
+			{
+				markers.flush(sub.newChild(2 * markers.size()));
+			}
 
 			// stop building if canceled
 			if (sub.isCanceled())
@@ -437,9 +625,241 @@ public class UnifiedBuilder extends IncrementalProjectBuilder
 				break;
 			}
 		}
+		// Whatever got built before a cancel still gets its markers
+		markers.flush(sub.newChild(2 * markers.size()));
 		sub.done();
 	}
 
+	/**
+	 * Returns the number of worker threads to use when building the given number of files. A value less than two means
+	 * the files should be built serially on the builder thread.
+	 * 
+	 * @param fileCount
+	 * @return
+	 */
+	protected int getWorkerCount(int fileCount)
+	{
+		if (fileCount < PARALLEL_BUILD_THRESHOLD)
+		{
+			return 1;
+		}
+
+		boolean enabled = Platform.getPreferencesService().getBoolean(BuildPathCorePlugin.PLUGIN_ID,
+				IPreferenceConstants.PARALLEL_BUILD_ENABLED, true, null);
+		if (!enabled)
+		{
+			return 1;
+		}
+
+		int processors = Runtime.getRuntime().availableProcessors();
+		int threads = Platform.getPreferencesService().getInt(BuildPathCorePlugin.PLUGIN_ID,
+				IPreferenceConstants.PARALLEL_BUILD_THREADS, 0, null);
+		return (threads > 0) ? Math.min(threads, processors) : processors;
+	}
+
+	/**
+	 * Builds the files using a bounded pool of worker threads. The participants of each file which declare themselves
+	 * thread-safe are handed to the workers, the others run on the builder thread first, so a file's context is only
+	 * ever used by one thread at a time. Markers are not touched by the workers; problems are collected and applied in
+	 * batches, each inside a single workspace operation run from the builder thread.
+	 * 
+	 * @param participants
+	 * @param files
+	 * @param workers
+	 * @param monitor
+	 */
+	private void doBuildFilesInParallel(List<IBuildParticipant> participants, Collection<IFile> files, int workers,
+			IProgressMonitor monitor)
+	{
+		if (traceLoggingEnabled())
+		{
+			logTrace(MessageFormat.format(Messages.UnifiedBuilder_BuildingInParallel, files.size(), getProjectHandle()
+					.getName(), workers));
+		}
+
+		SubMonitor sub = SubMonitor.convert(monitor, 15 * files.size());
+		// workers only get to see whether the build has been canceled, progress is reported from this thread
+		final IProgressMonitor workerMonitor = new CancelationMonitor(sub);
+		ExecutorService executor = Executors.newFixedThreadPool(workers, new ThreadFactory()
+		{
+			public Thread newThread(Runnable r)
+			{
+				Thread thread = new Thread(r, "Unified builder worker"); //$NON-NLS-1$
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		CompletionService<BuildContext> completion = new ExecutorCompletionService<BuildContext>(executor);
+		MarkerUpdateQueue markers = new MarkerUpdateQueue();
+
+		// don't queue up more files than the workers can chew on, so we don't hold on to all the contexts at once
+		int maxPending = 2 * workers;
+		int pending = 0;
+
+		FileQueue queue = new FileQueue(files, getBuildPriorities());
+
+		try
+		{
+			while (queue.hasNext())
+			{
+				if (sub.isCanceled())
+				{
+					break;
+				}
+
+				final BuildContext context = new BuildContext(queue.next());
+				sub.worked(1);
+
+				final List<IBuildParticipant> filteredParticipants = getBuildParticipantManager().filterParticipants(
+						participants, context.getContentType());
+				sub.worked(2);
+
+				if (CollectionsUtil.isEmpty(filteredParticipants))
+				{
+					sub.worked(12);
+				}
+				else
+				{
+					final List<IBuildParticipant> threadSafe = new ArrayList<IBuildParticipant>();
+					List<IBuildParticipant> serial = new ArrayList<IBuildParticipant>();
+					for (IBuildParticipant participant : applyCachedProblems(context, filteredParticipants))
+					{
+						if (participant.isThreadSafe())
+						{
+							threadSafe.add(participant);
+						}
+						else
+						{
+							serial.add(participant);
+						}
+					}
+
+					if (!serial.isEmpty())
+					{
+						runParticipants(context, serial, sub.newChild(threadSafe.isEmpty() ? 10 : 0));
+					}
+					if (threadSafe.isEmpty())
+					{
+						markers.add(context);
+					}
+					else
+					{
+						while (pending >= maxPending && !sub.isCanceled())
+						{
+							pending -= collectBuiltFiles(completion, markers, sub, true);
+						}
+						if (sub.isCanceled())
+						{
+							break;
+						}
+						completion.submit(new Callable<BuildContext>()
+						{
+							public BuildContext call() throws Exception
+							{
+								runParticipants(context, threadSafe, workerMonitor);
+								return context;
+							}
+						});
+						pending++;
+					}
+				}
+
+				pending -= collectBuiltFiles(completion, markers, sub, false);
+				if (markers.isFull())
+				{
+					markers.flush(sub.newChild(2 * markers.size()));
+				}
+			}
+
+			// wait for the workers to finish up
+			while (pending > 0 && !sub.isCanceled())
+			{
+				pending -= collectBuiltFiles(completion, markers, sub, true);
+				if (markers.isFull())
+				{
+					markers.flush(sub.newChild(2 * markers.size()));
+				}
+			}
+
+			// Whatever got built before a cancel still gets its markers, just like in a serial build
+			markers.flush(sub.newChild(2 * markers.size()));
+		}
+		finally
+		{
+			executor.shutdownNow();
+			awaitWorkers(executor);
+			sub.done();
+		}
+	}
+
+	/**
+	 * Waits for the workers to be done with the file they're building, so no participant is still building a file
+	 * when we tell it the build is ending. Interrupting the builder thread doesn't cut this short, it's only passed on
+	 * once the workers are gone.
+	 * 
+	 * @param executor
+	 */
+	private void awaitWorkers(ExecutorService executor)
+	{
+		boolean interrupted = false;
+		while (!executor.isTerminated())
+		{
+			try
+			{
+				executor.awaitTermination(WORKER_POLL_INTERVAL, TimeUnit.MILLISECONDS);
+			}
+			catch (InterruptedException e)
+			{
+				interrupted = true;
+			}
+		}
+		if (interrupted)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Queue up the marker updates of the files the workers have finished building.
+	 * 
+	 * @param completion
+	 * @param markers
+	 * @param monitor
+	 * @param wait
+	 *            Whether to wait a little while for a worker to finish when none has finished yet
+	 * @return the number of files that were finished
+	 */
+	private int collectBuiltFiles(CompletionService<BuildContext> completion, MarkerUpdateQueue markers,
+			IProgressMonitor monitor, boolean wait)
+	{
+		int count = 0;
+		try
+		{
+			Future<BuildContext> future = wait ? completion.poll(WORKER_POLL_INTERVAL, TimeUnit.MILLISECONDS)
+					: completion.poll();
+			while (future != null)
+			{
+				count++;
+				try
+				{
+					markers.add(future.get());
+				}
+				catch (ExecutionException e)
+				{
+					IdeLog.logError(BuildPathCorePlugin.getDefault(), e.getCause());
+				}
+				monitor.worked(10);
+				future = completion.poll();
+			}
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new OperationCanceledException();
+		}
+		return count;
+	}
+
 	/**
 	 * FIXME This is a holy hell of a mess! We map from IFiles to IFileStores, then filter on that, then map back! Can't
 	 * we make the IIndexFilterParticipants also operate on IFiles? It seems like the only impl does anyways.
@@ -515,9 +935,35 @@ public class UnifiedBuilder extends IncrementalProjectBuilder
 		}
 
 		SubMonitor sub = SubMonitor.convert(monitor, 2 * participants.size());
+		runParticipants(context, applyCachedProblems(context, participants), sub.newChild(participants.size()));
+		updateMarkers(context, sub.newChild(participants.size()));
+		sub.done();
+	}
+
+	private void runParticipants(BuildContext context, List<IBuildParticipant> participants, IProgressMonitor monitor)
+	{
+		ProblemCache cache = getProblemCache();
+		BuildProfile profile = fProfile;
+		String contentType = (profile == null) ? null : getContentType(context);
+		String path = (profile == null) ? null : getPath(context);
+		// a file's participants may be run in two goes, so only count the parsing done in this one
+		long parseTime = (profile == null) ? 0 : context.getParseTime();
+		SubMonitor sub = SubMonitor.convert(monitor, participants.size());
 		for (IBuildParticipant participant : participants)
 		{
-			participant.buildFile(context, sub.newChild(1));
+			BuildProfile.Sample start = (profile == null) ? null : profile.start();
+			if (cache == null)
+			{
+				participant.buildFile(context, sub.newChild(1));
+			}
+			else
+			{
+				buildFile(participant, context, cache, sub.newChild(1));
+			}
+			if (profile != null)
+			{
+				profile.record(participant.getId(), contentType, path, start);
+			}
 
 			// stop building if it has been canceled
 			if (sub.isCanceled())
@@ -525,10 +971,36 @@ public class UnifiedBuilder extends IncrementalProjectBuilder
 				break;
 			}
 		}
-		updateMarkers(context, sub.newChild(participants.size()));
+		if (profile != null)
+		{
+			profile.recordParse(contentType, path, context.getParseTime() - parseTime);
+		}
 		sub.done();
 	}
 
+	private static String getContentType(BuildContext context)
+	{
+		try
+		{
+			return context.getContentType();
+		}
+		catch (CoreException e)
+		{
+			return null;
+		}
+	}
+
+	private static String getPath(BuildContext context)
+	{
+		IFile file = context.getFile();
+		if (file != null)
+		{
+			return file.getFullPath().toString();
+		}
+		URI uri = context.getURI();
+		return (uri == null) ? context.getName() : uri.toString();
+	}
+
 	private void updateMarkers(BuildContext context, IProgressMonitor monitor)
 	{
 		final IFile file = context.getFile();
@@ -557,6 +1029,148 @@ public class UnifiedBuilder extends IncrementalProjectBuilder
 		}
 	}
 
+	/**
+	 * Hands the context the problems participants reported for the same contents and settings in an earlier build,
+	 * and returns the participants which still have to build the file. The participants whose problems came from the
+	 * cache are marked as skipped on the context, so the others don't prepare work for them.
+	 * 
+	 * @param context
+	 * @param participants
+	 * @return
+	 */
+	private List<IBuildParticipant> applyCachedProblems(BuildContext context, List<IBuildParticipant> participants)
+	{
+		ProblemCache cache = getProblemCache();
+		if (cache == null)
+		{
+			return participants;
+		}
+
+		List<IBuildParticipant> remaining = new ArrayList<IBuildParticipant>(participants.size());
+		for (IBuildParticipant participant : participants)
+		{
+			// Required participants do more than report problems (i.e. indexing), so they always have to run
+			if (participant.isRequired() || !(participant instanceof AbstractBuildParticipant))
+			{
+				remaining.add(participant);
+				continue;
+			}
+
+			String optionsKey = ((AbstractBuildParticipant) participant).getOptionsKey();
+			URI uri = context.getURI();
+			Map<String, Collection<IProblem>> cached = cache.get(participant.getId(), optionsKey,
+					context.getContents(), (uri == null) ? null : uri.toString());
+			if (cached == null)
+			{
+				remaining.add(participant);
+				continue;
+			}
+
+			for (Map.Entry<String, Collection<IProblem>> entry : cached.entrySet())
+			{
+				context.putProblems(entry.getKey(), entry.getValue());
+			}
+			context.skipParticipant(participant.getId());
+		}
+		return remaining;
+	}
+
+	/**
+	 * Runs a single participant on the file, and caches the problems it reports so the next build of the same
+	 * contents and settings can skip it.
+	 * 
+	 * @param participant
+	 * @param context
+	 * @param cache
+	 * @param monitor
+	 */
+	private void buildFile(IBuildParticipant participant, BuildContext context, ProblemCache cache,
+			IProgressMonitor monitor)
+	{
+		if (participant.isRequired() || !(participant instanceof AbstractBuildParticipant))
+		{
+			participant.buildFile(context, monitor);
+			return;
+		}
+
+		// Remember what was there before, so we can tell which marker types this participant reported
+		Map<String, Collection<IProblem>> before = new HashMap<String, Collection<IProblem>>(context.getProblems());
+		participant.buildFile(context, monitor);
+		if (monitor.isCanceled())
+		{
+			// the participant may have bailed out early
+			return;
+		}
+
+		Map<String, Collection<IProblem>> reported = new HashMap<String, Collection<IProblem>>();
+		for (Map.Entry<String, Collection<IProblem>> entry : context.getProblems().entrySet())
+		{
+			if (!before.containsKey(entry.getKey()) || before.get(entry.getKey()) != entry.getValue())
+			{
+				reported.put(entry.getKey(), entry.getValue());
+			}
+		}
+		String optionsKey = ((AbstractBuildParticipant) participant).getOptionsKey();
+		cache.put(participant.getId(), optionsKey, context.getContents(), reported);
+	}
+
+	protected BuildPriorities getBuildPriorities()
+	{
+		BuildPathCorePlugin plugin = BuildPathCorePlugin.getDefault();
+		return (plugin == null) ? null : plugin.getBuildPriorities();
+	}
+
+	protected ProblemCache getProblemCache()
+	{
+		BuildPathCorePlugin plugin = BuildPathCorePlugin.getDefault();
+		return (plugin == null) ? null : plugin.getProblemCache();
+	}
+
+	/**
+	 * Applies the problems of several built files inside a single workspace operation, so we only fire one round of
+	 * resource change events for the whole batch.
+	 * 
+	 * @param contexts
+	 * @param monitor
+	 */
+	private void updateMarkers(List<BuildContext> contexts, IProgressMonitor monitor)
+	{
+		if (CollectionsUtil.isEmpty(contexts))
+		{
+			return;
+		}
+
+		final List<BuildContext> batch = new ArrayList<BuildContext>(contexts);
+		IWorkspaceRunnable runnable = new IWorkspaceRunnable()
+		{
+			public void run(IProgressMonitor monitor)
+			{
+				SubMonitor sub = SubMonitor.convert(monitor, batch.size());
+				for (BuildContext context : batch)
+				{
+					Map<String, Collection<IProblem>> itemsByType = context.getProblems();
+					if (CollectionsUtil.isEmpty(itemsByType))
+					{
+						sub.worked(1);
+						continue;
+					}
+					updateMarkers(context.getFile(), itemsByType, sub.newChild(1));
+				}
+				sub.done();
+			}
+		};
+
+		try
+		{
+			ResourcesPlugin.getWorkspace().run(runnable, getMarkerRule(getProjectHandle()), IWorkspace.AVOID_UPDATE,
+					monitor);
+		}
+		catch (CoreException e)
+		{
+			IdeLog.logError(BuildPathCorePlugin.getDefault(), "Error updating markers", e); //$NON-NLS-1$
+		}
+	}
+
 	/**
 	 * @param resource
 	 * @return
@@ -580,12 +1194,18 @@ public class UnifiedBuilder extends IncrementalProjectBuilder
 		}
 		SubMonitor sub = SubMonitor.convert(monitor, itemsByType.size() * 10);
 
-		// FIXME Do a diff like we do in ValidationManager!
 		for (String markerType : itemsByType.keySet())
 		{
 			try
 			{
 				Collection<IProblem> newItems = itemsByType.get(markerType);
+				if (isUnchanged(file.findMarkers(markerType, false, IResource.DEPTH_INFINITE), newItems))
+				{
+					// Don't churn markers (and fire resource change events) when the problems are the same as last time
+					sub.worked(10);
+					continue;
+				}
+
 				// deletes the old markers
 				file.deleteMarkers(markerType, false, IResource.DEPTH_INFINITE);
 				sub.worked(1);
@@ -601,6 +1221,44 @@ public class UnifiedBuilder extends IncrementalProjectBuilder
 		sub.done();
 	}
 
+	/**
+	 * Determine if the existing markers are exactly what we'd create for the given problems
+	 * 
+	 * @param markers
+	 * @param items
+	 * @return
+	 * @throws CoreException
+	 */
+	private boolean isUnchanged(IMarker[] markers, Collection<IProblem> items) throws CoreException
+	{
+		int markerCount = (markers == null) ? 0 : markers.length;
+		int itemCount = (items == null) ? 0 : items.size();
+		if (markerCount != itemCount)
+		{
+			return false;
+		}
+		if (markerCount == 0)
+		{
+			return true;
+		}
+
+		List<Map<String, Object>> attributes = new ArrayList<Map<String, Object>>(itemCount);
+		for (IProblem item : items)
+		{
+			attributes.add(item.createMarkerAttributes());
+		}
+		for (IMarker marker : markers)
+		{
+			Map<String, Object> existing = marker.getAttributes();
+			// copy so we compare by content, whatever map implementation the marker hands back
+			if (existing == null || !attributes.remove(new HashMap<String, Object>(existing)))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
 	private void addMarkers(Collection<IProblem> items, String markerType, IFile file, IProgressMonitor monitor)
 			throws CoreException
 	{
@@ -619,6 +1277,147 @@ public class UnifiedBuilder extends IncrementalProjectBuilder
 		sub.done();
 	}
 
+	/**
+	 * Collects the problems of built files and applies them to markers in batches, once enough files have piled up or
+	 * enough time has passed since the last batch was applied. Only used from the builder thread.
+	 */
+	private class MarkerUpdateQueue
+	{
+		private final List<BuildContext> fContexts = new ArrayList<BuildContext>(MARKER_BATCH_SIZE);
+		private long fLastFlush = System.currentTimeMillis();
+
+		void add(BuildContext context)
+		{
+			fContexts.add(context);
+		}
+
+		int size()
+		{
+			return fContexts.size();
+		}
+
+		boolean isFull()
+		{
+			return fContexts.size() >= MARKER_BATCH_SIZE
+					|| (!fContexts.isEmpty() && System.currentTimeMillis() - fLastFlush >= MARKER_BATCH_INTERVAL);
+		}
+
+		void flush(IProgressMonitor monitor)
+		{
+			updateMarkers(fContexts, monitor);
+			fContexts.clear();
+			fLastFlush = System.currentTimeMillis();
+		}
+	}
+
+	/**
+	 * The files left to build, in the order we want to build them: files saved while building first, then files open in
+	 * editors, then the most recently modified files. Priority changes made while the build is running reorder the files
+	 * that haven't been built yet.
+	 */
+	private static class FileQueue
+	{
+		private final BuildPriorities fPriorities;
+		private final List<IFile> fFiles;
+		private final Map<IFile, Long> fTimeStamps;
+		private long fModificationCount;
+		private int fIndex;
+
+		private FileQueue(Collection<IFile> files, BuildPriorities priorities)
+		{
+			fPriorities = priorities;
+			fFiles = new ArrayList<IFile>(files);
+			fTimeStamps = new HashMap<IFile, Long>(files.size());
+			for (IFile file : fFiles)
+			{
+				fTimeStamps.put(file, file.getLocalTimeStamp());
+			}
+			sort();
+		}
+
+		private boolean hasNext()
+		{
+			return fIndex < fFiles.size();
+		}
+
+		private IFile next()
+		{
+			if (fPriorities != null && fPriorities.getModificationCount() != fModificationCount)
+			{
+				sort();
+			}
+			IFile file = fFiles.get(fIndex++);
+			if (fPriorities != null)
+			{
+				fPriorities.fileBuilt(file);
+			}
+			return file;
+		}
+
+		private void sort()
+		{
+			List<IFile> remaining = fFiles.subList(fIndex, fFiles.size());
+			// Look the priorities up once per file rather than on every comparison. Besides being cheaper, it keeps
+			// the ordering consistent while editors keep changing the priorities underneath us
+			final Map<IFile, Integer> priorities = new HashMap<IFile, Integer>(remaining.size());
+			final Map<IFile, Long> orders = new HashMap<IFile, Long>(remaining.size());
+			if (fPriorities != null)
+			{
+				fModificationCount = fPriorities.getModificationCount();
+				for (IFile file : remaining)
+				{
+					priorities.put(file, fPriorities.getPriority(file));
+					orders.put(file, fPriorities.getPrioritizedOrder(file));
+				}
+			}
+			Collections.sort(remaining, new Comparator<IFile>()
+			{
+				public int compare(IFile f1, IFile f2)
+				{
+					if (fPriorities != null)
+					{
+						int result = compare(priorities.get(f2), priorities.get(f1));
+						if (result != 0)
+						{
+							return result;
+						}
+						result = compare(orders.get(f2), orders.get(f1));
+						if (result != 0)
+						{
+							return result;
+						}
+					}
+					return compare(fTimeStamps.get(f2), fTimeStamps.get(f1));
+				}
+
+				private int compare(long l1, long l2)
+				{
+					return (l1 < l2) ? -1 : ((l1 == l2) ? 0 : 1);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Hands out the cancelation state of the build to worker threads. Progress monitors in general are not thread-safe,
+	 * so work reported by participants on worker threads is dropped; the builder thread accounts for it instead.
+	 */
+	private static class CancelationMonitor extends NullProgressMonitor
+	{
+		private final IProgressMonitor fBuildMonitor;
+
+		private CancelationMonitor(IProgressMonitor buildMonitor)
+		{
+			fBuildMonitor = buildMonitor;
+		}
+
+		@Override
+		public boolean isCanceled()
+		{
+			return super.isCanceled() || fBuildMonitor.isCanceled();
+		}
+	}
+
 	/**
 	 * Collects all files with infinite depth. Used to grab all files inside an {@link IProject} for full builds.
 	 * 
@@ -0,0 +1,539 @@
+/**
+ * Aptana Studio
+ * Copyright (c) 2005-2012 by Appcelerator, Inc. All Rights Reserved.
+ * Licensed under the terms of the Eclipse Public License (EPL).
+ * Please see the license-epl.html included with this distribution for details.
+ * Any modifications to this file must keep this entire header intact.
+ */
+package com.aptana.core.internal.build;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.aptana.core.util.StringUtil;
+
+/**
+ * Collects the time spent by build participants during a single build of a project. Wall time, CPU time and allocated
+ * bytes are recorded for every participant run on a file and aggregated by participant, by content type and by file.
+ * Parse times are tracked separately per file; note they are also included in the time of whichever participant
+ * happened to ask for the AST first. CPU time and allocated bytes are measured on the current thread and are reported
+ * as -1 when the VM can't provide them. All recording methods may be called from several build threads at once.
+ */
+public class BuildProfile
+{
+	private static final String UTF_8 = "UTF-8"; //$NON-NLS-1$
+	private static final String CSV_EXTENSION = ".csv"; //$NON-NLS-1$
+	private static final String JSON_EXTENSION = ".json"; //$NON-NLS-1$
+
+	private static final String TOTAL = "total"; //$NON-NLS-1$
+	private static final String PARTICIPANT = "participant"; //$NON-NLS-1$
+	private static final String CONTENT_TYPE = "contentType"; //$NON-NLS-1$
+	private static final String FILE = "file"; //$NON-NLS-1$
+
+	private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+	private static final Method GET_ALLOCATED_BYTES = getAllocatedBytesMethod();
+
+	/**
+	 * Aggregated measurements, in nanoseconds and bytes
+	 */
+	public static class Timing
+	{
+		private int count;
+		private long wallTime;
+		private long cpuTime;
+		private long allocatedBytes;
+		private long parseTime;
+
+		private void add(long wall, long cpu, long allocated)
+		{
+			count++;
+			wallTime += wall;
+			cpuTime = (cpuTime < 0 || cpu < 0) ? -1 : cpuTime + cpu;
+			allocatedBytes = (allocatedBytes < 0 || allocated < 0) ? -1 : allocatedBytes + allocated;
+		}
+
+		public int getCount()
+		{
+			return count;
+		}
+
+		public long getWallTime()
+		{
+			return wallTime;
+		}
+
+		public long getCPUTime()
+		{
+			return cpuTime;
+		}
+
+		public long getAllocatedBytes()
+		{
+			return allocatedBytes;
+		}
+
+		public long getParseTime()
+		{
+			return parseTime;
+		}
+	}
+
+	/**
+	 * A snapshot of the clocks of the current thread, taken before running a participant
+	 */
+	public static class Sample
+	{
+		private final long wallTime;
+		private final long cpuTime;
+		private final long allocatedBytes;
+
+		private Sample()
+		{
+			this.wallTime = System.nanoTime();
+			this.cpuTime = getCurrentThreadCPUTime();
+			this.allocatedBytes = getCurrentThreadAllocatedBytes();
+		}
+	}
+
+	private final String projectName;
+	private final long startTime;
+	private long elapsedTime;
+
+	private final Timing total;
+	private final Map<String, Timing> participants;
+	private final Map<String, Timing> contentTypes;
+	private final Map<String, Timing> files;
+
+	/**
+	 * BuildProfile
+	 *
+	 * @param projectName
+	 *            The name of the project being built
+	 */
+	public BuildProfile(String projectName)
+	{
+		this.projectName = projectName;
+		this.startTime = System.nanoTime();
+		this.total = new Timing();
+		this.participants = new HashMap<String, Timing>();
+		this.contentTypes = new HashMap<String, Timing>();
+		this.files = new HashMap<String, Timing>();
+	}
+
+	/**
+	 * Take a snapshot of the current thread's clocks, to be passed to {@link #record(String, String, String, Sample)}
+	 * once the measured work is done
+	 *
+	 * @return
+	 */
+	public Sample start()
+	{
+		return new Sample();
+	}
+
+	/**
+	 * Record the work done by a participant on a file since the given sample was taken on the current thread
+	 *
+	 * @param participantId
+	 * @param contentType
+	 * @param path
+	 * @param start
+	 */
+	public void record(String participantId, String contentType, String path, Sample start)
+	{
+		Sample end = new Sample();
+		long cpu = (start.cpuTime < 0 || end.cpuTime < 0) ? -1 : end.cpuTime - start.cpuTime;
+		long allocated = (start.allocatedBytes < 0 || end.allocatedBytes < 0) ? -1 : end.allocatedBytes
+				- start.allocatedBytes;
+		record(participantId, contentType, path, end.wallTime - start.wallTime, cpu, allocated);
+	}
+
+	synchronized void record(String participantId, String contentType, String path, long wall, long cpu,
+			long allocated)
+	{
+		total.add(wall, cpu, allocated);
+		getTiming(participants, participantId).add(wall, cpu, allocated);
+		getTiming(contentTypes, contentType).add(wall, cpu, allocated);
+		getTiming(files, path).add(wall, cpu, allocated);
+	}
+
+	/**
+	 * Record the time spent parsing a file during the build
+	 *
+	 * @param contentType
+	 * @param path
+	 * @param parseTime
+	 *            in nanoseconds
+	 */
+	public synchronized void recordParse(String contentType, String path, long parseTime)
+	{
+		if (parseTime <= 0)
+		{
+			return;
+		}
+		total.parseTime += parseTime;
+		getTiming(contentTypes, contentType).parseTime += parseTime;
+		getTiming(files, path).parseTime += parseTime;
+	}
+
+	private Timing getTiming(Map<String, Timing> timings, String key)
+	{
+		String name = (key == null) ? StringUtil.EMPTY : key;
+		Timing timing = timings.get(name);
+		if (timing == null)
+		{
+			timing = new Timing();
+			timings.put(name, timing);
+		}
+		return timing;
+	}
+
+	/**
+	 * Mark the end of the build
+	 */
+	public synchronized void buildFinished()
+	{
+		elapsedTime = System.nanoTime() - startTime;
+	}
+
+	public String getProjectName()
+	{
+		return projectName;
+	}
+
+	/**
+	 * The wall time of the whole build in nanoseconds, or 0 if it hasn't finished yet
+	 *
+	 * @return
+	 */
+	public synchronized long getElapsedTime()
+	{
+		return elapsedTime;
+	}
+
+	public synchronized Timing getTotal()
+	{
+		return total;
+	}
+
+	public synchronized List<Map.Entry<String, Timing>> getSlowestParticipants(int limit)
+	{
+		return getSlowest(participants, limit);
+	}
+
+	public synchronized List<Map.Entry<String, Timing>> getSlowestContentTypes(int limit)
+	{
+		return getSlowest(contentTypes, limit);
+	}
+
+	public synchronized List<Map.Entry<String, Timing>> getSlowestFiles(int limit)
+	{
+		return getSlowest(files, limit);
+	}
+
+	private List<Map.Entry<String, Timing>> getSlowest(Map<String, Timing> timings, int limit)
+	{
+		List<Map.Entry<String, Timing>> result = new ArrayList<Map.Entry<String, Timing>>(timings.entrySet());
+		Collections.sort(result, new Comparator<Map.Entry<String, Timing>>()
+		{
+			public int compare(Map.Entry<String, Timing> o1, Map.Entry<String, Timing> o2)
+			{
+				long t1 = o1.getValue().wallTime + o1.getValue().parseTime;
+				long t2 = o2.getValue().wallTime + o2.getValue().parseTime;
+				return (t1 < t2) ? 1 : ((t1 == t2) ? o1.getKey().compareTo(o2.getKey()) : -1);
+			}
+		});
+		if (limit >= 0 && result.size() > limit)
+		{
+			result = new ArrayList<Map.Entry<String, Timing>>(result.subList(0, limit));
+		}
+		return result;
+	}
+
+	/**
+	 * Returns a human readable report of the totals and the slowest participants and files
+	 *
+	 * @param limit
+	 *            The number of participants and files to list
+	 * @return
+	 */
+	public synchronized String getSummary(int limit)
+	{
+		StringBuilder builder = new StringBuilder();
+		builder.append(MessageFormat.format("Build profile of project {0}: {1} ms elapsed\n", projectName, //$NON-NLS-1$
+				toMillis(elapsedTime)));
+		appendSummaryLine(builder, TOTAL, total);
+		builder.append("Slowest participants:\n"); //$NON-NLS-1$
+		for (Map.Entry<String, Timing> entry : getSlowest(participants, limit))
+		{
+			appendSummaryLine(builder, entry.getKey(), entry.getValue());
+		}
+		builder.append("Slowest files:\n"); //$NON-NLS-1$
+		for (Map.Entry<String, Timing> entry : getSlowest(files, limit))
+		{
+			appendSummaryLine(builder, entry.getKey(), entry.getValue());
+		}
+		return builder.toString();
+	}
+
+	private void appendSummaryLine(StringBuilder builder, String name, Timing timing)
+	{
+		builder.append(MessageFormat.format(
+				"  {0}: {1} ms wall, {2} ms cpu, {3} bytes allocated, {4} ms parsing ({5} runs)\n", //$NON-NLS-1$
+				name, toMillis(timing.wallTime), toMillis(timing.cpuTime), Long.toString(timing.allocatedBytes),
+				toMillis(timing.parseTime), timing.count));
+	}
+
+	/**
+	 * Write every aggregate as a CSV row: scope, name, count, wall ms, cpu ms, allocated bytes, parse ms
+	 *
+	 * @param writer
+	 * @throws IOException
+	 */
+	public synchronized void writeCSV(Writer writer) throws IOException
+	{
+		writer.write("scope,name,count,wallMillis,cpuMillis,allocatedBytes,parseMillis\n"); //$NON-NLS-1$
+		writeCSVRow(writer, TOTAL, projectName, total);
+		writeCSVRows(writer, PARTICIPANT, participants);
+		writeCSVRows(writer, CONTENT_TYPE, contentTypes);
+		writeCSVRows(writer, FILE, files);
+		writer.flush();
+	}
+
+	private void writeCSVRows(Writer writer, String scope, Map<String, Timing> timings) throws IOException
+	{
+		for (Map.Entry<String, Timing> entry : getSlowest(timings, -1))
+		{
+			writeCSVRow(writer, scope, entry.getKey(), entry.getValue());
+		}
+	}
+
+	private void writeCSVRow(Writer writer, String scope, String name, Timing timing) throws IOException
+	{
+		writer.write(StringUtil.join(",", scope, escapeCSV(name), Integer.toString(timing.count), //$NON-NLS-1$
+				toMillis(timing.wallTime), toMillis(timing.cpuTime), Long.toString(timing.allocatedBytes),
+				toMillis(timing.parseTime)));
+		writer.write('\n');
+	}
+
+	/**
+	 * Write the profile as a JSON object with the project name, the elapsed time, the totals and arrays of
+	 * participants, content types and files, slowest first
+	 *
+	 * @param writer
+	 * @throws IOException
+	 */
+	public synchronized void writeJSON(Writer writer) throws IOException
+	{
+		writer.write("{\"project\":"); //$NON-NLS-1$
+		writer.write(escapeJSON(projectName));
+		writer.write(",\"elapsedMillis\":"); //$NON-NLS-1$
+		writer.write(toMillis(elapsedTime));
+		writer.write(",\"total\":"); //$NON-NLS-1$
+		writeJSON(writer, null, total);
+		writeJSONArray(writer, "participants", participants); //$NON-NLS-1$
+		writeJSONArray(writer, "contentTypes", contentTypes); //$NON-NLS-1$
+		writeJSONArray(writer, "files", files); //$NON-NLS-1$
+		writer.write("}\n"); //$NON-NLS-1$
+		writer.flush();
+	}
+
+	private void writeJSONArray(Writer writer, String property, Map<String, Timing> timings) throws IOException
+	{
+		writer.write(",\""); //$NON-NLS-1$
+		writer.write(property);
+		writer.write("\":["); //$NON-NLS-1$
+		boolean first = true;
+		for (Map.Entry<String, Timing> entry : getSlowest(timings, -1))
+		{
+			if (!first)
+			{
+				writer.write(',');
+			}
+			writeJSON(writer, entry.getKey(), entry.getValue());
+			first = false;
+		}
+		writer.write(']');
+	}
+
+	private void writeJSON(Writer writer, String name, Timing timing) throws IOException
+	{
+		writer.write('{');
+		if (name != null)
+		{
+			writer.write("\"name\":"); //$NON-NLS-1$
+			writer.write(escapeJSON(name));
+			writer.write(',');
+		}
+		writer.write(MessageFormat.format(
+				"\"count\":{0},\"wallMillis\":{1},\"cpuMillis\":{2},\"allocatedBytes\":{3},\"parseMillis\":{4}", //$NON-NLS-1$
+				Integer.toString(timing.count), toMillis(timing.wallTime), toMillis(timing.cpuTime),
+				Long.toString(timing.allocatedBytes), toMillis(timing.parseTime)));
+		writer.write('}');
+	}
+
+	/**
+	 * Write the CSV and JSON reports into the given directory, as &lt;project name&gt;.csv and &lt;project
+	 * name&gt;.json. Previous reports for the project are overwritten.
+	 *
+	 * @param directory
+	 * @throws IOException
+	 */
+	public void save(File directory) throws IOException
+	{
+		if (!directory.isDirectory() && !directory.mkdirs())
+		{
+			throw new IOException(MessageFormat.format("Unable to create directory {0}", directory)); //$NON-NLS-1$
+		}
+
+		Writer writer = new OutputStreamWriter(new FileOutputStream(new File(directory, projectName + CSV_EXTENSION)),
+				UTF_8);
+		try
+		{
+			writeCSV(writer);
+		}
+		finally
+		{
+			writer.close();
+		}
+
+		writer = new OutputStreamWriter(new FileOutputStream(new File(directory, projectName + JSON_EXTENSION)), UTF_8);
+		try
+		{
+			writeJSON(writer);
+		}
+		finally
+		{
+			writer.close();
+		}
+	}
+
+	private static String toMillis(long nanos)
+	{
+		if (nanos < 0)
+		{
+			return "-1"; //$NON-NLS-1$
+		}
+		return Long.toString(nanos / 1000000) + '.' + StringUtil.pad(Long.toString((nanos / 1000) % 1000), 3, '0');
+	}
+
+	private static String escapeCSV(String value)
+	{
+		if (value.indexOf(',') == -1 && value.indexOf('"') == -1 && value.indexOf('\n') == -1)
+		{
+			return value;
+		}
+		return '"' + value.replace("\"", "\"\"") + '"'; //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	private static String escapeJSON(String value)
+	{
+		StringBuilder builder = new StringBuilder(value.length() + 2);
+		builder.append('"');
+		for (int i = 0; i < value.length(); i++)
+		{
+			char c = value.charAt(i);
+			switch (c)
+			{
+				case '"':
+				case '\\':
+					builder.append('\\').append(c);
+					break;
+
+				case '\n':
+					builder.append("\\n"); //$NON-NLS-1$
+					break;
+
+				case '\r':
+					builder.append("\\r"); //$NON-NLS-1$
+					break;
+
+				case '\t':
+					builder.append("\\t"); //$NON-NLS-1$
+					break;
+
+				default:
+					if (c < ' ')
+					{
+						builder.append("\\u").append(StringUtil.pad(Integer.toHexString(c), 4, '0')); //$NON-NLS-1$
+					}
+					else
+					{
+						builder.append(c);
+					}
+					break;
+			}
+		}
+		builder.append('"');
+		return builder.toString();
+	}
+
+	private static long getCurrentThreadCPUTime()
+	{
+		try
+		{
+			if (THREADS.isCurrentThreadCpuTimeSupported() && THREADS.isThreadCpuTimeEnabled())
+			{
+				return THREADS.getCurrentThreadCpuTime();
+			}
+		}
+		catch (UnsupportedOperationException e)
+		{
+			// fall through
+		}
+		return -1;
+	}
+
+	private static long getCurrentThreadAllocatedBytes()
+	{
+		if (GET_ALLOCATED_BYTES == null)
+		{
+			return -1;
+		}
+		try
+		{
+			Object result = GET_ALLOCATED_BYTES.invoke(THREADS, Thread.currentThread().getId());
+			return (result instanceof Long) ? (Long) result : -1;
+		}
+		catch (Exception e)
+		{
+			return -1;
+		}
+	}
+
+	/**
+	 * Allocation counters are only available through the Sun/Oracle extension of the thread MX bean, so look it up
+	 * reflectively.
+	 *
+	 * @return
+	 */
+	private static Method getAllocatedBytesMethod()
+	{
+		try
+		{
+			Class<?> extension = Class.forName("com.sun.management.ThreadMXBean"); //$NON-NLS-1$
+			if (extension.isInstance(THREADS))
+			{
+				return extension.getMethod("getThreadAllocatedBytes", long.class); //$NON-NLS-1$
+			}
+		}
+		catch (Exception e)
+		{
+			// not supported by this VM
+		}
+		return null;
+	}
+}
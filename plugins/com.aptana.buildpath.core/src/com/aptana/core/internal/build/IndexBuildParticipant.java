@@ -93,6 +93,17 @@ public class IndexBuildParticipant extends RequiredBuildParticipant
 			// wipe the index for the file first
 			deleteFile(context, sub.newChild(10));
 
+			// Minified bundles get only their top-level symbols indexed, or nothing at all
+			MinifiedFilePolicy policy = getMinifiedFilePolicy();
+			if (policy != MinifiedFilePolicy.BUILD && context.isMinified())
+			{
+				if (policy == MinifiedFilePolicy.SKIP)
+				{
+					return;
+				}
+				context.setTopLevelOnly(true);
+			}
+
 			List<IFileStoreIndexingParticipant> indexers = getIndexParticipants(context);
 			if (!CollectionsUtil.isEmpty(indexers))
 			{
@@ -7,6 +7,10 @@
  */
 package com.aptana.core.internal.build;
 
+import java.util.Collections;
+import java.util.Set;
+
+import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IConfigurationElement;
@@ -15,6 +19,7 @@ import org.eclipse.core.runtime.IProgressMonitor;
 import com.aptana.buildpath.core.BuildPathCorePlugin;
 import com.aptana.core.build.AbstractBuildParticipant;
 import com.aptana.core.build.IBuildParticipant;
+import com.aptana.core.build.IDependentFileContributor;
 import com.aptana.core.logging.IdeLog;
 import com.aptana.index.core.build.BuildContext;
 
@@ -24,7 +29,7 @@ import com.aptana.index.core.build.BuildContext;
  * 
  * @author cwilliams
  */
-class LazyBuildParticipant extends AbstractBuildParticipant
+class LazyBuildParticipant extends AbstractBuildParticipant implements IDependentFileContributor
 {
 
 	private IConfigurationElement ice;
@@ -82,4 +87,31 @@ class LazyBuildParticipant extends AbstractBuildParticipant
 	{
 		return getParticipant().isEnabled(type);
 	}
+
+	@Override
+	public boolean isRequired()
+	{
+		return getParticipant().isRequired();
+	}
+
+	@Override
+	public String getOptionsKey()
+	{
+		IBuildParticipant wrapped = getParticipant();
+		if (wrapped instanceof AbstractBuildParticipant)
+		{
+			return ((AbstractBuildParticipant) wrapped).getOptionsKey();
+		}
+		return super.getOptionsKey();
+	}
+
+	public synchronized Set<IFile> getDependentFiles(IProgressMonitor monitor)
+	{
+		// Don't force loading the participant just to ask. If it was never created, it never built anything.
+		if (participant instanceof IDependentFileContributor)
+		{
+			return ((IDependentFileContributor) participant).getDependentFiles(monitor);
+		}
+		return Collections.emptySet();
+	}
 }
@@ -0,0 +1,375 @@
+/**
+ * Aptana Studio
+ * Copyright (c) 2005-2012 by Appcelerator, Inc. All Rights Reserved.
+ * Licensed under the terms of the Eclipse Public License (EPL).
+ * Please see the license-epl.html included with this distribution for details.
+ * Any modifications to this file must keep this entire header intact.
+ */
+package com.aptana.core.internal.build;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.aptana.core.CorePlugin;
+import com.aptana.core.IDebugScopes;
+import com.aptana.core.build.IProblem;
+import com.aptana.core.build.Problem;
+import com.aptana.core.logging.IdeLog;
+import com.aptana.core.util.CollectionsUtil;
+import com.aptana.core.util.LRUFileCache;
+import com.aptana.core.util.StringUtil;
+
+/**
+ * A persistent cache of the problems build participants reported for a file, stored as one file per (participant id,
+ * participant options, content hash) under the build path plugin's state location. Entries are evicted in
+ * least-recently-used order once the total size of the cache directory exceeds the configured limit. Problems carrying
+ * attribute values other than strings, integers and booleans are not cached.
+ */
+public class ProblemCache
+{
+	private static final String SIGNATURE = "PROBLEM CACHE VERSION 0.1"; //$NON-NLS-1$
+	private static final String EXTENSION = ".problems"; //$NON-NLS-1$
+
+	private static final byte STRING_VALUE = 0;
+	private static final byte INTEGER_VALUE = 1;
+	private static final byte BOOLEAN_VALUE = 2;
+
+	private final LRUFileCache entries;
+
+	/**
+	 * ProblemCache
+	 *
+	 * @param directory
+	 *            The directory where cache entries are written
+	 * @param maxSize
+	 *            The maximum number of bytes the cache may occupy on disk
+	 */
+	public ProblemCache(File directory, long maxSize)
+	{
+		this.entries = new LRUFileCache(directory, EXTENSION, maxSize);
+	}
+
+	/**
+	 * Remove all entries from the cache
+	 */
+	public void clear()
+	{
+		entries.clear();
+	}
+
+	/**
+	 * Return the problems the participant reported for the specified content, grouped by marker type, or null if there
+	 * is no such entry.
+	 *
+	 * @param participantId
+	 * @param optionsKey
+	 *            A string capturing the participant settings that affect the problems it reports
+	 * @param source
+	 * @param sourcePath
+	 *            The source path to assign to the restored problems
+	 * @return
+	 */
+	public Map<String, Collection<IProblem>> get(String participantId, String optionsKey, String source,
+			String sourcePath)
+	{
+		if (participantId == null || source == null)
+		{
+			return null;
+		}
+
+		String name = getEntryName(participantId, optionsKey, source);
+		if (!entries.touch(name))
+		{
+			return null;
+		}
+
+		File file = entries.getFile(name);
+		DataInputStream in = null;
+		try
+		{
+			in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+
+			if (!SIGNATURE.equals(in.readUTF()) || source.length() != in.readInt())
+			{
+				close(in);
+				in = null;
+				entries.remove(name);
+				return null;
+			}
+
+			int typeCount = in.readInt();
+			Map<String, Collection<IProblem>> result = new HashMap<String, Collection<IProblem>>(typeCount);
+			for (int i = 0; i < typeCount; i++)
+			{
+				String markerType = in.readUTF();
+				int problemCount = in.readInt();
+				List<IProblem> problems = new ArrayList<IProblem>(problemCount);
+				for (int j = 0; j < problemCount; j++)
+				{
+					problems.add(readProblem(in, sourcePath));
+				}
+				result.put(markerType, problems);
+			}
+			return result;
+		}
+		catch (IOException e)
+		{
+			// stale or corrupted entry
+			if (IdeLog.isTraceEnabled(CorePlugin.getDefault(), IDebugScopes.BUILDER))
+			{
+				IdeLog.logTrace(CorePlugin.getDefault(),
+						MessageFormat.format("Discarding unreadable problem cache entry {0}", file), e, //$NON-NLS-1$
+						IDebugScopes.BUILDER);
+			}
+			close(in);
+			in = null;
+			entries.remove(name);
+			return null;
+		}
+		finally
+		{
+			close(in);
+		}
+	}
+
+	/**
+	 * Store the problems the participant reported for the specified content, grouped by marker type. An empty
+	 * collection for a marker type is significant: it means the participant cleared that type.
+	 *
+	 * @param participantId
+	 * @param optionsKey
+	 * @param source
+	 * @param problemsByType
+	 */
+	public void put(String participantId, String optionsKey, String source,
+			Map<String, Collection<IProblem>> problemsByType)
+	{
+		if (participantId == null || source == null || problemsByType == null || !isCacheable(problemsByType))
+		{
+			return;
+		}
+
+		String name = getEntryName(participantId, optionsKey, source);
+		File tmpFile = entries.getTempFile(name);
+		if (tmpFile == null)
+		{
+			return;
+		}
+		DataOutputStream out = null;
+		boolean written = false;
+		try
+		{
+			out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)));
+			out.writeUTF(SIGNATURE);
+			out.writeInt(source.length());
+			out.writeInt(problemsByType.size());
+			for (Map.Entry<String, Collection<IProblem>> entry : problemsByType.entrySet())
+			{
+				Collection<IProblem> problems = entry.getValue();
+				out.writeUTF(entry.getKey());
+				if (CollectionsUtil.isEmpty(problems))
+				{
+					out.writeInt(0);
+					continue;
+				}
+				out.writeInt(problems.size());
+				for (IProblem problem : problems)
+				{
+					writeProblem(out, problem);
+				}
+			}
+			out.close();
+			out = null;
+			written = true;
+		}
+		catch (IOException e)
+		{
+			if (IdeLog.isTraceEnabled(CorePlugin.getDefault(), IDebugScopes.BUILDER))
+			{
+				IdeLog.logTrace(CorePlugin.getDefault(),
+						MessageFormat.format("Unable to cache problems reported by {0}", participantId), e, //$NON-NLS-1$
+						IDebugScopes.BUILDER);
+			}
+		}
+		finally
+		{
+			close(out);
+		}
+
+		if (written)
+		{
+			entries.commit(name, tmpFile);
+		}
+		else
+		{
+			tmpFile.delete(); // $codepro.audit.disable deleteFile
+		}
+	}
+
+	/**
+	 * Return the total number of bytes used by cache entries
+	 *
+	 * @return
+	 */
+	public long getSize()
+	{
+		return entries.getSize();
+	}
+
+	/**
+	 * getEntryName
+	 *
+	 * @param participantId
+	 * @param optionsKey
+	 * @param source
+	 * @return
+	 */
+	private String getEntryName(String participantId, String optionsKey, String source)
+	{
+		return StringUtil.md5(participantId + ':' + optionsKey) + '-' + StringUtil.md5(source) + EXTENSION;
+	}
+
+	/**
+	 * We only know how to write attribute values of the types the marker attributes of our problems use
+	 *
+	 * @param problemsByType
+	 * @return
+	 */
+	private boolean isCacheable(Map<String, Collection<IProblem>> problemsByType)
+	{
+		for (Collection<IProblem> problems : problemsByType.values())
+		{
+			if (problems == null)
+			{
+				continue;
+			}
+			for (IProblem problem : problems)
+			{
+				if (problem.getMessage() == null)
+				{
+					return false;
+				}
+				Map<String, Object> attributes = problem.getAttributes();
+				if (attributes == null)
+				{
+					continue;
+				}
+				for (Object value : attributes.values())
+				{
+					if (!(value instanceof String || value instanceof Integer || value instanceof Boolean))
+					{
+						return false;
+					}
+				}
+			}
+		}
+		return true;
+	}
+
+	private void writeProblem(DataOutputStream out, IProblem problem) throws IOException
+	{
+		out.writeInt(problem.getSeverity());
+		out.writeUTF(problem.getMessage());
+		out.writeInt(problem.getOffset());
+		out.writeInt(problem.getLength());
+		out.writeInt(problem.getLineNumber());
+		out.writeInt(problem.getPriority());
+
+		Map<String, Object> attributes = problem.getAttributes();
+		if (attributes == null)
+		{
+			out.writeInt(0);
+			return;
+		}
+		out.writeInt(attributes.size());
+		for (Map.Entry<String, Object> attribute : attributes.entrySet())
+		{
+			Object value = attribute.getValue();
+			out.writeUTF(attribute.getKey());
+			if (value instanceof Integer)
+			{
+				out.writeByte(INTEGER_VALUE);
+				out.writeInt((Integer) value);
+			}
+			else if (value instanceof Boolean)
+			{
+				out.writeByte(BOOLEAN_VALUE);
+				out.writeBoolean((Boolean) value);
+			}
+			else
+			{
+				out.writeByte(STRING_VALUE);
+				out.writeUTF((String) value);
+			}
+		}
+	}
+
+	private IProblem readProblem(DataInputStream in, String sourcePath) throws IOException
+	{
+		int severity = in.readInt();
+		String message = in.readUTF();
+		int offset = in.readInt();
+		int length = in.readInt();
+		int lineNumber = in.readInt();
+		int priority = in.readInt();
+		Problem problem = new Problem(severity, message, offset, length, lineNumber, sourcePath, priority);
+
+		int attributeCount = in.readInt();
+		for (int i = 0; i < attributeCount; i++)
+		{
+			String key = in.readUTF();
+			switch (in.readByte())
+			{
+				case INTEGER_VALUE:
+					problem.setAttribute(key, in.readInt());
+					break;
+
+				case BOOLEAN_VALUE:
+					problem.setAttribute(key, in.readBoolean());
+					break;
+
+				case STRING_VALUE:
+					problem.setAttribute(key, in.readUTF());
+					break;
+
+				default:
+					throw new IOException(MessageFormat.format("Unknown attribute type for {0}", key)); //$NON-NLS-1$
+			}
+		}
+		return problem;
+	}
+
+	/**
+	 * close
+	 *
+	 * @param stream
+	 */
+	private static void close(Closeable stream)
+	{
+		if (stream == null)
+		{
+			return;
+		}
+		try
+		{
+			stream.close();
+		}
+		catch (IOException e)
+		{
+			// ignore
+		}
+	}
+}
@@ -0,0 +1,246 @@
+/**
+ * Aptana Studio
+ * Copyright (c) 2005-2012 by Appcelerator, Inc. All Rights Reserved.
+ * Licensed under the terms of the GNU Public License (GPL) v3 (with exceptions).
+ * Please see the license.html included with this distribution for details.
+ * Any modifications to this file must keep this entire header intact.
+ */
+package com.aptana.core.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The bookkeeping of an on-disk cache made of one file per entry in a single directory. Entries are evicted in
+ * least-recently-used order once their total size exceeds a limit. Recency survives restarts through the entry files'
+ * last modified times, which {@link #touch(String)} refreshes on every hit.
+ * <p>
+ * Callers own the format of the entry files: they write an entry to {@link #getTempFile(String)} and then
+ * {@link #commit(String, File)} it, and read it from {@link #getFile(String)} after a successful
+ * {@link #touch(String)}.
+ * </p>
+ */
+public class LRUFileCache
+{
+	private static final String TEMP_EXTENSION = ".tmp"; //$NON-NLS-1$
+
+	private final File directory;
+	private final String extension;
+	private final long maxSize;
+
+	/**
+	 * Access-ordered map from entry file name to its size on disk
+	 */
+	private final LinkedHashMap<String, Long> entries;
+	private long totalSize;
+
+	/**
+	 * LRUFileCache
+	 *
+	 * @param directory
+	 *            The directory where cache entries are written
+	 * @param extension
+	 *            The extension of the entry files. Any other file in the directory gets deleted
+	 * @param maxSize
+	 *            The maximum number of bytes the cache may occupy on disk
+	 */
+	public LRUFileCache(File directory, String extension, long maxSize)
+	{
+		this.directory = directory;
+		this.extension = extension;
+		this.maxSize = maxSize;
+		this.entries = new LinkedHashMap<String, Long>(16, 0.75f, true);
+
+		loadEntries();
+	}
+
+	/**
+	 * Returns the file of the entry with the given name, whether it exists or not.
+	 *
+	 * @param name
+	 * @return
+	 */
+	public File getFile(String name)
+	{
+		return new File(directory, name);
+	}
+
+	/**
+	 * Returns a new file to write an entry to before committing it, creating the cache directory if needed. Each call
+	 * gets a file of its own, so concurrent writers of the same entry don't step on each other. Returns null if the
+	 * file can't be created.
+	 *
+	 * @param name
+	 * @return
+	 */
+	public File getTempFile(String name)
+	{
+		if (!directory.exists() && !directory.mkdirs())
+		{
+			return null;
+		}
+		try
+		{
+			return File.createTempFile(name, TEMP_EXTENSION, directory);
+		}
+		catch (IOException e)
+		{
+			return null;
+		}
+	}
+
+	/**
+	 * Marks the entry as the most recently used one, in memory and on disk. Returns false if there's no such entry.
+	 *
+	 * @param name
+	 * @return
+	 */
+	public synchronized boolean touch(String name)
+	{
+		// get, not containsKey, since only the former counts as an access for the ordering
+		if (entries.get(name) == null)
+		{
+			return false;
+		}
+		getFile(name).setLastModified(System.currentTimeMillis());
+		return true;
+	}
+
+	/**
+	 * Turns a fully written temp file into the entry with the given name, replacing any previous one, and evicts the
+	 * least recently used entries if that takes us over the size limit. The temp file is deleted if it can't be
+	 * committed.
+	 *
+	 * @param name
+	 * @param tempFile
+	 * @return whether the entry was stored
+	 */
+	public boolean commit(String name, File tempFile)
+	{
+		File file = getFile(name);
+		boolean success = tempFile.renameTo(file) || (file.delete() && tempFile.renameTo(file));
+		if (!success)
+		{
+			tempFile.delete(); // $codepro.audit.disable deleteFile
+			return false;
+		}
+
+		synchronized (this)
+		{
+			long length = file.length();
+			Long oldSize = entries.put(name, length);
+			if (oldSize != null)
+			{
+				totalSize -= oldSize;
+			}
+			totalSize += length;
+			evict();
+		}
+		return true;
+	}
+
+	/**
+	 * Drop an entry, typically one which turned out to be unreadable
+	 *
+	 * @param name
+	 */
+	public synchronized void remove(String name)
+	{
+		Long size = entries.remove(name);
+		if (size != null)
+		{
+			totalSize -= size;
+		}
+		getFile(name).delete(); // $codepro.audit.disable deleteFile
+	}
+
+	/**
+	 * Remove all entries from the cache
+	 */
+	public synchronized void clear()
+	{
+		for (String name : entries.keySet())
+		{
+			getFile(name).delete(); // $codepro.audit.disable deleteFile
+		}
+		entries.clear();
+		totalSize = 0;
+	}
+
+	/**
+	 * Return the total number of bytes used by cache entries
+	 *
+	 * @return
+	 */
+	public synchronized long getSize()
+	{
+		return totalSize;
+	}
+
+	/**
+	 * Drop least recently used entries until we're back under our size limit
+	 */
+	private synchronized void evict()
+	{
+		Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+		while (totalSize > maxSize && iterator.hasNext())
+		{
+			Map.Entry<String, Long> entry = iterator.next();
+			iterator.remove();
+			totalSize -= entry.getValue();
+			getFile(entry.getKey()).delete(); // $codepro.audit.disable deleteFile
+		}
+	}
+
+	/**
+	 * Populate our in-memory view of the cache directory, least recently used entries first so they get evicted first
+	 */
+	private synchronized void loadEntries()
+	{
+		File[] files = directory.listFiles();
+		if (files == null)
+		{
+			return;
+		}
+
+		Arrays.sort(files, new Comparator<File>()
+		{
+			public int compare(File f1, File f2)
+			{
+				long diff = f1.lastModified() - f2.lastModified();
+				return (diff < 0) ? -1 : ((diff > 0) ? 1 : 0);
+			}
+		});
+
+		List<File> leftovers = new ArrayList<File>();
+		for (File file : files)
+		{
+			String name = file.getName();
+			if (name.endsWith(extension))
+			{
+				long length = file.length();
+				entries.put(name, length);
+				totalSize += length;
+			}
+			else
+			{
+				leftovers.add(file);
+			}
+		}
+
+		// clean up partially written entries
+		for (File file : leftovers)
+		{
+			file.delete(); // $codepro.audit.disable deleteFile
+		}
+
+		evict();
+	}
+}
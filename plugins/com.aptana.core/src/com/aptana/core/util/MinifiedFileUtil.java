@@ -0,0 +1,128 @@
+/**
+ * Aptana Studio
+ * Copyright (c) 2005-2012 by Appcelerator, Inc. All Rights Reserved.
+ * Licensed under the terms of the GNU Public License (GPL) v3 (with exceptions).
+ * Please see the license.html included with this distribution for details.
+ * Any modifications to this file must keep this entire header intact.
+ */
+package com.aptana.core.util;
+
+/**
+ * Recognizes minified and oversized source files, like vendor bundles, which are too expensive to validate, index in
+ * depth or fold and which nobody edits by hand anyway.
+ */
+public class MinifiedFileUtil
+{
+	/**
+	 * Files larger than this many characters are treated like minified ones, whatever they look like.
+	 */
+	public static final int MAX_FILE_LENGTH = 1024 * 1024;
+
+	/**
+	 * A file with a line longer than this is considered minified
+	 */
+	public static final int MAX_LINE_LENGTH = 5000;
+
+	/**
+	 * A file whose lines average more than this many characters is considered minified
+	 */
+	public static final int MAX_AVERAGE_LINE_LENGTH = 300;
+
+	/**
+	 * Files smaller than this are cheap to handle no matter how they're laid out
+	 */
+	private static final int MIN_FILE_LENGTH = 4 * 1024;
+
+	private static final String[] MINIFIED_NAME_MARKERS = { ".min.", "-min." }; //$NON-NLS-1$ //$NON-NLS-2$
+
+	/**
+	 * MinifiedFileUtil
+	 */
+	private MinifiedFileUtil()
+	{
+	}
+
+	/**
+	 * Determine if a file looks minified or is too large to handle in full, based on its name (jquery.min.js), its size
+	 * and the length of its lines.
+	 *
+	 * @param name
+	 *            the file name, may be null
+	 * @param contents
+	 *            the file contents, may be null
+	 * @return
+	 */
+	public static boolean isMinified(String name, CharSequence contents)
+	{
+		return isMinifiedName(name) || isMinifiedContents(contents);
+	}
+
+	/**
+	 * Determine if the file name follows the naming convention for minified files, like jquery.min.js or
+	 * bootstrap-min.css
+	 *
+	 * @param name
+	 * @return
+	 */
+	public static boolean isMinifiedName(String name)
+	{
+		if (StringUtil.isEmpty(name))
+		{
+			return false;
+		}
+		String lowerCase = name.toLowerCase();
+		for (String marker : MINIFIED_NAME_MARKERS)
+		{
+			if (lowerCase.contains(marker))
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Determine if the contents are too large, or laid out in too few, too long lines
+	 *
+	 * @param contents
+	 * @return
+	 */
+	public static boolean isMinifiedContents(CharSequence contents)
+	{
+		if (contents == null)
+		{
+			return false;
+		}
+		int length = contents.length();
+		if (length > MAX_FILE_LENGTH)
+		{
+			return true;
+		}
+		if (length < MIN_FILE_LENGTH)
+		{
+			return false;
+		}
+
+		int lines = 1;
+		int lineStart = 0;
+		for (int i = 0; i < length; i++)
+		{
+			char c = contents.charAt(i);
+			if (c == '\n' || c == '\r')
+			{
+				if (i - lineStart > MAX_LINE_LENGTH)
+				{
+					return true;
+				}
+				// treat \r\n as a single line break
+				if (c == '\r' && i + 1 < length && contents.charAt(i + 1) == '\n')
+				{
+					i++;
+				}
+				lines++;
+				lineStart = i + 1;
+			}
+		}
+		return (length - lineStart > MAX_LINE_LENGTH) || (length / lines > MAX_AVERAGE_LINE_LENGTH);
+	}
+}
@@ -18,6 +18,8 @@ import com.aptana.parsing.ast.ParseRootNode;
  */
 public class BeaverParseRootNode extends ParseRootNode
 {
+	private static final long serialVersionUID = 1L;
+
 	private GrammarTreeRoot root;
 
 	public BeaverParseRootNode(GrammarTreeRoot root)
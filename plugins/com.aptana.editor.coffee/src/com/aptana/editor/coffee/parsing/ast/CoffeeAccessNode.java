@@ -11,6 +11,7 @@ import java.text.MessageFormat;
 
 public class CoffeeAccessNode extends CoffeeNode
 {
+	private static final long serialVersionUID = 1L;
 
 	private String string;
 
@@ -11,6 +11,7 @@ import java.util.List;
 
 public class CoffeeArrNode extends CoffeeNode
 {
+	private static final long serialVersionUID = 1L;
 
 	public CoffeeArrNode(List<CoffeeNode> args)
 	{
@@ -9,6 +9,7 @@ package com.aptana.editor.coffee.parsing.ast;
 
 public class CoffeeAssignNode extends CoffeeNode
 {
+	private static final long serialVersionUID = 1L;
 
 	private String compoundAssignmentText;
 
@@ -11,6 +11,7 @@ import com.aptana.parsing.ast.IParseNode;
 
 public class CoffeeBlockNode extends CoffeeNode
 {
+	private static final long serialVersionUID = 1L;
 
 	public CoffeeBlockNode(CoffeeNode line)
 	{
@@ -9,6 +9,7 @@ package com.aptana.editor.coffee.parsing.ast;
 
 public class CoffeeCatchNode extends CoffeeNode
 {
+	private static final long serialVersionUID = 1L;
 
 	public CoffeeCatchNode(CoffeeLiteralNode identifier, CoffeeBlockNode block)
 	{
@@ -9,6 +9,7 @@ package com.aptana.editor.coffee.parsing.ast;
 
 public class CoffeeClassNode extends CoffeeNode
 {
+	private static final long serialVersionUID = 1L;
 
 	private CoffeeValueNode variable;
 
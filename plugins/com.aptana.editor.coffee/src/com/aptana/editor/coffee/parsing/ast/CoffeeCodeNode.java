@@ -15,6 +15,7 @@ import com.aptana.parsing.ast.IParseNode;
 
 public class CoffeeCodeNode extends CoffeeNode
 {
+	private static final long serialVersionUID = 1L;
 
 	public boolean bound;
 	@SuppressWarnings("unused")
@@ -9,6 +9,8 @@ package com.aptana.editor.coffee.parsing.ast;
 
 public class CoffeeCommentNode extends CoffeeNode
 {
+	private static final long serialVersionUID = 1L;
+
 	private String fText;
 
 	/**
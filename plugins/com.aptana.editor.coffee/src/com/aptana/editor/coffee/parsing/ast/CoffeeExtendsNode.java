@@ -9,6 +9,7 @@ package com.aptana.editor.coffee.parsing.ast;
 
 public class CoffeeExtendsNode extends CoffeeNode
 {
+	private static final long serialVersionUID = 1L;
 
 	public CoffeeExtendsNode(CoffeeValueNode assignable, CoffeeNode expression)
 	{
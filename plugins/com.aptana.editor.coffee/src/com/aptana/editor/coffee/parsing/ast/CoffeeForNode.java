@@ -12,6 +12,7 @@ import com.aptana.parsing.ast.IParseNode;
 @SuppressWarnings("unused")
 public class CoffeeForNode extends CoffeeNode
 {
+	private static final long serialVersionUID = 1L;
 
 	private CoffeeNode source;
 	private CoffeeNode guard;
@@ -11,6 +11,8 @@ import com.aptana.parsing.ast.IParseNode;
 
 public class CoffeeForSourceNode extends CoffeeNode
 {
+	private static final long serialVersionUID = 1L;
+
 	public boolean own;
 	public IParseNode name;
 	public IParseNode index;
@@ -9,6 +9,7 @@ package com.aptana.editor.coffee.parsing.ast;
 
 public class CoffeeIfNode extends CoffeeNode
 {
+	private static final long serialVersionUID = 1L;
 
 	@SuppressWarnings("unused")
 	private boolean statement;
@@ -9,6 +9,7 @@ package com.aptana.editor.coffee.parsing.ast;
 
 public class CoffeeInNode extends CoffeeNode
 {
+	private static final long serialVersionUID = 1L;
 
 	protected CoffeeInNode(CoffeeNode object, CoffeeNode array)
 	{
@@ -9,6 +9,8 @@ package com.aptana.editor.coffee.parsing.ast;
 
 public class CoffeeLiteralNode extends CoffeeNode
 {
+	private static final long serialVersionUID = 1L;
+
 	public boolean isUndefined;
 	private String literal;
 
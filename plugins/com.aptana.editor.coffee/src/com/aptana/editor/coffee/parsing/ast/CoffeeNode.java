@@ -14,6 +14,7 @@ import com.aptana.parsing.ast.ParseRootNode;
 
 public class CoffeeNode extends ParseNode
 {
+	private static final long serialVersionUID = 1L;
 
 	protected short fType;
 	protected boolean negated;
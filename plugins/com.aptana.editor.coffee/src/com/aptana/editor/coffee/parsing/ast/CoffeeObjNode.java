@@ -11,6 +11,7 @@ import java.util.List;
 
 public class CoffeeObjNode extends CoffeeNode
 {
+	private static final long serialVersionUID = 1L;
 
 	@SuppressWarnings("unused")
 	private String optComma;
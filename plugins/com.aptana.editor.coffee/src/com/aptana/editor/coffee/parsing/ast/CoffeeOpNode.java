@@ -16,6 +16,7 @@ import java.util.Map;
 @SuppressWarnings("nls")
 public class CoffeeOpNode extends CoffeeNode
 {
+	private static final long serialVersionUID = 1L;
 
 	private static final Map<String, String> CONVERSIONS = new HashMap<String, String>();
 	static
@@ -13,6 +13,7 @@ import com.aptana.parsing.ast.IParseNode;
 
 public class CoffeeParamNode extends CoffeeNode
 {
+	private static final long serialVersionUID = 1L;
 
 	@SuppressWarnings("unused")
 	private boolean ellipsis;
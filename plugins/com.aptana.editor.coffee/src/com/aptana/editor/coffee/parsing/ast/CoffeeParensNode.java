@@ -9,6 +9,7 @@ package com.aptana.editor.coffee.parsing.ast;
 
 public class CoffeeParensNode extends CoffeeNode
 {
+	private static final long serialVersionUID = 1L;
 
 	public CoffeeParensNode(CoffeeNode body)
 	{
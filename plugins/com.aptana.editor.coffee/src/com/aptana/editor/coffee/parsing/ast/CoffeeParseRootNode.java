@@ -17,6 +17,8 @@ import com.aptana.parsing.ast.ParseRootNode;
  */
 public class CoffeeParseRootNode extends ParseRootNode
 {
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * CoffeeParseRootNode
 	 */
@@ -9,6 +9,7 @@ package com.aptana.editor.coffee.parsing.ast;
 
 public class CoffeeRangeNode extends CoffeeNode
 {
+	private static final long serialVersionUID = 1L;
 
 	@SuppressWarnings("unused")
 	private String rangeDots;
@@ -9,6 +9,7 @@ package com.aptana.editor.coffee.parsing.ast;
 
 public class CoffeeSliceNode extends CoffeeIndexNode
 {
+	private static final long serialVersionUID = 1L;
 
 	public CoffeeSliceNode(CoffeeRangeNode range)
 	{
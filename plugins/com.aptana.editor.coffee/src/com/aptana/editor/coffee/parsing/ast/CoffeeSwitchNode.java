@@ -13,6 +13,7 @@ import com.aptana.parsing.ast.IParseNode;
 
 public class CoffeeSwitchNode extends CoffeeNode
 {
+	private static final long serialVersionUID = 1L;
 
 	public CoffeeSwitchNode(CoffeeNode exp, List<CoffeeWhenNode> whens)
 	{
@@ -9,6 +9,7 @@ package com.aptana.editor.coffee.parsing.ast;
 
 public class CoffeeTryNode extends CoffeeNode
 {
+	private static final long serialVersionUID = 1L;
 
 	public CoffeeTryNode(CoffeeBlockNode block)
 	{
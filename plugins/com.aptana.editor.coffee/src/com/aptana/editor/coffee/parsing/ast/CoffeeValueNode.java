@@ -15,6 +15,7 @@ import com.aptana.parsing.ast.IParseNode;
 
 public class CoffeeValueNode extends CoffeeNode
 {
+	private static final long serialVersionUID = 1L;
 
 	@SuppressWarnings("unused")
 	private String tag;
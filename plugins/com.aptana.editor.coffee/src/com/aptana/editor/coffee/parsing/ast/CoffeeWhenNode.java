@@ -11,6 +11,7 @@ import java.util.List;
 
 public class CoffeeWhenNode extends CoffeeNode
 {
+	private static final long serialVersionUID = 1L;
 
 	public CoffeeWhenNode(List<CoffeeNode> simpleArgs, CoffeeNode block)
 	{
@@ -15,6 +15,7 @@ import com.aptana.editor.coffee.parsing.Terminals;
 
 public class CoffeeSymbol extends Symbol
 {
+	private static final long serialVersionUID = 1L;
 
 	public boolean spaced;
 	public boolean newLine;
@@ -88,9 +88,12 @@ import org.eclipse.ui.views.contentoutline.IContentOutlinePage;
 import org.eclipse.ui.views.properties.IPropertySheetPage;
 import org.osgi.service.prefs.BackingStoreException;
 
+import com.aptana.buildpath.core.BuildPathCorePlugin;
+import com.aptana.core.build.BuildPriorities;
 import com.aptana.core.logging.IdeLog;
 import com.aptana.core.util.CollectionsUtil;
 import com.aptana.core.util.EclipseUtil;
+import com.aptana.core.util.MinifiedFileUtil;
 import com.aptana.core.util.StringUtil;
 import com.aptana.editor.common.actions.FilterThroughCommandAction;
 import com.aptana.editor.common.actions.FoldingActionsGroup;
@@ -276,6 +279,16 @@ public abstract class AbstractThemeableEditor extends AbstractFoldingEditor impl
 	 */
 	private Object modificationStampLock = new Object();
 
+	/**
+	 * The workspace file being edited, which we've asked the builder to build ahead of other files
+	 */
+	private IFile fBuildPriorityFile;
+
+	/**
+	 * Whether the input looks like a minified bundle or is too large to fold and mark occurrences in
+	 */
+	private boolean fMinifiedFile;
+
 	/**
 	 * AbstractThemeableEditor
 	 */
@@ -594,6 +607,7 @@ public abstract class AbstractThemeableEditor extends AbstractFoldingEditor impl
 
 			fCommandElementsProvider = null;
 			fPeerCharacterCloser = null;
+			setBuildPriorityFile(null);
 
 			IDragAndDropService dndService = (IDragAndDropService) getSite().getService(IDragAndDropService.class);
 			if (dndService != null)
@@ -637,10 +651,40 @@ public abstract class AbstractThemeableEditor extends AbstractFoldingEditor impl
 		}
 		else
 		{
+			// get the markers for this file updated first, even if a build is already running
+			BuildPriorities priorities = getBuildPriorities();
+			if (priorities != null && fBuildPriorityFile != null)
+			{
+				priorities.prioritize(fBuildPriorityFile);
+			}
 			super.doSave(progressMonitor);
 		}
 	}
 
+	private void setBuildPriorityFile(IFile file)
+	{
+		BuildPriorities priorities = getBuildPriorities();
+		if (priorities == null)
+		{
+			return;
+		}
+		if (fBuildPriorityFile != null)
+		{
+			priorities.fileClosed(fBuildPriorityFile);
+		}
+		fBuildPriorityFile = file;
+		if (fBuildPriorityFile != null)
+		{
+			priorities.fileOpened(fBuildPriorityFile);
+		}
+	}
+
+	private static BuildPriorities getBuildPriorities()
+	{
+		BuildPathCorePlugin plugin = BuildPathCorePlugin.getDefault();
+		return (plugin == null) ? null : plugin.getBuildPriorities();
+	}
+
 	@Override
 	protected void performSaveAs(IProgressMonitor progressMonitor)
 	{
@@ -841,7 +885,8 @@ public abstract class AbstractThemeableEditor extends AbstractFoldingEditor impl
 			fPeerCharacterCloser
 					.setAutoWrapEnabled(Boolean.parseBoolean(StringUtil.getStringValue(event.getNewValue())));
 		}
-		else if (property.equals(IPreferenceConstants.EDITOR_ENABLE_FOLDING))
+		else if (property.equals(IPreferenceConstants.EDITOR_ENABLE_FOLDING)
+				|| property.equals(IPreferenceConstants.EDITOR_SIMPLIFY_MINIFIED_FILES))
 		{
 			SourceViewerConfiguration config = getSourceViewerConfiguration();
 			if (config instanceof CommonSourceViewerConfiguration)
@@ -1106,6 +1151,11 @@ public abstract class AbstractThemeableEditor extends AbstractFoldingEditor impl
 
 		}
 		super.doSetInput(input);
+		setBuildPriorityFile((input == null) ? null : (IFile) input.getAdapter(IFile.class));
+
+		IDocument document = getDocument();
+		fMinifiedFile = input != null
+				&& MinifiedFileUtil.isMinified(input.getName(), (document == null) ? null : document.get());
 	}
 
 	/**
@@ -1249,7 +1299,8 @@ public abstract class AbstractThemeableEditor extends AbstractFoldingEditor impl
 	public boolean isFoldingEnabled()
 	{
 		IPreferenceStore store = getPreferenceStore();
-		return store != null && store.getBoolean(IPreferenceConstants.EDITOR_ENABLE_FOLDING);
+		return store != null && store.getBoolean(IPreferenceConstants.EDITOR_ENABLE_FOLDING)
+				&& !isSimplifiedForMinifiedFile();
 	}
 
 	/**
@@ -1260,7 +1311,24 @@ public abstract class AbstractThemeableEditor extends AbstractFoldingEditor impl
 	public boolean isMarkingOccurrences()
 	{
 		IPreferenceStore store = getPreferenceStore();
-		return store != null && store.getBoolean(IPreferenceConstants.EDITOR_MARK_OCCURRENCES);
+		return store != null && store.getBoolean(IPreferenceConstants.EDITOR_MARK_OCCURRENCES)
+				&& !isSimplifiedForMinifiedFile();
+	}
+
+	/**
+	 * Returns true if the editor is showing a minified or very large file and the preferences are set to turn off
+	 * folding and mark occurrences for such files.
+	 * 
+	 * @return
+	 */
+	public boolean isSimplifiedForMinifiedFile()
+	{
+		if (!fMinifiedFile)
+		{
+			return false;
+		}
+		IPreferenceStore store = getPreferenceStore();
+		return store != null && store.getBoolean(IPreferenceConstants.EDITOR_SIMPLIFY_MINIFIED_FILES);
 	}
 
 	/**
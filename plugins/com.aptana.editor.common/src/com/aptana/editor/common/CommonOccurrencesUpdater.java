@@ -20,11 +20,14 @@ import org.eclipse.jface.preference.IPreferenceStore;
 import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.DocumentEvent;
 import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentExtension4;
 import org.eclipse.jface.text.IDocumentListener;
+import org.eclipse.jface.text.IRegion;
 import org.eclipse.jface.text.ISynchronizable;
 import org.eclipse.jface.text.ITextInputListener;
 import org.eclipse.jface.text.ITextSelection;
 import org.eclipse.jface.text.Position;
+import org.eclipse.jface.text.Region;
 import org.eclipse.jface.text.source.Annotation;
 import org.eclipse.jface.text.source.IAnnotationModel;
 import org.eclipse.jface.text.source.IAnnotationModelExtension;
@@ -41,6 +44,10 @@ import org.eclipse.ui.texteditor.IDocumentProvider;
 
 import com.aptana.core.util.StringUtil;
 import com.aptana.editor.common.preferences.IPreferenceConstants;
+import com.aptana.parsing.ast.IParseRootNode;
+import com.aptana.parsing.ast.ParseRootNode;
+import com.aptana.parsing.lexer.IRange;
+import com.aptana.parsing.util.OccurrenceIndex;
 
 /**
  * CommonOccurrenceUpdater
@@ -138,8 +145,27 @@ public class CommonOccurrencesUpdater implements IPropertyChangeListener {
 		 * @return
 		 */
 		protected String getWord() {
+			IRegion region = getWordRegion();
 			String result = null;
 
+			if (region != null) {
+				try {
+					result = document.get(region.getOffset(), region.getLength());
+				} catch (BadLocationException e) {
+				}
+			}
+
+			return result;
+		}
+
+		/**
+		 * getWordRegion
+		 * 
+		 * @return
+		 */
+		protected IRegion getWordRegion() {
+			IRegion result = null;
+
 			try {
 				int offset = selection.getOffset();
 				int length = document.getLength();
@@ -176,12 +202,24 @@ public class CommonOccurrencesUpdater implements IPropertyChangeListener {
 
 				// grab result, as long as it is on one line only
 				if (document.getLineOfOffset(start) == document.getLineOfOffset(offset)) {
-					result = document.get(start, offset - start);
+					String text = document.get(start, offset - start);
+					int end = text.length();
+					int begin = 0;
+
+					// trim it like String#trim() does
+					while (begin < end && text.charAt(begin) <= ' ') {
+						begin++;
+					}
+					while (end > begin && text.charAt(end - 1) <= ' ') {
+						end--;
+					}
+
+					result = new Region(start + begin, end - begin);
 				}
 			} catch (BadLocationException e) {
 			}
 
-			return (result != null) ? result.trim() : result;
+			return result;
 		}
 
 		/*
@@ -197,9 +235,28 @@ public class CommonOccurrencesUpdater implements IPropertyChangeListener {
 
 			if (editor.isMarkingOccurrences()) {
 				// find a "word" to search using the current selection
-				String word = getWord();
+				IRegion wordRegion = getWordRegion();
+				String word = null;
 
-				if (word != null && word.length() > 0) {
+				if (wordRegion != null && wordRegion.getLength() > 0) {
+					try {
+						word = document.get(wordRegion.getOffset(), wordRegion.getLength());
+					} catch (BadLocationException e) {
+					}
+				}
+
+				IRange[] occurrences = (word != null) ? findIndexedOccurrences(document, word, wordRegion) : null;
+
+				if (occurrences != null) {
+					for (IRange occurrence : occurrences) {
+						int start = occurrence.getStartingOffset();
+						int length = occurrence.getLength();
+
+						// @formatter:off
+						annotationMap.put(new Annotation(ANNOTION_ID, false, ANNOTION_DESCRIPTION), new Position(start, length));
+						// @formatter:on
+					}
+				} else if (word != null) {
 					String source = document.get();
 					Pattern wordPattern = createWordPattern(word);
 					Matcher matcher = wordPattern.matcher(source);
@@ -248,6 +305,10 @@ public class CommonOccurrencesUpdater implements IPropertyChangeListener {
 	private FindOccurrencesJob findOccurrencesJob;
 	private CancelerJob cancelerJob;
 
+	private IDocument wordIndexDocument;
+	private long wordIndexStamp;
+	private OccurrenceIndex wordIndex;
+
 	/**
 	 * CommonOccurrencesUpdater
 	 * 
@@ -279,6 +340,66 @@ public class CommonOccurrencesUpdater implements IPropertyChangeListener {
 		return Pattern.compile(regexSource);
 	}
 
+	/**
+	 * Looks up the occurrences of a word made of identifier characters in the indexes, rather than searching the
+	 * document for it. The index of the editor's AST is tried first, since it only groups together the identifiers
+	 * which refer to the same thing. When the word isn't an identifier there, like in comments or in a language without
+	 * such an index, the index of the document's words is used. Returns null for other words, which have to be searched
+	 * for.
+	 * 
+	 * @param document
+	 * @param word
+	 * @param region
+	 * @return
+	 */
+	private IRange[] findIndexedOccurrences(IDocument document, String word, IRegion region) {
+		for (int i = 0; i < word.length(); i++) {
+			if (!Character.isUnicodeIdentifierPart(word.charAt(i))) {
+				return null;
+			}
+		}
+
+		IParseRootNode ast = editor.getAST();
+
+		if (ast instanceof ParseRootNode) {
+			OccurrenceIndex index = ((ParseRootNode) ast).getOccurrenceIndex();
+
+			if (index != null) {
+				IRange[] occurrences = index.getOccurrences(region.getOffset(), region.getLength());
+
+				if (occurrences.length > 0) {
+					return occurrences;
+				}
+			}
+		}
+
+		return getWordIndex(document).getOccurrences(region.getOffset(), region.getLength());
+	}
+
+	/**
+	 * Returns the index of the words in the document, which is rebuilt only when the document has changed since it was
+	 * last asked for.
+	 * 
+	 * @param document
+	 * @return
+	 */
+	private synchronized OccurrenceIndex getWordIndex(IDocument document) {
+		long stamp = IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP;
+
+		if (document instanceof IDocumentExtension4) {
+			stamp = ((IDocumentExtension4) document).getModificationStamp();
+		}
+
+		if (wordIndex == null || document != wordIndexDocument || stamp != wordIndexStamp
+				|| stamp == IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP) {
+			wordIndex = OccurrenceIndex.createWordIndex(document.get());
+			wordIndexDocument = document;
+			wordIndexStamp = stamp;
+		}
+
+		return wordIndex;
+	}
+
 	/**
 	 * getAnnotationModel
 	 * 
@@ -472,6 +593,11 @@ public class CommonOccurrencesUpdater implements IPropertyChangeListener {
 			cancelerJob.uninstall();
 			cancelerJob = null;
 		}
+
+		synchronized (this) {
+			wordIndex = null;
+			wordIndexDocument = null;
+		}
 	}
 
 	/**
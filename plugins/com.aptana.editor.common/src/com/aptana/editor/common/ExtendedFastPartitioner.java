@@ -8,10 +8,18 @@
 
 package com.aptana.editor.common;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
+import org.eclipse.jface.text.DocumentEvent;
 import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IRegion;
 import org.eclipse.jface.text.ITypedRegion;
 import org.eclipse.jface.text.TypedPosition;
 import org.eclipse.jface.text.TypedRegion;
@@ -26,6 +34,27 @@ public class ExtendedFastPartitioner extends FastPartitioner implements IExtende
 
 	private final Set<String> legalContentTypes;
 
+	/**
+	 * Partition scanner states remembered while scanning, by offset. See {@link #setCheckpoint(int, Object)}.
+	 */
+	private final TreeMap<Integer, Checkpoint> checkpoints = new TreeMap<Integer, Checkpoint>();
+
+	/**
+	 * Bumped on every document change, so that the checkpoints which were merely shifted by a change can be told
+	 * apart from the ones recorded while repartitioning after it.
+	 */
+	private int generation;
+
+	private static final class Checkpoint {
+		private final Object state;
+		private final int generation;
+
+		private Checkpoint(Object state, int generation) {
+			this.state = state;
+			this.generation = generation;
+		}
+	}
+
 	/**
 	 * @param scanner
 	 * @param legalContentTypes
@@ -71,4 +100,116 @@ public class ExtendedFastPartitioner extends FastPartitioner implements IExtende
 		return super.findClosestPosition(offset);
 	}
 
+	/* (non-Javadoc)
+	 * @see org.eclipse.jface.text.rules.FastPartitioner#connect(org.eclipse.jface.text.IDocument, boolean)
+	 */
+	@Override
+	public void connect(IDocument document, boolean delayInitialization) {
+		clearCheckpoints();
+		super.connect(document, delayInitialization);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.eclipse.jface.text.rules.FastPartitioner#disconnect()
+	 */
+	@Override
+	public void disconnect() {
+		super.disconnect();
+		clearCheckpoints();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.eclipse.jface.text.rules.FastPartitioner#documentChanged2(org.eclipse.jface.text.DocumentEvent)
+	 */
+	@Override
+	public IRegion documentChanged2(DocumentEvent e) {
+		int changeGeneration = shiftCheckpoints(e);
+		IRegion region = super.documentChanged2(e);
+		// the scanner state may have changed everywhere repartitioning went through
+		int end = fScanner.getTokenOffset() + fScanner.getTokenLength();
+		if (region != null) {
+			end = Math.max(end, region.getOffset() + region.getLength());
+		}
+		dropStaleCheckpoints(e.getOffset(), end, changeGeneration);
+		return region;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.aptana.editor.common.IExtendedPartitioner#setCheckpoint(int, java.lang.Object)
+	 */
+	public void setCheckpoint(int offset, Object state) {
+		synchronized (checkpoints) {
+			checkpoints.put(offset, new Checkpoint(state, generation));
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see com.aptana.editor.common.IExtendedPartitioner#findCheckpoint(int)
+	 */
+	public int findCheckpoint(int offset) {
+		if (offset < 0) {
+			return -1;
+		}
+		synchronized (checkpoints) {
+			SortedMap<Integer, Checkpoint> head = checkpoints.headMap(offset + 1);
+			return head.isEmpty() ? -1 : head.lastKey();
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see com.aptana.editor.common.IExtendedPartitioner#getCheckpoint(int)
+	 */
+	public Object getCheckpoint(int offset) {
+		synchronized (checkpoints) {
+			Checkpoint checkpoint = checkpoints.get(offset);
+			return (checkpoint != null) ? checkpoint.state : null;
+		}
+	}
+
+	private void clearCheckpoints() {
+		synchronized (checkpoints) {
+			checkpoints.clear();
+		}
+	}
+
+	/**
+	 * Moves the checkpoints following the change along with the text, and drops the ones inside the replaced text.
+	 * Returns the generation of the checkpoints recorded while repartitioning.
+	 */
+	private int shiftCheckpoints(DocumentEvent e) {
+		synchronized (checkpoints) {
+			int offset = e.getOffset();
+			int removedEnd = offset + e.getLength();
+			int delta = (e.getText() == null ? 0 : e.getText().length()) - e.getLength();
+			SortedMap<Integer, Checkpoint> tail = checkpoints.tailMap(offset + 1);
+			if (!tail.isEmpty() && (delta != 0 || removedEnd > offset)) {
+				List<Map.Entry<Integer, Checkpoint>> moved = new ArrayList<Map.Entry<Integer, Checkpoint>>(checkpoints
+						.tailMap(Math.max(removedEnd, offset + 1)).entrySet());
+				Map<Integer, Checkpoint> shifted = new TreeMap<Integer, Checkpoint>();
+				for (Map.Entry<Integer, Checkpoint> entry : moved) {
+					shifted.put(entry.getKey() + delta, entry.getValue());
+				}
+				tail.clear();
+				checkpoints.putAll(shifted);
+			}
+			return ++generation;
+		}
+	}
+
+	/**
+	 * Drops the checkpoints in the range which weren't recorded again while repartitioning after the last change.
+	 */
+	private void dropStaleCheckpoints(int start, int end, int changeGeneration) {
+		synchronized (checkpoints) {
+			if (end < start) {
+				return;
+			}
+			for (Iterator<Checkpoint> i = checkpoints.subMap(start + 1, end + 1).values().iterator(); i.hasNext();) {
+				if (i.next().generation != changeGeneration) {
+					i.remove();
+				}
+			}
+		}
+	}
+
 }
@@ -22,4 +22,10 @@ public interface ICommonEditorSystemProperties
 	public static String RECONCILER_BACKGROUND_DELAY = "studio.reconcilerBackgroundDelay"; //$NON-NLS-1$
 	public static String RECONCILER_ITERATION_DELAY = "studio.reconcilerIterationDelay"; //$NON-NLS-1$
 	public static String RECONCILER_MINIMAL_VISIBLE_LENGTH = "studio.reconcilerMinimalVisibleLength"; //$NON-NLS-1$
+
+	/**
+	 * Computes the highlighting entirely in the background, the visible lines first and then outward from them, and
+	 * only applies the ready styles on the UI thread.
+	 */
+	public static String RECONCILER_SNAPSHOT_HIGHLIGHTING = "studio.reconcilerSnapshotHighlighting"; //$NON-NLS-1$
 }
@@ -17,5 +17,27 @@ import org.eclipse.jface.text.TypedPosition;
 public interface IExtendedPartitioner {
 
 	public TypedPosition findClosestPosition(int offset);
-	
+
+	/**
+	 * Remembers the state of the partition scanner at the end of a token, so that repartitioning after a change
+	 * further down can resume scanning from there.
+	 * @param offset
+	 * @param state
+	 */
+	public void setCheckpoint(int offset, Object state);
+
+	/**
+	 * Returns the offset of the closest checkpoint at or before the offset, or -1 if there's none.
+	 * @param offset
+	 * @return
+	 */
+	public int findCheckpoint(int offset);
+
+	/**
+	 * Returns the scanner state remembered at the offset, or null if there's none.
+	 * @param offset
+	 * @return
+	 */
+	public Object getCheckpoint(int offset);
+
 }
@@ -102,13 +102,16 @@ public class ToggleMarkOccurrencesAction extends TextEditorAction implements IPr
 	{
 		ITextEditor editor = getTextEditor();
 		boolean showMarkOccurrences = false;
+		boolean simplified = false;
 
 		if (editor instanceof AbstractThemeableEditor)
 		{
 			showMarkOccurrences = ((AbstractThemeableEditor) editor).isMarkingOccurrences();
+			// occurrences are never marked in minified files, so there's nothing to toggle
+			simplified = ((AbstractThemeableEditor) editor).isSimplifiedForMinifiedFile();
 		}
 
-		setEnabled(editor != null);
+		setEnabled(editor != null && !simplified);
 		setChecked(showMarkOccurrences);
 	}
 }
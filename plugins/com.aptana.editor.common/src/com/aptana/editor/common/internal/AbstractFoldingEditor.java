@@ -9,7 +9,7 @@ package com.aptana.editor.common.internal;
 
 import java.lang.reflect.Field;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -80,13 +80,26 @@ public class AbstractFoldingEditor extends AbstractDecoratedTextEditor implement
 	 */
 	public synchronized void updateFoldingStructure(Map<ProjectionAnnotation, Position> annotations)
 	{
-		List<Annotation> deletions = new ArrayList<Annotation>();
-		Collection<Position> additions = annotations.values();
 		ProjectionAnnotationModel currentModel = getAnnotationModel();
 		if (currentModel == null)
 		{
 			return;
 		}
+		// Index the new regions by position and starting offset, so matching them against the current ones is linear
+		Map<Position, ProjectionAnnotation> additions = new HashMap<Position, ProjectionAnnotation>(annotations.size());
+		Map<Integer, Position> additionsByOffset = new HashMap<Integer, Position>(annotations.size());
+		for (Map.Entry<ProjectionAnnotation, Position> entry : annotations.entrySet())
+		{
+			Position position = entry.getValue();
+			if (position != null && !additions.containsKey(position))
+			{
+				additions.put(position, entry.getKey());
+				additionsByOffset.put(position.getOffset(), position);
+			}
+		}
+
+		// Leave the regions which didn't change alone
+		List<Annotation> unmatched = new ArrayList<Annotation>();
 		for (@SuppressWarnings("rawtypes")
 		Iterator iter = currentModel.getAnnotationIterator(); iter.hasNext();)
 		{
@@ -94,20 +107,51 @@ public class AbstractFoldingEditor extends AbstractDecoratedTextEditor implement
 			if (annotation instanceof ProjectionAnnotation)
 			{
 				Position position = currentModel.getPosition((Annotation) annotation);
-				if (additions.contains(position))
+				if (position != null && additions.remove(position) != null)
 				{
-					additions.remove(position);
+					if (position.equals(additionsByOffset.get(position.getOffset())))
+					{
+						additionsByOffset.remove(position.getOffset());
+					}
 				}
 				else
 				{
-					deletions.add((Annotation) annotation);
+					unmatched.add((Annotation) annotation);
 				}
 			}
 		}
-		if (annotations.size() != 0 || deletions.size() != 0)
+
+		// Resize the regions which still start at the same offset, e.g. a block which grew, so they keep their
+		// collapsed state. Only the remaining ones get deleted and added.
+		List<Annotation> deletions = new ArrayList<Annotation>();
+		List<Annotation> modifications = new ArrayList<Annotation>();
+		for (Annotation annotation : unmatched)
+		{
+			Position position = currentModel.getPosition(annotation);
+			Position moved = (position == null || position.isDeleted()) ? null : additionsByOffset.remove(position
+					.getOffset());
+			if (moved != null && additions.remove(moved) != null)
+			{
+				position.setLength(moved.getLength());
+				modifications.add(annotation);
+			}
+			else
+			{
+				deletions.add(annotation);
+			}
+		}
+
+		if (additions.isEmpty() && deletions.isEmpty() && modifications.isEmpty())
+		{
+			return;
+		}
+		Map<ProjectionAnnotation, Position> added = new HashMap<ProjectionAnnotation, Position>(additions.size());
+		for (Map.Entry<Position, ProjectionAnnotation> entry : additions.entrySet())
 		{
-			currentModel.modifyAnnotations(deletions.toArray(new Annotation[deletions.size()]), annotations, null);
+			added.put(entry.getValue(), entry.getKey());
 		}
+		currentModel.modifyAnnotations(deletions.toArray(new Annotation[deletions.size()]), added,
+				modifications.toArray(new Annotation[modifications.size()]));
 	}
 
 	protected ProjectionAnnotationModel getAnnotationModel()
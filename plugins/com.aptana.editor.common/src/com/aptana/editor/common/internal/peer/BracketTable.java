@@ -0,0 +1,339 @@
+/**
+ * Aptana Studio
+ * Copyright (c) 2005-2012 by Appcelerator, Inc. All Rights Reserved.
+ * Licensed under the terms of the GNU Public License (GPL) v3 (with exceptions).
+ * Please see the license.html included with this distribution for details.
+ * Any modifications to this file must keep this entire header intact.
+ */
+package com.aptana.editor.common.internal.peer;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.eclipse.jface.text.DocumentEvent;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentListener;
+import org.eclipse.jface.text.ITypedRegion;
+
+/**
+ * The offsets of the bracket characters of a document, <code>()[]{}&lt;&gt;</code>, kept sorted and up to date as the
+ * document gets edited. Edits only rescan the text they insert, so finding a matching bracket or deciding whether a
+ * bracket is unpaired walks the (much smaller) bracket arrays instead of the document's text.
+ * <p>
+ * The table doesn't know about partitions: callers attach the partition types with
+ * {@link #getContentTypes(ITypedRegion[])}, once per revision, and pair the brackets within them with
+ * {@link #computeMatches(String[])}.
+ * </p>
+ */
+public class BracketTable implements IDocumentListener
+{
+	private static final String BRACKETS = "()[]{}<>"; //$NON-NLS-1$
+
+	private static final Map<IDocument, BracketTable> fgTables = new WeakHashMap<IDocument, BracketTable>();
+
+	private int[] fOffsets;
+	private char[] fChars;
+	private int fSize;
+	private int fRevision;
+
+	/**
+	 * Returns the table of the document, creating it (and scanning the document once) the first time.
+	 *
+	 * @param document
+	 * @return
+	 */
+	public static synchronized BracketTable getTable(IDocument document)
+	{
+		BracketTable table = fgTables.get(document);
+		if (table == null)
+		{
+			table = new BracketTable(document.get());
+			// prenotified, so the table is up to date by the time the other listeners look for brackets. The table
+			// must not reference the document, or the document would never get collected
+			document.addPrenotifiedDocumentListener(table);
+			fgTables.put(document, table);
+		}
+		return table;
+	}
+
+	/**
+	 * Returns true if the character is one of the brackets tracked by tables.
+	 *
+	 * @param c
+	 * @return
+	 */
+	public static boolean isBracket(char c)
+	{
+		return BRACKETS.indexOf(c) != -1;
+	}
+
+	/**
+	 * Returns the bracket pairing with the given one, or 0 if the character isn't a bracket.
+	 *
+	 * @param c
+	 * @return
+	 */
+	public static char getPeer(char c)
+	{
+		int index = BRACKETS.indexOf(c);
+		if (index == -1)
+		{
+			return 0;
+		}
+		return BRACKETS.charAt(index ^ 1);
+	}
+
+	private static boolean isOpening(char c)
+	{
+		return (BRACKETS.indexOf(c) & 1) == 0;
+	}
+
+	BracketTable(String source)
+	{
+		fOffsets = new int[64];
+		fChars = new char[64];
+		insert(0, 0, source);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.eclipse.jface.text.IDocumentListener#documentAboutToBeChanged(org.eclipse.jface.text.DocumentEvent)
+	 */
+	public void documentAboutToBeChanged(DocumentEvent event)
+	{
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.eclipse.jface.text.IDocumentListener#documentChanged(org.eclipse.jface.text.DocumentEvent)
+	 */
+	public void documentChanged(DocumentEvent event)
+	{
+		replace(event.getOffset(), event.getLength(), event.getText());
+	}
+
+	/**
+	 * Follow the replacement of a part of the document: drop the brackets which were removed, shift the ones after the
+	 * edit and add the ones which were inserted.
+	 *
+	 * @param offset
+	 * @param length
+	 * @param text
+	 */
+	synchronized void replace(int offset, int length, String text)
+	{
+		int insertedLength = (text == null) ? 0 : text.length();
+		int first = indexAtOrAfter(offset);
+		int last = indexAtOrAfter(offset + length);
+		int delta = insertedLength - length;
+		for (int i = last; i < fSize; i++)
+		{
+			fOffsets[i] += delta;
+		}
+		// close the gap left by the removed brackets
+		System.arraycopy(fOffsets, last, fOffsets, first, fSize - last);
+		System.arraycopy(fChars, last, fChars, first, fSize - last);
+		fSize -= last - first;
+		insert(first, offset, text);
+		fRevision++;
+	}
+
+	/**
+	 * Add the brackets of the text inserted at the offset, at the given index of the arrays.
+	 */
+	private void insert(int index, int offset, String text)
+	{
+		if (text == null)
+		{
+			return;
+		}
+		int count = 0;
+		int length = text.length();
+		for (int i = 0; i < length; i++)
+		{
+			if (isBracket(text.charAt(i)))
+			{
+				count++;
+			}
+		}
+		if (count == 0)
+		{
+			return;
+		}
+		if (fSize + count > fOffsets.length)
+		{
+			int capacity = Math.max(fOffsets.length * 2, fSize + count);
+			int[] offsets = new int[capacity];
+			char[] chars = new char[capacity];
+			System.arraycopy(fOffsets, 0, offsets, 0, fSize);
+			System.arraycopy(fChars, 0, chars, 0, fSize);
+			fOffsets = offsets;
+			fChars = chars;
+		}
+		System.arraycopy(fOffsets, index, fOffsets, index + count, fSize - index);
+		System.arraycopy(fChars, index, fChars, index + count, fSize - index);
+		fSize += count;
+		for (int i = 0; i < length; i++)
+		{
+			char c = text.charAt(i);
+			if (isBracket(c))
+			{
+				fOffsets[index] = offset + i;
+				fChars[index] = c;
+				index++;
+			}
+		}
+	}
+
+	/**
+	 * The index of the first bracket at or after the offset, or the size if there's none
+	 */
+	private int indexAtOrAfter(int offset)
+	{
+		int low = 0;
+		int high = fSize - 1;
+		while (low <= high)
+		{
+			int mid = (low + high) >>> 1;
+			if (fOffsets[mid] < offset)
+			{
+				low = mid + 1;
+			}
+			else
+			{
+				high = mid - 1;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Counts the edits made to the document since the table was created. Anything derived from the table for one
+	 * revision, like the result of {@link #computeMatches(String[])}, is valid until it changes.
+	 *
+	 * @return
+	 */
+	public synchronized int getRevision()
+	{
+		return fRevision;
+	}
+
+	/**
+	 * The number of brackets in the document
+	 *
+	 * @return
+	 */
+	public synchronized int size()
+	{
+		return fSize;
+	}
+
+	public synchronized int getOffset(int index)
+	{
+		return fOffsets[index];
+	}
+
+	public synchronized char getChar(int index)
+	{
+		return fChars[index];
+	}
+
+	/**
+	 * Returns the index of the bracket at the given offset, or -1 if there's no bracket there.
+	 *
+	 * @param offset
+	 * @return
+	 */
+	public synchronized int indexOf(int offset)
+	{
+		int index = indexAtOrAfter(offset);
+		if (index < fSize && fOffsets[index] == offset)
+		{
+			return index;
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the type of the partition holding each bracket, or null for the brackets outside of all the partitions.
+	 * The partitions must be sorted by offset and not overlap, like the ones computed by a document.
+	 *
+	 * @param partitions
+	 * @return
+	 */
+	public synchronized String[] getContentTypes(ITypedRegion[] partitions)
+	{
+		String[] types = new String[fSize];
+		int p = 0;
+		for (int i = 0; i < fSize; i++)
+		{
+			int offset = fOffsets[i];
+			while (p < partitions.length && partitions[p].getOffset() + partitions[p].getLength() <= offset)
+			{
+				p++;
+			}
+			if (p == partitions.length)
+			{
+				break;
+			}
+			if (partitions[p].getOffset() <= offset)
+			{
+				types[i] = partitions[p].getType();
+			}
+		}
+		return types;
+	}
+
+	/**
+	 * Pairs the brackets with their peers. Brackets only pair with the ones in the same group, like partitions of the
+	 * same type, and nest as usual within it; brackets with a null group don't pair at all.
+	 *
+	 * @param groups
+	 *            the group of each bracket, as many as the table's size
+	 * @return the index of the peer of each bracket, -1 for the ones which are unpaired
+	 */
+	public synchronized int[] computeMatches(String[] groups)
+	{
+		int[] matches = new int[fSize];
+		// the indices of the brackets still open, by group and kind of bracket
+		Map<String, int[]> stacks = new HashMap<String, int[]>();
+		for (int i = 0; i < fSize; i++)
+		{
+			matches[i] = -1;
+			String group = groups[i];
+			if (group == null)
+			{
+				continue;
+			}
+			char c = fChars[i];
+			char opening = isOpening(c) ? c : getPeer(c);
+			String key = opening + group;
+			int[] stack = stacks.get(key);
+			if (isOpening(c))
+			{
+				if (stack == null)
+				{
+					stack = new int[9];
+					stacks.put(key, stack);
+				}
+				else if (stack[0] + 1 == stack.length)
+				{
+					int[] grown = new int[stack.length * 2];
+					System.arraycopy(stack, 0, grown, 0, stack.length);
+					stack = grown;
+					stacks.put(key, stack);
+				}
+				// the first slot holds the depth
+				stack[++stack[0]] = i;
+			}
+			else if (stack != null && stack[0] > 0)
+			{
+				int peer = stack[stack[0]--];
+				matches[i] = peer;
+				matches[peer] = i;
+			}
+		}
+		return matches;
+	}
+}
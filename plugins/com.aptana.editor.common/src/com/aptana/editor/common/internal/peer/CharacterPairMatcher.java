@@ -50,6 +50,13 @@ public class CharacterPairMatcher implements ICharacterPairMatcher
 	private final CharPairs fPairs;
 	private final String fPartitioning;
 
+	/**
+	 * The brackets paired for the last revision of the last document we matched in
+	 */
+	private BracketTable fMatchesTable;
+	private int fMatchesRevision;
+	private int[] fMatches;
+
 	/**
 	 * Avoid looking up scopes and matching scopes all the time by caching if a given partition type is a comment.
 	 */
@@ -105,6 +112,8 @@ public class CharacterPairMatcher implements ICharacterPairMatcher
 	/* @see ICharacterPairMatcher#dispose() */
 	public void dispose()
 	{
+		fMatchesTable = null;
+		fMatches = null;
 	}
 
 	/* @see ICharacterPairMatcher#clear() */
@@ -195,7 +204,11 @@ public class CharacterPairMatcher implements ICharacterPairMatcher
 		char endChar = fPairs.getMatching(prevChar);
 
 		int endOffset = -1;
-		if (isForward)
+		if (!fPairs.isAmbiguous(prevChar) && BracketTable.getPeer(prevChar) == endChar)
+		{
+			endOffset = findPeer(doc, charOffset);
+		}
+		else if (isForward)
 		{
 			endOffset = searchForward(doc, searchStartPosition, prevChar, endChar, contentType);
 		}
@@ -222,6 +235,37 @@ public class CharacterPairMatcher implements ICharacterPairMatcher
 		return TextUtilities.getPartition(doc, fPartitioning, charOffset, false);
 	}
 
+	/**
+	 * Looks the peer of the bracket at the offset up in the document's {@link BracketTable}. The brackets get paired
+	 * once per revision of the document, so moving the caret around only costs a lookup.
+	 */
+	private int findPeer(IDocument doc, int charOffset) throws BadLocationException
+	{
+		BracketTable table = BracketTable.getTable(doc);
+		int index = table.indexOf(charOffset);
+		if (index == -1)
+		{
+			return -1;
+		}
+		if (table != fMatchesTable || table.getRevision() != fMatchesRevision)
+		{
+			String[] groups = table.getContentTypes(computePartitioning(doc, 0, doc.getLength()));
+			for (int i = 0; i < groups.length; i++)
+			{
+				// brackets pair across language switch partitions, like the text search does
+				if (CompositePartitionScanner.END_SWITCH_TAG.equals(groups[i]))
+				{
+					groups[i] = CompositePartitionScanner.START_SWITCH_TAG;
+				}
+			}
+			fMatches = table.computeMatches(groups);
+			fMatchesTable = table;
+			fMatchesRevision = table.getRevision();
+		}
+		int match = fMatches[index];
+		return (match == -1) ? -1 : table.getOffset(match);
+	}
+
 	private int searchBackwards(IDocument doc, int searchStartPosition, char startChar, char endChar,
 			String partitionType) throws BadLocationException
 	{
@@ -8,9 +8,7 @@
 package com.aptana.editor.common.internal.peer;
 
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Stack;
 
 import org.eclipse.jface.text.BadLocationException;
@@ -40,11 +38,8 @@ import org.eclipse.ui.texteditor.link.EditorLinkedModeUI;
 
 import com.aptana.core.logging.IdeLog;
 import com.aptana.editor.common.CommonEditorPlugin;
-import com.aptana.scope.IScopeSelector;
-import com.aptana.scope.ScopeSelector;
 import com.aptana.scripting.model.BundleManager;
 import com.aptana.scripting.model.SmartTypingPairsElement;
-import com.aptana.scripting.model.filters.ScopeFilter;
 
 /**
  * A class that can be installed on a ITextViewer and will auto-insert the closing peer character for typical paired
@@ -223,29 +218,12 @@ public class PeerCharacterCloser implements VerifyKeyListener, ILinkedModeListen
 
 	protected List<Character> getPairs(String scope)
 	{
-		ScopeFilter filter = new ScopeFilter(scope);
-		List<SmartTypingPairsElement> pairs = BundleManager.getInstance().getPairs(filter);
-		if (pairs == null || pairs.isEmpty())
+		SmartTypingPairsElement pairs = BundleManager.getInstance().getPairsForScope(scope);
+		if (pairs == null)
 		{
 			return Collections.emptyList();
 		}
-		Map<IScopeSelector, SmartTypingPairsElement> map = new HashMap<IScopeSelector, SmartTypingPairsElement>();
-		for (SmartTypingPairsElement pe : pairs)
-		{
-			IScopeSelector ss = pe.getScopeSelector();
-			if (ss == null)
-			{
-				continue;
-			}
-			map.put(ss, pe);
-		}
-		IScopeSelector bestMatch = ScopeSelector.bestMatch(map.keySet(), scope);
-		SmartTypingPairsElement yay = map.get(bestMatch);
-		if (yay == null)
-		{
-			return Collections.emptyList();
-		}
-		return yay.getPairs();
+		return pairs.getPairs();
 	}
 
 	protected String getScopeAtOffset(IDocument document, final int offset) throws BadLocationException
@@ -264,6 +242,10 @@ public class PeerCharacterCloser implements VerifyKeyListener, ILinkedModeListen
 			String partition = document.getContentType(offset);
 			int index = partition.indexOf('_', 2);
 			String prefix = partition.substring(0, index);
+			if (openingChar != closingCharacter && BracketTable.getPeer(openingChar) == closingCharacter)
+			{
+				return unpairedBracket(openingChar, closingCharacter, document, offset, prefix);
+			}
 
 			// Iterate through partitions sharing same prefix, which is a hacky way of doing "same language"
 			int stackLevel = 0;
@@ -351,6 +333,42 @@ public class PeerCharacterCloser implements VerifyKeyListener, ILinkedModeListen
 		return false;
 	}
 
+	/**
+	 * Same as the text scan of {@link #unpairedClose(char, char, IDocument, int)}, over the brackets of the document's
+	 * {@link BracketTable} instead of its text.
+	 */
+	private boolean unpairedBracket(char openingChar, char closingChar, IDocument document, int offset,
+			String prefix) throws BadLocationException
+	{
+		BracketTable table = BracketTable.getTable(document);
+		String[] types = table.getContentTypes(computePartitioning(document, 0, document.getLength()));
+		int stackLevel = 0;
+		for (int i = 0; i < types.length; i++)
+		{
+			String type = types[i];
+			// HACK We skip comment or string partitions here. We rely on naming convention for partitions to do so!
+			if (type == null || type.contains("_comment") || type.contains("_string") //$NON-NLS-1$ //$NON-NLS-2$
+					|| !type.startsWith(prefix))
+			{
+				continue;
+			}
+			char c = table.getChar(i);
+			if (c == openingChar)
+			{
+				stackLevel++;
+			}
+			else if (c == closingChar)
+			{
+				stackLevel--;
+				if (stackLevel < 0 && table.getOffset(i) >= offset)
+				{
+					return true;
+				}
+			}
+		}
+		return stackLevel != 0;
+	}
+
 	protected ITypedRegion[] computePartitioning(IDocument document, int offset, int length)
 			throws BadLocationException
 	{
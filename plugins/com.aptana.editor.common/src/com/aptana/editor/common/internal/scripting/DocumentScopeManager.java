@@ -17,11 +17,8 @@ import org.eclipse.core.runtime.IAdaptable;
 import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.ITextViewer;
-import org.eclipse.jface.text.Position;
-import org.eclipse.jface.text.TypedPosition;
 import org.eclipse.jface.text.source.ISourceViewer;
 
-import com.aptana.core.logging.IdeLog;
 import com.aptana.core.util.ArrayUtil;
 import com.aptana.core.util.StringUtil;
 import com.aptana.editor.common.AbstractThemeableEditor;
@@ -31,6 +28,7 @@ import com.aptana.editor.common.IPartitioningConfiguration;
 import com.aptana.editor.common.scripting.IContentTypeTranslator;
 import com.aptana.editor.common.scripting.IDocumentScopeManager;
 import com.aptana.editor.common.scripting.QualifiedContentType;
+import com.aptana.editor.common.text.rules.TokenScopeStore;
 import com.aptana.editor.common.util.EditorUtil;
 
 /**
@@ -213,52 +211,12 @@ public class DocumentScopeManager implements IDocumentScopeManager
 			return null;
 		}
 
-		try
-		{
-			// Force adding the category in case it doesn't exist yet...
-			document.addPositionCategory(ICommonConstants.SCOPE_CATEGORY);
-			Position[] scopes = document.getPositions(ICommonConstants.SCOPE_CATEGORY);
-			int index = document.computeIndexInCategory(ICommonConstants.SCOPE_CATEGORY, offset);
-
-			if (scopes == null || scopes.length == 0)
-			{
-				return null;
-			}
-			if (index >= scopes.length)
-			{
-				index = scopes.length - 1;
-			}
-			Position scope = scopes[index];
-			if (scope == null)
-			{
-				return null;
-			}
-			if (!scope.includes(offset))
-			{
-				if (index > 0)
-				{
-					scope = scopes[--index];
-					if (scope == null || !scope.includes(offset))
-					{
-						return null;
-					}
-				}
-				else
-				{
-					return null;
-				}
-			}
-			if (scope instanceof TypedPosition)
-			{
-				TypedPosition pos = (TypedPosition) scope;
-				return pos.getType();
-			}
-		}
-		catch (Exception e)
+		TokenScopeStore store = TokenScopeStore.peekStore(document);
+		if (store == null)
 		{
-			IdeLog.logError(CommonEditorPlugin.getDefault(), e);
+			return null;
 		}
-		return null;
+		return store.getScope(offset);
 	}
 
 	public String getPartitionScopeFragmentsAtOffset(IDocument document, int offset) throws BadLocationException
@@ -0,0 +1,216 @@
+/**
+ * Aptana Studio
+ * Copyright (c) 2005-2012 by Appcelerator, Inc. All Rights Reserved.
+ * Licensed under the terms of the GNU Public License (GPL) v3 (with exceptions).
+ * Please see the license.html included with this distribution for details.
+ * Any modifications to this file must keep this entire header intact.
+ */
+package com.aptana.editor.common.outline;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.eclipse.jface.viewers.IElementComparer;
+
+import com.aptana.core.util.ObjectUtil;
+import com.aptana.parsing.ast.IParseNode;
+
+/**
+ * Compares outline elements by what they stand for rather than by where they are: two elements are equal when they
+ * have the same label and their nodes have the same type, language and text, sit at the same place among their
+ * siblings of the same kind, and have equal parents. Offsets are ignored.
+ * <p>
+ * An edit shifts the offsets of everything after it, so the elements built from the next AST don't equal the ones
+ * they replace. With this comparer the outline viewer still recognizes them, keeping their expansion and selection
+ * state, and only the parts of the outline which really changed need to be refreshed.
+ * </p>
+ * <p>
+ * The place of a node among its siblings is computed for all the children of its parent at once, and kept until
+ * {@link #reset()}, which the outline calls once it's done comparing two ASTs.
+ * </p>
+ */
+public class CommonOutlineElementComparer implements IElementComparer
+{
+	/**
+	 * What tells nodes apart, besides their place
+	 */
+	private static class Kind
+	{
+		private final short type;
+		private final String language;
+		private final String text;
+
+		private Kind(IParseNode node)
+		{
+			type = node.getNodeType();
+			language = node.getLanguage();
+			text = node.getText();
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (!(obj instanceof Kind))
+			{
+				return false;
+			}
+			Kind other = (Kind) obj;
+			return type == other.type && ObjectUtil.areEqual(language, other.language)
+					&& ObjectUtil.areEqual(text, other.text);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			int hash = 31 * type + ((language == null) ? 0 : language.hashCode());
+			return 31 * hash + ((text == null) ? 0 : text.hashCode());
+		}
+	}
+
+	/**
+	 * The occurrence of the nodes whose parent's children we went through, by identity since nodes from two ASTs may
+	 * be equal
+	 */
+	private final Map<IParseNode, Integer> fOccurrences = new IdentityHashMap<IParseNode, Integer>();
+
+	/**
+	 * Forget the occurrences computed so far, so we don't hold on to the nodes of ASTs which are gone
+	 */
+	public void reset()
+	{
+		fOccurrences.clear();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.eclipse.jface.viewers.IElementComparer#equals(java.lang.Object, java.lang.Object)
+	 */
+	public boolean equals(Object a, Object b)
+	{
+		if (a == b)
+		{
+			return true;
+		}
+		if (a == null || b == null || a.getClass() != b.getClass())
+		{
+			return false;
+		}
+		if (a instanceof CommonOutlineItem)
+		{
+			CommonOutlineItem item1 = (CommonOutlineItem) a;
+			CommonOutlineItem item2 = (CommonOutlineItem) b;
+			return ObjectUtil.areEqual(item1.getLabel(), item2.getLabel())
+					&& nodeEquals(item1.getReferenceNode(), item2.getReferenceNode());
+		}
+		if (a instanceof IParseNode)
+		{
+			return nodeEquals((IParseNode) a, (IParseNode) b);
+		}
+		return a.equals(b);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.eclipse.jface.viewers.IElementComparer#hashCode(java.lang.Object)
+	 */
+	public int hashCode(Object element)
+	{
+		if (element instanceof CommonOutlineItem)
+		{
+			CommonOutlineItem item = (CommonOutlineItem) element;
+			String label = item.getLabel();
+			return 31 * ((label == null) ? 0 : label.hashCode()) + nodeHashCode(item.getReferenceNode());
+		}
+		if (element instanceof IParseNode)
+		{
+			return nodeHashCode((IParseNode) element);
+		}
+		return (element == null) ? 0 : element.hashCode();
+	}
+
+	private boolean nodeEquals(IParseNode node1, IParseNode node2)
+	{
+		while (node1 != node2)
+		{
+			if (node1 == null || node2 == null || node1.getClass() != node2.getClass() || !isSameKind(node1, node2)
+					|| getOccurrence(node1) != getOccurrence(node2))
+			{
+				return false;
+			}
+			node1 = node1.getParent();
+			node2 = node2.getParent();
+		}
+		return true;
+	}
+
+	private int nodeHashCode(IParseNode node)
+	{
+		int hash = 0;
+		for (IParseNode current = node; current != null; current = current.getParent())
+		{
+			String text = current.getText();
+			hash = 31 * hash + current.getNodeType();
+			hash = 31 * hash + ((text == null) ? 0 : text.hashCode());
+			hash = 31 * hash + getOccurrence(current);
+		}
+		return hash;
+	}
+
+	private static boolean isSameKind(IParseNode node1, IParseNode node2)
+	{
+		return node1.getNodeType() == node2.getNodeType()
+				&& ObjectUtil.areEqual(node1.getLanguage(), node2.getLanguage())
+				&& ObjectUtil.areEqual(node1.getText(), node2.getText());
+	}
+
+	/**
+	 * The number of siblings of the same kind preceding the node, which tells apart nodes that look the same, like two
+	 * anonymous functions in a row
+	 */
+	private int getOccurrence(IParseNode node)
+	{
+		Integer occurrence = fOccurrences.get(node);
+		if (occurrence == null)
+		{
+			IParseNode parent = node.getParent();
+			if (parent == null)
+			{
+				return 0;
+			}
+			computeOccurrences(parent);
+			occurrence = fOccurrences.get(node);
+			if (occurrence == null)
+			{
+				// not one of its parent's children
+				return 0;
+			}
+		}
+		return occurrence;
+	}
+
+	/**
+	 * Number the children of the parent within their kind, in a single pass
+	 */
+	private void computeOccurrences(IParseNode parent)
+	{
+		Map<Kind, Integer> counts = new HashMap<Kind, Integer>();
+		int count = parent.getChildCount();
+		for (int i = 0; i < count; i++)
+		{
+			IParseNode child = parent.getChild(i);
+			if (child == null)
+			{
+				continue;
+			}
+			Kind kind = new Kind(child);
+			Integer occurrence = counts.get(kind);
+			if (occurrence == null)
+			{
+				occurrence = 0;
+			}
+			fOccurrences.put(child, occurrence);
+			counts.put(kind, occurrence + 1);
+		}
+	}
+}
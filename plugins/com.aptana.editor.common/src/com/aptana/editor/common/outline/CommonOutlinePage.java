@@ -7,6 +7,9 @@
  */
 package com.aptana.editor.common.outline;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
@@ -20,6 +23,7 @@ import org.eclipse.jface.util.IPropertyChangeListener;
 import org.eclipse.jface.util.PropertyChangeEvent;
 import org.eclipse.jface.viewers.DoubleClickEvent;
 import org.eclipse.jface.viewers.IDoubleClickListener;
+import org.eclipse.jface.viewers.IElementComparer;
 import org.eclipse.jface.viewers.ILabelProvider;
 import org.eclipse.jface.viewers.ISelection;
 import org.eclipse.jface.viewers.IStructuredSelection;
@@ -191,6 +195,7 @@ public class CommonOutlinePage extends ContentOutlinePage implements IPropertyCh
 
 		final TreeViewer viewer = getTreeViewer();
 		viewer.setUseHashlookup(true);
+		viewer.setComparer(new CommonOutlineElementComparer());
 		viewer.setContentProvider(fContentProvider);
 		viewer.setLabelProvider(fLabelProvider);
 		fInput = new CommonOutlinePageInput(fEditor.getAST());
@@ -299,12 +304,118 @@ public class CommonOutlinePage extends ContentOutlinePage implements IPropertyCh
 
 	public void refresh(IParseRootNode ast)
 	{
-		// Just change the internal ast and call refresh, that way we keep
+		// Just change the internal ast and refresh what changed, that way we keep
 		// the expanded state of items.
 		if (!isDisposed())
 		{
+			IParseRootNode oldAst = fInput.ast;
 			fInput.ast = ast;
-			getTreeViewer().refresh();
+			try
+			{
+				if (oldAst == null || ast == null || oldAst == ast)
+				{
+					getTreeViewer().refresh();
+				}
+				else
+				{
+					refreshChanges(new CommonOutlinePageInput(oldAst));
+				}
+			}
+			finally
+			{
+				resetComparer();
+			}
+		}
+	}
+
+	/**
+	 * Lets the comparer drop what it computed for the nodes of the ASTs we just compared
+	 */
+	private void resetComparer()
+	{
+		IElementComparer comparer = getTreeViewer().getComparer();
+		if (comparer instanceof CommonOutlineElementComparer)
+		{
+			((CommonOutlineElementComparer) comparer).reset();
+		}
+	}
+
+	/**
+	 * Compares the outline of the previous AST with the current one, and only refreshes the subtrees whose children
+	 * were added, removed or changed. The elements which merely moved get updated in place, so that their items
+	 * reference the current AST.
+	 */
+	private void refreshChanges(CommonOutlinePageInput oldInput)
+	{
+		TreeViewer viewer = getTreeViewer();
+		IElementComparer comparer = viewer.getComparer();
+		if (comparer == null)
+		{
+			viewer.refresh();
+			return;
+		}
+
+		List<Object> updates = new ArrayList<Object>();
+		List<Object> refreshes = new ArrayList<Object>();
+		collectChanges(fInput, fContentProvider.getElements(oldInput), fContentProvider.getElements(fInput), comparer,
+				updates, refreshes);
+		if (refreshes.contains(fInput))
+		{
+			viewer.refresh();
+			return;
+		}
+		if (updates.isEmpty() && refreshes.isEmpty())
+		{
+			return;
+		}
+
+		Control control = viewer.getControl();
+		control.setRedraw(false);
+		try
+		{
+			viewer.update(updates.toArray(), null);
+			for (Object element : refreshes)
+			{
+				viewer.refresh(element);
+			}
+		}
+		finally
+		{
+			control.setRedraw(true);
+		}
+	}
+
+	private void collectChanges(Object parent, Object[] oldChildren, Object[] newChildren, IElementComparer comparer,
+			List<Object> updates, List<Object> refreshes)
+	{
+		if (oldChildren.length != newChildren.length)
+		{
+			refreshes.add(parent);
+			return;
+		}
+		for (int i = 0; i < newChildren.length; i++)
+		{
+			if (!comparer.equals(oldChildren[i], newChildren[i]))
+			{
+				refreshes.add(parent);
+				return;
+			}
+		}
+		for (int i = 0; i < newChildren.length; i++)
+		{
+			Object child = newChildren[i];
+			// only the children the tree has created items for need any work, the others get built from the current
+			// AST when they're shown
+			if (getTreeViewer().testFindItem(child) == null)
+			{
+				continue;
+			}
+			if (oldChildren[i] != child)
+			{
+				updates.add(child);
+			}
+			collectChanges(child, fContentProvider.getChildren(oldChildren[i]), fContentProvider.getChildren(child),
+					comparer, updates, refreshes);
 		}
 	}
 
@@ -438,7 +549,14 @@ public class CommonOutlinePage extends ContentOutlinePage implements IPropertyCh
 	{
 		if (!isDisposed())
 		{
-			getTreeViewer().refresh();
+			try
+			{
+				getTreeViewer().refresh();
+			}
+			finally
+			{
+				resetComparer();
+			}
 		}
 	}
 
@@ -114,6 +114,12 @@ public interface IPreferenceConstants
 	 */
 	public static final String EDITOR_ENABLE_FOLDING = CommonEditorPlugin.PLUGIN_ID + ".enableFolding"; //$NON-NLS-1$
 
+	/**
+	 * The preference key used to turn off folding and mark occurrences for minified files, like jquery.min.js
+	 */
+	public static final String EDITOR_SIMPLIFY_MINIFIED_FILES = CommonEditorPlugin.PLUGIN_ID
+			+ ".simplifyMinifiedFiles"; //$NON-NLS-1$
+
 	/**
 	 * The preference key used to enable and disable word wrap
 	 */
@@ -50,6 +50,9 @@ public class PreferenceInitializer extends AbstractPreferenceInitializer
 		// enable folding
 		prefs.putBoolean(IPreferenceConstants.EDITOR_ENABLE_FOLDING, true);
 
+		// no folding or mark occurrences for minified files
+		prefs.putBoolean(IPreferenceConstants.EDITOR_SIMPLIFY_MINIFIED_FILES, true);
+
 		// default scopes for spell checking
 		prefs.put(IPreferenceConstants.ENABLED_SPELLING_SCOPES, "comment.block.documentation,comment.line,comment.block"); //$NON-NLS-1$
 	}
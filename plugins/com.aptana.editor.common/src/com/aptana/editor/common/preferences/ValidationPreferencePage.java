@@ -328,6 +328,11 @@ public class ValidationPreferencePage extends PreferencePage implements IWorkben
 			return wrapped.isRequired();
 		}
 
+		public boolean isThreadSafe()
+		{
+			return wrapped.isThreadSafe();
+		}
+
 		public List<String> getFilters()
 		{
 			if (filters != null)
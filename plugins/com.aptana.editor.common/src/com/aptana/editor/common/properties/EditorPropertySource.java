@@ -7,10 +7,6 @@
  */
 package com.aptana.editor.common.properties;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
-
 import org.eclipse.core.runtime.IAdaptable;
 import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.source.ISourceViewer;
@@ -20,11 +16,8 @@ import org.eclipse.ui.views.properties.PropertyDescriptor;
 
 import com.aptana.editor.common.CommonEditorPlugin;
 import com.aptana.editor.common.scripting.QualifiedContentType;
-import com.aptana.scope.IScopeSelector;
-import com.aptana.scope.ScopeSelector;
 import com.aptana.theme.Theme;
 import com.aptana.theme.ThemePlugin;
-import com.aptana.theme.ThemeRule;
 
 public class EditorPropertySource implements IPropertySource
 {
@@ -130,28 +123,7 @@ public class EditorPropertySource implements IPropertySource
 			else if (key.equals(IEditorPropertyConstants.THEME_KEY))
 			{
 				Theme theme = ThemePlugin.getDefault().getThemeManager().getCurrentTheme();
-				Collection<IScopeSelector> selectors = new ArrayList<IScopeSelector>();
-				List<ThemeRule> rules = theme.getTokens();
-
-				if (rules != null)
-				{
-					for (ThemeRule rule : rules)
-					{
-						if (!rule.isSeparator())
-						{
-							selectors.add(rule.getScopeSelector());
-						}
-					}
-					IScopeSelector matchingSelector = ScopeSelector.bestMatch(selectors, scope);
-					for (ThemeRule rule : rules)
-					{
-						if (matchingSelector.equals(rule.getScopeSelector()))
-						{
-							return rule;
-						}
-					}
-
-				}
+				return theme.winningRule(scope);
 			}
 		}
 		catch (Exception e)
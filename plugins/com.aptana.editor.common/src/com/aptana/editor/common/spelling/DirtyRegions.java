@@ -0,0 +1,135 @@
+/**
+ * Aptana Studio
+ * Copyright (c) 2005-2012 by Appcelerator, Inc. All Rights Reserved.
+ * Licensed under the terms of the GNU Public License (GPL) v3 (with exceptions).
+ * Please see the license.html included with this distribution for details.
+ * Any modifications to this file must keep this entire header intact.
+ */
+
+package com.aptana.editor.common.spelling;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jface.text.IRegion;
+import org.eclipse.jface.text.Region;
+
+/**
+ * The parts of a document which were edited since they were last spell checked, as sorted, non-overlapping ranges.
+ * The ranges follow the edits made to the document, so the spelling problems found outside of them are still valid. An
+ * empty range marks a deletion, which may have joined two words.
+ * <p>
+ * Not thread-safe, callers synchronize.
+ * </p>
+ */
+class DirtyRegions {
+
+	/**
+	 * Pairs of start and end offsets
+	 */
+	private final List<int[]> ranges = new ArrayList<int[]>();
+
+	/**
+	 * Mark a part of the document as dirty.
+	 *
+	 * @param offset
+	 * @param length
+	 */
+	public void add(int offset, int length) {
+		int start = offset;
+		int end = offset + length;
+		int i = 0;
+		while (i < ranges.size() && ranges.get(i)[1] < start) {
+			i++;
+		}
+		// merge with all the ranges overlapping or touching the new one
+		while (i < ranges.size() && ranges.get(i)[0] <= end) {
+			int[] range = ranges.remove(i);
+			start = Math.min(start, range[0]);
+			end = Math.max(end, range[1]);
+		}
+		ranges.add(i, new int[] { start, end });
+	}
+
+	/**
+	 * Follow an edit of the document: shift the ranges after it, and mark the inserted text as dirty.
+	 *
+	 * @param offset
+	 * @param removedLength
+	 * @param insertedLength
+	 */
+	public void documentChanged(int offset, int removedLength, int insertedLength) {
+		int removedEnd = offset + removedLength;
+		int delta = insertedLength - removedLength;
+		for (int[] range : ranges) {
+			if (range[1] < offset) {
+				continue;
+			}
+			if (range[0] > removedEnd) {
+				range[0] += delta;
+				range[1] += delta;
+			} else {
+				// touches the replaced text, so it now spans the inserted one
+				range[0] = Math.min(range[0], offset);
+				range[1] = Math.max(range[1] + delta, offset + insertedLength);
+			}
+		}
+		add(offset, insertedLength);
+	}
+
+	/**
+	 * Mark a part of the document as clean again, once it's been checked.
+	 *
+	 * @param offset
+	 * @param length
+	 */
+	public void remove(int offset, int length) {
+		int end = offset + length;
+		List<int[]> result = new ArrayList<int[]>(ranges.size() + 1);
+		for (int[] range : ranges) {
+			if (range[1] < offset || range[0] > end) {
+				result.add(range);
+				continue;
+			}
+			if (range[0] < offset) {
+				result.add(new int[] { range[0], offset });
+			}
+			if (range[1] > end) {
+				result.add(new int[] { end, range[1] });
+			}
+		}
+		ranges.clear();
+		ranges.addAll(result);
+	}
+
+	/**
+	 * Returns the dirty parts of the given region of the document.
+	 *
+	 * @param offset
+	 * @param length
+	 * @return
+	 */
+	public IRegion[] getRegions(int offset, int length) {
+		int end = offset + length;
+		List<IRegion> result = new ArrayList<IRegion>();
+		for (int[] range : ranges) {
+			if (range[0] > end) {
+				break;
+			}
+			int start = Math.max(range[0], offset);
+			int stop = Math.min(range[1], end);
+			if (start < stop || (range[0] == range[1] && start == stop)) {
+				result.add(new Region(start, stop - start));
+			}
+		}
+		return result.toArray(new IRegion[result.size()]);
+	}
+
+	public boolean isEmpty() {
+		return ranges.isEmpty();
+	}
+
+	public void clear() {
+		ranges.clear();
+	}
+}
@@ -4,6 +4,7 @@ import org.eclipse.osgi.util.NLS;
 
 public class Messages extends NLS {
 	private static final String BUNDLE_NAME = "com.aptana.editor.common.spelling.messages"; //$NON-NLS-1$
+	public static String MultiRegionSpellingReconcileStrategy_JobName;
 	public static String ScopeDefinitions_BlockComment;
 	public static String ScopeDefinitions_Documentation;
 	public static String ScopeDefinitions_DoubleQuotedString;
@@ -16,11 +16,22 @@ import java.util.List;
 import java.util.Map;
 
 import org.eclipse.core.runtime.Assert;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.DocumentEvent;
+import org.eclipse.jface.text.DocumentPartitioningChangedEvent;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentListener;
+import org.eclipse.jface.text.IDocumentPartitioningListener;
+import org.eclipse.jface.text.IDocumentPartitioningListenerExtension2;
 import org.eclipse.jface.text.IRegion;
 import org.eclipse.jface.text.ISynchronizable;
 import org.eclipse.jface.text.ITypedRegion;
 import org.eclipse.jface.text.Position;
+import org.eclipse.jface.text.Region;
 import org.eclipse.jface.text.TextUtilities;
 import org.eclipse.jface.text.TypedRegion;
 import org.eclipse.jface.text.source.Annotation;
@@ -30,19 +41,59 @@ import org.eclipse.jface.text.source.IAnnotationModelExtension2;
 import org.eclipse.jface.text.source.ISourceViewer;
 import org.eclipse.ui.texteditor.spelling.ISpellingProblemCollector;
 import org.eclipse.ui.texteditor.spelling.SpellingAnnotation;
+import org.eclipse.ui.texteditor.spelling.SpellingContext;
 import org.eclipse.ui.texteditor.spelling.SpellingProblem;
 import org.eclipse.ui.texteditor.spelling.SpellingReconcileStrategy;
 import org.eclipse.ui.texteditor.spelling.SpellingService;
 
+import com.aptana.core.util.EclipseUtil;
+import com.aptana.editor.common.text.reconciler.IDisposableReconcilingStrategy;
+
 /**
+ * Spell checks the partitions of the given content types.
+ * <p>
+ * Only the text edited since the last check is checked again, expanded to whole words. The problems found elsewhere
+ * are kept, their annotations' positions following the edits. Checking happens in a background job, which is canceled
+ * as soon as the document changes; whatever it didn't get to stays dirty for the next reconcile.
+ * </p>
+ *
  * @author Max Stepanov
  *
  */
-public class MultiRegionSpellingReconcileStrategy extends SpellingReconcileStrategy {
+public class MultiRegionSpellingReconcileStrategy extends SpellingReconcileStrategy implements
+		IDisposableReconcilingStrategy {
+
+	/**
+	 * A part of the document to check, or to clear of spelling problems when it's not of a content type we check
+	 */
+	private static class Work {
+		private final IRegion region;
+		private final boolean check;
+
+		private Work(IRegion region, boolean check) {
+			this.region = region;
+			this.check = check;
+		}
+	}
 
 	private final String documentPartitioning;
 	private final Collection<String> contentTypes;
-	private IRegion currentRegion;
+	private final SpellingService spellingService;
+	private final SpellingContext spellingContext;
+
+	private final Object lock = new Object();
+	private final DirtyRegions dirtyRegions = new DirtyRegions();
+	private final List<Work> queue = new ArrayList<Work>();
+
+	/**
+	 * Incremented on each document change, so results computed on an older revision get discarded
+	 */
+	private int changeCount;
+	private IRegion pendingPartitioningChange;
+	private boolean documentChanging;
+
+	private final DocumentListener documentListener = new DocumentListener();
+	private final SpellingJob job = new SpellingJob();
 
 	/**
 	 * @param viewer
@@ -52,6 +103,51 @@ public class MultiRegionSpellingReconcileStrategy extends SpellingReconcileStrat
 		super(viewer, spellingService);
 		this.documentPartitioning = documentPartitioning;
 		this.contentTypes = contentTypes;
+		this.spellingService = spellingService;
+		spellingContext = new SpellingContext();
+		spellingContext.setContentType(getContentType());
+	}
+
+	/* (non-Javadoc)
+	 * @see org.eclipse.ui.texteditor.spelling.SpellingReconcileStrategy#setDocument(org.eclipse.jface.text.IDocument)
+	 */
+	@Override
+	public void setDocument(IDocument document) {
+		IDocument oldDocument = getDocument();
+		if (oldDocument != null) {
+			oldDocument.removeDocumentListener(documentListener);
+			oldDocument.removeDocumentPartitioningListener(documentListener);
+		}
+		job.cancel();
+		super.setDocument(document);
+		synchronized (lock) {
+			queue.clear();
+			dirtyRegions.clear();
+			changeCount++;
+			if (document != null) {
+				dirtyRegions.add(0, document.getLength());
+			}
+		}
+		if (document != null) {
+			document.addDocumentListener(documentListener);
+			document.addDocumentPartitioningListener(documentListener);
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see com.aptana.editor.common.text.reconciler.IDisposableReconcilingStrategy#dispose()
+	 */
+	public void dispose() {
+		IDocument document = getDocument();
+		if (document != null) {
+			document.removeDocumentListener(documentListener);
+			document.removeDocumentPartitioningListener(documentListener);
+		}
+		job.cancel();
+		synchronized (lock) {
+			queue.clear();
+			dirtyRegions.clear();
+		}
 	}
 
 	/* (non-Javadoc)
@@ -63,7 +159,7 @@ public class MultiRegionSpellingReconcileStrategy extends SpellingReconcileStrat
 		if (model == null) {
 			return null;
 		}
-		return new SpellingProblemCollector(model);
+		return new SpellingProblemCollector(model, null, null, 0);
 	}
 
 	/* (non-Javadoc)
@@ -71,7 +167,14 @@ public class MultiRegionSpellingReconcileStrategy extends SpellingReconcileStrat
 	 */
 	@Override
 	public void initialReconcile() {
-		for (ITypedRegion region : computePartitioning(0, getDocument().getLength())) {
+		IDocument document = getDocument();
+		if (document == null) {
+			return;
+		}
+		synchronized (lock) {
+			dirtyRegions.add(0, document.getLength());
+		}
+		for (ITypedRegion region : computePartitioning(0, document.getLength())) {
 			reconcile(region);
 		}
 	}
@@ -81,20 +184,62 @@ public class MultiRegionSpellingReconcileStrategy extends SpellingReconcileStrat
 	 */
 	@Override
 	public void reconcile(IRegion region) {
-		if (getAnnotationModel() == null) {
+		IDocument document = getDocument();
+		if (getAnnotationModel() == null || document == null) {
 			return;
 		}
+		boolean check = !(region instanceof ITypedRegion) || contentTypes.contains(((ITypedRegion) region).getType());
+		boolean scheduled = false;
+		synchronized (lock) {
+			for (IRegion dirty : dirtyRegions.getRegions(region.getOffset(), region.getLength())) {
+				IRegion words = expandToWords(document, dirty, region);
+				if (words != null) {
+					queue.add(new Work(words, check));
+					scheduled = true;
+				}
+			}
+		}
+		if (scheduled) {
+			job.schedule();
+		}
+	}
+
+	/**
+	 * Expand the dirty region to the words it touches, without going out of the partition it's in.
+	 *
+	 * @param document
+	 * @param region
+	 * @param partition
+	 * @return the expanded region, or null if the document changed in the meantime
+	 */
+	private static IRegion expandToWords(IDocument document, IRegion region, IRegion partition) {
+		int min = partition.getOffset();
+		int max = Math.min(partition.getOffset() + partition.getLength(), document.getLength());
+		int start = region.getOffset();
+		int end = Math.min(region.getOffset() + region.getLength(), max);
 		try {
-			currentRegion = region;
-			if (region instanceof ITypedRegion && !contentTypes.contains(((ITypedRegion) region).getType())) {
-				ISpellingProblemCollector collector = createSpellingProblemCollector();
-				collector.beginCollecting();
-				collector.endCollecting();
-			} else {
-				super.reconcile(region);
+			while (start > min && isWordPart(document.getChar(start - 1))) {
+				start--;
 			}
-		} finally {
-			currentRegion = null;
+			while (end < max && isWordPart(document.getChar(end))) {
+				end++;
+			}
+		} catch (BadLocationException e) {
+			return null;
+		}
+		return new Region(start, Math.max(0, end - start));
+	}
+
+	private static boolean isWordPart(char c) {
+		return Character.isLetterOrDigit(c) || c == '\'';
+	}
+
+	/**
+	 * Takes the next region to check off the queue, or null once there's none left
+	 */
+	private Work nextWork() {
+		synchronized (lock) {
+			return queue.isEmpty() ? null : queue.remove(0);
 		}
 	}
 
@@ -133,16 +278,29 @@ public class MultiRegionSpellingReconcileStrategy extends SpellingReconcileStrat
 		private IAnnotationModel fAnnotationModel;
 		private Map<Annotation, Position> fAddAnnotations;
 		private Object fLockObject;
+		private IRegion currentRegion;
+		private IProgressMonitor fMonitor;
+		private int fChangeCount;
 
 		/**
 		 * Initializes this collector with the given annotation model.
 		 *
 		 * @param annotationModel
 		 *            the annotation model
+		 * @param region
+		 *            the region whose problems get replaced, or null for the whole document
+		 * @param monitor
+		 *            the monitor of the check, if canceled nothing gets replaced
+		 * @param changeCount
+		 *            the document revision which gets checked, ignored when there's no monitor
 		 */
-		public SpellingProblemCollector(IAnnotationModel annotationModel) {
+		public SpellingProblemCollector(IAnnotationModel annotationModel, IRegion region, IProgressMonitor monitor,
+				int changeCount) {
 			Assert.isLegal(annotationModel != null);
 			fAnnotationModel = annotationModel;
+			currentRegion = region;
+			fMonitor = monitor;
+			fChangeCount = changeCount;
 			if (fAnnotationModel instanceof ISynchronizable) {
 				fLockObject = ((ISynchronizable) fAnnotationModel).getLockObject();
 			} else {
@@ -176,6 +334,11 @@ public class MultiRegionSpellingReconcileStrategy extends SpellingReconcileStrat
 			List<Annotation> toRemove = new ArrayList<Annotation>();
 
 			synchronized (fLockObject) {
+				if (fMonitor != null && (fMonitor.isCanceled() || !isCurrent(fChangeCount))) {
+					// checked text which has changed since, don't replace anything
+					fAddAnnotations = null;
+					return;
+				}
 				if (fAnnotationModel instanceof IAnnotationModelExtension2 && currentRegion != null) {
 					for (Iterator iter = ((IAnnotationModelExtension2) fAnnotationModel).getAnnotationIterator(currentRegion.getOffset(), currentRegion.getLength(), true, true); iter.hasNext(); ) {
 						Annotation annotation = (Annotation) iter.next();
@@ -212,4 +375,120 @@ public class MultiRegionSpellingReconcileStrategy extends SpellingReconcileStrat
 		}
 	}
 
+	private boolean isCurrent(int count) {
+		synchronized (lock) {
+			return count == changeCount;
+		}
+	}
+
+	/**
+	 * Checks the queued regions, marking each one clean once done with it.
+	 */
+	private class SpellingJob extends Job {
+
+		public SpellingJob() {
+			super(Messages.MultiRegionSpellingReconcileStrategy_JobName);
+			setPriority(Job.DECORATE);
+			setSystem(!EclipseUtil.showSystemJobs());
+		}
+
+		/* (non-Javadoc)
+		 * @see org.eclipse.core.runtime.jobs.Job#run(org.eclipse.core.runtime.IProgressMonitor)
+		 */
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			IDocument document = getDocument();
+			IAnnotationModel model = getAnnotationModel();
+			if (document == null || model == null) {
+				return Status.CANCEL_STATUS;
+			}
+			Work work;
+			while ((work = nextWork()) != null) {
+				if (monitor.isCanceled()) {
+					return Status.CANCEL_STATUS;
+				}
+				int count;
+				synchronized (lock) {
+					count = changeCount;
+				}
+				IRegion region = work.region;
+				ISpellingProblemCollector collector = new SpellingProblemCollector(model, region, monitor, count);
+				if (work.check && region.getLength() > 0) {
+					spellingService.check(document, new IRegion[] { region }, spellingContext, collector, monitor);
+				} else {
+					collector.beginCollecting();
+					collector.endCollecting();
+				}
+				synchronized (lock) {
+					if (monitor.isCanceled() || count != changeCount) {
+						return Status.CANCEL_STATUS;
+					}
+					dirtyRegions.remove(region.getOffset(), region.getLength());
+				}
+			}
+			return Status.OK_STATUS;
+		}
+	}
+
+	/**
+	 * Keeps the dirty regions in sync with the document, and cancels the check as soon as the document changes.
+	 */
+	private class DocumentListener implements IDocumentListener, IDocumentPartitioningListener,
+			IDocumentPartitioningListenerExtension2 {
+
+		/* (non-Javadoc)
+		 * @see org.eclipse.jface.text.IDocumentListener#documentAboutToBeChanged(org.eclipse.jface.text.DocumentEvent)
+		 */
+		public void documentAboutToBeChanged(DocumentEvent event) {
+			job.cancel();
+			synchronized (lock) {
+				documentChanging = true;
+				// the queued regions are about to be out of date, they're still in the dirty ones
+				queue.clear();
+			}
+		}
+
+		/* (non-Javadoc)
+		 * @see org.eclipse.jface.text.IDocumentListener#documentChanged(org.eclipse.jface.text.DocumentEvent)
+		 */
+		public void documentChanged(DocumentEvent event) {
+			int inserted = (event.getText() == null) ? 0 : event.getText().length();
+			synchronized (lock) {
+				changeCount++;
+				dirtyRegions.documentChanged(event.getOffset(), event.getLength(), inserted);
+				if (pendingPartitioningChange != null) {
+					dirtyRegions.add(pendingPartitioningChange.getOffset(), pendingPartitioningChange.getLength());
+					pendingPartitioningChange = null;
+				}
+				documentChanging = false;
+			}
+		}
+
+		/* (non-Javadoc)
+		 * @see org.eclipse.jface.text.IDocumentPartitioningListenerExtension2#documentPartitioningChanged(org.eclipse.jface.text.DocumentPartitioningChangedEvent)
+		 */
+		public void documentPartitioningChanged(DocumentPartitioningChangedEvent event) {
+			// text whose partition type changed needs checking, or clearing, even though it wasn't edited
+			IRegion changed = event.getChangedRegion(documentPartitioning);
+			if (changed == null) {
+				return;
+			}
+			synchronized (lock) {
+				if (documentChanging) {
+					// we're told before the document listeners, wait for the edit to shift the regions first
+					pendingPartitioningChange = changed;
+				} else {
+					dirtyRegions.add(changed.getOffset(), changed.getLength());
+				}
+			}
+		}
+
+		/* (non-Javadoc)
+		 * @see org.eclipse.jface.text.IDocumentPartitioningListener#documentPartitioningChanged(org.eclipse.jface.text.IDocument)
+		 */
+		public void documentPartitioningChanged(IDocument document) {
+			// not called, we implement the second extension
+		}
+	}
+
 }
@@ -10,6 +10,7 @@ import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentExtension4;
 import org.eclipse.jface.text.Position;
 import org.eclipse.jface.text.source.projection.ProjectionAnnotation;
 
@@ -35,6 +36,14 @@ public abstract class AbstractFoldingComputer implements IFoldingComputer
 	private ArrayList<Integer> fLines;
 	private boolean initialReconcile;
 
+	/**
+	 * The AST the folding regions were last computed for, the modification stamp of the document at the time, and the
+	 * regions computed. Reconciling an unchanged document hands us the same AST again, which needs no traversal.
+	 */
+	private IParseNode fLastAST;
+	private long fLastModificationStamp = IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP;
+	private Map<ProjectionAnnotation, Position> fLastPositions;
+
 	protected AbstractFoldingComputer(AbstractThemeableEditor editor, IDocument document)
 	{
 		super();
@@ -74,6 +83,13 @@ public abstract class AbstractFoldingComputer implements IFoldingComputer
 			{
 				return Collections.emptyMap();
 			}
+			long modificationStamp = getModificationStamp();
+			if (!initialReconcile && parseNode == fLastAST && fLastPositions != null
+					&& modificationStamp != IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP
+					&& modificationStamp == fLastModificationStamp)
+			{
+				return copy(fLastPositions);
+			}
 			int length = parseNode.getChildCount();
 			if (parseNode instanceof IParseRootNode)
 			{
@@ -92,6 +108,13 @@ public abstract class AbstractFoldingComputer implements IFoldingComputer
 			if (subMonitor.isCanceled())
 			{
 				monitor.setCanceled(true);
+				fLastPositions = null;
+			}
+			else
+			{
+				fLastAST = parseNode;
+				fLastModificationStamp = modificationStamp;
+				fLastPositions = copy(positions);
 			}
 			return positions;
 		}
@@ -105,6 +128,29 @@ public abstract class AbstractFoldingComputer implements IFoldingComputer
 		}
 	}
 
+	private long getModificationStamp()
+	{
+		if (fDocument instanceof IDocumentExtension4)
+		{
+			return ((IDocumentExtension4) fDocument).getModificationStamp();
+		}
+		return IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP;
+	}
+
+	/**
+	 * Copies the regions with fresh annotations and positions, since the ones handed out end up in the annotation
+	 * model.
+	 */
+	private static Map<ProjectionAnnotation, Position> copy(Map<ProjectionAnnotation, Position> positions)
+	{
+		Map<ProjectionAnnotation, Position> result = new HashMap<ProjectionAnnotation, Position>(positions.size());
+		for (Position position : positions.values())
+		{
+			result.put(new ProjectionAnnotation(), new Position(position.getOffset(), position.getLength()));
+		}
+		return result;
+	}
+
 	protected IParseNode[] getChildren(IParseNode parseNode)
 	{
 		IParseNode[] children = parseNode.getChildren();
@@ -9,6 +9,7 @@
 package com.aptana.editor.common.text.reconciler;
 
 import java.text.MessageFormat;
+import java.util.Iterator;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
@@ -17,6 +18,7 @@ import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentExtension4;
 import org.eclipse.jface.text.IRegion;
 import org.eclipse.jface.text.ISynchronizable;
 import org.eclipse.jface.text.ITextViewer;
@@ -26,6 +28,7 @@ import org.eclipse.jface.text.TextPresentation;
 import org.eclipse.jface.text.TextUtilities;
 import org.eclipse.jface.text.presentation.IPresentationRepairer;
 import org.eclipse.jface.text.presentation.PresentationReconciler;
+import org.eclipse.swt.custom.StyleRange;
 import org.eclipse.swt.custom.StyledText;
 
 import com.aptana.core.logging.IdeLog;
@@ -43,10 +46,49 @@ import com.aptana.ui.util.UIUtils;
  */
 public class CommonPresentationReconciler extends PresentationReconciler
 {
+	/**
+	 * The styles computed in the background for a region of the document, along with the state of the document they
+	 * were computed from
+	 */
+	private static final class StyleSnapshot
+	{
+		private final IRegion region;
+		private final StyleRange[] ranges;
+		private final long modificationStamp;
+		private final int documentLength;
+
+		private StyleSnapshot(TextPresentation presentation, long modificationStamp, int documentLength)
+		{
+			this.region = presentation.getExtent();
+			this.ranges = new StyleRange[presentation.getDenumerableRanges()];
+			int i = 0;
+			for (Iterator<?> iter = presentation.getAllStyleRangeIterator(); iter.hasNext() && i < ranges.length;)
+			{
+				ranges[i++] = (StyleRange) iter.next();
+			}
+			this.modificationStamp = modificationStamp;
+			this.documentLength = documentLength;
+		}
+
+		private TextPresentation toPresentation()
+		{
+			TextPresentation presentation = new TextPresentation(region, ranges.length);
+			for (StyleRange range : ranges)
+			{
+				if (range != null)
+				{
+					presentation.addStyleRange((StyleRange) range.clone());
+				}
+			}
+			return presentation;
+		}
+	}
+
 	private int iterationPartitionLimit = 4000;
 	private int backgroundReconcileDelay = 2000;
 	private int iterationDelay = 500;
 	private int minimalVisibleLength = 20000;
+	private boolean snapshotHighlighting;
 
 	private ITextViewer textViewer;
 	private Regions delayedRegions = new Regions();
@@ -70,6 +112,7 @@ public class CommonPresentationReconciler extends PresentationReconciler
 		iterationDelay = Integer.getInteger(ICommonEditorSystemProperties.RECONCILER_ITERATION_DELAY, iterationDelay);
 		minimalVisibleLength = Integer.getInteger(ICommonEditorSystemProperties.RECONCILER_MINIMAL_VISIBLE_LENGTH,
 				minimalVisibleLength);
+		snapshotHighlighting = Boolean.getBoolean(ICommonEditorSystemProperties.RECONCILER_SNAPSHOT_HIGHLIGHTING);
 		if (IdeLog.isTraceEnabled(CommonEditorPlugin.getDefault(), IDebugScopes.PRESENTATION))
 		{
 			IdeLog.logTrace(
@@ -120,6 +163,12 @@ public class CommonPresentationReconciler extends PresentationReconciler
 		{
 			delayedRegions.append(damage);
 		}
+		if (snapshotHighlighting)
+		{
+			// Everything gets styled in the background, we only apply the results
+			triggerSnapshotHighlighting();
+			return null;
+		}
 		try
 		{
 			return createPresentation(nextDamagedRegion(), document, new NullProgressMonitor());
@@ -149,16 +198,22 @@ public class CommonPresentationReconciler extends PresentationReconciler
 				}
 				damageLength = adjustedLength;
 			}
-			TextPresentation presentation = new TextPresentation(damage, iterationPartitionLimit * 5);
 			ITypedRegion[] partitioning = TextUtilities.computePartitioning(document, getDocumentPartitioning(),
 					damageOffset, damageLength, false);
 			if (partitioning.length == 0)
 			{
-				return presentation;
+				synchronized (this)
+				{
+					delayedRegions.remove(new Region(damageOffset, damageLength));
+				}
+				return new TextPresentation(damage, 0);
 			}
 			int limit = Math.min(iterationPartitionLimit, partitioning.length);
 			int processingLength = partitioning[limit - 1].getOffset() + partitioning[limit - 1].getLength()
 					- damageOffset;
+			// Only cover what we style now, so the styles of the rest stay in place until its turn comes
+			TextPresentation presentation = new TextPresentation(new Region(damageOffset, processingLength),
+					iterationPartitionLimit * 5);
 			if (EclipseUtil.showSystemJobs())
 			{
 				monitor.subTask(MessageFormat.format(
@@ -227,9 +282,7 @@ public class CommonPresentationReconciler extends PresentationReconciler
 								viewer.changeTextPresentation(presentation[0], true);
 							}
 							// save visible region here since UI thread access required
-							int topOffset = viewer.getTopIndexStartOffset();
-							int length = viewer.getBottomIndexEndOffset() - topOffset;
-							viewerVisibleRegion = new Region(topOffset, Math.max(length, minimalVisibleLength));
+							viewerVisibleRegion = computeVisibleRegion(viewer);
 						}
 					}
 				});
@@ -302,9 +355,7 @@ public class CommonPresentationReconciler extends PresentationReconciler
 					{
 						return;
 					}
-					int topOffset = viewer.getTopIndexStartOffset();
-					int length = viewer.getBottomIndexEndOffset() - topOffset;
-					viewerVisibleRegion = new Region(topOffset, Math.max(length, minimalVisibleLength));
+					viewerVisibleRegion = computeVisibleRegion(viewer);
 				}
 			});
 		}
@@ -327,6 +378,201 @@ public class CommonPresentationReconciler extends PresentationReconciler
 		}
 	}
 
+	/**
+	 * The region to style first: the visible lines, or at least {@link #minimalVisibleLength} characters from the top
+	 * of the view. Must be called on the UI thread.
+	 */
+	private IRegion computeVisibleRegion(ITextViewer viewer)
+	{
+		int topOffset = viewer.getTopIndexStartOffset();
+		int length = viewer.getBottomIndexEndOffset() - topOffset;
+		return new Region(topOffset, Math.max(length, minimalVisibleLength));
+	}
+
+	private synchronized void triggerSnapshotHighlighting()
+	{
+		if (job != null)
+		{
+			// Drop the scan in progress, it works on an outdated document. Scheduling a running job runs it again
+			// once it's done.
+			job.cancel();
+		}
+		else
+		{
+			job = new Job("Background Presentation Reconciler") { //$NON-NLS-1$
+				@Override
+				protected IStatus run(IProgressMonitor monitor)
+				{
+					ITextViewer viewer = textViewer;
+					IDocument document = (viewer != null) ? viewer.getDocument() : null;
+					if (document == null)
+					{
+						return Status.CANCEL_STATUS;
+					}
+					monitor.beginTask("Reconciling document", document.getLength()); //$NON-NLS-1$
+					while (textViewer != null && !monitor.isCanceled())
+					{
+						IRegion damage = nextSnapshotRegion();
+						if (damage == null || monitor.isCanceled())
+						{
+							break;
+						}
+						StyleSnapshot snapshot = createSnapshot(damage, document, monitor);
+						if (snapshot != null && !monitor.isCanceled())
+						{
+							applySnapshot(snapshot);
+						}
+					}
+					monitor.done();
+					return monitor.isCanceled() ? Status.CANCEL_STATUS : Status.OK_STATUS;
+				}
+			};
+			job.setPriority(Job.DECORATE);
+			job.setSystem(!EclipseUtil.showSystemJobs());
+		}
+		if (!delayedRegions.isEmpty())
+		{
+			job.schedule();
+		}
+	}
+
+	/**
+	 * The next region to style in the background: the damage in the visible region first, then the damage closest to
+	 * it, working outward in chunks the size of the visible region.
+	 */
+	private IRegion nextSnapshotRegion()
+	{
+		final IRegion[] visible = new IRegion[1];
+		UIUtils.getDisplay().syncExec(new Runnable()
+		{
+			public void run()
+			{
+				ITextViewer viewer = textViewer;
+				if (viewer != null)
+				{
+					visible[0] = computeVisibleRegion(viewer);
+				}
+			}
+		});
+		synchronized (this)
+		{
+			if (delayedRegions.isEmpty())
+			{
+				return null;
+			}
+			if (visible[0] == null)
+			{
+				return delayedRegions.iterator().next();
+			}
+			IRegion overlap = delayedRegions.overlap(visible[0]);
+			if (overlap != null)
+			{
+				return overlap;
+			}
+
+			int visibleStart = visible[0].getOffset();
+			int visibleEnd = visibleStart + visible[0].getLength();
+			int chunk = visible[0].getLength();
+			IRegion closest = null;
+			int closestDistance = Integer.MAX_VALUE;
+			for (IRegion region : delayedRegions)
+			{
+				int start = region.getOffset();
+				int end = start + region.getLength();
+				if (end <= visibleStart && visibleStart - end < closestDistance)
+				{
+					// above the view, work upward from its end
+					closestDistance = visibleStart - end;
+					int chunkStart = Math.max(start, end - chunk);
+					closest = new Region(chunkStart, end - chunkStart);
+				}
+				else if (start >= visibleEnd && start - visibleEnd < closestDistance)
+				{
+					// below the view, work downward from its start
+					closestDistance = start - visibleEnd;
+					closest = new Region(start, Math.min(end, start + chunk) - start);
+				}
+			}
+			return (closest != null) ? closest : delayedRegions.iterator().next();
+		}
+	}
+
+	private StyleSnapshot createSnapshot(IRegion damage, IDocument document, IProgressMonitor monitor)
+	{
+		synchronized (getLockObject(document))
+		{
+			long modificationStamp = getModificationStamp(document);
+			int documentLength = document.getLength();
+			TextPresentation presentation = createPresentation(damage, document, monitor);
+			if (presentation == null)
+			{
+				if (!monitor.isCanceled())
+				{
+					// Nothing to style there, don't come back to it
+					synchronized (this)
+					{
+						delayedRegions.remove(damage);
+					}
+				}
+				return null;
+			}
+			return new StyleSnapshot(presentation, modificationStamp, documentLength);
+		}
+	}
+
+	/**
+	 * Applies the styles on the UI thread, unless the document changed since they were computed. In that case the
+	 * region is queued again: as it was, and shifted by the change in length, since the styles either before or after
+	 * the change moved. The change itself was reported as damage on its own.
+	 */
+	private void applySnapshot(final StyleSnapshot snapshot)
+	{
+		UIUtils.getDisplay().syncExec(new Runnable()
+		{
+			public void run()
+			{
+				ITextViewer viewer = textViewer;
+				IDocument document = (viewer != null) ? viewer.getDocument() : null;
+				if (document == null)
+				{
+					return;
+				}
+				if (getModificationStamp(document) != snapshot.modificationStamp
+						|| document.getLength() != snapshot.documentLength)
+				{
+					int delta = document.getLength() - snapshot.documentLength;
+					requeue(snapshot.region.getOffset(), snapshot.region.getLength(), document.getLength());
+					requeue(snapshot.region.getOffset() + delta, snapshot.region.getLength(), document.getLength());
+					return;
+				}
+				StyledText widget = viewer.getTextWidget();
+				if (widget != null && !widget.isDisposed())
+				{
+					viewer.changeTextPresentation(snapshot.toPresentation(), true);
+				}
+			}
+		});
+	}
+
+	private synchronized void requeue(int offset, int length, int documentLength)
+	{
+		int start = Math.max(0, offset);
+		int end = Math.min(documentLength, offset + length);
+		if (end > start)
+		{
+			delayedRegions.append(new Region(start, end - start));
+		}
+	}
+
+	private static long getModificationStamp(IDocument document)
+	{
+		if (document instanceof IDocumentExtension4)
+		{
+			return ((IDocumentExtension4) document).getModificationStamp();
+		}
+		return IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP;
+	}
+
 	private static Object getLockObject(Object object)
 	{
 		if (object instanceof ISynchronizable)
@@ -32,9 +32,33 @@ import com.aptana.scripting.model.BundleManager;
 public class RubyRegexpFolder implements IFoldingComputer
 {
 
+	/**
+	 * The results of matching a line against the folding regexps of its scopes
+	 */
+	private static class LineMatch
+	{
+		private final RubyRegexp startRegexp;
+		private final RubyRegexp endRegexp;
+		private final boolean startMatches;
+		private Boolean endMatches;
+
+		private LineMatch(RubyRegexp startRegexp, RubyRegexp endRegexp, boolean startMatches)
+		{
+			this.startRegexp = startRegexp;
+			this.endRegexp = endRegexp;
+			this.startMatches = startMatches;
+		}
+	}
+
 	private IDocument fDocument;
 	private AbstractThemeableEditor fEditor;
 
+	/**
+	 * The match results of the lines seen during the last run, by line contents. Most lines are unchanged from one
+	 * reconcile to the next, so only the edited ones need to be matched again.
+	 */
+	private Map<String, LineMatch> fLineMatches = new HashMap<String, LineMatch>();
+
 	public RubyRegexpFolder(AbstractThemeableEditor editor, IDocument document)
 	{
 		this.fDocument = document;
@@ -56,6 +80,8 @@ public class RubyRegexpFolder implements IFoldingComputer
 		}
 		Map<ProjectionAnnotation, Position> newPositions = new HashMap<ProjectionAnnotation, Position>(lineCount >> 2);
 		Map<Integer, Integer> starts = new HashMap<Integer, Integer>(3);
+		Map<String, LineMatch> previousMatches = fLineMatches;
+		Map<String, LineMatch> lineMatches = new HashMap<String, LineMatch>(previousMatches.size());
 		if (monitor != null)
 		{
 			monitor.beginTask(Messages.CommonReconcilingStrategy_FoldingTaskName, lineCount);
@@ -64,7 +90,10 @@ public class RubyRegexpFolder implements IFoldingComputer
 		{
 			// Check for cancellation
 			if (monitor != null && monitor.isCanceled())
+			{
+				fLineMatches = lineMatches;
 				return newPositions;
+			}
 
 			IRegion lineRegion = fDocument.getLineInformation(currentLine);
 			int offset = lineRegion.getOffset();
@@ -87,9 +116,17 @@ public class RubyRegexpFolder implements IFoldingComputer
 				continue;
 			}
 			// Look for an open...
-			RubyString rLine = startRegexp.getRuntime().newString(line);
-			IRubyObject startMatcher = startRegexp.match_m(startRegexp.getRuntime().getCurrentContext(), rLine);
-			if (!startMatcher.isNil())
+			LineMatch lineMatch = lineMatches.get(line);
+			if (lineMatch == null || lineMatch.startRegexp != startRegexp || lineMatch.endRegexp != endRegexp)
+			{
+				lineMatch = previousMatches.get(line);
+				if (lineMatch == null || lineMatch.startRegexp != startRegexp || lineMatch.endRegexp != endRegexp)
+				{
+					lineMatch = new LineMatch(startRegexp, endRegexp, matches(startRegexp, line));
+				}
+				lineMatches.put(line, lineMatch);
+			}
+			if (lineMatch.startMatches)
 			{
 				starts.put(findIndent(line), offset); // cheat and just give offset of line since line resolution is all
 														// that matters
@@ -106,8 +143,11 @@ public class RubyRegexpFolder implements IFoldingComputer
 				}
 				if (starts.containsKey(indent))
 				{
-					IRubyObject endMatcher = endRegexp.match_m(endRegexp.getRuntime().getCurrentContext(), rLine);
-					if (!endMatcher.isNil())
+					if (lineMatch.endMatches == null)
+					{
+						lineMatch.endMatches = matches(endRegexp, line);
+					}
+					if (lineMatch.endMatches)
 					{
 						int startingOffset = starts.remove(indent);
 						int startLine = fDocument.getLineOfOffset(startingOffset);
@@ -133,6 +173,7 @@ public class RubyRegexpFolder implements IFoldingComputer
 				monitor.worked(1);
 		}
 
+		fLineMatches = lineMatches;
 		if (monitor != null)
 		{
 			monitor.done();
@@ -140,6 +181,13 @@ public class RubyRegexpFolder implements IFoldingComputer
 		return newPositions;
 	}
 
+	private static boolean matches(RubyRegexp regexp, String line)
+	{
+		RubyString rLine = regexp.getRuntime().newString(line);
+		IRubyObject matcher = regexp.match_m(regexp.getRuntime().getCurrentContext(), rLine);
+		return !matcher.isNil();
+	}
+
 	protected String getScopeAtOffset(int offset) throws BadLocationException
 	{
 		if (fEditor != null)
@@ -33,6 +33,11 @@ public final class CompositePartitionScanner extends RuleBasedPartitionScanner {
 
 	public final static String[] SWITCHING_CONTENT_TYPES = new String[] { START_SWITCH_TAG, END_SWITCH_TAG };
 
+	/**
+	 * The number of tokens scanned between two scanner state checkpoints
+	 */
+	private static final int CHECKPOINT_INTERVAL = 32;
+
 	private final boolean traceEnabled = IdeLog.isTraceEnabled(CommonEditorPlugin.getDefault(), IDebugScopes.PARTITIONER);
 
 	private ISubPartitionScanner defaultPartitionScanner;
@@ -49,6 +54,9 @@ public final class CompositePartitionScanner extends RuleBasedPartitionScanner {
 
 	private DefaultTokenState defaultTokenState;
 
+	private int tokensSinceCheckpoint;
+	private boolean replaying;
+
 	/**
 	 * 
 	 */
@@ -100,27 +108,25 @@ public final class CompositePartitionScanner extends RuleBasedPartitionScanner {
 	 */
 	@Override
 	public void setPartialRange(IDocument document, int offset, int length, String contentType, int partitionOffset) {
-		defaultTokenState = null;
-		hasResume = false;
-		resetRules(defaultPartitionScanner.getRules());
-		resetRules(primaryPartitionScanner.getRules());
-		currentPartitionScanner = defaultPartitionScanner;
-		currentPartitionScanner.setLastToken(new Token(contentType));
+		resetState(contentType);
+		tokensSinceCheckpoint = 0;
 		if (IDocument.DEFAULT_CONTENT_TYPE.equals(contentType) && partitioner != null) {
-			TypedPosition partition = partitioner.findClosestPosition(offset);
-			if (partition != null) {
-				if (partition.overlapsWith(offset, length)) {
-					partition = partitioner.findClosestPosition(offset - 1);
+			if (!resumeFromCheckpoint(document, contentType, partitionOffset)) {
+				TypedPosition partition = partitioner.findClosestPosition(offset);
+				if (partition != null) {
+					if (partition.overlapsWith(offset, length)) {
+						partition = partitioner.findClosestPosition(offset - 1);
+					}
 				}
-			}
-			if (partition != null) {
-				String type = partition.getType();
-				if (primaryPartitionScanner.hasContentType(type)) {
-					currentPartitionScanner = primaryPartitionScanner;
-				} else if (START_SWITCH_TAG.equals(type)) {
-					hasSwitch = true;
+				if (partition != null) {
+					String type = partition.getType();
+					if (primaryPartitionScanner.hasContentType(type)) {
+						currentPartitionScanner = primaryPartitionScanner;
+					} else if (START_SWITCH_TAG.equals(type)) {
+						hasSwitch = true;
+					}
+					currentPartitionScanner.setLastToken(new Token(type));
 				}
-				currentPartitionScanner.setLastToken(new Token(type));
 			}
 		} else if (primaryPartitionScanner.hasContentType(contentType)) {
 			currentPartitionScanner = primaryPartitionScanner;
@@ -128,6 +134,82 @@ public final class CompositePartitionScanner extends RuleBasedPartitionScanner {
 		super.setPartialRange(document, offset, length, contentType, partitionOffset);
 	}
 
+	private void resetState(String contentType) {
+		defaultTokenState = null;
+		hasResume = false;
+		resetRules(defaultPartitionScanner.getRules());
+		resetRules(primaryPartitionScanner.getRules());
+		currentPartitionScanner = defaultPartitionScanner;
+		currentPartitionScanner.setLastToken(new Token(contentType));
+	}
+
+	/**
+	 * Restores the scanner state at the end of the partition preceding the default content the partitioner resumes
+	 * scanning at, instead of guessing it from that partition's type. The state is taken from the closest checkpoint,
+	 * scanning the unchanged text from there up to the offset when there's no checkpoint right at it.
+	 * 
+	 * @return true if the state could be restored
+	 */
+	private boolean resumeFromCheckpoint(IDocument document, String contentType, int offset) {
+		int checkpointOffset = partitioner.findCheckpoint(offset);
+		if (checkpointOffset < 0) {
+			return false;
+		}
+		Object state = partitioner.getCheckpoint(checkpointOffset);
+		if (!(state instanceof ScannerState)) {
+			return false;
+		}
+		boolean hadSwitch = hasSwitch;
+		restoreState((ScannerState) state);
+		if (checkpointOffset == offset) {
+			return true;
+		}
+		boolean resumed = false;
+		replaying = true;
+		try {
+			super.setPartialRange(document, checkpointOffset, document.getLength() - checkpointOffset, null, -1);
+			int end = checkpointOffset;
+			while (end < offset && !nextToken().isEOF()) {
+				end = getTokenOffset() + getTokenLength();
+			}
+			resumed = (end == offset && isAtCheckpoint());
+		} finally {
+			replaying = false;
+		}
+		if (resumed) {
+			resetRules(defaultPartitionScanner.getRules());
+			resetRules(primaryPartitionScanner.getRules());
+		} else {
+			resetState(contentType);
+			hasSwitch = hadSwitch;
+		}
+		return resumed;
+	}
+
+	/**
+	 * Returns true if the last token was returned with nothing pending, so that scanning can resume right after it
+	 * from the state of the sub-partition scanners.
+	 */
+	private boolean isAtCheckpoint() {
+		return defaultTokenState == null && fContentType == null && !hasResume;
+	}
+
+	private ScannerState captureState() {
+		ScannerState state = new ScannerState();
+		state.primary = (currentPartitionScanner == primaryPartitionScanner);
+		state.hasSwitch = hasSwitch;
+		state.defaultState = defaultPartitionScanner.getState();
+		state.primaryState = primaryPartitionScanner.getState();
+		return state;
+	}
+
+	private void restoreState(ScannerState state) {
+		currentPartitionScanner = state.primary ? primaryPartitionScanner : defaultPartitionScanner;
+		hasSwitch = state.hasSwitch;
+		defaultPartitionScanner.restoreState(state.defaultState);
+		primaryPartitionScanner.restoreState(state.primaryState);
+	}
+
 	private static void resetRules(IPredicateRule[] rules) {
 		for (IPredicateRule rule : rules) {
 			if (rule instanceof IResumableRule) {
@@ -182,6 +264,16 @@ public final class CompositePartitionScanner extends RuleBasedPartitionScanner {
 	 */
 	@Override
 	public IToken nextToken() {
+		IToken token = scanNextToken();
+		if (partitioner != null && !replaying && !token.isEOF() && ++tokensSinceCheckpoint >= CHECKPOINT_INTERVAL
+				&& isAtCheckpoint()) {
+			tokensSinceCheckpoint = 0;
+			partitioner.setCheckpoint(fOffset, captureState());
+		}
+		return token;
+	}
+
+	private IToken scanNextToken() {
 		if (defaultTokenState != null && defaultTokenState.hasToken()) {
 			IToken token = defaultTokenState.token;
 			defaultTokenState = null;
@@ -339,6 +431,16 @@ public final class CompositePartitionScanner extends RuleBasedPartitionScanner {
 		return false;
 	}
 
+	/**
+	 * The state of the scanner at a checkpoint
+	 */
+	private static final class ScannerState {
+		private boolean primary;
+		private boolean hasSwitch;
+		private Object defaultState;
+		private Object primaryState;
+	}
+
 	private class DefaultTokenState {
 		private int offset;
 		private int length;
@@ -29,6 +29,17 @@ public abstract class CompositeSubPartitionScanner implements ISubPartitionScann
 	protected int current = 0;
 	private IToken lastToken;
 	protected IToken resumeToken;
+
+	/**
+	 * A snapshot of the scanner state, see {@link #getState()}
+	 */
+	private static final class State {
+		private int current;
+		private IToken lastToken;
+		private IToken resumeToken;
+		private boolean[] foundSequences;
+		private Object[] subStates;
+	}
 	
 	/**
 	 * 
@@ -130,4 +141,49 @@ public abstract class CompositeSubPartitionScanner implements ISubPartitionScann
 		}
 	}
 
+	/* (non-Javadoc)
+	 * @see com.aptana.editor.common.text.rules.ISubPartitionScanner#getState()
+	 */
+	public Object getState() {
+		State state = new State();
+		state.current = current;
+		state.lastToken = lastToken;
+		state.resumeToken = resumeToken;
+		if (sequenceCharacterScanners != null) {
+			state.foundSequences = new boolean[sequenceCharacterScanners.length];
+			for (int i = 0; i < sequenceCharacterScanners.length; ++i) {
+				SequenceCharacterScanner scanner = sequenceCharacterScanners[i];
+				state.foundSequences[i] = (scanner != null && scanner.foundSequence(false));
+			}
+		}
+		state.subStates = new Object[subPartitionScanners.length];
+		for (int i = 0; i < subPartitionScanners.length; ++i) {
+			state.subStates[i] = subPartitionScanners[i].getState();
+		}
+		return state;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.aptana.editor.common.text.rules.ISubPartitionScanner#restoreState(java.lang.Object)
+	 */
+	public void restoreState(Object state) {
+		if (!(state instanceof State)) {
+			return;
+		}
+		State saved = (State) state;
+		current = saved.current;
+		lastToken = saved.lastToken;
+		resumeToken = saved.resumeToken;
+		if (saved.foundSequences != null && sequenceCharacterScanners != null) {
+			for (int i = 0; i < sequenceCharacterScanners.length; ++i) {
+				if (sequenceCharacterScanners[i] != null) {
+					sequenceCharacterScanners[i].setFoundSequence(saved.foundSequences[i]);
+				}
+			}
+		}
+		for (int i = 0; i < subPartitionScanners.length; ++i) {
+			subPartitionScanners[i].restoreState(saved.subStates[i]);
+		}
+	}
+
 }
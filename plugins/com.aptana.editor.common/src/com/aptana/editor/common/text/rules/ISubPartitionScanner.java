@@ -86,4 +86,17 @@ public interface ISubPartitionScanner {
 	 */
 	public IToken getResumeToken();
 
-}
\ No newline at end of file
+	/**
+	 * Returns a snapshot of the scanner state at the end of the last token, for the partition scanner to resume from
+	 * later on with {@link #restoreState(Object)}. May return null for stateless scanners.
+	 * @return
+	 */
+	public Object getState();
+
+	/**
+	 * Restores the scanner state returned by an earlier call to {@link #getState()}.
+	 * @param state
+	 */
+	public void restoreState(Object state);
+
+}
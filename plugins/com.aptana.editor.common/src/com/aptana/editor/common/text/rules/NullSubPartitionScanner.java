@@ -96,4 +96,17 @@ public class NullSubPartitionScanner implements ISubPartitionScanner {
 		return null;
 	}
 
+	/* (non-Javadoc)
+	 * @see com.aptana.editor.common.text.rules.ISubPartitionScanner#getState()
+	 */
+	public Object getState() {
+		return null;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.aptana.editor.common.text.rules.ISubPartitionScanner#restoreState(java.lang.Object)
+	 */
+	public void restoreState(Object state) {
+	}
+
 }
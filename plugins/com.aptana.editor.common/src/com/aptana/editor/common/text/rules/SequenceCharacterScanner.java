@@ -110,6 +110,14 @@ public class SequenceCharacterScanner implements ICharacterScanner {
 		}
 	}
 
+	/**
+	 * Restores the flag returned by {@link #foundSequence(boolean)} when resuming from a saved scanner state.
+	 * @param found
+	 */
+	/* package */ void setFoundSequence(boolean found) {
+		this.found = found;
+	}
+
 	public void setSequenceIgnored(boolean ignored) {
 		this.ignored = ignored;
 	}
@@ -110,4 +110,18 @@ public class SubPartitionScanner implements ISubPartitionScanner {
 	public IToken getResumeToken() {
 		return null;
 	}
+
+	/* (non-Javadoc)
+	 * @see com.aptana.editor.common.text.rules.ISubPartitionScanner#getState()
+	 */
+	public Object getState() {
+		return null;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.aptana.editor.common.text.rules.ISubPartitionScanner#restoreState(java.lang.Object)
+	 */
+	public void restoreState(Object state) {
+	}
+
 }
@@ -8,18 +8,12 @@
 package com.aptana.editor.common.text.rules;
 
 import java.text.MessageFormat;
-import java.util.ArrayList;
-import java.util.List;
 
-import org.eclipse.jface.text.AbstractDocument;
 import org.eclipse.jface.text.BadLocationException;
-import org.eclipse.jface.text.BadPositionCategoryException;
 import org.eclipse.jface.text.IRegion;
 import org.eclipse.jface.text.ITypedRegion;
-import org.eclipse.jface.text.Position;
 import org.eclipse.jface.text.TextAttribute;
 import org.eclipse.jface.text.TextPresentation;
-import org.eclipse.jface.text.TypedPosition;
 import org.eclipse.jface.text.rules.DefaultDamagerRepairer;
 import org.eclipse.jface.text.rules.IToken;
 import org.eclipse.jface.text.rules.ITokenScanner;
@@ -29,7 +23,6 @@ import org.eclipse.swt.graphics.Color;
 import com.aptana.core.logging.IdeLog;
 import com.aptana.core.util.StringUtil;
 import com.aptana.editor.common.CommonEditorPlugin;
-import com.aptana.editor.common.ICommonConstants;
 import com.aptana.editor.common.IDebugScopes;
 import com.aptana.editor.common.scripting.IDocumentScopeManager;
 import com.aptana.theme.IThemeManager;
@@ -37,9 +30,9 @@ import com.aptana.theme.Theme;
 import com.aptana.theme.ThemePlugin;
 
 /**
- * Stores scopes in Positions on the IDocument. Transforms scopes to TextAttributes for colorization. Has a couple
- * performance tweaks to limit the number of StyleRanges applied to an editor. We don't apply ranges that have the same
- * fg/bg/font as the defaults, and we don't apply ranges past a given column # per-line (default is 200).
+ * Stores scopes in the document's {@link TokenScopeStore}. Transforms scopes to TextAttributes for colorization. Has
+ * a couple performance tweaks to limit the number of StyleRanges applied to an editor. We don't apply ranges that have
+ * the same fg/bg/font as the defaults, and we don't apply ranges past a given column # per-line (default is 200).
  * 
  * @author cwilliams
  */
@@ -61,16 +54,9 @@ public class ThemeingDamagerRepairer extends DefaultDamagerRepairer
 	 */
 	private static int MAX_CHARS_PER_LINE_COLORED = DEFAULT_MAX_COLS;
 
-	/**
-	 * Constant for no positions.
-	 */
-	private static final Position[] NO_POSITIONS = new Position[0];
-
 	private TextAttribute lastAttribute;
 	private String scope = StringUtil.EMPTY;
-	private TypedPosition fLastPosition;
-	private List<Position> newPositions;
-	private Position[] oldPositions;
+	private TokenScopeStore.Ranges fRanges;
 	private int fEndOfLine;
 	private int fEndOffset;
 
@@ -98,6 +84,7 @@ public class ThemeingDamagerRepairer extends DefaultDamagerRepairer
 	@Override
 	public void createPresentation(TextPresentation presentation, ITypedRegion region)
 	{
+		fRanges = new TokenScopeStore.Ranges();
 		try
 		{
 			if (IdeLog.isTraceEnabled(CommonEditorPlugin.getDefault(), IDebugScopes.PRESENTATION))
@@ -108,15 +95,12 @@ public class ThemeingDamagerRepairer extends DefaultDamagerRepairer
 			}
 			fEndOfLine = -1;
 			fEndOffset = -1;
-			fLastPosition = null;
 			int offset = region.getOffset();
 			scope = getDocumentScopeManager().getScopeAtOffset(fDocument, offset);
 			if (scope == null)
 			{
 				scope = StringUtil.EMPTY;
 			}
-			oldPositions = getExistingScopes(region);
-			newPositions = new ArrayList<Position>();
 		}
 		catch (BadLocationException e)
 		{
@@ -126,145 +110,15 @@ public class ThemeingDamagerRepairer extends DefaultDamagerRepairer
 		{
 			// Do coloring and collect all the scopes
 			super.createPresentation(presentation, region);
-			updateScopePositions();
+			TokenScopeStore.getStore(fDocument).replace(region.getOffset(), region.getLength(), fRanges);
 
-			oldPositions = null;
-			newPositions = null;
+			fRanges = null;
 			scope = StringUtil.EMPTY;
 			fEndOfLine = -1;
 			fEndOffset = -1;
-			fLastPosition = null;
-		}
-	}
-
-	/**
-	 * This attempts to do minimal add/remove calls for positions on IDocument, since each call synchronizes on the
-	 * document, which adds up very quickly.
-	 */
-	private void updateScopePositions()
-	{
-		try
-		{
-			int oldIndex = 0;
-			int newIndex = 0;
-			int oldLength = (oldPositions == null) ? 0 : oldPositions.length;
-			int newLength = newPositions.size();
-			while (newIndex < newLength && oldIndex < oldLength)
-			{
-				Position newPosition = newPositions.get(newIndex);
-				Position oldPosition = oldPositions[oldIndex];
-				if (newPosition.equals(oldPosition))
-				{
-					// a match, move on
-					oldIndex++;
-					newIndex++;
-					continue;
-				}
-				// uh oh, no match. figure out if we need to remove old / add new
-				else if (newPosition.offset + newPosition.length < oldPosition.offset)
-				{
-					// new Position is before old, so just add the new one
-					fDocument.addPosition(ICommonConstants.SCOPE_CATEGORY, newPosition);
-					newIndex++;
-					continue;
-				}
-				if (oldPosition.offset + oldPosition.length < newPosition.offset)
-				{
-					// old Position is before new, so just remove the old one
-					oldPosition.delete();
-					fDocument.removePosition(ICommonConstants.SCOPE_CATEGORY, oldPosition);
-					oldIndex++;
-					continue;
-				}
-
-				// same scope, but offset/length has changed. Update them on position
-				if (((TypedPosition) oldPosition).getType().equals(((TypedPosition) newPosition).getType()))
-				{
-					oldPosition.offset = newPosition.offset;
-					oldPosition.length = newPosition.length;
-				}
-				else
-				{
-					// scope has changed, remove old, add new
-					oldPosition.delete();
-					fDocument.removePosition(ICommonConstants.SCOPE_CATEGORY, oldPosition);
-					fDocument.addPosition(ICommonConstants.SCOPE_CATEGORY, newPosition);
-				}
-				oldIndex++;
-				newIndex++;
-				continue;
-			}
-			// if we went off the end of one list, but not the other - We still need to add or remove!
-			for (int i = oldIndex; i < oldLength; i++)
-			{
-				oldPositions[i].delete();
-				fDocument.removePosition(ICommonConstants.SCOPE_CATEGORY, oldPositions[i]);
-			}
-			for (int i = newIndex; i < newLength; i++)
-			{
-				fDocument.addPosition(ICommonConstants.SCOPE_CATEGORY, newPositions.get(i));
-			}
-		}
-		catch (BadLocationException e1)
-		{
-			IdeLog.logError(CommonEditorPlugin.getDefault(), e1);
-		}
-		catch (BadPositionCategoryException e1)
-		{
-			IdeLog.logError(CommonEditorPlugin.getDefault(), e1);
 		}
 	}
 
-	/**
-	 * Grab the set of scopes stored for this document in this region.
-	 * 
-	 * @param region
-	 * @throws BadPositionCategoryException
-	 */
-	private Position[] getExistingScopes(ITypedRegion region)
-	{
-		int offset = region.getOffset();
-		int end = offset + region.getLength();
-
-		try
-		{
-			fDocument.addPositionCategory(ICommonConstants.SCOPE_CATEGORY);
-			int index = fDocument.computeIndexInCategory(ICommonConstants.SCOPE_CATEGORY, offset);
-			int endIndex = fDocument.computeIndexInCategory(ICommonConstants.SCOPE_CATEGORY, end);
-			if (endIndex == index)
-			{
-				// there should be nothing to wipe!
-				return NO_POSITIONS;
-			}
-			if (fDocument instanceof AbstractDocument)
-			{
-				AbstractDocument abDoc = (AbstractDocument) fDocument;
-				Position[] positions = abDoc.getPositions(ICommonConstants.SCOPE_CATEGORY, offset, region.getLength(),
-						false, false);
-				return positions;
-			}
-
-			Position[] positions = fDocument.getPositions(ICommonConstants.SCOPE_CATEGORY);
-			int start = index;
-			int stop = endIndex;
-
-			int length = stop - start;
-			Position[] sub = new Position[length];
-			System.arraycopy(positions, start, sub, 0, length);
-			return sub;
-		}
-		catch (BadPositionCategoryException e)
-		{
-			// should never happen because we are explicitly adding the category before asking for positions inside it
-			IdeLog.logError(CommonEditorPlugin.getDefault(), e.getMessage());
-		}
-		catch (BadLocationException e)
-		{
-			IdeLog.logError(CommonEditorPlugin.getDefault(), e.getMessage());
-		}
-		return NO_POSITIONS;
-	}
-
 	@Override
 	protected TextAttribute getTokenTextAttribute(IToken token)
 	{
@@ -307,29 +161,15 @@ public class ThemeingDamagerRepairer extends DefaultDamagerRepairer
 		// less objects/memory. Can we hack that here by looking at previous scope and diffing? We'd also have to keep
 		// expanding the parent scope positions...
 
-		// empty scope. Don't store a position for it, but do set last position to be null so we don't end up expanding
-		// it.
+		// empty scope. Don't store a range for it, but don't let the last range expand over it either.
 		if (tokenLevelScope == null || tokenLevelScope.length() == 0)
 		{
-			// Wipe last position because we have an empty scope in between...
-			fLastPosition = null;
+			fRanges.split();
 			return;
 		}
 
-		int offset = fScanner.getTokenOffset();
-		int length = fScanner.getTokenLength();
-
-		// Continuing same scope as last position, expand to merge them
-		if (fLastPosition != null && fLastPosition.getType().equals(tokenLevelScope))
-		{
-			fLastPosition.setLength((offset + length) - fLastPosition.getOffset());
-		}
-		else
-		{
-			TypedPosition newPosition = new TypedPosition(offset, length, tokenLevelScope);
-			fLastPosition = newPosition;
-			newPositions.add(newPosition);
-		}
+		// Continuing same scope as last range expands it to merge them
+		fRanges.add(fScanner.getTokenOffset(), fScanner.getTokenLength(), tokenLevelScope);
 	}
 
 	@Override
@@ -0,0 +1,446 @@
+/**
+ * Aptana Studio
+ * Copyright (c) 2005-2012 by Appcelerator, Inc. All Rights Reserved.
+ * Licensed under the terms of the GNU Public License (GPL) v3 (with exceptions).
+ * Please see the license.html included with this distribution for details.
+ * Any modifications to this file must keep this entire header intact.
+ */
+package com.aptana.editor.common.text.rules;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.eclipse.jface.text.DocumentEvent;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentListener;
+
+/**
+ * Holds the token level scopes the damager/repairers compute for a document, as sorted, non-overlapping ranges of
+ * (offset, length, scope). This replaces storing a Position per token in the document, which the document would have
+ * to update on every keystroke.
+ * <p>
+ * The ranges live in parallel int arrays with a gap, like a gap buffer. Ranges before the gap store their offset from
+ * the start of the document, ranges after the gap store it from the end of the document. An edit moves the gap to where
+ * it happens and only fixes up the ranges it touches; the ranges following it shift for free since the distance to the
+ * end of the document doesn't change. Typing in one place is therefore constant time, and looking up the scope at an
+ * offset is a binary search.
+ * </p>
+ * <p>
+ * Scope names are interned into ids shared by all stores.
+ * </p>
+ */
+public class TokenScopeStore implements IDocumentListener
+{
+	/**
+	 * Collects the ranges computed for a region, to hand to {@link TokenScopeStore#replace}. A range with the same
+	 * scope as the previous one extends it, unless {@link #split()} was called in between.
+	 */
+	public static class Ranges
+	{
+		private int[] offsets = new int[16];
+		private int[] lengths = new int[16];
+		private int[] scopes = new int[16];
+		private int size;
+		private boolean mergeable;
+
+		/**
+		 * Add the next range. It must not start before the end of the previously added one.
+		 *
+		 * @param offset
+		 * @param length
+		 * @param scope
+		 */
+		public void add(int offset, int length, String scope)
+		{
+			int id = intern(scope);
+			if (mergeable && scopes[size - 1] == id)
+			{
+				lengths[size - 1] = offset + length - offsets[size - 1];
+				return;
+			}
+			mergeable = true;
+			if (size == offsets.length)
+			{
+				offsets = grow(offsets, size * 2);
+				lengths = grow(lengths, size * 2);
+				scopes = grow(scopes, size * 2);
+			}
+			offsets[size] = offset;
+			lengths[size] = length;
+			scopes[size] = id;
+			size++;
+		}
+
+		/**
+		 * Keep the next range from extending the last one
+		 */
+		public void split()
+		{
+			mergeable = false;
+		}
+
+		public int size()
+		{
+			return size;
+		}
+
+		public void clear()
+		{
+			size = 0;
+			mergeable = false;
+		}
+	}
+
+	private static final int INITIAL_CAPACITY = 64;
+
+	private static final Map<String, Integer> SCOPE_IDS = new HashMap<String, Integer>();
+	private static final List<String> SCOPE_NAMES = new ArrayList<String>();
+	private static final Map<IDocument, TokenScopeStore> STORES = new WeakHashMap<IDocument, TokenScopeStore>();
+
+	private int[] fOffsets;
+	private int[] fLengths;
+	private int[] fScopes;
+
+	/**
+	 * Ranges [0, fGapStart) hold absolute offsets, ranges [fGapEnd, capacity) hold offsets relative to the end of the
+	 * document.
+	 */
+	private int fGapStart;
+	private int fGapEnd;
+
+	/**
+	 * The length of the document, as of the last change we've been told about
+	 */
+	private int fDocumentLength;
+
+	/**
+	 * Returns the store for the document, creating it and hooking it up to follow the document's changes the first
+	 * time.
+	 *
+	 * @param document
+	 * @return
+	 */
+	public static TokenScopeStore getStore(IDocument document)
+	{
+		if (document == null)
+		{
+			return null;
+		}
+		synchronized (STORES)
+		{
+			TokenScopeStore store = STORES.get(document);
+			if (store == null)
+			{
+				store = new TokenScopeStore(document.getLength());
+				// Pre-notified so the ranges have moved before the presentation gets repaired
+				document.addPrenotifiedDocumentListener(store);
+				STORES.put(document, store);
+			}
+			return store;
+		}
+	}
+
+	/**
+	 * Returns the store for the document if one was created, without creating it.
+	 *
+	 * @param document
+	 * @return
+	 */
+	public static TokenScopeStore peekStore(IDocument document)
+	{
+		synchronized (STORES)
+		{
+			return STORES.get(document);
+		}
+	}
+
+	private static int intern(String scope)
+	{
+		synchronized (SCOPE_IDS)
+		{
+			Integer id = SCOPE_IDS.get(scope);
+			if (id == null)
+			{
+				id = SCOPE_NAMES.size();
+				SCOPE_NAMES.add(scope);
+				SCOPE_IDS.put(scope, id);
+			}
+			return id;
+		}
+	}
+
+	private static String scopeName(int id)
+	{
+		synchronized (SCOPE_IDS)
+		{
+			return SCOPE_NAMES.get(id);
+		}
+	}
+
+	private static int[] grow(int[] array, int capacity)
+	{
+		int[] result = new int[capacity];
+		System.arraycopy(array, 0, result, 0, array.length);
+		return result;
+	}
+
+	TokenScopeStore(int documentLength)
+	{
+		fOffsets = new int[INITIAL_CAPACITY];
+		fLengths = new int[INITIAL_CAPACITY];
+		fScopes = new int[INITIAL_CAPACITY];
+		fGapStart = 0;
+		fGapEnd = INITIAL_CAPACITY;
+		fDocumentLength = documentLength;
+	}
+
+	/**
+	 * The number of ranges stored
+	 *
+	 * @return
+	 */
+	public synchronized int size()
+	{
+		return fGapStart + (fOffsets.length - fGapEnd);
+	}
+
+	/**
+	 * Returns the scope of the range holding the offset, or null if no scope was stored there.
+	 *
+	 * @param offset
+	 * @return
+	 */
+	public synchronized String getScope(int offset)
+	{
+		int index = findFirstEndingAfter(offset);
+		if (index >= size() || getOffset(index) > offset)
+		{
+			return null;
+		}
+		return scopeName(fScopes[physical(index)]);
+	}
+
+	/**
+	 * Set a single scope for a whole region, dropping whatever was stored in it.
+	 *
+	 * @param offset
+	 * @param length
+	 * @param scope
+	 */
+	public void set(int offset, int length, String scope)
+	{
+		Ranges ranges = new Ranges();
+		if (scope != null && length > 0)
+		{
+			ranges.add(offset, length, scope);
+		}
+		replace(offset, length, ranges);
+	}
+
+	/**
+	 * Drop everything stored in the region and store the specified ranges instead. Ranges that stick out of the region
+	 * are clipped to it, ranges that only partly overlap the region keep the part outside of it.
+	 *
+	 * @param offset
+	 * @param length
+	 * @param ranges
+	 */
+	public synchronized void replace(int offset, int length, Ranges ranges)
+	{
+		int end = offset + length;
+		moveGap(findFirstEndingAfter(offset));
+
+		// Drop or clip the ranges overlapping the region
+		while (fGapEnd < fOffsets.length)
+		{
+			int start = fOffsets[fGapEnd] + fDocumentLength;
+			if (start >= end)
+			{
+				break;
+			}
+			int rangeEnd = start + fLengths[fGapEnd];
+			int scope = fScopes[fGapEnd];
+			if (rangeEnd > end)
+			{
+				// keep the part after the region where it is
+				fOffsets[fGapEnd] = end - fDocumentLength;
+				fLengths[fGapEnd] = rangeEnd - end;
+			}
+			else
+			{
+				fGapEnd++;
+			}
+			if (start < offset)
+			{
+				// keep the part before the region
+				insertBeforeGap(start, offset - start, scope);
+			}
+			if (rangeEnd > end)
+			{
+				break;
+			}
+		}
+
+		if (ranges == null)
+		{
+			return;
+		}
+		for (int i = 0; i < ranges.size; i++)
+		{
+			int start = Math.max(offset, ranges.offsets[i]);
+			int rangeEnd = Math.min(end, ranges.offsets[i] + ranges.lengths[i]);
+			if (rangeEnd > start)
+			{
+				insertBeforeGap(start, rangeEnd - start, ranges.scopes[i]);
+			}
+		}
+	}
+
+	/**
+	 * Drop all the stored ranges
+	 */
+	public synchronized void clear()
+	{
+		fGapStart = 0;
+		fGapEnd = fOffsets.length;
+	}
+
+	public void documentAboutToBeChanged(DocumentEvent event)
+	{
+		// nothing to do until the change happened
+	}
+
+	public synchronized void documentChanged(DocumentEvent event)
+	{
+		int offset = event.getOffset();
+		int removedEnd = offset + event.getLength();
+		String text = event.getText();
+		int inserted = (text == null) ? 0 : text.length();
+		int delta = inserted - event.getLength();
+
+		// Ranges ending before the change aren't affected. Move the gap right after them.
+		moveGap(findFirstEndingAfter(offset));
+
+		// Fix up the ranges overlapping the change. The ones after it shift along with the end of the document.
+		while (fGapEnd < fOffsets.length)
+		{
+			int start = fOffsets[fGapEnd] + fDocumentLength;
+			int end = start + fLengths[fGapEnd];
+			if (start >= removedEnd)
+			{
+				break;
+			}
+			int scope = fScopes[fGapEnd];
+			fGapEnd++;
+
+			int newStart = (start < offset) ? start : ((start >= removedEnd) ? start + delta : offset + inserted);
+			int newEnd = (end >= removedEnd) ? end + delta : offset;
+			if (newEnd > newStart)
+			{
+				insertBeforeGap(newStart, newEnd - newStart, scope);
+			}
+		}
+		fDocumentLength += delta;
+	}
+
+	/**
+	 * The logical index of the first range ending after the offset
+	 */
+	private int findFirstEndingAfter(int offset)
+	{
+		int low = 0;
+		int high = size() - 1;
+		while (low <= high)
+		{
+			int mid = (low + high) >>> 1;
+			int physical = physical(mid);
+			if (getOffset(mid) + fLengths[physical] <= offset)
+			{
+				low = mid + 1;
+			}
+			else
+			{
+				high = mid - 1;
+			}
+		}
+		return low;
+	}
+
+	private int physical(int index)
+	{
+		return (index < fGapStart) ? index : index + (fGapEnd - fGapStart);
+	}
+
+	private int getOffset(int index)
+	{
+		if (index < fGapStart)
+		{
+			return fOffsets[index];
+		}
+		return fOffsets[physical(index)] + fDocumentLength;
+	}
+
+	/**
+	 * Move the gap so it starts at the logical index, converting the offsets of the ranges it passes
+	 */
+	private void moveGap(int index)
+	{
+		if (index < fGapStart)
+		{
+			int count = fGapStart - index;
+			for (int i = 0; i < count; i++)
+			{
+				int from = fGapStart - 1 - i;
+				int to = fGapEnd - 1 - i;
+				fOffsets[to] = fOffsets[from] - fDocumentLength;
+				fLengths[to] = fLengths[from];
+				fScopes[to] = fScopes[from];
+			}
+			fGapStart -= count;
+			fGapEnd -= count;
+		}
+		else if (index > fGapStart)
+		{
+			int count = index - fGapStart;
+			for (int i = 0; i < count; i++)
+			{
+				int from = fGapEnd + i;
+				int to = fGapStart + i;
+				fOffsets[to] = fOffsets[from] + fDocumentLength;
+				fLengths[to] = fLengths[from];
+				fScopes[to] = fScopes[from];
+			}
+			fGapStart += count;
+			fGapEnd += count;
+		}
+	}
+
+	private void insertBeforeGap(int offset, int length, int scope)
+	{
+		if (fGapStart == fGapEnd)
+		{
+			int capacity = fOffsets.length * 2;
+			int tail = fOffsets.length - fGapEnd;
+			int[] offsets = new int[capacity];
+			int[] lengths = new int[capacity];
+			int[] scopes = new int[capacity];
+			System.arraycopy(fOffsets, 0, offsets, 0, fGapStart);
+			System.arraycopy(fLengths, 0, lengths, 0, fGapStart);
+			System.arraycopy(fScopes, 0, scopes, 0, fGapStart);
+			System.arraycopy(fOffsets, fGapEnd, offsets, capacity - tail, tail);
+			System.arraycopy(fLengths, fGapEnd, lengths, capacity - tail, tail);
+			System.arraycopy(fScopes, fGapEnd, scopes, capacity - tail, tail);
+			fOffsets = offsets;
+			fLengths = lengths;
+			fScopes = scopes;
+			fGapEnd = capacity - tail;
+		}
+		fOffsets[fGapStart] = offset;
+		fLengths[fGapStart] = length;
+		fScopes[fGapStart] = scope;
+		fGapStart++;
+	}
+}
@@ -518,7 +518,7 @@ class CSSFlexScanner extends Scanner {
 
 	private Symbol newToken(short id, Object value)
 	{
-		return new Symbol(id, yychar, yychar + yylength() - 1, value);
+		return newSymbol(id, yychar, yychar + yylength() - 1, value);
 	}
 
 	public Symbol nextToken() throws java.io.IOException, Scanner.Exception
@@ -159,6 +159,12 @@ public class CSSParser extends Parser implements IParser {
 
 	}
 
+	// braces are never kept by the AST, so let the scanner reuse them
+	protected boolean isReusableTerminal(short id)
+	{
+		return id == Terminals.LCURLY || id == Terminals.RCURLY;
+	}
+
 	public CSSParser() {
 		super(PARSING_TABLES);
 
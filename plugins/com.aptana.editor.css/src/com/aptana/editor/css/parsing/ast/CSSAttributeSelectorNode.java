@@ -9,6 +9,8 @@ package com.aptana.editor.css.parsing.ast;
 
 public class CSSAttributeSelectorNode extends CSSNode
 {
+	private static final long serialVersionUID = 1L;
+
 	private String fAttributeText;
 
 	/**
@@ -14,6 +14,8 @@ import com.aptana.parsing.lexer.Range;
 
 public class CSSDeclarationNode extends CSSNode
 {
+	private static final long serialVersionUID = 1L;
+
 	private String fIdentifier;
 	private String fStatus;
 	private IRange fStatusRange;
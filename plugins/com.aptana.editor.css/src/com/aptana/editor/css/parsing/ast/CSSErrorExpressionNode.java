@@ -9,6 +9,8 @@ package com.aptana.editor.css.parsing.ast;
 
 public class CSSErrorExpressionNode extends CSSExpressionNode
 {
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * CSSErrorExpressionNode
 	 * 
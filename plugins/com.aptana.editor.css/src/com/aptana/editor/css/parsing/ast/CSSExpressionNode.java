@@ -9,6 +9,8 @@ package com.aptana.editor.css.parsing.ast;
 
 public class CSSExpressionNode extends CSSNode
 {
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * CSSExpressionNode
 	 * 
@@ -14,6 +14,8 @@ import com.aptana.parsing.ast.IParseNode;
 
 public class CSSFontFaceNode extends CSSNode
 {
+	private static final long serialVersionUID = 1L;
+
 	private static final String FONTFACE = "@font-face"; //$NON-NLS-1$
 
 	/**
@@ -12,6 +12,8 @@ package com.aptana.editor.css.parsing.ast;
  */
 public class CSSList extends CSSNode
 {
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * CSSList
 	 * 
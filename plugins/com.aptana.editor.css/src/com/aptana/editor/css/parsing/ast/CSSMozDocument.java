@@ -17,6 +17,8 @@ import com.aptana.parsing.ast.IParseNode;
  */
 public class CSSMozDocument extends CSSNode
 {
+	private static final long serialVersionUID = 1L;
+
 	private static final String MOZ_DOCUMENT = "@-moz-document "; //$NON-NLS-1$
 	private static final IMap<IParseNode, String> PARSE_NODE_STRING_MAPPER = new IMap<IParseNode, String>()
 	{
@@ -14,6 +14,8 @@ import com.aptana.parsing.ast.ParseRootNode;
 
 public class CSSNode extends ParseNode
 {
+	private static final long serialVersionUID = 1L;
+
 	private short fType;
 
 	/**
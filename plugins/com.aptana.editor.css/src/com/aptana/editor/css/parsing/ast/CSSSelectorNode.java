@@ -11,6 +11,8 @@ import com.aptana.core.util.StringUtil;
 
 public class CSSSelectorNode extends CSSNode
 {
+	private static final long serialVersionUID = 1L;
+
 	private String fCombinator;
 
 	/**
@@ -7,14 +7,9 @@
  */
 package com.aptana.editor.css.validator;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.PrintWriter;
-import java.io.UnsupportedEncodingException;
 import java.lang.reflect.Field;
-import java.net.MalformedURLException;
 import java.net.URI;
 import java.text.MessageFormat;
 import java.util.ArrayList;
@@ -25,23 +20,21 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.apache.commons.lang.StringEscapeUtils;
+import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
-import org.w3c.css.css.StyleReport;
-import org.w3c.css.css.StyleReportFactory;
-import org.w3c.css.css.StyleSheet;
-import org.w3c.css.css.StyleSheetParser;
 import org.w3c.css.properties.PropertiesLoader;
-import org.w3c.css.util.ApplContext;
 import org.w3c.css.util.Utf8Properties;
 
 import com.aptana.core.build.AbstractBuildParticipant;
 import com.aptana.core.build.IProblem;
 import com.aptana.core.logging.IdeLog;
-import com.aptana.core.util.IOUtil;
 import com.aptana.core.util.URLEncoder;
 import com.aptana.editor.css.CSSPlugin;
 import com.aptana.editor.css.ICSSConstants;
+import com.aptana.editor.css.validator.W3CValidatorPool.ValidatorContext;
 import com.aptana.index.core.build.BuildContext;
+import com.aptana.parsing.ast.IParseError;
+import com.aptana.parsing.ast.IParseError.Severity;
 
 /**
  * @author cwilliams
@@ -54,6 +47,7 @@ public class CSSValidator extends AbstractBuildParticipant
 	private static final String APTANA_PROFILE = "AptanaProfile"; //$NON-NLS-1$
 	private static final String CONFIG_FILE = "AptanaCSSConfig.properties"; //$NON-NLS-1$
 	private static final String PROFILES_CONFIG_FILE = "AptanaCSSProfiles.properties"; //$NON-NLS-1$
+	private static final String MEDIUM = "all"; //$NON-NLS-1$
 
 	/**
 	 * error pattern
@@ -101,7 +95,14 @@ public class CSSValidator extends AbstractBuildParticipant
 		loadAptanaCSSProfile();
 	}
 
-	private void processErrorsInReport(String report, String sourcePath, List<IProblem> items, List<String> filters)
+	/**
+	 * Prepared W3C validator contexts, one for each file being validated at the same time
+	 */
+	private static final W3CValidatorPool VALIDATORS = new W3CValidatorPool(APTANA_PROFILE, MEDIUM, Runtime
+			.getRuntime().availableProcessors());
+
+	private void processErrorsInReport(String report, String sourcePath, List<IProblem> items,
+			ValidatorContext validator)
 	{
 		int offset = 0;
 		String elementName = "errorlist"; //$NON-NLS-1$
@@ -135,7 +136,7 @@ public class CSSValidator extends AbstractBuildParticipant
 				// finds the errors
 				String[] errors = getContent(ERROR_PATTERN, listString);
 				// add errors
-				addErrors(errors, sourcePath, items, filters);
+				addErrors(errors, sourcePath, items, validator);
 			}
 
 			// advances past the current error list
@@ -143,7 +144,8 @@ public class CSSValidator extends AbstractBuildParticipant
 		}
 	}
 
-	private void processWarningsInReport(String report, String sourcePath, List<IProblem> items, List<String> filters)
+	private void processWarningsInReport(String report, String sourcePath, List<IProblem> items,
+			ValidatorContext validator)
 	{
 		int offset = 0;
 		String elementName = "warninglist"; //$NON-NLS-1$
@@ -176,7 +178,7 @@ public class CSSValidator extends AbstractBuildParticipant
 				// finds the warnings
 				String[] warnings = getContent(WARNING_PATTERN, listString);
 				// adds errors
-				addWarnings(warnings, sourcePath, items, filters);
+				addWarnings(warnings, sourcePath, items, validator);
 			}
 
 			// advance past the current warning list
@@ -242,8 +244,10 @@ public class CSSValidator extends AbstractBuildParticipant
 	 *            the validation manager
 	 * @param items
 	 *            the list that stores the added validation items
+	 * @param validator
+	 *            the context the report came from
 	 */
-	private void addErrors(String[] errors, String sourcePath, List<IProblem> items, List<String> filters)
+	private void addErrors(String[] errors, String sourcePath, List<IProblem> items, ValidatorContext validator)
 	{
 		Map<String, String> map;
 		for (String error : errors)
@@ -279,7 +283,7 @@ public class CSSValidator extends AbstractBuildParticipant
 			message = StringEscapeUtils.unescapeHtml(message);
 			message = message.replaceAll("\\s+", " "); //$NON-NLS-1$ //$NON-NLS-2$
 
-			if (!isIgnored(message, filters) && !containsCSS3Property(message) && !containsCSS3AtRule(message)
+			if (!validator.isIgnored(message) && !containsCSS3Property(message) && !containsCSS3AtRule(message)
 					&& !isFiltered(message))
 			{
 				// there is no info on the line offset or the length of the errored text
@@ -297,9 +301,10 @@ public class CSSValidator extends AbstractBuildParticipant
 	 *            the source path
 	 * @param items
 	 *            the list that stores the added validation items
-	 * @param filters
+	 * @param validator
+	 *            the context the report came from
 	 */
-	private void addWarnings(String[] warnings, String sourcePath, List<IProblem> items, List<String> filters)
+	private void addWarnings(String[] warnings, String sourcePath, List<IProblem> items, ValidatorContext validator)
 	{
 		Map<String, String> map;
 		String last = ""; //$NON-NLS-1$
@@ -320,7 +325,7 @@ public class CSSValidator extends AbstractBuildParticipant
 
 			String hash = MessageFormat.format("{0}:{1}:{2}:{3}", lineNumber, level, message, context); //$NON-NLS-1$
 			// guards against duplicate warnings
-			if (!last.equals(hash) && !isIgnored(message, filters))
+			if (!last.equals(hash) && !validator.isIgnored(message))
 			{
 				items.add(createWarning(message, lineNumber, 0, 0, sourcePath));
 			}
@@ -329,43 +334,6 @@ public class CSSValidator extends AbstractBuildParticipant
 		}
 	}
 
-	/**
-	 * Gets the validation report from the validator.
-	 * 
-	 * @param source
-	 *            the source text
-	 * @param path
-	 *            the source path
-	 * @return the report
-	 */
-	private static String getReport(String source, URI path)
-	{
-		StyleSheetParser parser = new StyleSheetParser();
-		ApplContext ac = new ApplContext("en"); //$NON-NLS-1$
-		ac.setProfile(APTANA_PROFILE);
-		try
-		{
-			parser.parseStyleElement(ac, new ByteArrayInputStream(source.getBytes(IOUtil.UTF_8)), null, null,
-					path.toURL(), 0);
-		}
-		catch (MalformedURLException e)
-		{
-			IdeLog.logError(CSSPlugin.getDefault(), MessageFormat.format(Messages.CSSValidator_ERR_InvalidPath, path),
-					e);
-		}
-		catch (UnsupportedEncodingException e)
-		{
-			IdeLog.logError(CSSPlugin.getDefault(), e);
-		}
-
-		StyleSheet stylesheet = parser.getStyleSheet();
-		stylesheet.findConflicts(ac);
-		StyleReport report = StyleReportFactory.getStyleReport(ac, "Title", stylesheet, "soap12", 2); //$NON-NLS-1$ //$NON-NLS-2$
-		ByteArrayOutputStream out = new ByteArrayOutputStream();
-		report.print(new PrintWriter(out));
-		return out.toString().replaceAll("m:", ""); //$NON-NLS-1$ //$NON-NLS-2$
-	}
-
 	/**
 	 * Gets the list of contents in a source text that matches the specific pattern.
 	 * 
@@ -456,18 +424,58 @@ public class CSSValidator extends AbstractBuildParticipant
 
 		List<IProblem> problems = new ArrayList<IProblem>();
 
-		String source = context.getContents();
-		URI uri = context.getURI();
-		String path = uri.toString();
+		// The CSS parser validator already reports what's wrong with files it can't parse, and minified stylesheets
+		// may be left alone
+		if (!isSkipped(context) && !isRejectedByParser(context))
+		{
+			String source = context.getContents();
+			URI uri = context.getURI();
+			String path = uri.toString();
 
-		String report = getReport(source, uri);
-		List<String> filters = getFilters();
-		processErrorsInReport(report, path, problems, filters);
-		processWarningsInReport(report, path, problems, filters);
+			ValidatorContext validator = VALIDATORS.acquire(getFilters());
+			try
+			{
+				String report = validator.getReport(source, uri);
+				processErrorsInReport(report, path, problems, validator);
+				processWarningsInReport(report, path, problems, validator);
+			}
+			finally
+			{
+				VALIDATORS.release(validator);
+			}
+		}
 
 		context.putProblems(ICSSConstants.W3C_PROBLEM, problems);
 	}
 
+	/**
+	 * Determine if our CSS parser found errors in the file, in which case the W3C validator would only pile up more
+	 * reports about the same broken rules.
+	 *
+	 * @param context
+	 * @return
+	 */
+	private boolean isRejectedByParser(BuildContext context)
+	{
+		try
+		{
+			context.getAST(); // make sure a parse has happened...
+		}
+		catch (CoreException e)
+		{
+			// ignores the parser exception
+		}
+
+		for (IParseError error : context.getParseErrors())
+		{
+			if (error.getSeverity() == Severity.ERROR)
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
 	public void deleteFile(BuildContext context, IProgressMonitor monitor)
 	{
 		if (context == null)
@@ -0,0 +1,167 @@
+/**
+ * Aptana Studio
+ * Copyright (c) 2005-2012 by Appcelerator, Inc. All Rights Reserved.
+ * Licensed under the terms of the GNU Public License (GPL) v3 (with exceptions).
+ * Please see the license.html included with this distribution for details.
+ * Any modifications to this file must keep this entire header intact.
+ */
+package com.aptana.editor.css.validator;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintWriter;
+import java.io.UnsupportedEncodingException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.w3c.css.css.StyleReport;
+import org.w3c.css.css.StyleReportFactory;
+import org.w3c.css.css.StyleSheet;
+import org.w3c.css.css.StyleSheetParser;
+import org.w3c.css.util.ApplContext;
+
+import com.aptana.core.logging.IdeLog;
+import com.aptana.core.util.IOUtil;
+import com.aptana.editor.css.CSSPlugin;
+
+/**
+ * A bounded pool of W3C validator contexts. Setting up the validator's context and parser is expensive, and neither
+ * may be used by two threads at once, so each file being validated borrows a prepared context and hands it back when
+ * done. This lets several stylesheets get validated concurrently without paying the set up for every file.
+ */
+class W3CValidatorPool
+{
+	/**
+	 * The state needed to validate one stylesheet at a time: the W3C context with our profile and medium, a parser to
+	 * reuse, and the user's filter expressions compiled
+	 */
+	static class ValidatorContext
+	{
+		private final ApplContext applContext;
+		private final StyleSheetParser parser;
+		private List<String> filters;
+		private List<Pattern> filterPatterns;
+
+		private ValidatorContext(String profile, String medium, List<String> filters)
+		{
+			this.applContext = new ApplContext("en"); //$NON-NLS-1$
+			this.applContext.setProfile(profile);
+			this.applContext.setMedium(medium);
+			this.parser = new StyleSheetParser();
+			setFilters(filters);
+		}
+
+		private void setFilters(List<String> filters)
+		{
+			this.filters = new ArrayList<String>(filters);
+			this.filterPatterns = new ArrayList<Pattern>(filters.size());
+			for (String filter : filters)
+			{
+				filterPatterns.add(Pattern.compile(filter));
+			}
+		}
+
+		/**
+		 * Gets the validation report from the validator.
+		 *
+		 * @param source
+		 *            the source text
+		 * @param path
+		 *            the source path
+		 * @return the report
+		 */
+		String getReport(String source, URI path)
+		{
+			// drops the stylesheet of the previous file
+			parser.reInit();
+			try
+			{
+				parser.parseStyleElement(applContext, new ByteArrayInputStream(source.getBytes(IOUtil.UTF_8)), null,
+						applContext.getMedium(), path.toURL(), 0);
+			}
+			catch (MalformedURLException e)
+			{
+				IdeLog.logError(CSSPlugin.getDefault(),
+						MessageFormat.format(Messages.CSSValidator_ERR_InvalidPath, path), e);
+			}
+			catch (UnsupportedEncodingException e)
+			{
+				IdeLog.logError(CSSPlugin.getDefault(), e);
+			}
+
+			StyleSheet stylesheet = parser.getStyleSheet();
+			stylesheet.findConflicts(applContext);
+			StyleReport report = StyleReportFactory.getStyleReport(applContext, "Title", stylesheet, "soap12", 2); //$NON-NLS-1$ //$NON-NLS-2$
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			report.print(new PrintWriter(out));
+			return out.toString().replaceAll("m:", ""); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+
+		/**
+		 * Determine if the message matches one of the filter expressions the context was prepared with
+		 *
+		 * @param message
+		 * @return
+		 */
+		boolean isIgnored(String message)
+		{
+			for (Pattern pattern : filterPatterns)
+			{
+				if (pattern.matcher(message).matches())
+				{
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	private final String fProfile;
+	private final String fMedium;
+	private final int fCapacity;
+	private final LinkedList<ValidatorContext> fIdle;
+
+	W3CValidatorPool(String profile, String medium, int capacity)
+	{
+		fProfile = profile;
+		fMedium = medium;
+		fCapacity = capacity;
+		fIdle = new LinkedList<ValidatorContext>();
+	}
+
+	/**
+	 * Borrow a context prepared with the specified filters. It must be given back through {@link #release} once the
+	 * file has been validated.
+	 *
+	 * @param filters
+	 * @return
+	 */
+	synchronized ValidatorContext acquire(List<String> filters)
+	{
+		if (fIdle.isEmpty())
+		{
+			return new ValidatorContext(fProfile, fMedium, filters);
+		}
+
+		ValidatorContext context = fIdle.removeFirst();
+		if (!context.filters.equals(filters))
+		{
+			// the user changed the filters since the context was prepared
+			context.setFilters(filters);
+		}
+		return context;
+	}
+
+	synchronized void release(ValidatorContext context)
+	{
+		if (context != null && fIdle.size() < fCapacity)
+		{
+			fIdle.addFirst(context);
+		}
+	}
+}
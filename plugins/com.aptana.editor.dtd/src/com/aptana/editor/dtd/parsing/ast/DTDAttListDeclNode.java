@@ -9,6 +9,8 @@ package com.aptana.editor.dtd.parsing.ast;
 
 public class DTDAttListDeclNode extends DTDNode
 {
+	private static final long serialVersionUID = 1L;
+
 	private String _name;
 
 	/**
@@ -11,6 +11,8 @@ import com.aptana.parsing.ast.IParseNode;
 
 public class DTDElementDeclNode extends DTDNode
 {
+	private static final long serialVersionUID = 1L;
+
 	private String _name;
 
 	/**
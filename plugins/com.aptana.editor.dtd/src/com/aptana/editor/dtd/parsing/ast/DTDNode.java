@@ -12,6 +12,8 @@ import com.aptana.parsing.ast.ParseNode;
 
 public class DTDNode extends ParseNode
 {
+	private static final long serialVersionUID = 1L;
+
 	private DTDNodeType _type;
 
 	/**
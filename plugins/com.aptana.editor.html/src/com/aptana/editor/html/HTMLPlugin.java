@@ -15,6 +15,8 @@ import org.eclipse.ui.plugin.AbstractUIPlugin;
 import org.eclipse.ui.texteditor.IDocumentProvider;
 import org.osgi.framework.BundleContext;
 
+import com.aptana.editor.html.parsing.EmbeddedLanguageParse;
+
 /**
  * The activator class controls the plug-in life cycle
  */
@@ -100,6 +102,7 @@ public class HTMLPlugin extends AbstractUIPlugin
 	 */
 	public void stop(BundleContext context) throws Exception // $codepro.audit.disable declaredExceptions
 	{
+		EmbeddedLanguageParse.shutdown();
 		plugin = null;
 
 		super.stop(context);
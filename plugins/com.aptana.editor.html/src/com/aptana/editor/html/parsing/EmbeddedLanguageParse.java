@@ -0,0 +1,335 @@
+/**
+ * Aptana Studio
+ * Copyright (c) 2005-2012 by Appcelerator, Inc. All Rights Reserved.
+ * Licensed under the terms of the GNU Public License (GPL) v3 (with exceptions).
+ * Please see the license.html included with this distribution for details.
+ * Any modifications to this file must keep this entire header intact.
+ */
+package com.aptana.editor.html.parsing;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+
+import com.aptana.editor.css.ICSSConstants;
+import com.aptana.editor.css.parsing.ast.CSSDeclarationNode;
+import com.aptana.editor.css.parsing.ast.CSSRuleNode;
+import com.aptana.editor.html.parsing.ast.HTMLTextNode;
+import com.aptana.editor.js.IJSConstants;
+import com.aptana.parsing.ParseResult;
+import com.aptana.parsing.ParseState;
+import com.aptana.parsing.ParserPoolFactory;
+import com.aptana.parsing.ast.IParseError;
+import com.aptana.parsing.ast.IParseNode;
+import com.aptana.parsing.ast.ParseError;
+
+/**
+ * A sub-parse of an embedded language inside an HTML document that has not necessarily happened yet. The HTML parser
+ * only records the language and source range of script and style blocks and of style/event handler attribute values.
+ * The actual parse is done the first time the resulting nodes are requested, or, for blocks, by the HTML parser once
+ * it's done with the HTML structure.
+ */
+public class EmbeddedLanguageParse implements Serializable
+{
+	private static final long serialVersionUID = 1L;
+	private static final IParseNode[] NO_NODES = new IParseNode[0];
+
+	public enum Kind
+	{
+		/**
+		 * The body of a script or style element
+		 */
+		BLOCK,
+
+		/**
+		 * The value of a style attribute
+		 */
+		CSS_ATTRIBUTE,
+
+		/**
+		 * The value of an event handler attribute
+		 */
+		JS_ATTRIBUTE
+	}
+
+	/**
+	 * Shared worker threads used to run pending embedded parses in parallel
+	 */
+	private static ExecutorService EXECUTOR;
+
+	private final Kind fKind;
+	private final String fLanguage;
+	private final String fElementName;
+	private String fSource;
+	private final int fOffset;
+
+	private IParseNode[] fNodes;
+	private List<IParseError> fErrors;
+
+	/**
+	 * EmbeddedLanguageParse
+	 *
+	 * @param kind
+	 * @param language
+	 *            The content type of the embedded language. May be null for blocks of an unknown type
+	 * @param elementName
+	 *            The name of the element owning the embedded source
+	 * @param source
+	 * @param offset
+	 *            The offset of the embedded source within the HTML document
+	 */
+	public EmbeddedLanguageParse(Kind kind, String language, String elementName, String source, int offset)
+	{
+		fKind = kind;
+		fLanguage = language;
+		fElementName = elementName;
+		fSource = source;
+		fOffset = offset;
+	}
+
+	/**
+	 * Returns the parse errors reported by the embedded language parser, shifted to document offsets. This forces the
+	 * parse if it has not happened yet.
+	 *
+	 * @return
+	 */
+	public synchronized List<IParseError> getErrors()
+	{
+		parse();
+		return fErrors;
+	}
+
+	/**
+	 * getKind
+	 *
+	 * @return
+	 */
+	public Kind getKind()
+	{
+		return fKind;
+	}
+
+	/**
+	 * getLanguage
+	 *
+	 * @return
+	 */
+	public String getLanguage()
+	{
+		return fLanguage;
+	}
+
+	/**
+	 * Returns the nodes produced by the embedded language parser. This forces the parse if it has not happened yet.
+	 *
+	 * @return
+	 */
+	public synchronized IParseNode[] getNodes()
+	{
+		parse();
+		return fNodes;
+	}
+
+	/**
+	 * getOffset
+	 *
+	 * @return
+	 */
+	public int getOffset()
+	{
+		return fOffset;
+	}
+
+	/**
+	 * Determine if the embedded source has been parsed already
+	 *
+	 * @return
+	 */
+	public synchronized boolean isParsed()
+	{
+		return fNodes != null;
+	}
+
+	/**
+	 * parse
+	 */
+	private void parse()
+	{
+		if (fNodes != null)
+		{
+			return;
+		}
+
+		List<IParseError> errors = Collections.emptyList();
+		IParseNode[] nodes = NO_NODES;
+
+		try
+		{
+			switch (fKind)
+			{
+				case BLOCK:
+				{
+					ParseResult result = ParserPoolFactory.parse(fLanguage, new ParseState(fSource, fOffset));
+					IParseNode node = result.getRootNode();
+
+					if (!result.getErrors().isEmpty())
+					{
+						errors = new ArrayList<IParseError>(result.getErrors().size());
+						for (IParseError subError : result.getErrors())
+						{
+							// Shift the line/offsets based on the starting offset/line of the sub-language!
+							errors.add(new ParseError(fLanguage, fOffset + subError.getOffset(), subError.getLength(),
+									subError.getMessage(), subError.getSeverity()));
+						}
+					}
+					if (node == null)
+					{
+						node = new HTMLTextNode(fSource, fOffset, fOffset + fSource.length() - 1);
+					}
+					nodes = new IParseNode[] { node };
+					break;
+				}
+
+				case CSS_ATTRIBUTE:
+				{
+					String text = fElementName + " {" + fSource + "}"; //$NON-NLS-1$ //$NON-NLS-2$
+					int startingOffset = fOffset - (fElementName.length() + 1);
+					IParseNode node = ParserPoolFactory.parse(ICSSConstants.CONTENT_TYPE_CSS, text, startingOffset)
+							.getRootNode();
+
+					// should always have a rule node
+					if (node != null && node.hasChildren())
+					{
+						IParseNode rule = node.getChild(0);
+						if (rule instanceof CSSRuleNode)
+						{
+							CSSDeclarationNode[] declarations = ((CSSRuleNode) rule).getDeclarations();
+							nodes = new IParseNode[declarations.length];
+							System.arraycopy(declarations, 0, nodes, 0, declarations.length);
+						}
+					}
+					break;
+				}
+
+				case JS_ATTRIBUTE:
+				{
+					IParseNode node = ParserPoolFactory.parse(IJSConstants.CONTENT_TYPE_JS, fSource, fOffset + 1)
+							.getRootNode();
+
+					if (node != null)
+					{
+						nodes = node.getChildren();
+					}
+					break;
+				}
+			}
+		}
+		catch (Exception e)
+		{
+			// errors in embedded languages never break the HTML tree
+		}
+
+		fNodes = nodes;
+		fErrors = errors;
+
+		// clear for garbage collection
+		fSource = null;
+	}
+
+	/**
+	 * Run the specified embedded parses. When there is more than one and more than one processor is available, the
+	 * parses are executed in parallel. This method returns once all parses have completed or the monitor has been
+	 * canceled.
+	 *
+	 * @param parses
+	 * @param monitor
+	 */
+	public static void parseAll(Collection<EmbeddedLanguageParse> parses, final IProgressMonitor monitor)
+	{
+		List<Callable<Object>> tasks = new ArrayList<Callable<Object>>(parses.size());
+		for (final EmbeddedLanguageParse parse : parses)
+		{
+			if (!parse.isParsed())
+			{
+				tasks.add(new Callable<Object>()
+				{
+					public Object call() throws Exception
+					{
+						if (monitor == null || !monitor.isCanceled())
+						{
+							parse.getNodes();
+						}
+						return null;
+					}
+				});
+			}
+		}
+
+		if (tasks.size() < 2 || Runtime.getRuntime().availableProcessors() < 2)
+		{
+			for (Callable<Object> task : tasks)
+			{
+				try
+				{
+					task.call();
+				}
+				catch (Exception e)
+				{
+					// parse() swallows everything already
+				}
+			}
+			return;
+		}
+
+		try
+		{
+			getExecutor().invokeAll(tasks);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * getExecutor
+	 *
+	 * @return
+	 */
+	private static synchronized ExecutorService getExecutor()
+	{
+		if (EXECUTOR == null)
+		{
+			EXECUTOR = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), new ThreadFactory()
+			{
+				public Thread newThread(Runnable r)
+				{
+					Thread thread = new Thread(r, "HTML embedded language parser"); //$NON-NLS-1$
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+		return EXECUTOR;
+	}
+
+	/**
+	 * Stop the shared worker threads. Called when the plugin stops.
+	 */
+	public static synchronized void shutdown()
+	{
+		if (EXECUTOR != null)
+		{
+			EXECUTOR.shutdownNow();
+			EXECUTOR = null;
+		}
+	}
+}
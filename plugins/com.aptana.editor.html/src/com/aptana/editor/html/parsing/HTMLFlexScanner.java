@@ -0,0 +1,926 @@
+// $codepro.audit.disable
+/**
+ * Aptana Studio
+ * Copyright (c) 2005-2012 by Appcelerator, Inc. All Rights Reserved.
+ * Licensed under the terms of the GNU Public License (GPL) v3 (with exceptions).
+ * Please see the license.html included with this distribution for details.
+ * Any modifications to this file must keep this entire header intact.
+ */
+package com.aptana.editor.html.parsing;
+
+import java.io.Reader;
+import java.io.StringReader;
+
+import beaver.Scanner;
+import beaver.Symbol;
+
+import com.aptana.editor.html.parsing.lexer.HTMLTokens;
+
+
+/**
+ * This class is a scanner generated by 
+ * <a href="http://www.jflex.de/">JFlex</a> 1.4.3
+ * on 10/19/26, 5:06 PM from the specification file
+ * <tt>HTML.flex</tt>
+ */
+class HTMLFlexScanner extends Scanner {
+
+  /** This character denotes the end of file */
+  public static final int YYEOF = -1;
+
+  /** initial size of the lookahead buffer */
+  private static final int ZZ_BUFFERSIZE = 16384;
+
+  /** lexical states */
+  public static final int SPLIT_TEXT = 2;
+  public static final int YYINITIAL = 0;
+  public static final int STYLE_BODY = 6;
+  public static final int SCRIPT_BODY = 4;
+
+  /**
+   * ZZ_LEXSTATE[l] is the state in the DFA for the lexical state l
+   * ZZ_LEXSTATE[l+1] is the state in the DFA for the lexical state l
+   *                  at the beginning of a line
+   * l is of the form l = 2*k, k a non negative integer
+   */
+  private static final int ZZ_LEXSTATE[] = { 
+     0,  0,  1,  1,  2,  2,  3, 3
+  };
+
+  /** 
+   * Translates characters to character classes
+   */
+  private static final String ZZ_CMAP_PACKED = 
+    "\11\3\5\1\16\3\4\1\1\26\1\12\1\5\1\0\1\2\2\0"+
+    "\1\7\5\0\1\13\1\0\1\10\12\3\2\0\1\11\1\0\1\4"+
+    "\1\33\1\0\1\17\1\2\1\15\1\16\1\25\3\2\1\31\2\2"+
+    "\1\32\1\35\1\2\1\22\1\24\1\2\1\30\1\27\1\20\3\2"+
+    "\1\34\1\23\1\2\1\14\1\6\1\21\1\0\1\2\1\0\1\17"+
+    "\1\2\1\15\1\16\1\25\3\2\1\31\2\2\1\32\1\35\1\2"+
+    "\1\22\1\24\1\2\1\30\1\27\1\20\3\2\1\34\1\23\1\2"+
+    "\4\0\41\3\2\0\4\2\4\0\1\2\2\0\1\3\7\0\1\2"+
+    "\4\0\1\2\5\0\27\2\1\0\37\2\1\0\u01ca\2\4\0\14\2"+
+    "\16\0\5\2\7\0\1\2\1\0\1\2\21\0\160\3\5\2\1\0"+
+    "\2\2\2\0\4\2\1\0\1\2\6\0\1\2\1\0\3\2\1\0"+
+    "\1\2\1\0\24\2\1\0\123\2\1\0\213\2\1\0\5\3\2\0"+
+    "\246\2\1\0\46\2\2\0\1\2\6\0\51\2\6\0\1\2\1\0"+
+    "\55\3\1\0\1\3\1\0\2\3\1\0\2\3\1\0\1\3\10\0"+
+    "\33\2\4\0\4\2\15\0\6\3\5\0\1\2\4\0\13\3\1\0"+
+    "\1\3\3\0\53\2\37\3\4\0\2\2\1\3\143\2\1\0\1\2"+
+    "\10\3\1\0\6\3\2\2\2\3\1\0\4\3\2\2\12\3\3\2"+
+    "\2\0\1\2\17\0\1\3\1\2\1\3\36\2\33\3\2\0\131\2"+
+    "\13\3\1\2\16\0\12\3\41\2\11\3\2\2\4\0\1\2\2\0"+
+    "\1\3\30\2\4\3\1\2\11\3\1\2\3\3\1\2\5\3\22\0"+
+    "\31\2\3\3\4\0\13\2\65\0\25\2\1\0\22\2\13\0\61\3"+
+    "\66\2\3\3\1\2\22\3\1\2\7\3\12\2\2\3\2\0\12\3"+
+    "\1\0\20\2\3\3\1\0\10\2\2\0\2\2\2\0\26\2\1\0"+
+    "\7\2\1\0\1\2\3\0\4\2\2\0\1\3\1\2\7\3\2\0"+
+    "\2\3\2\0\3\3\1\2\10\0\1\3\4\0\2\2\1\0\3\2"+
+    "\2\3\2\0\12\3\4\2\7\0\2\2\1\0\1\3\2\0\3\3"+
+    "\1\0\6\2\4\0\2\2\2\0\26\2\1\0\7\2\1\0\2\2"+
+    "\1\0\2\2\1\0\2\2\2\0\1\3\1\0\5\3\4\0\2\3"+
+    "\2\0\3\3\3\0\1\3\7\0\4\2\1\0\1\2\7\0\14\3"+
+    "\3\2\1\3\13\0\3\3\1\0\11\2\1\0\3\2\1\0\26\2"+
+    "\1\0\7\2\1\0\2\2\1\0\5\2\2\0\1\3\1\2\10\3"+
+    "\1\0\3\3\1\0\3\3\2\0\1\2\17\0\2\2\2\3\2\0"+
+    "\12\3\1\0\1\2\7\0\1\2\6\3\1\0\3\3\1\0\10\2"+
+    "\2\0\2\2\2\0\26\2\1\0\7\2\1\0\2\2\1\0\5\2"+
+    "\2\0\1\3\1\2\7\3\2\0\2\3\2\0\3\3\7\0\3\3"+
+    "\4\0\2\2\1\0\3\2\2\3\2\0\12\3\1\0\1\2\20\0"+
+    "\1\3\1\2\1\0\6\2\3\0\3\2\1\0\4\2\3\0\2\2"+
+    "\1\0\1\2\1\0\2\2\3\0\2\2\3\0\3\2\3\0\14\2"+
+    "\4\0\5\3\3\0\3\3\1\0\4\3\2\0\1\2\6\0\1\3"+
+    "\16\0\12\3\11\0\1\2\6\0\5\3\10\2\1\0\3\2\1\0"+
+    "\27\2\1\0\20\2\3\0\1\2\7\3\1\0\3\3\1\0\4\3"+
+    "\7\0\2\3\1\0\3\2\5\0\2\2\2\3\2\0\12\3\20\0"+
+    "\1\2\3\3\1\0\10\2\1\0\3\2\1\0\27\2\1\0\12\2"+
+    "\1\0\5\2\2\0\1\3\1\2\7\3\1\0\3\3\1\0\4\3"+
+    "\7\0\2\3\7\0\1\2\1\0\2\2\2\3\2\0\12\3\1\0"+
+    "\2\2\15\0\4\3\11\2\1\0\3\2\1\0\51\2\2\3\1\2"+
+    "\7\3\1\0\3\3\1\0\4\3\1\2\5\0\3\2\1\3\7\0"+
+    "\3\2\2\3\2\0\12\3\12\0\6\2\1\0\3\3\1\0\22\2"+
+    "\3\0\30\2\1\0\11\2\1\0\1\2\2\0\7\2\3\0\1\3"+
+    "\4\0\6\3\1\0\1\3\1\0\10\3\6\0\12\3\2\0\2\3"+
+    "\15\0\60\2\1\3\2\2\7\3\4\0\10\2\10\3\1\0\12\3"+
+    "\47\0\2\2\1\0\1\2\1\0\5\2\1\0\30\2\1\0\1\2"+
+    "\1\0\12\2\1\3\2\2\11\3\1\2\2\0\5\2\1\0\1\2"+
+    "\1\0\6\3\2\0\12\3\2\0\4\2\40\0\1\2\27\0\2\3"+
+    "\6\0\12\3\13\0\1\3\1\0\1\3\1\0\1\3\4\0\2\3"+
+    "\10\2\1\0\44\2\4\0\24\3\1\0\2\3\5\2\13\3\1\0"+
+    "\44\3\11\0\1\3\71\0\53\2\24\3\1\2\12\3\6\0\6\2"+
+    "\4\3\4\2\3\3\1\2\3\3\2\2\7\3\3\2\4\3\15\2"+
+    "\14\3\1\2\17\3\2\0\46\2\1\0\1\2\5\0\1\2\2\0"+
+    "\53\2\1\0\u014d\2\1\0\4\2\2\0\7\2\1\0\1\2\1\0"+
+    "\4\2\2\0\51\2\1\0\4\2\2\0\41\2\1\0\4\2\2\0"+
+    "\7\2\1\0\1\2\1\0\4\2\2\0\17\2\1\0\71\2\1\0"+
+    "\4\2\2\0\103\2\2\0\3\3\40\0\20\2\20\0\126\2\2\0"+
+    "\6\2\3\0\u026c\2\2\0\21\2\1\0\32\2\5\0\113\2\3\0"+
+    "\13\2\7\0\15\2\1\0\4\2\3\3\13\0\22\2\3\3\13\0"+
+    "\22\2\2\3\14\0\15\2\1\0\3\2\1\0\2\3\14\0\64\2"+
+    "\40\3\3\0\1\2\3\0\2\2\1\3\2\0\12\3\41\0\4\3"+
+    "\1\0\12\3\6\0\131\2\7\0\5\2\2\3\42\2\1\3\1\2"+
+    "\5\0\106\2\12\0\37\2\1\0\14\3\4\0\14\3\12\0\12\3"+
+    "\36\2\2\0\5\2\13\0\54\2\4\0\32\2\6\0\12\3\46\0"+
+    "\27\2\5\3\4\0\65\2\12\3\1\0\35\3\2\0\13\3\6\0"+
+    "\12\3\15\0\1\2\10\0\16\3\1\0\2\3\77\0\5\3\57\2"+
+    "\21\3\7\2\4\0\12\3\21\0\11\3\14\0\3\3\36\2\15\3"+
+    "\2\2\12\3\54\2\16\3\14\0\44\2\24\3\10\0\12\3\3\0"+
+    "\3\2\12\3\44\2\2\0\11\2\7\0\53\2\2\0\3\2\20\0"+
+    "\3\3\1\0\25\3\4\2\1\3\6\2\1\3\2\2\3\3\1\2"+
+    "\5\0\300\2\72\3\1\0\5\3\u0116\2\2\0\6\2\2\0\46\2"+
+    "\2\0\6\2\2\0\10\2\1\0\1\2\1\0\1\2\1\0\1\2"+
+    "\1\0\37\2\2\0\65\2\1\0\7\2\1\0\1\2\3\0\3\2"+
+    "\1\0\7\2\3\0\4\2\2\0\6\2\4\0\15\2\5\0\3\2"+
+    "\1\0\7\2\16\0\5\3\32\0\5\3\20\0\2\2\23\0\1\2"+
+    "\13\0\5\3\1\0\12\3\1\0\1\2\15\0\1\2\20\0\15\2"+
+    "\3\0\40\2\20\0\15\3\4\0\1\3\3\0\14\3\21\0\1\2"+
+    "\4\0\1\2\2\0\12\2\1\0\1\2\3\0\5\2\6\0\1\2"+
+    "\1\0\1\2\1\0\1\2\1\0\4\2\1\0\13\2\2\0\4\2"+
+    "\5\0\5\2\4\0\1\2\21\0\51\2\u0a77\0\57\2\1\0\57\2"+
+    "\1\0\205\2\6\0\4\2\3\3\2\2\14\0\46\2\1\0\1\2"+
+    "\5\0\1\2\2\0\70\2\7\0\1\2\17\0\1\3\27\2\11\0"+
+    "\7\2\1\0\7\2\1\0\7\2\1\0\7\2\1\0\7\2\1\0"+
+    "\7\2\1\0\7\2\1\0\7\2\1\0\40\3\57\0\1\2\u01d5\0"+
+    "\3\2\31\0\11\2\6\3\1\0\5\2\2\0\5\2\4\0\126\2"+
+    "\2\0\2\3\2\0\3\2\1\0\132\2\1\0\4\2\5\0\53\2"+
+    "\1\0\136\2\21\0\40\2\60\0\20\2\u0200\0\u19c0\2\100\0\u51fd\2"+
+    "\3\0\u048d\2\103\0\56\2\2\0\u010d\2\3\0\20\2\12\3\2\2"+
+    "\24\0\57\2\1\3\4\0\12\3\1\0\37\2\2\3\120\2\2\3"+
+    "\45\0\11\2\2\0\147\2\2\0\65\2\2\0\11\2\52\0\15\2"+
+    "\1\3\3\2\1\3\4\2\1\3\27\2\5\3\4\0\1\3\13\0"+
+    "\1\2\7\0\64\2\14\0\2\3\62\2\22\3\12\0\12\3\6\0"+
+    "\22\3\6\2\3\0\1\2\1\0\2\2\13\3\34\2\10\3\2\0"+
+    "\27\2\15\3\14\0\35\2\3\0\4\3\57\2\16\3\16\0\1\2"+
+    "\12\3\6\0\5\2\1\3\12\2\12\3\5\2\1\0\51\2\16\3"+
+    "\11\0\3\2\1\3\10\2\2\3\2\0\12\3\6\0\27\2\3\0"+
+    "\1\2\3\3\62\2\1\3\1\2\3\3\2\2\2\3\5\2\2\3"+
+    "\1\2\1\3\1\2\30\0\3\2\2\0\13\2\5\3\2\0\3\2"+
+    "\2\3\12\0\6\2\2\0\6\2\2\0\6\2\11\0\7\2\1\0"+
+    "\7\2\1\0\53\2\1\0\16\2\6\0\163\2\10\3\1\0\2\3"+
+    "\2\0\12\3\6\0\u2ba4\2\14\0\27\2\4\0\61\2\u2104\0\u016e\2"+
+    "\2\0\152\2\46\0\7\2\14\0\5\2\5\0\1\2\1\3\12\2"+
+    "\1\0\15\2\1\0\5\2\1\0\1\2\1\0\2\2\1\0\2\2"+
+    "\1\0\154\2\41\0\u016b\2\22\0\100\2\2\0\66\2\50\0\15\2"+
+    "\3\0\20\3\20\0\20\3\3\0\2\2\30\0\3\2\31\0\1\2"+
+    "\6\0\5\2\1\0\207\2\2\0\1\3\4\0\1\2\13\0\12\3"+
+    "\7\0\32\2\4\0\1\2\1\0\32\2\13\0\131\2\3\0\6\2"+
+    "\2\0\6\2\2\0\6\2\2\0\3\2\3\0\2\2\3\0\2\2"+
+    "\22\0\3\3\4\0";
+
+  /** 
+   * Translates characters to character classes
+   */
+  private static final char [] ZZ_CMAP = zzUnpackCMap(ZZ_CMAP_PACKED);
+
+  /** 
+   * Translates DFA states to action switch labels.
+   */
+  private static final int [] ZZ_ACTION = zzUnpackAction();
+
+  private static final String ZZ_ACTION_PACKED_0 =
+    "\4\0\5\1\3\2\1\0\1\3\6\0\1\4\2\0"+
+    "\2\3\2\0\1\3\16\0\2\3\1\5\6\0\1\2"+
+    "\2\0\2\3\1\5\4\0\1\6\1\0\1\2\2\0"+
+    "\2\3\1\5\3\0\1\7\1\6\3\0\1\2\2\0"+
+    "\1\3\1\10\1\5\2\0\1\11\2\7\3\0\1\2"+
+    "\1\0\1\12\1\13\1\10\4\0\2\11\2\0\1\14"+
+    "\1\0\1\12\2\0\1\13\12\0\1\14\17\0\1\15"+
+    "\1\0\1\16";
+
+  private static int [] zzUnpackAction() {
+    int [] result = new int[139];
+    int offset = 0;
+    offset = zzUnpackAction(ZZ_ACTION_PACKED_0, offset, result);
+    return result;
+  }
+
+  private static int zzUnpackAction(String packed, int offset, int [] result) {
+    int i = 0;       /* index in packed string  */
+    int j = offset;  /* index in unpacked array */
+    int l = packed.length();
+    while (i < l) {
+      int count = packed.charAt(i++);
+      int value = packed.charAt(i++);
+      do result[j++] = value; while (--count > 0);
+    }
+    return j;
+  }
+
+
+  /** 
+   * Translates a state to a row index in the transition table
+   */
+  private static final int [] ZZ_ROWMAP = zzUnpackRowMap();
+
+  private static final String ZZ_ROWMAP_PACKED_0 =
+    "\0\0\0\36\0\74\0\132\0\170\0\226\0\264\0\322"+
+    "\0\360\0\u010e\0\u012c\0\u014a\0\u0168\0\u0186\0\u01a4\0\u01c2"+
+    "\0\u01e0\0\u01fe\0\u021c\0\u023a\0\264\0\u0258\0\u0276\0\u0294"+
+    "\0\264\0\u02b2\0\u02d0\0\u02ee\0\u030c\0\u032a\0\u0348\0\u0366"+
+    "\0\u0384\0\u03a2\0\u03c0\0\u03de\0\u03fc\0\u041a\0\u0438\0\u0456"+
+    "\0\u0474\0\u0492\0\u04b0\0\u04ce\0\u04ec\0\u050a\0\u0528\0\u0546"+
+    "\0\u0564\0\u0582\0\u05a0\0\u05be\0\u05dc\0\u05fa\0\u0618\0\u0636"+
+    "\0\u0654\0\u0672\0\u0690\0\u06ae\0\u06cc\0\u06ea\0\u0708\0\u0726"+
+    "\0\u0744\0\u0762\0\u0780\0\u079e\0\u07bc\0\u07da\0\u07f8\0\u0816"+
+    "\0\u0834\0\264\0\u0852\0\u0870\0\u088e\0\u08ac\0\u08ca\0\u08e8"+
+    "\0\u0906\0\u0924\0\264\0\u0942\0\u0960\0\u097e\0\u099c\0\264"+
+    "\0\u09ba\0\u09d8\0\u09f6\0\264\0\u0a14\0\u0a32\0\u0a50\0\264"+
+    "\0\u0a6e\0\u0a8c\0\u0aaa\0\u0ac8\0\u0ae6\0\264\0\u0b04\0\u0b22"+
+    "\0\u0b40\0\u0b5e\0\264\0\u0b7c\0\u0b9a\0\264\0\u0bb8\0\u0bd6"+
+    "\0\u0bf4\0\u0c12\0\u0c30\0\u0c4e\0\u0c6c\0\u0c8a\0\u0ca8\0\u0cc6"+
+    "\0\264\0\u0ce4\0\u0d02\0\u0d20\0\u0d3e\0\u0d5c\0\u0d7a\0\u0d98"+
+    "\0\u0db6\0\u0dd4\0\u0df2\0\u0e10\0\u0e2e\0\u0e4c\0\u0e6a\0\u0e88"+
+    "\0\264\0\u0ea6\0\264";
+
+  private static int [] zzUnpackRowMap() {
+    int [] result = new int[139];
+    int offset = 0;
+    offset = zzUnpackRowMap(ZZ_ROWMAP_PACKED_0, offset, result);
+    return result;
+  }
+
+  private static int zzUnpackRowMap(String packed, int offset, int [] result) {
+    int i = 0;  /* index in packed string  */
+    int j = offset;  /* index in unpacked array */
+    int l = packed.length();
+    while (i < l) {
+      int high = packed.charAt(i++) << 16;
+      result[j++] = high | packed.charAt(i++);
+    }
+    return j;
+  }
+
+  /** 
+   * The transition table of the DFA
+   */
+  private static final int [] ZZ_TRANS = zzUnpackTrans();
+
+  private static final String ZZ_TRANS_PACKED_0 =
+    "\11\5\1\6\24\5\1\7\1\10\1\11\6\7\1\6"+
+    "\3\7\4\11\1\7\4\11\1\10\4\11\1\7\2\11"+
+    "\11\12\1\13\35\12\1\14\24\12\11\5\1\0\24\5"+
+    "\2\0\1\15\5\0\1\16\1\0\1\17\2\0\4\15"+
+    "\1\0\4\15\1\0\1\20\3\15\1\21\2\15\37\0"+
+    "\1\10\24\0\1\10\11\0\2\11\11\0\4\11\1\0"+
+    "\4\11\1\0\4\11\1\0\2\11\11\12\1\0\24\12"+
+    "\10\0\1\22\1\0\1\23\33\0\1\24\1\0\1\23"+
+    "\23\0\4\15\1\25\1\26\1\15\1\27\1\15\1\0"+
+    "\24\15\4\30\1\31\1\32\1\30\1\33\1\30\1\0"+
+    "\15\30\1\34\6\30\13\0\1\35\1\36\1\0\1\37"+
+    "\17\0\4\15\1\25\1\26\1\15\1\27\1\15\1\0"+
+    "\3\15\1\40\2\15\1\41\15\15\34\0\1\42\30\0"+
+    "\1\43\21\0\1\44\1\45\50\0\1\46\6\0\5\26"+
+    "\1\15\1\47\27\26\6\27\1\50\1\15\26\27\4\30"+
+    "\1\31\1\32\1\30\1\33\1\30\1\0\24\30\5\32"+
+    "\1\30\1\51\27\32\6\33\1\52\1\30\26\33\4\30"+
+    "\1\31\1\32\1\30\1\33\1\30\1\0\3\30\1\53"+
+    "\2\30\1\54\15\30\13\0\1\55\37\0\1\56\42\0"+
+    "\1\57\13\0\4\15\1\25\1\26\1\15\1\27\1\15"+
+    "\1\0\16\15\1\60\11\15\1\25\1\26\1\15\1\27"+
+    "\1\15\1\0\11\15\1\61\12\15\35\0\1\62\15\0"+
+    "\1\63\33\0\1\64\37\0\1\65\40\0\1\66\15\0"+
+    "\36\26\36\27\36\32\36\33\4\30\1\31\1\32\1\30"+
+    "\1\33\1\30\1\0\16\30\1\67\11\30\1\31\1\32"+
+    "\1\30\1\33\1\30\1\0\11\30\1\70\12\30\13\55"+
+    "\1\71\22\55\16\0\1\72\34\0\1\73\20\0\4\15"+
+    "\1\25\1\26\1\15\1\27\1\15\1\0\17\15\1\74"+
+    "\10\15\1\25\1\26\1\15\1\27\1\15\1\0\20\15"+
+    "\1\75\3\15\32\0\1\76\33\0\1\77\5\0\13\64"+
+    "\1\100\22\64\16\0\1\101\42\0\1\102\12\0\4\30"+
+    "\1\31\1\32\1\30\1\33\1\30\1\0\17\30\1\103"+
+    "\10\30\1\31\1\32\1\30\1\33\1\30\1\0\20\30"+
+    "\1\104\3\30\13\55\1\105\22\55\17\0\1\106\36\0"+
+    "\1\107\15\0\4\15\1\25\1\26\1\15\1\27\1\15"+
+    "\1\0\12\15\1\110\15\15\1\25\1\26\1\15\1\27"+
+    "\1\15\1\0\13\15\1\111\10\15\4\76\1\112\1\113"+
+    "\1\76\1\114\1\76\1\0\24\76\31\0\1\115\4\0"+
+    "\13\64\1\116\22\64\17\0\1\117\50\0\1\120\3\0"+
+    "\4\30\1\31\1\32\1\30\1\33\1\30\1\0\12\30"+
+    "\1\121\15\30\1\31\1\32\1\30\1\33\1\30\1\0"+
+    "\13\30\1\122\10\30\4\55\1\123\6\55\1\105\22\55"+
+    "\20\0\1\124\40\0\1\125\12\0\4\15\1\25\1\26"+
+    "\1\15\1\27\1\15\1\0\6\15\1\126\16\15\1\127"+
+    "\2\15\1\130\1\26\1\15\1\27\1\127\1\0\14\15"+
+    "\1\127\7\15\5\113\1\76\1\131\27\113\6\114\1\132"+
+    "\1\76\26\114\24\0\1\133\11\0\4\64\1\134\6\64"+
+    "\1\116\22\64\20\0\1\135\42\0\1\136\10\0\4\30"+
+    "\1\31\1\32\1\30\1\33\1\30\1\0\6\30\1\137"+
+    "\15\30\4\122\1\140\1\141\1\122\1\142\1\122\1\0"+
+    "\24\122\17\0\1\143\42\0\1\144\11\0\1\15\1\145"+
+    "\2\15\1\146\1\26\1\15\1\27\1\145\1\0\14\15"+
+    "\1\145\7\15\4\127\1\130\1\147\1\127\1\150\1\127"+
+    "\1\0\24\127\36\113\36\114\20\0\1\151\34\0\1\152"+
+    "\16\0\4\136\1\153\1\154\1\136\1\155\1\136\1\0"+
+    "\24\136\4\137\1\156\1\157\1\137\1\160\1\137\1\0"+
+    "\24\137\5\141\1\122\1\161\27\141\6\142\1\162\1\122"+
+    "\26\142\14\0\1\163\46\0\1\164\10\0\4\145\1\146"+
+    "\1\165\1\145\1\166\1\145\1\0\24\145\5\147\1\127"+
+    "\1\167\27\147\6\150\1\170\1\127\26\150\4\151\1\171"+
+    "\1\172\1\151\1\173\1\151\1\0\24\151\14\0\1\174"+
+    "\21\0\5\154\1\136\1\175\27\154\6\155\1\176\1\136"+
+    "\26\155\5\157\1\137\1\177\27\157\6\160\1\200\1\137"+
+    "\26\160\36\141\36\142\21\163\1\201\14\163\26\0\1\202"+
+    "\7\0\5\165\1\145\1\203\27\165\6\166\1\204\1\145"+
+    "\26\166\36\147\36\150\5\172\1\151\1\205\27\172\6\173"+
+    "\1\206\1\151\26\173\21\174\1\207\14\174\36\154\36\155"+
+    "\36\157\36\160\21\163\1\210\14\163\4\202\1\211\31\202"+
+    "\36\165\36\166\36\172\36\173\21\174\1\212\14\174\4\163"+
+    "\1\213\14\163\1\210\14\163\4\174\1\134\14\174\1\212"+
+    "\14\174";
+
+  private static int [] zzUnpackTrans() {
+    int [] result = new int[3780];
+    int offset = 0;
+    offset = zzUnpackTrans(ZZ_TRANS_PACKED_0, offset, result);
+    return result;
+  }
+
+  private static int zzUnpackTrans(String packed, int offset, int [] result) {
+    int i = 0;       /* index in packed string  */
+    int j = offset;  /* index in unpacked array */
+    int l = packed.length();
+    while (i < l) {
+      int count = packed.charAt(i++);
+      int value = packed.charAt(i++);
+      value--;
+      do result[j++] = value; while (--count > 0);
+    }
+    return j;
+  }
+
+
+  /* error codes */
+  private static final int ZZ_UNKNOWN_ERROR = 0;
+  private static final int ZZ_NO_MATCH = 1;
+  private static final int ZZ_PUSHBACK_2BIG = 2;
+
+  /* error messages for the codes above */
+  private static final String ZZ_ERROR_MSG[] = {
+    "Unkown internal scanner error",
+    "Error: could not match input",
+    "Error: pushback value was too large"
+  };
+
+  /**
+   * ZZ_ATTRIBUTE[aState] contains the attributes of state <code>aState</code>
+   */
+  private static final int [] ZZ_ATTRIBUTE = zzUnpackAttribute();
+
+  private static final String ZZ_ATTRIBUTE_PACKED_0 =
+    "\4\0\2\1\1\11\5\1\1\0\1\1\6\0\1\11"+
+    "\2\0\1\1\1\11\2\0\1\1\16\0\3\1\6\0"+
+    "\1\1\2\0\3\1\4\0\1\1\1\0\1\1\2\0"+
+    "\3\1\3\0\1\1\1\11\3\0\1\1\2\0\2\1"+
+    "\1\11\2\0\2\1\1\11\3\0\1\11\1\0\2\1"+
+    "\1\11\4\0\1\1\1\11\2\0\1\1\1\0\1\11"+
+    "\2\0\1\11\12\0\1\11\17\0\1\11\1\0\1\11";
+
+  private static int [] zzUnpackAttribute() {
+    int [] result = new int[139];
+    int offset = 0;
+    offset = zzUnpackAttribute(ZZ_ATTRIBUTE_PACKED_0, offset, result);
+    return result;
+  }
+
+  private static int zzUnpackAttribute(String packed, int offset, int [] result) {
+    int i = 0;       /* index in packed string  */
+    int j = offset;  /* index in unpacked array */
+    int l = packed.length();
+    while (i < l) {
+      int count = packed.charAt(i++);
+      int value = packed.charAt(i++);
+      do result[j++] = value; while (--count > 0);
+    }
+    return j;
+  }
+
+  /** the input device */
+  private java.io.Reader zzReader;
+
+  /** the current state of the DFA */
+  private int zzState;
+
+  /** the current lexical state */
+  private int zzLexicalState = YYINITIAL;
+
+  /** this buffer contains the current text to be matched and is
+      the source of the yytext() string */
+  private char zzBuffer[] = new char[ZZ_BUFFERSIZE];
+
+  /** the textposition at the last accepting state */
+  private int zzMarkedPos;
+
+  /** the current text position in the buffer */
+  private int zzCurrentPos;
+
+  /** startRead marks the beginning of the yytext() string in the buffer */
+  private int zzStartRead;
+
+  /** endRead marks the last character in the buffer, that has been read
+      from input */
+  private int zzEndRead;
+
+  /** number of newlines encountered up to the start of the matched text */
+  private int yyline;
+
+  /** the number of characters up to the start of the matched text */
+  private int yychar;
+
+  /**
+   * the number of characters from the last newline up to the start of the 
+   * matched text
+   */
+  private int yycolumn;
+
+  /** 
+   * zzAtBOL == true <=> the scanner is currently at the beginning of a line
+   */
+  private boolean zzAtBOL = true;
+
+  /** zzAtEOF == true <=> the scanner is at the EOF */
+  private boolean zzAtEOF;
+
+  /** denotes if the user-EOF-code has already been executed */
+  private boolean zzEOFDone;
+
+  /* user code: */
+	// the lexical state we return to after the body of a script or style element
+	private int _textState = YYINITIAL;
+
+	// the token type of the body of the script or style element we're in
+	private short _bodyType;
+
+	// the starting offset of the body of the script or style element we're in, -1 if we haven't seen any of it yet
+	private int _bodyStart = -1;
+
+	public HTMLFlexScanner()
+	{
+		this((Reader) null);
+	}
+
+	private Symbol newToken(short id, Object value)
+	{
+		return new Symbol(id, yychar, yychar + yylength() - 1, value);
+	}
+
+	private Symbol newBodyToken()
+	{
+		// the parser only looks at the range of the body, so we don't bother creating a string for it
+		Symbol result = new Symbol(_bodyType, _bodyStart, yychar - 1, null);
+
+		_bodyStart = -1;
+
+		return result;
+	}
+
+	private void startBody(short type, int state)
+	{
+		_bodyType = type;
+		_bodyStart = -1;
+
+		yybegin(state);
+	}
+
+	private void continueBody()
+	{
+		if (_bodyStart == -1)
+		{
+			_bodyStart = yychar;
+		}
+	}
+
+	private Symbol endBody(short type)
+	{
+		if (_bodyStart != -1)
+		{
+			// report the body first and come back for the end tag
+			yypushback(yylength());
+
+			return newBodyToken();
+		}
+
+		yybegin(_textState);
+
+		return newToken(type, yytext());
+	}
+
+	public Symbol nextToken() throws java.io.IOException, Scanner.Exception
+	{
+		try
+		{
+			return yylex();
+		}
+		catch (Scanner.Exception e)
+		{
+			// create default token type
+			String text = yytext();
+			int end = yychar + text.length() - 1;
+
+			return new Symbol(HTMLTokens.EOF, yychar, end, text);
+		}
+	}
+
+	/**
+	 * When set, text is reported one word, one run of whitespace or one other character at a time instead of as a
+	 * single token per run of text. Composite languages need this so text tokens don't span the ranges of the
+	 * embedded language they skip.
+	 */
+	public void setSplitText(boolean flag)
+	{
+		_textState = (flag) ? SPLIT_TEXT : YYINITIAL;
+
+		yybegin(_textState);
+	}
+
+	public void setSource(String source)
+	{
+		yyreset(new StringReader(source));
+		yybegin(_textState);
+
+		_bodyStart = -1;
+	}
+
+
+  /**
+   * Creates a new scanner
+   * There is also a java.io.InputStream version of this constructor.
+   *
+   * @param   in  the java.io.Reader to read input from.
+   */
+  HTMLFlexScanner(java.io.Reader in) {
+    this.zzReader = in;
+  }
+
+  /**
+   * Creates a new scanner.
+   * There is also java.io.Reader version of this constructor.
+   *
+   * @param   in  the java.io.Inputstream to read input from.
+   */
+  HTMLFlexScanner(java.io.InputStream in) {
+    this(new java.io.InputStreamReader(in));
+  }
+
+  /** 
+   * Unpacks the compressed character translation table.
+   *
+   * @param packed   the packed character translation table
+   * @return         the unpacked character translation table
+   */
+  private static char [] zzUnpackCMap(String packed) {
+    char [] map = new char[0x10000];
+    int i = 0;  /* index in packed string  */
+    int j = 0;  /* index in unpacked array */
+    while (i < 2286) {
+      int  count = packed.charAt(i++);
+      char value = packed.charAt(i++);
+      do map[j++] = value; while (--count > 0);
+    }
+    return map;
+  }
+
+
+  /**
+   * Refills the input buffer.
+   *
+   * @return      <code>false</code>, iff there was new input.
+   * 
+   * @exception   java.io.IOException  if any I/O-Error occurs
+   */
+  private boolean zzRefill() throws java.io.IOException {
+
+    /* first: make room (if you can) */
+    if (zzStartRead > 0) {
+      System.arraycopy(zzBuffer, zzStartRead,
+                       zzBuffer, 0,
+                       zzEndRead-zzStartRead);
+
+      /* translate stored positions */
+      zzEndRead-= zzStartRead;
+      zzCurrentPos-= zzStartRead;
+      zzMarkedPos-= zzStartRead;
+      zzStartRead = 0;
+    }
+
+    /* is the buffer big enough? */
+    if (zzCurrentPos >= zzBuffer.length) {
+      /* if not: blow it up */
+      char newBuffer[] = new char[zzCurrentPos*2];
+      System.arraycopy(zzBuffer, 0, newBuffer, 0, zzBuffer.length);
+      zzBuffer = newBuffer;
+    }
+
+    /* finally: fill the buffer with new input */
+    int numRead = zzReader.read(zzBuffer, zzEndRead,
+                                            zzBuffer.length-zzEndRead);
+
+    if (numRead > 0) {
+      zzEndRead+= numRead;
+      return false;
+    }
+    // unlikely but not impossible: read 0 characters, but not at end of stream    
+    if (numRead == 0) {
+      int c = zzReader.read();
+      if (c == -1) {
+        return true;
+      } else {
+        zzBuffer[zzEndRead++] = (char) c;
+        return false;
+      }     
+    }
+
+	// numRead < 0
+    return true;
+  }
+
+    
+  /**
+   * Closes the input stream.
+   */
+  public final void yyclose() throws java.io.IOException {
+    zzAtEOF = true;            /* indicate end of file */
+    zzEndRead = zzStartRead;  /* invalidate buffer    */
+
+    if (zzReader != null)
+      zzReader.close();
+  }
+
+
+  /**
+   * Resets the scanner to read from a new input stream.
+   * Does not close the old reader.
+   *
+   * All internal variables are reset, the old input stream 
+   * <b>cannot</b> be reused (internal buffer is discarded and lost).
+   * Lexical state is set to <tt>ZZ_INITIAL</tt>.
+   *
+   * @param reader   the new input stream 
+   */
+  public final void yyreset(java.io.Reader reader) {
+    zzReader = reader;
+    zzAtBOL  = true;
+    zzAtEOF  = false;
+    zzEOFDone = false;
+    zzEndRead = zzStartRead = 0;
+    zzCurrentPos = zzMarkedPos = 0;
+    yyline = yychar = yycolumn = 0;
+    zzLexicalState = YYINITIAL;
+  }
+
+
+  /**
+   * Returns the current lexical state.
+   */
+  public final int yystate() {
+    return zzLexicalState;
+  }
+
+
+  /**
+   * Enters a new lexical state
+   *
+   * @param newState the new lexical state
+   */
+  public final void yybegin(int newState) {
+    zzLexicalState = newState;
+  }
+
+
+  /**
+   * Returns the text matched by the current regular expression.
+   */
+  public final String yytext() {
+    return new String( zzBuffer, zzStartRead, zzMarkedPos-zzStartRead );
+  }
+
+
+  /**
+   * Returns the character at position <tt>pos</tt> from the 
+   * matched text. 
+   * 
+   * It is equivalent to yytext().charAt(pos), but faster
+   *
+   * @param pos the position of the character to fetch. 
+   *            A value from 0 to yylength()-1.
+   *
+   * @return the character at position pos
+   */
+  public final char yycharat(int pos) {
+    return zzBuffer[zzStartRead+pos];
+  }
+
+
+  /**
+   * Returns the length of the matched text region.
+   */
+  public final int yylength() {
+    return zzMarkedPos-zzStartRead;
+  }
+
+
+  /**
+   * Reports an error that occured while scanning.
+   *
+   * In a wellformed scanner (no or only correct usage of 
+   * yypushback(int) and a match-all fallback rule) this method 
+   * will only be called with things that "Can't Possibly Happen".
+   * If this method is called, something is seriously wrong
+   * (e.g. a JFlex bug producing a faulty scanner etc.).
+   *
+   * Usual syntax/scanner level error handling should be done
+   * in error fallback rules.
+   *
+   * @param   errorCode  the code of the errormessage to display
+   */
+  private void zzScanError(int errorCode) {
+    String message;
+    try {
+      message = ZZ_ERROR_MSG[errorCode];
+    }
+    catch (ArrayIndexOutOfBoundsException e) {
+      message = ZZ_ERROR_MSG[ZZ_UNKNOWN_ERROR];
+    }
+
+    throw new Error(message);
+  } 
+
+
+  /**
+   * Pushes the specified amount of characters back into the input stream.
+   *
+   * They will be read again by then next call of the scanning method
+   *
+   * @param number  the number of characters to be read again.
+   *                This number must not be greater than yylength()!
+   */
+  public void yypushback(int number)  {
+    if ( number > yylength() )
+      zzScanError(ZZ_PUSHBACK_2BIG);
+
+    zzMarkedPos -= number;
+  }
+
+
+  /**
+   * Resumes scanning until the next regular expression is matched,
+   * the end of input is encountered or an I/O-Error occurs.
+   *
+   * @return      the next token
+   * @exception   java.io.IOException  if any I/O-Error occurs
+   */
+  public Symbol yylex() throws java.io.IOException, Scanner.Exception {
+    int zzInput;
+    int zzAction;
+
+    // cached fields:
+    int zzCurrentPosL;
+    int zzMarkedPosL;
+    int zzEndReadL = zzEndRead;
+    char [] zzBufferL = zzBuffer;
+    char [] zzCMapL = ZZ_CMAP;
+
+    int [] zzTransL = ZZ_TRANS;
+    int [] zzRowMapL = ZZ_ROWMAP;
+    int [] zzAttrL = ZZ_ATTRIBUTE;
+
+    while (true) {
+      zzMarkedPosL = zzMarkedPos;
+
+      yychar+= zzMarkedPosL-zzStartRead;
+
+      zzAction = -1;
+
+      zzCurrentPosL = zzCurrentPos = zzStartRead = zzMarkedPosL;
+  
+      zzState = ZZ_LEXSTATE[zzLexicalState];
+
+
+      zzForAction: {
+        while (true) {
+    
+          if (zzCurrentPosL < zzEndReadL)
+            zzInput = zzBufferL[zzCurrentPosL++];
+          else if (zzAtEOF) {
+            zzInput = YYEOF;
+            break zzForAction;
+          }
+          else {
+            // store back cached positions
+            zzCurrentPos  = zzCurrentPosL;
+            zzMarkedPos   = zzMarkedPosL;
+            boolean eof = zzRefill();
+            // get translated positions and possibly new buffer
+            zzCurrentPosL  = zzCurrentPos;
+            zzMarkedPosL   = zzMarkedPos;
+            zzBufferL      = zzBuffer;
+            zzEndReadL     = zzEndRead;
+            if (eof) {
+              zzInput = YYEOF;
+              break zzForAction;
+            }
+            else {
+              zzInput = zzBufferL[zzCurrentPosL++];
+            }
+          }
+          int zzNext = zzTransL[ zzRowMapL[zzState] + zzCMapL[zzInput] ];
+          if (zzNext == -1) break zzForAction;
+          zzState = zzNext;
+
+          int zzAttributes = zzAttrL[zzState];
+          if ( (zzAttributes & 1) == 1 ) {
+            zzAction = zzState;
+            zzMarkedPosL = zzCurrentPosL;
+            if ( (zzAttributes & 8) == 8 ) break zzForAction;
+          }
+
+        }
+      }
+
+      // store back cached position
+      zzMarkedPos = zzMarkedPosL;
+
+      switch (zzAction < 0 ? zzAction : ZZ_ACTION[zzAction]) {
+        case 10: 
+          { return endBody(HTMLTokens.STYLE_END);
+          }
+        case 15: break;
+        case 7: 
+          { Symbol result = newToken(HTMLTokens.STYLE, yytext());
+
+										startBody(HTMLTokens.STYLE, STYLE_BODY);
+
+										return result;
+          }
+        case 16: break;
+        case 9: 
+          { Symbol result = newToken(HTMLTokens.SCRIPT, yytext());
+
+										startBody(HTMLTokens.SCRIPT, SCRIPT_BODY);
+
+										return result;
+          }
+        case 17: break;
+        case 12: 
+          { return endBody(HTMLTokens.SCRIPT_END);
+          }
+        case 18: break;
+        case 13: 
+          { /* ignore */
+          }
+        case 19: break;
+        case 2: 
+          { continueBody();
+          }
+        case 20: break;
+        case 5: 
+          { return newToken(HTMLTokens.COMMENT, yytext());
+          }
+        case 21: break;
+        case 3: 
+          { return newToken(HTMLTokens.END_TAG, yytext());
+          }
+        case 22: break;
+        case 14: 
+          { return newToken(HTMLTokens.CDATA, yytext());
+          }
+        case 23: break;
+        case 1: 
+          { return newToken(HTMLTokens.TEXT, yytext());
+          }
+        case 24: break;
+        case 4: 
+          { return newToken(HTMLTokens.START_TAG, yytext());
+          }
+        case 25: break;
+        case 6: 
+          { return newToken(HTMLTokens.XML_DECL, yytext());
+          }
+        case 26: break;
+        case 11: 
+          { return newToken(HTMLTokens.SCRIPT_END, yytext());
+          }
+        case 27: break;
+        case 8: 
+          { return newToken(HTMLTokens.STYLE_END, yytext());
+          }
+        case 28: break;
+        default: 
+          if (zzInput == YYEOF && zzStartRead == zzCurrentPos) {
+            zzAtEOF = true;
+              { 	// flush the body of an unterminated script or style element before reporting the end of the file
+	if (_bodyStart != -1)
+	{
+		return newBodyToken();
+	}
+	return new Symbol(HTMLTokens.EOF, yychar, yychar, "");
+ }
+          } 
+          else {
+            zzScanError(ZZ_NO_MATCH);
+          }
+      }
+    }
+  }
+
+
+}
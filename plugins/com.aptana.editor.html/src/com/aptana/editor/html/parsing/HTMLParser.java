@@ -10,21 +10,21 @@ package com.aptana.editor.html.parsing;
 import java.io.IOException;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Queue;
 import java.util.Stack;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.eclipse.core.runtime.IProgressMonitor;
-import org.eclipse.jface.text.rules.ITokenScanner;
 
 import beaver.Scanner.Exception;
 import beaver.Symbol;
 
+import com.aptana.core.util.ArrayUtil;
 import com.aptana.core.util.StringUtil;
 import com.aptana.editor.css.ICSSConstants;
-import com.aptana.editor.css.parsing.ast.CSSDeclarationNode;
-import com.aptana.editor.css.parsing.ast.CSSRuleNode;
 import com.aptana.editor.html.IHTMLConstants;
 import com.aptana.editor.html.parsing.ast.HTMLCommentNode;
 import com.aptana.editor.html.parsing.ast.HTMLElementNode;
@@ -36,17 +36,14 @@ import com.aptana.editor.html.parsing.lexer.HTMLTokens;
 import com.aptana.editor.js.IJSConstants;
 import com.aptana.parsing.AbstractParser;
 import com.aptana.parsing.IParseState;
-import com.aptana.parsing.ParseResult;
-import com.aptana.parsing.ParseState;
-import com.aptana.parsing.ParserPoolFactory;
 import com.aptana.parsing.WorkingParseResult;
 import com.aptana.parsing.ast.IParseError;
 import com.aptana.parsing.ast.IParseNode;
 import com.aptana.parsing.ast.ParseError;
+import com.aptana.parsing.ast.ParseNode;
 import com.aptana.parsing.ast.ParseRootNode;
 import com.aptana.parsing.lexer.IRange;
 import com.aptana.parsing.lexer.Range;
-import com.aptana.parsing.util.ParseUtil;
 
 public class HTMLParser extends AbstractParser
 {
@@ -63,7 +60,8 @@ public class HTMLParser extends AbstractParser
 	@SuppressWarnings("nls")
 	private static final String[] JS_VALID_LANG_ATTR = new String[] { "JavaScript" };
 
-	private HTMLParserScanner fScanner;
+	private HTMLFlexScanner fScanner;
+	private String fSource;
 	private HTMLParseState fParseState;
 	private Stack<IParseNode> fElementStack;
 	private static final Pattern attributes = Pattern
@@ -74,6 +72,7 @@ public class HTMLParser extends AbstractParser
 	private IProgressMonitor fMonitor;
 
 	private List<IParseNode> fCommentNodes;
+	private List<HTMLSpecialNode> fBlockNodes;
 	private boolean previousSymbolSkipped;
 	private WorkingParseResult fWorkingParseResult;
 
@@ -84,9 +83,10 @@ public class HTMLParser extends AbstractParser
 			throws java.lang.Exception
 	{
 		fMonitor = parseState.getProgressMonitor();
-		fScanner = new HTMLParserScanner();
+		fScanner = new HTMLFlexScanner();
 		fElementStack = new Stack<IParseNode>();
 		fCommentNodes = new ArrayList<IParseNode>();
+		fBlockNodes = new ArrayList<HTMLSpecialNode>();
 		fWorkingParseResult = working;
 
 		String source = parseState.getSource();
@@ -100,7 +100,10 @@ public class HTMLParser extends AbstractParser
 			fParseState.setProgressMonitor(parseState.getProgressMonitor());
 		}
 
+		// text tokens must not span the ranges we've been asked to skip
+		fScanner.setSplitText(!ArrayUtil.isEmpty(fParseState.getSkippedRanges()));
 		fScanner.setSource(source);
+		fSource = source;
 
 		int startingOffset = fParseState.getStartingOffset();
 
@@ -118,8 +121,28 @@ public class HTMLParser extends AbstractParser
 			parseAll(source);
 			root.setCommentNodes(fCommentNodes.toArray(new IParseNode[fCommentNodes.size()]));
 
-			// trim the tree
-			ParseUtil.trimToSize(root);
+			// Parse the script and style blocks now, in parallel, so their errors are part of our result
+			List<EmbeddedLanguageParse> blockParses = new ArrayList<EmbeddedLanguageParse>(fBlockNodes.size());
+			for (HTMLSpecialNode blockNode : fBlockNodes)
+			{
+				blockParses.add(blockNode.getEmbeddedParse());
+			}
+			EmbeddedLanguageParse.parseAll(blockParses, fMonitor);
+			for (HTMLSpecialNode blockNode : fBlockNodes)
+			{
+				EmbeddedLanguageParse blockParse = blockNode.getEmbeddedParse();
+				if (blockParse.isParsed())
+				{
+					blockNode.setChildren(blockParse.getNodes());
+					for (IParseError error : blockParse.getErrors())
+					{
+						working.addError(error);
+					}
+				}
+			}
+
+			// trim the tree, leaving embedded languages alone since their parsers trim their own trees
+			trimToSize(root);
 			working.setParseResult(root);
 		}
 		finally
@@ -128,11 +151,13 @@ public class HTMLParser extends AbstractParser
 			fWorkingParseResult = null;
 			fMonitor = null;
 			fScanner = null;
+			fSource = null;
 			fElementStack = null;
 			fCurrentElement = null;
 			fCurrentSymbol = null;
 			fParseState = null;
 			fCommentNodes = null;
+			fBlockNodes = null;
 		}
 	}
 
@@ -162,12 +187,7 @@ public class HTMLParser extends AbstractParser
 
 	protected void processLanguage(String language, short endToken) throws IOException, Exception
 	{
-		ITokenScanner tokenScanner = fScanner.getTokenScanner().getPrimaryTokenScanner();
-		if (tokenScanner instanceof HTMLTokenScanner)
-		{
-			((HTMLTokenScanner) tokenScanner).setInsideSpecialTag(true);
-		}
-
+		// the scanner has switched to the body of the element and reports everything up to the end tag as one token
 		Symbol startTag = fCurrentSymbol;
 		advance();
 
@@ -181,15 +201,20 @@ public class HTMLParser extends AbstractParser
 			id = fCurrentSymbol.getId();
 		}
 
-		if (tokenScanner instanceof HTMLTokenScanner)
-		{
-			((HTMLTokenScanner) tokenScanner).setInsideSpecialTag(false);
-		}
-
-		IParseNode[] nested = getParseResult(language, start, end);
 		if (fCurrentElement != null)
 		{
-			HTMLSpecialNode node = new HTMLSpecialNode(startTag, nested, startTag.getStart(), fCurrentSymbol.getEnd());
+			// the sub-parse runs at the end of the parse, along with the other blocks
+			EmbeddedLanguageParse embeddedParse = getEmbeddedParse(language, start, end);
+			HTMLSpecialNode node;
+			if (embeddedParse != null)
+			{
+				node = new HTMLSpecialNode(startTag, embeddedParse, startTag.getStart(), fCurrentSymbol.getEnd());
+				fBlockNodes.add(node);
+			}
+			else
+			{
+				node = new HTMLSpecialNode(startTag, NO_HTML_NODES, startTag.getStart(), fCurrentSymbol.getEnd());
+			}
 			node.setEndNode(fCurrentSymbol.getStart(), fCurrentSymbol.getEnd());
 			parseAttribute(node, startTag);
 			fCurrentElement.addChild(node);
@@ -275,34 +300,15 @@ public class HTMLParser extends AbstractParser
 		return false;
 	}
 
-	private IParseNode[] getParseResult(String language, int start, int end)
+	private EmbeddedLanguageParse getEmbeddedParse(String language, int start, int end)
 	{
 		if (start <= end)
 		{
-			try
-			{
-				String text = fScanner.getSource().get(start, end - start + 1);
-				ParseState subParseState = new ParseState(text, start);
-				// FIXME We need to propagate options down to sub-languages, i.e. JS's attach/collect comments
-				ParseResult subParseResult = ParserPoolFactory.parse(language, subParseState);
-				IParseNode node = subParseResult.getRootNode();
-				for (IParseError subError : subParseResult.getErrors())
-				{
-					// Shift the line/offsets based on the starting offset/line of the sub-language!
-					fWorkingParseResult.addError(new ParseError(language, start + subError.getOffset(), subError
-							.getLength(), subError.getMessage(), subError.getSeverity()));
-				}
-				if (node == null)
-				{
-					node = new HTMLTextNode(text, start, end);
-				}
-				return new IParseNode[] { node };
-			}
-			catch (java.lang.Exception e)
-			{
-			}
+			String text = fSource.substring(start, end + 1);
+			// FIXME We need to propagate options down to sub-languages, i.e. JS's attach/collect comments
+			return new EmbeddedLanguageParse(EmbeddedLanguageParse.Kind.BLOCK, language, null, text, start);
 		}
-		return new IParseNode[0];
+		return null;
 	}
 
 	private void processComment()
@@ -471,49 +477,14 @@ public class HTMLParser extends AbstractParser
 				// checks if we need to process the value as CSS
 				if (HTMLUtils.isCSSAttribute(name))
 				{
-					String text = tagName + " {" + value + "}"; //$NON-NLS-1$ //$NON-NLS-2$
-					try
-					{
-
-						int startingOffset = absoluteOffset - (tagName.length() + 1);
-						IParseNode node = ParserPoolFactory.parse(ICSSConstants.CONTENT_TYPE_CSS, text, startingOffset)
-								.getRootNode();
-
-						// should always have a rule node
-						if (node.hasChildren())
-						{
-							IParseNode rule = node.getChild(0);
-							if (rule instanceof CSSRuleNode)
-							{
-								CSSDeclarationNode[] declarations = ((CSSRuleNode) rule).getDeclarations();
-								for (CSSDeclarationNode declaration : declarations)
-								{
-									element.addCSSStyleNode(declaration);
-								}
-							}
-						}
-					}
-					catch (java.lang.Exception e)
-					{
-					}
+					element.addAttributeParse(new EmbeddedLanguageParse(EmbeddedLanguageParse.Kind.CSS_ATTRIBUTE,
+							ICSSConstants.CONTENT_TYPE_CSS, tagName, value, absoluteOffset));
 				}
 				// checks if we need to process the value as JS
 				else if (HTMLUtils.isJSAttribute(tagName, name))
 				{
-					try
-					{
-						int startingOffset = absoluteOffset + 1;
-						IParseNode node = ParserPoolFactory.parse(IJSConstants.CONTENT_TYPE_JS, value, startingOffset)
-								.getRootNode();
-
-						for (IParseNode child : node)
-						{
-							element.addJSAttributeNode(child);
-						}
-					}
-					catch (java.lang.Exception e)
-					{
-					}
+					element.addAttributeParse(new EmbeddedLanguageParse(EmbeddedLanguageParse.Kind.JS_ATTRIBUTE,
+							IJSConstants.CONTENT_TYPE_JS, tagName, value, absoluteOffset));
 				}
 			}
 		}
@@ -601,6 +572,77 @@ public class HTMLParser extends AbstractParser
 		}
 	}
 
+	/**
+	 * Trim the HTML portion of the tree without forcing any pending embedded language parses
+	 * 
+	 * @param node
+	 */
+	private static void trimToSize(IParseNode node)
+	{
+		Queue<IParseNode> queue = new LinkedList<IParseNode>();
+		queue.offer(node);
+
+		while (!queue.isEmpty())
+		{
+			IParseNode current = queue.poll();
+			if (current instanceof ParseNode)
+			{
+				((ParseNode) current).trimToSize();
+			}
+			if (!(current instanceof HTMLSpecialNode))
+			{
+				for (IParseNode child : current)
+				{
+					queue.offer(child);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Collect the embedded script, style and attribute parses in the specified HTML tree
+	 * 
+	 * @param root
+	 * @return
+	 */
+	public static List<EmbeddedLanguageParse> getEmbeddedParses(IParseNode root)
+	{
+		List<EmbeddedLanguageParse> result = new ArrayList<EmbeddedLanguageParse>();
+		if (root == null)
+		{
+			return result;
+		}
+
+		Queue<IParseNode> queue = new LinkedList<IParseNode>();
+		queue.offer(root);
+
+		while (!queue.isEmpty())
+		{
+			IParseNode current = queue.poll();
+			if (current instanceof HTMLElementNode)
+			{
+				result.addAll(((HTMLElementNode) current).getPendingAttributeParses());
+			}
+			if (current instanceof HTMLSpecialNode)
+			{
+				EmbeddedLanguageParse embeddedParse = ((HTMLSpecialNode) current).getEmbeddedParse();
+				if (embeddedParse != null)
+				{
+					result.add(embeddedParse);
+				}
+			}
+			else
+			{
+				for (IParseNode child : current)
+				{
+					queue.offer(child);
+				}
+			}
+		}
+
+		return result;
+	}
+
 	public static boolean isJavaScript(HTMLElementNode node)
 	{
 		String type = node.getAttributeValue(ATTR_TYPE);
@@ -8,6 +8,7 @@
 package com.aptana.editor.html.parsing.ast;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -20,6 +21,7 @@ import beaver.Symbol;
 import com.aptana.core.util.ArrayUtil;
 import com.aptana.core.util.StringUtil;
 import com.aptana.editor.html.HTMLPlugin;
+import com.aptana.editor.html.parsing.EmbeddedLanguageParse;
 import com.aptana.editor.html.parsing.HTMLParser;
 import com.aptana.editor.html.preferences.IPreferenceConstants;
 import com.aptana.parsing.ast.INameNode;
@@ -30,6 +32,7 @@ import com.aptana.parsing.lexer.IRange;
 
 public class HTMLElementNode extends HTMLNode
 {
+	private static final long serialVersionUID = 1L;
 
 	private static final String ID = "id"; //$NON-NLS-1$
 	private static final String CLASS = "class"; //$NON-NLS-1$
@@ -39,6 +42,7 @@ public class HTMLElementNode extends HTMLNode
 	private Map<String, IParseNodeAttribute> fAttributes;
 	private List<IParseNode> fCSSStyleNodes;
 	private List<IParseNode> fJSAttributeNodes;
+	private List<EmbeddedLanguageParse> fAttributeParses;
 	private boolean fIsSelfClosing;
 
 	public HTMLElementNode(Symbol tagSymbol, int start, int end)
@@ -95,6 +99,56 @@ public class HTMLElementNode extends HTMLNode
 		fJSAttributeNodes.add(node);
 	}
 
+	/**
+	 * Adds a pending parse of a style or event handler attribute value. The resulting nodes are added to the CSS
+	 * style or JS attribute nodes the first time those are requested.
+	 * 
+	 * @param attributeParse
+	 */
+	public synchronized void addAttributeParse(EmbeddedLanguageParse attributeParse)
+	{
+		if (fAttributeParses == null)
+		{
+			fAttributeParses = new ArrayList<EmbeddedLanguageParse>(1);
+		}
+		fAttributeParses.add(attributeParse);
+	}
+
+	/**
+	 * Returns the attribute parses that have not been resolved into CSS style or JS attribute nodes yet
+	 * 
+	 * @return
+	 */
+	public synchronized List<EmbeddedLanguageParse> getPendingAttributeParses()
+	{
+		if (fAttributeParses == null)
+		{
+			return Collections.emptyList();
+		}
+		return new ArrayList<EmbeddedLanguageParse>(fAttributeParses);
+	}
+
+	/**
+	 * Runs any pending attribute parses and attaches their nodes to this element
+	 */
+	private synchronized void resolveAttributeParses()
+	{
+		if (fAttributeParses == null)
+		{
+			return;
+		}
+		for (EmbeddedLanguageParse attributeParse : fAttributeParses)
+		{
+			boolean isCSS = attributeParse.getKind() == EmbeddedLanguageParse.Kind.CSS_ATTRIBUTE;
+			List<IParseNode> target = isCSS ? fCSSStyleNodes : fJSAttributeNodes;
+			for (IParseNode node : attributeParse.getNodes())
+			{
+				target.add(node);
+			}
+		}
+		fAttributeParses = null;
+	}
+
 	public String getName()
 	{
 		return fNameNode.getName();
@@ -123,6 +177,8 @@ public class HTMLElementNode extends HTMLNode
 
 		if (result == this)
 		{
+			resolveAttributeParses();
+
 			for (IParseNode node : fJSAttributeNodes)
 			{
 				if (node.contains(offset))
@@ -222,11 +278,13 @@ public class HTMLElementNode extends HTMLNode
 
 	public IParseNode[] getCSSStyleNodes()
 	{
+		resolveAttributeParses();
 		return fCSSStyleNodes.toArray(new IParseNode[fCSSStyleNodes.size()]);
 	}
 
 	public IParseNode[] getJSAttributeNodes()
 	{
+		resolveAttributeParses();
 		return fJSAttributeNodes.toArray(new IParseNode[fJSAttributeNodes.size()]);
 	}
 
@@ -12,6 +12,7 @@ import com.aptana.parsing.ast.ParseNode;
 
 public class HTMLNode extends ParseNode
 {
+	private static final long serialVersionUID = 1L;
 
 	private short fType;
 
@@ -9,10 +9,14 @@ package com.aptana.editor.html.parsing.ast;
 
 import beaver.Symbol;
 
+import com.aptana.editor.html.parsing.EmbeddedLanguageParse;
 import com.aptana.parsing.ast.IParseNode;
 
 public class HTMLSpecialNode extends HTMLElementNode
 {
+	private static final long serialVersionUID = 1L;
+
+	private EmbeddedLanguageParse fEmbeddedParse;
 
 	public HTMLSpecialNode(Symbol tag, IParseNode[] children, int start, int end)
 	{
@@ -21,6 +25,33 @@ public class HTMLSpecialNode extends HTMLElementNode
 		setType(IHTMLNodeTypes.SPECIAL);
 	}
 
+	/**
+	 * Creates a special node whose children are the result of an embedded language parse, which the HTML parser
+	 * attaches once it has run the parse.
+	 * 
+	 * @param tag
+	 * @param embeddedParse
+	 * @param start
+	 * @param end
+	 */
+	public HTMLSpecialNode(Symbol tag, EmbeddedLanguageParse embeddedParse, int start, int end)
+	{
+		super(tag, start, end);
+		fEmbeddedParse = embeddedParse;
+		setType(IHTMLNodeTypes.SPECIAL);
+	}
+
+	/**
+	 * Returns the embedded language parse that produces the children of this node, or null if the children were
+	 * provided up front.
+	 * 
+	 * @return
+	 */
+	public EmbeddedLanguageParse getEmbeddedParse()
+	{
+		return fEmbeddedParse;
+	}
+
 	@Override
 	public boolean equals(Object obj)
 	{
@@ -12,6 +12,8 @@ import com.aptana.parsing.ast.ParseNode;
 
 public class IDLNode extends ParseNode
 {
+	private static final long serialVersionUID = 1L;
+
 	private IDLNodeType _type;
 
 	/**
@@ -66,6 +66,16 @@ public interface IJSIndexConstants
 	};
 	// @formatter:on
 
+	// the categories holding what a file exports: its types, and the properties and functions defined on them
+	// @formatter:off
+	static final String[] EXPORT_CATEGORIES = new String[]
+	{
+		TYPE,
+		PROPERTY,
+		FUNCTION
+	};
+	// @formatter:on
+
 	// special values
 	static final String NO_ENTRY = "-1"; //$NON-NLS-1$
 }
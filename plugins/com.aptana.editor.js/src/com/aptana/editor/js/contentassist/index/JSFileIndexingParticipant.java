@@ -30,7 +30,11 @@ import com.aptana.editor.js.contentassist.model.PropertyElement;
 import com.aptana.editor.js.contentassist.model.TypeElement;
 import com.aptana.editor.js.inferencing.JSScope;
 import com.aptana.editor.js.inferencing.JSSymbolTypeInferrer;
+import com.aptana.editor.js.internal.build.JSRequireDependencyParticipant;
+import com.aptana.editor.js.internal.build.JSVisitorPipeline;
+import com.aptana.editor.js.internal.build.JSVisitorPipeline.INodeHandlerProvider;
 import com.aptana.editor.js.parsing.ast.JSFunctionNode;
+import com.aptana.editor.js.parsing.ast.JSIdentifierNode;
 import com.aptana.editor.js.parsing.ast.JSInvokeNode;
 import com.aptana.editor.js.parsing.ast.JSParseRootNode;
 import com.aptana.editor.js.parsing.ast.JSStringNode;
@@ -38,30 +42,71 @@ import com.aptana.index.core.AbstractFileIndexingParticipant;
 import com.aptana.index.core.Index;
 import com.aptana.index.core.build.BuildContext;
 import com.aptana.parsing.ast.IParseNode;
+import com.aptana.parsing.ast.IParseRootNode;
+import com.aptana.parsing.util.ParseUtil;
 import com.aptana.parsing.xpath.ParseNodeXPath;
 
 public class JSFileIndexingParticipant extends AbstractFileIndexingParticipant
 {
+	private static final String REQUIRE = "require"; //$NON-NLS-1$
+
 	private static XPath LAMBDAS_IN_SCOPE;
-	private static XPath REQUIRE_INVOCATIONS;
+
+	/**
+	 * Collects the paths passed to require(). Stateless, so the handlers it creates can be shared with the other JS
+	 * participants' walk of a file.
+	 */
+	private static final INodeHandlerProvider REQUIRES_COLLECTOR = new INodeHandlerProvider()
+	{
+		public ParseUtil.IASTVisitor createNodeHandler(BuildContext context, IParseRootNode ast)
+		{
+			return new RequiresVisitor();
+		}
+	};
 
 	private JSIndexWriter indexWriter;
 
-	static
+	/**
+	 * Grabs the string passed to each 'require("...")' invocation
+	 */
+	private static class RequiresVisitor implements ParseUtil.IASTVisitor
 	{
-		try
+		private final Set<String> paths = new HashSet<String>();
+
+		public boolean enterNode(IParseNode node)
 		{
-			LAMBDAS_IN_SCOPE = new ParseNodeXPath(
-					"invoke[position() = 1]/group/function|invoke[position() = 1]/function"); //$NON-NLS-1$
+			if (node instanceof JSInvokeNode)
+			{
+				JSInvokeNode invocation = (JSInvokeNode) node;
+				IParseNode expression = invocation.getExpression();
+
+				if (expression instanceof JSIdentifierNode && REQUIRE.equals(expression.getText()))
+				{
+					IParseNode arguments = invocation.getArguments();
+					IParseNode firstArgument = (arguments != null) ? arguments.getFirstChild() : null;
+					String text = (firstArgument instanceof JSStringNode) ? firstArgument.getText() : null;
+
+					if (text != null && text.length() >= 2)
+					{
+						paths.add(text.substring(1, text.length() - 1));
+					}
+				}
+			}
+			return true;
 		}
-		catch (JaxenException e)
+
+		public boolean exitNode(IParseNode node)
 		{
-			IdeLog.logError(JSPlugin.getDefault(), e);
+			return true;
 		}
+	}
 
+	static
+	{
 		try
 		{
-			REQUIRE_INVOCATIONS = new ParseNodeXPath("//invoke[identifier[position() = 1 and @value = 'require']]"); //$NON-NLS-1$
+			LAMBDAS_IN_SCOPE = new ParseNodeXPath(
+					"invoke[position() = 1]/group/function|invoke[position() = 1]/function"); //$NON-NLS-1$
 		}
 		catch (JaxenException e)
 		{
@@ -120,9 +165,12 @@ public class JSFileIndexingParticipant extends AbstractFileIndexingParticipant
 	 * @param globals
 	 * @param node
 	 * @param location
+	 * @param nested
+	 *            whether to look into the lambdas nested in the ones found
 	 */
 	@SuppressWarnings("unchecked")
-	private List<PropertyElement> processLambdas(Index index, JSScope globals, IParseNode node, URI location)
+	private List<PropertyElement> processLambdas(Index index, JSScope globals, IParseNode node, URI location,
+			boolean nested)
 	{
 		List<PropertyElement> result = Collections.emptyList();
 
@@ -147,7 +195,10 @@ public class JSFileIndexingParticipant extends AbstractFileIndexingParticipant
 						result.addAll(processWindowAssignments(index, scope, location));
 
 						// handle any nested lambdas in this function
-						result.addAll(processLambdas(index, globals, function, location));
+						if (nested)
+						{
+							result.addAll(processLambdas(index, globals, function, location, true));
+						}
 					}
 				}
 			}
@@ -251,7 +302,9 @@ public class JSFileIndexingParticipant extends AbstractFileIndexingParticipant
 				IdeLog.logTrace(JSPlugin.getDefault(), message, IDebugScopes.INDEXING_STEPS);
 			}
 
-			for (PropertyElement property : processLambdas(index, globals, ast, location))
+			// Minified bundles only get the assignments made by their outermost wrapper functions indexed
+			boolean nested = !context.isTopLevelOnly();
+			for (PropertyElement property : processLambdas(index, globals, ast, location, nested))
 			{
 				type.addProperty(property);
 			}
@@ -293,53 +346,42 @@ public class JSFileIndexingParticipant extends AbstractFileIndexingParticipant
 		}
 
 		// process requires
-		processRequires(index, ast, location);
+		processRequires(context, index, ast, location);
 
 		sub.done();
 	}
 
 	/**
+	 * @param context
+	 * @param index
 	 * @param ast
+	 * @param location
 	 */
-	protected void processRequires(Index index, IParseNode ast, URI location)
+	protected void processRequires(BuildContext context, Index index, IParseNode ast, URI location)
 	{
-		Object queryResult = null;
+		RequiresVisitor visitor;
 
-		// grab all 'require("...")' invocations
-		try
+		// grab all 'require("...")' invocations, sharing the walk with the other participants when we can
+		if (ast instanceof IParseRootNode)
 		{
-			queryResult = (REQUIRE_INVOCATIONS != null) ? REQUIRE_INVOCATIONS.evaluate(ast) : null;
+			visitor = (RequiresVisitor) JSVisitorPipeline.getInstance().visit(context, (IParseRootNode) ast,
+					REQUIRES_COLLECTOR);
 		}
-		catch (JaxenException e)
+		else
 		{
-			IdeLog.logError(JSPlugin.getDefault(), e);
+			visitor = new RequiresVisitor();
+			ParseUtil.treeApply(ast, visitor);
 		}
 
-		// process results, if any
-		if (queryResult != null)
-		{
-			Set<String> paths = new HashSet<String>();
-
-			@SuppressWarnings("unchecked")
-			List<JSInvokeNode> invocations = (List<JSInvokeNode>) queryResult;
-
-			for (JSInvokeNode invocation : invocations)
-			{
-				IParseNode arguments = invocation.getArguments();
-				IParseNode firstArgument = (arguments != null) ? arguments.getFirstChild() : null;
-				String text = (firstArgument instanceof JSStringNode) ? firstArgument.getText() : null;
-
-				if (text != null && text.length() >= 2)
-				{
-					paths.add(text.substring(1, text.length() - 1));
-				}
-			}
+		Set<String> paths = (visitor != null) ? visitor.paths : Collections.<String> emptySet();
 
-			if (!paths.isEmpty())
-			{
-				indexWriter.writeRequires(index, paths, location);
-			}
+		if (!paths.isEmpty())
+		{
+			indexWriter.writeRequires(index, paths, location);
 		}
+
+		// keep the dependency tracking in sync, including for files which stopped requiring anything
+		JSRequireDependencyParticipant.requiresIndexed(index, location, paths);
 	}
 
 	/**
@@ -11,12 +11,16 @@ import java.io.IOException;
 import java.net.URI;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.regex.Pattern;
 
+import com.aptana.core.IFilter;
 import com.aptana.core.IMap;
 import com.aptana.core.util.CollectionsUtil;
 import com.aptana.core.util.RegexUtil;
@@ -463,6 +467,119 @@ public class JSIndexReader extends IndexReader
 		return new ArrayList<String>(result);
 	}
 
+	/**
+	 * Returns the paths passed to require() by every document in the index, keyed by document
+	 * 
+	 * @param index
+	 * @return
+	 */
+	public Map<String, List<String>> getAllRequires(Index index)
+	{
+		Map<String, List<String>> result = new HashMap<String, List<String>>();
+
+		if (index != null)
+		{
+			// @formatter:off
+			List<QueryResult> requires = index.query(
+				new String[] { IJSIndexConstants.REQUIRE },
+				"*", //$NON-NLS-1$
+				SearchPattern.PATTERN_MATCH
+			);
+			// @formatter:on
+
+			if (requires != null)
+			{
+				for (QueryResult item : requires)
+				{
+					List<String> paths = Arrays.asList(getSubDelimiterPattern().split(item.getWord()));
+
+					for (String document : item.getDocuments())
+					{
+						List<String> documentPaths = result.get(document);
+
+						if (documentPaths == null)
+						{
+							documentPaths = new ArrayList<String>();
+							result.put(document, documentPaths);
+						}
+
+						documentPaths.addAll(paths);
+					}
+				}
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns a string summarizing the type, property and function entries each accepted document contributed to the
+	 * index, keyed by document. When the signature of a document is unchanged after reindexing, so are the types and
+	 * members it exports. Documents without any such entry aren't in the result.
+	 * 
+	 * @param index
+	 * @param documents
+	 *            decides which documents to compute signatures for, asked once per document
+	 * @return
+	 */
+	public Map<String, String> getExportSignatures(Index index, IFilter<String> documents)
+	{
+		Map<String, List<String>> words = new HashMap<String, List<String>>();
+
+		if (index != null && documents != null)
+		{
+			// @formatter:off
+			List<QueryResult> entries = index.query(
+				IJSIndexConstants.EXPORT_CATEGORIES,
+				"*", //$NON-NLS-1$
+				SearchPattern.PATTERN_MATCH
+			);
+			// @formatter:on
+
+			if (entries != null)
+			{
+				Set<String> rejected = new HashSet<String>();
+
+				for (QueryResult entry : entries)
+				{
+					for (String document : entry.getDocuments())
+					{
+						List<String> documentWords = words.get(document);
+
+						if (documentWords == null)
+						{
+							if (rejected.contains(document))
+							{
+								continue;
+							}
+							if (!documents.include(document))
+							{
+								rejected.add(document);
+								continue;
+							}
+							documentWords = new ArrayList<String>();
+							words.put(document, documentWords);
+						}
+
+						documentWords.add(entry.getWord());
+					}
+				}
+			}
+		}
+
+		Map<String, String> result = new HashMap<String, String>(words.size());
+
+		for (Map.Entry<String, List<String>> entry : words.entrySet())
+		{
+			List<String> documentWords = entry.getValue();
+
+			Collections.sort(documentWords);
+			result.put(entry.getKey(), StringUtil.join(IJSIndexConstants.DELIMITER, documentWords));
+		}
+
+		return result;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see com.aptana.index.core.IndexReader#getSubDelimiter()
@@ -90,10 +90,9 @@ public class JSSearchStringHyperlink extends JSAbstractHyperlink
 			// try to locate the target identifier in the AST
 			if (ast instanceof JSParseRootNode)
 			{
-				// collect all identifiers that match the search string
-				JSIdentifierCollector collector = new JSIdentifierCollector(searchString);
-				((JSParseRootNode) ast).accept(collector);
-				List<JSIdentifierNode> identifiers = collector.getIdentifiers();
+				// look up all identifiers that match the search string
+				List<JSIdentifierNode> identifiers = ((JSParseRootNode) ast).getIdentifierIndex().getIdentifiers(
+						searchString);
 
 				// try to refine the selection based on link type
 				if (INVOCATION_TYPE.equals(getTypeLabel()))
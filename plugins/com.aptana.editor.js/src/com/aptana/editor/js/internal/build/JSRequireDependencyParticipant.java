@@ -0,0 +1,241 @@
+/**
+ * Aptana Studio
+ * Copyright (c) 2005-2012 by Appcelerator, Inc. All Rights Reserved.
+ * Licensed under the terms of the GNU Public License (GPL) v3 (with exceptions).
+ * Please see the license.html included with this distribution for details.
+ * Any modifications to this file must keep this entire header intact.
+ */
+package com.aptana.editor.js.internal.build;
+
+import java.net.URI;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IncrementalProjectBuilder;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.SubMonitor;
+
+import com.aptana.core.IFilter;
+import com.aptana.core.build.IDependentFileContributor;
+import com.aptana.core.build.RequiredBuildParticipant;
+import com.aptana.core.util.ArrayUtil;
+import com.aptana.editor.js.contentassist.index.JSIndexReader;
+import com.aptana.index.core.Index;
+import com.aptana.index.core.IndexPlugin;
+import com.aptana.index.core.build.BuildContext;
+
+/**
+ * Tracks which JS files require() which others during incremental builds. Runs ahead of the index participant so it
+ * can record what a required file exported before it gets reindexed. Once the changed files have been built, the
+ * files requiring a changed file are reported as dependents, but only if the types the changed file exports actually
+ * changed.
+ * <p>
+ * Who requires whom is kept per index in a {@link RequireGraph}, loaded from the index the first time it's needed and
+ * then kept up to date by the JS indexer, through {@link #requiresIndexed(Index, URI, Collection)}.
+ * </p>
+ */
+public class JSRequireDependencyParticipant extends RequiredBuildParticipant implements IDependentFileContributor
+{
+	private static final Map<Index, RequireGraph> fgGraphs = new WeakHashMap<Index, RequireGraph>();
+
+	private JSIndexReader fReader;
+	private Index fIndex;
+	private RequireGraph fGraph;
+	private boolean fIncremental;
+
+	/**
+	 * What the required files exported at the start of the current round of building, by document. Lazily computed
+	 * once per round, the first time a required file gets built.
+	 */
+	private Map<String, String> fExports;
+
+	/**
+	 * The export signatures of required files before they were reindexed, by file location
+	 */
+	private Map<URI, String> fSignatures;
+
+	/**
+	 * Called by the JS indexer with the paths a file passes to require(), every time it indexes one
+	 *
+	 * @param index
+	 * @param location
+	 * @param paths
+	 */
+	public static void requiresIndexed(Index index, URI location, Collection<String> paths)
+	{
+		RequireGraph graph;
+		synchronized (fgGraphs)
+		{
+			graph = fgGraphs.get(index);
+		}
+		// if nobody asked for the graph yet, it'll be read from the index, these requires included
+		if (graph != null && location != null)
+		{
+			graph.setRequires(location.toString(), paths);
+		}
+	}
+
+	public JSRequireDependencyParticipant()
+	{
+		fReader = new JSIndexReader();
+	}
+
+	@Override
+	public void buildStarting(IProject project, int kind, IProgressMonitor monitor)
+	{
+		// Full builds reindex every file anyway
+		fIncremental = (kind == IncrementalProjectBuilder.INCREMENTAL_BUILD || kind == IncrementalProjectBuilder.AUTO_BUILD);
+		fIndex = (fIncremental && project != null) ? getIndex(project) : null;
+		fGraph = null;
+		fExports = null;
+		fSignatures = new HashMap<URI, String>();
+	}
+
+	@Override
+	public void buildEnding(IProgressMonitor monitor)
+	{
+		fIndex = null;
+		fGraph = null;
+		fExports = null;
+		fSignatures = null;
+	}
+
+	public void buildFile(BuildContext context, IProgressMonitor monitor)
+	{
+		recordSignature(context);
+	}
+
+	public void deleteFile(BuildContext context, IProgressMonitor monitor)
+	{
+		recordSignature(context);
+
+		URI location = (context == null) ? null : context.getURI();
+		if (fIndex != null && location != null)
+		{
+			getGraph().removeDocument(location.toString());
+		}
+	}
+
+	/**
+	 * Remember what the file exported before it gets reindexed, but only if some other file requires it
+	 *
+	 * @param context
+	 */
+	private void recordSignature(BuildContext context)
+	{
+		if (!fIncremental || fIndex == null || context == null)
+		{
+			return;
+		}
+
+		URI location = context.getURI();
+		if (location == null || fSignatures.containsKey(location)
+				|| getGraph().getRequiringDocuments(location).isEmpty())
+		{
+			return;
+		}
+
+		if (fExports == null)
+		{
+			// one pass over the index for all the required files, rather than one per file
+			fExports = fReader.getExportSignatures(fIndex, new IFilter<String>()
+			{
+				public boolean include(String document)
+				{
+					return !getGraph().getRequiringDocuments(URI.create(document)).isEmpty();
+				}
+			});
+		}
+		fSignatures.put(location, getSignature(fExports, location));
+	}
+
+	public Set<IFile> getDependentFiles(IProgressMonitor monitor)
+	{
+		if (fIndex == null || fSignatures == null || fSignatures.isEmpty())
+		{
+			return Collections.emptySet();
+		}
+
+		SubMonitor sub = SubMonitor.convert(monitor, fSignatures.size() + 1);
+
+		// the index has been updated by now, so this is what the files export after the change
+		final Map<URI, String> signatures = fSignatures;
+		Map<String, String> exports = fReader.getExportSignatures(fIndex, new IFilter<String>()
+		{
+			public boolean include(String document)
+			{
+				return signatures.containsKey(URI.create(document));
+			}
+		});
+		sub.worked(1);
+
+		Set<IFile> result = new HashSet<IFile>();
+		for (Map.Entry<URI, String> entry : fSignatures.entrySet())
+		{
+			URI location = entry.getKey();
+
+			if (!entry.getValue().equals(getSignature(exports, location)))
+			{
+				for (String document : getGraph().getRequiringDocuments(location))
+				{
+					IFile[] files = ResourcesPlugin.getWorkspace().getRoot()
+							.findFilesForLocationURI(URI.create(document));
+					if (!ArrayUtil.isEmpty(files))
+					{
+						result.add(files[0]);
+					}
+				}
+			}
+			sub.worked(1);
+		}
+
+		// Dependents get reindexed next, so what the required files export has to be looked at again
+		fSignatures.clear();
+		fExports = null;
+		sub.done();
+
+		return result;
+	}
+
+	private static String getSignature(Map<String, String> exports, URI location)
+	{
+		String signature = exports.get(location.toString());
+		return (signature == null) ? "" : signature; //$NON-NLS-1$
+	}
+
+	/**
+	 * Returns the require graph of the index being built, reading it from the index if nobody did yet
+	 *
+	 * @return
+	 */
+	private RequireGraph getGraph()
+	{
+		if (fGraph == null)
+		{
+			// reading under the lock makes the indexer wait, so none of its updates can slip in before the graph is out
+			synchronized (fgGraphs)
+			{
+				fGraph = fgGraphs.get(fIndex);
+				if (fGraph == null)
+				{
+					fGraph = new RequireGraph(fReader.getAllRequires(fIndex));
+					fgGraphs.put(fIndex, fGraph);
+				}
+			}
+		}
+		return fGraph;
+	}
+
+	protected Index getIndex(IProject project)
+	{
+		return IndexPlugin.getDefault().getIndexManager().getIndex(project.getLocationURI());
+	}
+}
@@ -0,0 +1,329 @@
+/**
+ * Aptana Studio
+ * Copyright (c) 2005-2012 by Appcelerator, Inc. All Rights Reserved.
+ * Licensed under the terms of the GNU Public License (GPL) v3 (with exceptions).
+ * Please see the license.html included with this distribution for details.
+ * Any modifications to this file must keep this entire header intact.
+ */
+package com.aptana.editor.js.internal.build;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.CoreException;
+
+import com.aptana.core.build.IBuildParticipant;
+import com.aptana.core.build.ReconcileContext;
+import com.aptana.core.logging.IdeLog;
+import com.aptana.editor.js.IJSConstants;
+import com.aptana.editor.js.JSPlugin;
+import com.aptana.index.core.build.BuildContext;
+import com.aptana.parsing.ast.IParseNode;
+import com.aptana.parsing.ast.IParseRootNode;
+import com.aptana.parsing.util.ParseUtil;
+
+/**
+ * Lets the JS build participants share a single traversal of a file's AST. Participants register a provider of node
+ * handlers for the project being built. The first participant asking for a walk of a file's AST gets the handlers of
+ * every registered participant run along with its own, and the participants building the file later pick up their
+ * already populated handler instead of walking the tree again.
+ */
+public class JSVisitorPipeline
+{
+	/**
+	 * Creates the visitor a participant wants run over a file's AST.
+	 */
+	public static interface INodeHandlerProvider
+	{
+		/**
+		 * Return a fresh visitor collecting whatever the participant needs from the specified AST. Returning null opts
+		 * out of the walk.
+		 *
+		 * @param context
+		 * @param ast
+		 * @return
+		 */
+		public ParseUtil.IASTVisitor createNodeHandler(BuildContext context, IParseRootNode ast);
+	}
+
+	/**
+	 * The handlers populated by a walk that haven't been picked up by their participant yet
+	 */
+	private static class Walk
+	{
+		private final IParseRootNode ast;
+		private final Map<INodeHandlerProvider, ParseUtil.IASTVisitor> handlers;
+
+		private Walk(IParseRootNode ast, Map<INodeHandlerProvider, ParseUtil.IASTVisitor> handlers)
+		{
+			this.ast = ast;
+			this.handlers = handlers;
+		}
+	}
+
+	/**
+	 * Dispatches each node to all the handlers that are still interested in the walk
+	 */
+	private static class CompositeVisitor implements ParseUtil.IASTVisitor
+	{
+		private final List<ParseUtil.IASTVisitor> active;
+
+		private CompositeVisitor(List<ParseUtil.IASTVisitor> handlers)
+		{
+			active = new ArrayList<ParseUtil.IASTVisitor>(handlers);
+		}
+
+		public boolean enterNode(IParseNode node)
+		{
+			for (int i = active.size() - 1; i >= 0; i--)
+			{
+				if (!dispatch(active.get(i), node, true))
+				{
+					active.remove(i);
+				}
+			}
+			return !active.isEmpty();
+		}
+
+		public boolean exitNode(IParseNode node)
+		{
+			for (int i = active.size() - 1; i >= 0; i--)
+			{
+				if (!dispatch(active.get(i), node, false))
+				{
+					active.remove(i);
+				}
+			}
+			return !active.isEmpty();
+		}
+
+		private boolean dispatch(ParseUtil.IASTVisitor handler, IParseNode node, boolean enter)
+		{
+			try
+			{
+				return enter ? handler.enterNode(node) : handler.exitNode(node);
+			}
+			catch (Exception e)
+			{
+				// One broken handler shouldn't cost the others their walk
+				IdeLog.logError(JSPlugin.getDefault(), e);
+				return false;
+			}
+		}
+	}
+
+	private static JSVisitorPipeline INSTANCE;
+
+	private final Map<IProject, List<INodeHandlerProvider>> fProviders;
+	private final Map<BuildContext, Walk> fWalks;
+
+	public static synchronized JSVisitorPipeline getInstance()
+	{
+		if (INSTANCE == null)
+		{
+			INSTANCE = new JSVisitorPipeline();
+		}
+		return INSTANCE;
+	}
+
+	JSVisitorPipeline()
+	{
+		fProviders = new HashMap<IProject, List<INodeHandlerProvider>>();
+		fWalks = new WeakHashMap<BuildContext, Walk>();
+	}
+
+	/**
+	 * Have the provider's handlers run whenever another participant walks a JS file of the project. Participants
+	 * should register when a build starts and unregister when it ends.
+	 *
+	 * @param project
+	 * @param provider
+	 */
+	public synchronized void register(IProject project, INodeHandlerProvider provider)
+	{
+		if (project == null || provider == null)
+		{
+			return;
+		}
+		List<INodeHandlerProvider> providers = fProviders.get(project);
+		if (providers == null)
+		{
+			providers = new ArrayList<INodeHandlerProvider>();
+			fProviders.put(project, providers);
+		}
+		if (!providers.contains(provider))
+		{
+			providers.add(provider);
+		}
+	}
+
+	public synchronized void unregister(INodeHandlerProvider provider)
+	{
+		Iterator<List<INodeHandlerProvider>> iterator = fProviders.values().iterator();
+		while (iterator.hasNext())
+		{
+			List<INodeHandlerProvider> providers = iterator.next();
+			providers.remove(provider);
+			if (providers.isEmpty())
+			{
+				iterator.remove();
+			}
+		}
+		Iterator<Walk> walks = fWalks.values().iterator();
+		while (walks.hasNext())
+		{
+			Walk walk = walks.next();
+			walk.handlers.remove(provider);
+			if (walk.handlers.isEmpty())
+			{
+				walks.remove();
+			}
+		}
+	}
+
+	/**
+	 * Returns the provider's handler after it has visited the whole AST. If an earlier walk of the same AST already ran
+	 * the provider's handler, that one is handed back without walking the tree again.
+	 *
+	 * @param context
+	 * @param ast
+	 * @param provider
+	 * @return the populated handler, or null if the provider opted out
+	 */
+	public ParseUtil.IASTVisitor visit(BuildContext context, IParseRootNode ast, INodeHandlerProvider provider)
+	{
+		if (context == null || ast == null || provider == null)
+		{
+			return null;
+		}
+
+		boolean shared = isShared(context);
+		Map<INodeHandlerProvider, ParseUtil.IASTVisitor> handlers;
+		synchronized (this)
+		{
+			Walk walk = fWalks.get(context);
+			if (walk != null && walk.ast == ast)
+			{
+				ParseUtil.IASTVisitor handler = walk.handlers.remove(provider);
+				if (walk.handlers.isEmpty())
+				{
+					// everybody got their handler, so there's nothing left to hold on to
+					fWalks.remove(context);
+				}
+				if (handler != null)
+				{
+					return handler;
+				}
+				// the provider registered after this file was walked, so walk it just for the provider
+				handlers = new HashMap<INodeHandlerProvider, ParseUtil.IASTVisitor>(1);
+			}
+			else
+			{
+				handlers = new HashMap<INodeHandlerProvider, ParseUtil.IASTVisitor>();
+				List<INodeHandlerProvider> providers = shared ? fProviders.get(context.getProject()) : null;
+				if (providers != null)
+				{
+					for (INodeHandlerProvider other : providers)
+					{
+						if (other != provider && !isSkipped(context, other))
+						{
+							handlers.put(other, null);
+						}
+					}
+				}
+			}
+		}
+
+		ParseUtil.IASTVisitor result = provider.createNodeHandler(context, ast);
+		for (Map.Entry<INodeHandlerProvider, ParseUtil.IASTVisitor> entry : handlers.entrySet())
+		{
+			entry.setValue(entry.getKey().createNodeHandler(context, ast));
+		}
+
+		List<ParseUtil.IASTVisitor> visitors = new ArrayList<ParseUtil.IASTVisitor>(handlers.size() + 1);
+		if (result != null)
+		{
+			visitors.add(result);
+		}
+		Iterator<ParseUtil.IASTVisitor> iterator = handlers.values().iterator();
+		while (iterator.hasNext())
+		{
+			ParseUtil.IASTVisitor handler = iterator.next();
+			if (handler == null)
+			{
+				// the provider opted out, so it'll walk the file itself if it ever asks
+				iterator.remove();
+			}
+			else
+			{
+				visitors.add(handler);
+			}
+		}
+		if (!visitors.isEmpty())
+		{
+			ParseUtil.treeApply(ast, new CompositeVisitor(visitors));
+		}
+
+		if (!handlers.isEmpty())
+		{
+			synchronized (this)
+			{
+				fWalks.put(context, new Walk(ast, handlers));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Determine if handlers populated by a walk of the context are still waiting for their participant
+	 *
+	 * @param context
+	 * @return
+	 */
+	synchronized boolean hasPendingHandlers(BuildContext context)
+	{
+		return fWalks.containsKey(context);
+	}
+
+	/**
+	 * Providers which are participants that won't build the file, e.g. since their problems came from a cache, don't
+	 * get a handler, since nobody would ever consume it.
+	 *
+	 * @param context
+	 * @param provider
+	 * @return
+	 */
+	private static boolean isSkipped(BuildContext context, INodeHandlerProvider provider)
+	{
+		return provider instanceof IBuildParticipant
+				&& context.isParticipantSkipped(((IBuildParticipant) provider).getId());
+	}
+
+	/**
+	 * Only full builds of JS files share their walks; reconciles and embedded JS get walked for the requesting
+	 * participant alone.
+	 *
+	 * @param context
+	 * @return
+	 */
+	private static boolean isShared(BuildContext context)
+	{
+		if (context instanceof ReconcileContext)
+		{
+			return false;
+		}
+		try
+		{
+			return IJSConstants.CONTENT_TYPE_JS.equals(context.getContentType());
+		}
+		catch (CoreException e)
+		{
+			return false;
+		}
+	}
+}
@@ -0,0 +1,175 @@
+/**
+ * Aptana Studio
+ * Copyright (c) 2005-2012 by Appcelerator, Inc. All Rights Reserved.
+ * Licensed under the terms of the GNU Public License (GPL) v3 (with exceptions).
+ * Please see the license.html included with this distribution for details.
+ * Any modifications to this file must keep this entire header intact.
+ */
+package com.aptana.editor.js.internal.build;
+
+import java.net.URI;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The require() relationships between the documents of an index, kept in both directions so the documents requiring a
+ * file can be looked up without going through every require() of the index.
+ * <p>
+ * Requires are stored by target: relative paths are resolved against the requiring document, anything else is a
+ * module id, which matches any file whose path ends with it.
+ * </p>
+ */
+class RequireGraph
+{
+	private static final String JS_EXTENSION = ".js"; //$NON-NLS-1$
+
+	/**
+	 * The targets each document requires
+	 */
+	private final Map<String, Set<String>> fTargets;
+
+	/**
+	 * The documents requiring each target
+	 */
+	private final Map<String, Set<String>> fRequiringDocuments;
+
+	/**
+	 * RequireGraph
+	 *
+	 * @param requires
+	 *            the paths passed to require(), by requiring document
+	 */
+	RequireGraph(Map<String, List<String>> requires)
+	{
+		fTargets = new HashMap<String, Set<String>>();
+		fRequiringDocuments = new HashMap<String, Set<String>>();
+
+		for (Map.Entry<String, List<String>> entry : requires.entrySet())
+		{
+			setRequires(entry.getKey(), entry.getValue());
+		}
+	}
+
+	/**
+	 * Replace what the document requires
+	 *
+	 * @param document
+	 * @param paths
+	 *            the paths the document passes to require()
+	 */
+	synchronized void setRequires(String document, Collection<String> paths)
+	{
+		removeDocument(document);
+		if (paths == null || paths.isEmpty())
+		{
+			return;
+		}
+
+		Set<String> targets = new HashSet<String>(paths.size());
+		for (String path : paths)
+		{
+			String target = getTarget(document, path);
+			if (target != null)
+			{
+				targets.add(target);
+			}
+		}
+		fTargets.put(document, targets);
+		for (String target : targets)
+		{
+			Set<String> documents = fRequiringDocuments.get(target);
+			if (documents == null)
+			{
+				documents = new HashSet<String>();
+				fRequiringDocuments.put(target, documents);
+			}
+			documents.add(document);
+		}
+	}
+
+	/**
+	 * Forget what the document requires
+	 *
+	 * @param document
+	 */
+	synchronized void removeDocument(String document)
+	{
+		Set<String> targets = fTargets.remove(document);
+		if (targets == null)
+		{
+			return;
+		}
+		for (String target : targets)
+		{
+			Set<String> documents = fRequiringDocuments.get(target);
+			if (documents != null)
+			{
+				documents.remove(document);
+				if (documents.isEmpty())
+				{
+					fRequiringDocuments.remove(target);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the documents, other than the file itself, that require the specified file
+	 *
+	 * @param location
+	 * @return
+	 */
+	synchronized Set<String> getRequiringDocuments(URI location)
+	{
+		Set<String> result = new HashSet<String>();
+		addRequiringDocuments(result, location.normalize().toString());
+
+		// module ids, one lookup per suffix of the path
+		String name = location.toString();
+		for (int i = name.indexOf('/'); i != -1; i = name.indexOf('/', i + 1))
+		{
+			addRequiringDocuments(result, name.substring(i));
+		}
+
+		result.remove(name);
+		return result;
+	}
+
+	private void addRequiringDocuments(Set<String> result, String target)
+	{
+		Set<String> documents = fRequiringDocuments.get(target);
+		if (documents != null)
+		{
+			result.addAll(documents);
+		}
+	}
+
+	/**
+	 * Returns the resolved location for a relative path, or the module id prefixed with a slash for anything else. The
+	 * latter can't clash with the former, which start with a scheme.
+	 *
+	 * @param document
+	 * @param path
+	 * @return
+	 */
+	private static String getTarget(String document, String path)
+	{
+		String module = path.endsWith(JS_EXTENSION) ? path : path + JS_EXTENSION;
+		if (module.startsWith("./") || module.startsWith("../")) //$NON-NLS-1$ //$NON-NLS-2$
+		{
+			try
+			{
+				return URI.create(document).resolve(module).normalize().toString();
+			}
+			catch (IllegalArgumentException e)
+			{
+				return null;
+			}
+		}
+		return '/' + module;
+	}
+}
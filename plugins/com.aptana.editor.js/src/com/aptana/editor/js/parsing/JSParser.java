@@ -588,7 +588,7 @@ public class JSParser extends Parser implements IParser {
 					if (lastToken.getId() == JSTokenType.COMMA.getIndex() && symbol2.value instanceof List<?> && symbol1.getId() == JSTokenType.LPAREN.getIndex())
 					{
 						Symbol term = new Symbol(JSTokenType.IDENTIFIER.getIndex(), currentToken.getStart(), currentToken.getStart() - 1, "");
-						Simulator sim = new Simulator();
+						Simulator sim = getSimulator();
 
 						in.alloc(2);
 						in.insert(term, currentToken);
@@ -13,6 +13,8 @@ import com.aptana.editor.js.parsing.lexer.JSTokenType;
 
 public class JSBinaryBooleanOperatorNode extends JSBinaryOperatorNode
 {
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * JSBooleanOperatorNode
 	 * 
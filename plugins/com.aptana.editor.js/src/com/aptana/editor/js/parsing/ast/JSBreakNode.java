@@ -11,6 +11,8 @@ import beaver.Symbol;
 
 public class JSBreakNode extends JSLabelStatementNode
 {
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * JSBreakNode
 	 */
@@ -11,6 +11,8 @@ import com.aptana.parsing.ast.IParseNode;
 
 public class JSCatchNode extends JSNode
 {
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * JSCatchNode
 	 * 
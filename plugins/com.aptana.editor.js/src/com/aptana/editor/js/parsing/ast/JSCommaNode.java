@@ -9,6 +9,8 @@ package com.aptana.editor.js.parsing.ast;
 
 public class JSCommaNode extends JSNode
 {
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * JSCommaNode
 	 * 
@@ -13,6 +13,8 @@ import com.aptana.parsing.ast.IParseNode;
 
 public class JSConditionalNode extends JSNode
 {
+	private static final long serialVersionUID = 1L;
+
 	private Symbol _questionMark;
 	private Symbol _colon;
 
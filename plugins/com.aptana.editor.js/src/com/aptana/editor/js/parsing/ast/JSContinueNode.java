@@ -11,6 +11,8 @@ import beaver.Symbol;
 
 public class JSContinueNode extends JSLabelStatementNode
 {
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * JSContinueNode
 	 */
@@ -11,6 +11,8 @@ import beaver.Symbol;
 
 public class JSDefaultNode extends JSNode
 {
+	private static final long serialVersionUID = 1L;
+
 	private Symbol _colon;
 
 	/**
@@ -13,6 +13,8 @@ import com.aptana.parsing.ast.IParseNode;
 
 public class JSDoNode extends JSNode
 {
+	private static final long serialVersionUID = 1L;
+
 	private Symbol _leftParenthesis;
 	private Symbol _rightParenthesis;
 
@@ -9,6 +9,8 @@ package com.aptana.editor.js.parsing.ast;
 
 public class JSErrorNode extends JSNode
 {
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * JSErrorNode
 	 */
@@ -11,6 +11,8 @@ import beaver.Symbol;
 
 public class JSGetElementNode extends JSBinaryOperatorNode
 {
+	private static final long serialVersionUID = 1L;
+
 	private Symbol _rightBracket;
 
 	/**
@@ -11,6 +11,8 @@ import beaver.Symbol;
 
 public class JSGetPropertyNode extends JSBinaryOperatorNode
 {
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * JSGetPropertyOperatorNode
 	 * 
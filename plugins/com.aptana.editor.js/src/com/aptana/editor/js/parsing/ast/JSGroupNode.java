@@ -11,6 +11,8 @@ import beaver.Symbol;
 
 public class JSGroupNode extends JSPreUnaryOperatorNode
 {
+	private static final long serialVersionUID = 1L;
+
 	private Symbol _leftParenthesis;
 	private Symbol _rightParenthesis;
 
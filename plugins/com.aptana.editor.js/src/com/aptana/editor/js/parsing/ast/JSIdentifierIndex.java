@@ -0,0 +1,224 @@
+/**
+ * Aptana Studio
+ * Copyright (c) 2005-2012 by Appcelerator, Inc. All Rights Reserved.
+ * Licensed under the terms of the GNU Public License (GPL) v3 (with exceptions).
+ * Please see the license.html included with this distribution for details.
+ * Any modifications to this file must keep this entire header intact.
+ */
+package com.aptana.editor.js.parsing.ast;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.aptana.parsing.ast.IParseNode;
+import com.aptana.parsing.util.OccurrenceIndex;
+
+/**
+ * The identifiers of a JS AST, by name. Built in a single walk over the tree, see
+ * {@link JSParseRootNode#getIdentifierIndex()}.
+ * <p>
+ * Variable references are grouped by the function declaring the variable, looking it up through the enclosing
+ * functions like the language does (parameters, vars, function declarations and catch parameters), or by the global
+ * scope if no function declares it. Property names and labels are each grouped by name only, since we can't tell which
+ * object or statement they refer to without type inference.
+ * </p>
+ */
+public class JSIdentifierIndex
+{
+	private static final Object PROPERTIES = new Object();
+	private static final Object LABELS = new Object();
+
+	private static class Scope
+	{
+		private final Scope parent;
+		private final Set<String> declarations = new HashSet<String>();
+
+		private Scope(Scope parent)
+		{
+			this.parent = parent;
+		}
+
+		/**
+		 * The innermost scope declaring the name, or null if it's a global
+		 */
+		private Scope resolve(String name)
+		{
+			for (Scope current = this; current != null; current = current.parent)
+			{
+				if (current.declarations.contains(name))
+				{
+					return current;
+				}
+			}
+			return null;
+		}
+	}
+
+	private static class Collector extends JSTreeWalker
+	{
+		private final List<JSIdentifierNode> identifiers = new ArrayList<JSIdentifierNode>();
+		private final List<Object> contexts = new ArrayList<Object>();
+		private Scope scope = new Scope(null);
+
+		private void accept(IParseNode node)
+		{
+			if (node instanceof JSNode)
+			{
+				((JSNode) node).accept(this);
+			}
+		}
+
+		private void add(IParseNode node, Object context)
+		{
+			if (node instanceof JSIdentifierNode)
+			{
+				identifiers.add((JSIdentifierNode) node);
+				contexts.add(context);
+			}
+			else
+			{
+				accept(node);
+			}
+		}
+
+		private void declare(IParseNode node)
+		{
+			if (node instanceof JSIdentifierNode)
+			{
+				scope.declarations.add(node.getText());
+			}
+		}
+
+		@Override
+		public void visit(JSCatchNode node)
+		{
+			declare(node.getIdentifier());
+			visitChildren(node);
+		}
+
+		@Override
+		public void visit(JSDeclarationNode node)
+		{
+			declare(node.getIdentifier());
+			visitChildren(node);
+		}
+
+		@Override
+		public void visit(JSFunctionNode node)
+		{
+			// the name is declared in the enclosing scope, the parameters in the function's own
+			IParseNode name = node.getName();
+			declare(name);
+			add(name, scope);
+
+			scope = new Scope(scope);
+			for (IParseNode parameter : node.getParameters())
+			{
+				declare(parameter);
+				add(parameter, scope);
+			}
+			accept(node.getBody());
+			scope = scope.parent;
+		}
+
+		@Override
+		public void visit(JSGetPropertyNode node)
+		{
+			accept(node.getLeftHandSide());
+			add(node.getRightHandSide(), PROPERTIES);
+		}
+
+		@Override
+		public void visit(JSIdentifierNode node)
+		{
+			add(node, scope);
+		}
+
+		@Override
+		public void visit(JSLabelledNode node)
+		{
+			add(node.getLabel(), LABELS);
+			accept(node.getBlock());
+		}
+
+		@Override
+		public void visit(JSNameValuePairNode node)
+		{
+			add(node.getName(), PROPERTIES);
+			accept(node.getValue());
+		}
+	}
+
+	private final Map<String, List<JSIdentifierNode>> fIdentifiers;
+	private final OccurrenceIndex fOccurrenceIndex;
+
+	/**
+	 * Index the identifiers of the tree
+	 *
+	 * @param root
+	 */
+	public JSIdentifierIndex(JSParseRootNode root)
+	{
+		Collector collector = new Collector();
+		if (root != null)
+		{
+			root.accept(collector);
+		}
+
+		// Resolve once the walk is done, so declarations count for the whole function they're in, like they do in JS
+		fIdentifiers = new HashMap<String, List<JSIdentifierNode>>();
+		OccurrenceIndex.Builder builder = new OccurrenceIndex.Builder();
+		int size = collector.identifiers.size();
+		for (int i = 0; i < size; i++)
+		{
+			JSIdentifierNode identifier = collector.identifiers.get(i);
+			String name = identifier.getText();
+			Object context = collector.contexts.get(i);
+			if (context instanceof Scope)
+			{
+				context = ((Scope) context).resolve(name);
+			}
+			builder.add(name, context, identifier.getStartingOffset(), identifier.getLength());
+
+			List<JSIdentifierNode> identifiers = fIdentifiers.get(name);
+			if (identifiers == null)
+			{
+				identifiers = new ArrayList<JSIdentifierNode>();
+				fIdentifiers.put(name, identifiers);
+			}
+			identifiers.add(identifier);
+		}
+		fOccurrenceIndex = builder.build();
+	}
+
+	/**
+	 * Returns all the identifiers with the given name, whatever they refer to, in the order they appear in the tree.
+	 *
+	 * @param name
+	 * @return
+	 */
+	public List<JSIdentifierNode> getIdentifiers(String name)
+	{
+		List<JSIdentifierNode> result = fIdentifiers.get(name);
+		if (result == null)
+		{
+			return Collections.emptyList();
+		}
+		return Collections.unmodifiableList(result);
+	}
+
+	/**
+	 * Returns the index of the identifiers' occurrences, grouped by what they refer to.
+	 *
+	 * @return
+	 */
+	public OccurrenceIndex getOccurrenceIndex()
+	{
+		return fOccurrenceIndex;
+	}
+}
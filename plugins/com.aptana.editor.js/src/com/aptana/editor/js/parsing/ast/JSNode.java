@@ -20,6 +20,8 @@ import com.aptana.parsing.ast.ParseRootNode;
 
 public class JSNode extends ParseNode
 {
+	private static final long serialVersionUID = 1L;
+
 	protected static final short DEFAULT_TYPE = IJSNodeTypes.EMPTY;
 	private static Map<Short, String> TYPE_NAME_MAP;
 
@@ -11,6 +11,8 @@ import beaver.Symbol;
 
 public class JSObjectNode extends JSNode
 {
+	private static final long serialVersionUID = 1L;
+
 	private Symbol _leftBrace;
 	private Symbol _rightBrace;
 
@@ -13,11 +13,16 @@ import com.aptana.editor.js.IJSConstants;
 import com.aptana.editor.js.inferencing.JSScope;
 import com.aptana.editor.js.inferencing.JSSymbolCollector;
 import com.aptana.parsing.ast.ParseRootNode;
+import com.aptana.parsing.util.OccurrenceIndex;
 
 public class JSParseRootNode extends ParseRootNode
 {
+	private static final long serialVersionUID = 1L;
+
 	private static final Symbol[] NO_SYMBOLS = new Symbol[0];
 
+	private transient JSIdentifierIndex identifierIndex;
+
 	/**
 	 * JSParseRootNode
 	 */
@@ -68,6 +73,31 @@ public class JSParseRootNode extends ParseRootNode
 		return s.getScope();
 	}
 
+	/**
+	 * Returns the identifiers of this tree by name, indexed the first time they're asked for.
+	 * 
+	 * @return
+	 */
+	public synchronized JSIdentifierIndex getIdentifierIndex()
+	{
+		if (identifierIndex == null)
+		{
+			identifierIndex = new JSIdentifierIndex(this);
+		}
+
+		return identifierIndex;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.aptana.parsing.ast.ParseRootNode#createOccurrenceIndex()
+	 */
+	@Override
+	protected OccurrenceIndex createOccurrenceIndex()
+	{
+		return getIdentifierIndex().getOccurrenceIndex();
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see com.aptana.parsing.ast.ParseNode#toString()
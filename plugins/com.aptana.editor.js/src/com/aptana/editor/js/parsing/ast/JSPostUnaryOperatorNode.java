@@ -14,6 +14,8 @@ import com.aptana.parsing.ast.IParseNode;
 
 public class JSPostUnaryOperatorNode extends JSNode
 {
+	private static final long serialVersionUID = 1L;
+
 	private Symbol _operator;
 
 	/**
@@ -12,6 +12,8 @@ import com.aptana.parsing.ast.ParseNodeAttribute;
 
 public abstract class JSPrimitiveNode extends JSNode
 {
+	private static final long serialVersionUID = 1L;
+
 	private String fText;
 
 	/**
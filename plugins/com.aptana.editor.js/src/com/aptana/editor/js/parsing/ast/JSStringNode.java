@@ -11,6 +11,8 @@ import beaver.Symbol;
 
 public class JSStringNode extends JSPrimitiveNode
 {
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * JSStringNode
 	 * 
@@ -9,6 +9,8 @@ package com.aptana.editor.js.sdoc.model;
 
 public class AdvancedTag extends Tag
 {
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * AdvancedTag
 	 * 
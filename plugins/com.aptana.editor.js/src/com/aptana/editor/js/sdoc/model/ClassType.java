@@ -12,6 +12,8 @@ import com.aptana.editor.js.JSTypeConstants;
 
 public class ClassType extends Type
 {
+	private static final long serialVersionUID = 1L;
+
 	private Type _type;
 
 	/**
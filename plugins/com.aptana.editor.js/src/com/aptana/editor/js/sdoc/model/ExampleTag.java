@@ -9,6 +9,8 @@ package com.aptana.editor.js.sdoc.model;
 
 public class ExampleTag extends Tag
 {
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * ExampleTag
 	 * 
@@ -16,6 +16,8 @@ import com.aptana.editor.js.JSTypeConstants;
 
 public class FunctionType extends Type
 {
+	private static final long serialVersionUID = 1L;
+
 	private List<Type> _parameterTypes;
 	private List<Type> _returnTypes;
 
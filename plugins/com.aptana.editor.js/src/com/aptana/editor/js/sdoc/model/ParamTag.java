@@ -14,6 +14,8 @@ import com.aptana.core.util.StringUtil;
 
 public class ParamTag extends TagWithTypes
 {
+	private static final long serialVersionUID = 1L;
+
 	private Parameter _parameter;
 
 	/**
@@ -14,6 +14,8 @@ import com.aptana.core.util.StringUtil;
 
 public class Tag extends Symbol
 {
+	private static final long serialVersionUID = 1L;
+
 	private TagType _type;
 	private String _text;
 
@@ -12,6 +12,8 @@ import com.aptana.core.util.StringUtil;
 
 public class TagWithName extends Tag
 {
+	private static final long serialVersionUID = 1L;
+
 	private String _name;
 
 	/**
@@ -14,6 +14,8 @@ import com.aptana.core.util.StringUtil;
 
 public class TagWithTypes extends Tag
 {
+	private static final long serialVersionUID = 1L;
+
 	private List<Type> _types;
 
 	/**
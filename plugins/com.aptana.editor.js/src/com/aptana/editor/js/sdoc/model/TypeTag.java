@@ -11,6 +11,8 @@ import java.util.List;
 
 public class TypeTag extends TagWithTypes
 {
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * TypeTag
 	 * 
@@ -31,6 +31,7 @@ import org.mozilla.javascript.Parser;
 import org.mozilla.javascript.Script;
 import org.mozilla.javascript.ScriptOrFnNode;
 import org.mozilla.javascript.Scriptable;
+import org.mozilla.javascript.ScriptableObject;
 import org.mozilla.javascript.optimizer.Codegen;
 
 import com.aptana.core.build.AbstractBuildParticipant;
@@ -60,8 +61,21 @@ public class JSLintValidator extends AbstractBuildParticipant
 	private static final String ORG_MOZILLA_RHINO = "org.mozilla.rhino"; //$NON-NLS-1$
 
 	private static final String JSLINT_FILENAME = "fulljslint.js"; //$NON-NLS-1$
+	private static final String JSLINT_FUNCTION_NAME = "JSLINT"; //$NON-NLS-1$
 	private static Script JS_LINT_SCRIPT;
 
+	/**
+	 * The standard objects, including the functions JSLint adds to their prototypes. Set up once and sealed, so every
+	 * thread's scope can share it.
+	 */
+	private static ScriptableObject SHARED_SCOPE;
+
+	/**
+	 * JSLINT keeps the state of a run in its closure, so each thread gets its own instance, living in a scope that
+	 * inherits from the shared one. It's reused for every file linted on that thread.
+	 */
+	private static final ThreadLocal<Scriptable> JS_LINT_SCOPE = new ThreadLocal<Scriptable>();
+
 	private Map<String, Object> options;
 
 	@SuppressWarnings("nls")
@@ -89,6 +103,13 @@ public class JSLintValidator extends AbstractBuildParticipant
 		}
 
 		List<IProblem> problems = Collections.emptyList();
+		if (isSkipped(context))
+		{
+			// Linting a minified bundle takes ages and yields nothing anyone would fix
+			context.putProblems(IJSConstants.JSLINT_PROBLEM_MARKER_TYPE, problems);
+			return;
+		}
+
 		String sourcePath = context.getURI().toString();
 		try
 		{
@@ -124,16 +145,13 @@ public class JSLintValidator extends AbstractBuildParticipant
 
 	private List<IProblem> parseWithLint(Context context, String source, String path)
 	{
-		Script script = getJSLintScript();
-		if (script == null)
+		Scriptable scope = getJSLintScope(context);
+		if (scope == null)
 		{
 			return Collections.emptyList();
 		}
 
-		Scriptable scope = context.initStandardObjects();
-		script.exec(context, scope);
-
-		Object functionObj = scope.get("JSLINT", scope); //$NON-NLS-1$
+		Object functionObj = scope.get(JSLINT_FUNCTION_NAME, scope);
 		if (!(functionObj instanceof Function))
 		{
 			return Collections.emptyList();
@@ -247,6 +265,60 @@ public class JSLintValidator extends AbstractBuildParticipant
 		return items;
 	}
 
+	/**
+	 * Returns the scope holding the current thread's JSLINT function, setting it up the first time.
+	 * 
+	 * @param context
+	 * @return
+	 */
+	private static Scriptable getJSLintScope(Context context)
+	{
+		Scriptable scope = JS_LINT_SCOPE.get();
+		if (scope != null)
+		{
+			return scope;
+		}
+
+		Script script = getJSLintScript();
+		ScriptableObject sharedScope = getSharedScope(context);
+		if (script == null || sharedScope == null)
+		{
+			return null;
+		}
+
+		scope = context.newObject(sharedScope);
+		scope.setPrototype(sharedScope);
+		scope.setParentScope(null);
+		script.exec(context, scope);
+		JS_LINT_SCOPE.set(scope);
+		return scope;
+	}
+
+	/**
+	 * Lazily set up the standard objects shared by the scopes of all threads. JSLint adds functions to some of the
+	 * standard prototypes when they're missing, so we run it once here to have those in place before sealing.
+	 * 
+	 * @param context
+	 * @return
+	 */
+	private static synchronized ScriptableObject getSharedScope(Context context)
+	{
+		if (SHARED_SCOPE == null)
+		{
+			Script script = getJSLintScript();
+			if (script == null)
+			{
+				return null;
+			}
+
+			ScriptableObject scope = context.initStandardObjects();
+			script.exec(context, scope);
+			scope.sealObject();
+			SHARED_SCOPE = scope;
+		}
+		return SHARED_SCOPE;
+	}
+
 	/**
 	 * Lazily grab the JSLint script.
 	 * 
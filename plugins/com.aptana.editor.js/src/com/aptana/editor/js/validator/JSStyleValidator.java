@@ -11,6 +11,7 @@ import java.math.BigDecimal;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -21,6 +22,7 @@ import java.util.Stack;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.jface.text.BadLocationException;
@@ -38,6 +40,7 @@ import com.aptana.core.util.CollectionsUtil;
 import com.aptana.core.util.StringUtil;
 import com.aptana.editor.js.IJSConstants;
 import com.aptana.editor.js.JSPlugin;
+import com.aptana.editor.js.internal.build.JSVisitorPipeline;
 import com.aptana.editor.js.parsing.ast.IJSNodeTypes;
 import com.aptana.editor.js.parsing.ast.JSArgumentsNode;
 import com.aptana.editor.js.parsing.ast.JSAssignmentNode;
@@ -74,7 +77,7 @@ import com.aptana.parsing.ast.IParseNode;
 import com.aptana.parsing.ast.IParseRootNode;
 import com.aptana.parsing.util.ParseUtil;
 
-public class JSStyleValidator extends AbstractBuildParticipant
+public class JSStyleValidator extends AbstractBuildParticipant implements JSVisitorPipeline.INodeHandlerProvider
 {
 
 	/**
@@ -415,6 +418,19 @@ public class JSStyleValidator extends AbstractBuildParticipant
 		}
 	}
 
+	@Override
+	public void buildStarting(IProject project, int kind, IProgressMonitor monitor)
+	{
+		// Walk each file along with the other JS participants instead of on our own
+		JSVisitorPipeline.getInstance().register(project, this);
+	}
+
+	@Override
+	public void buildEnding(IProgressMonitor monitor)
+	{
+		JSVisitorPipeline.getInstance().unregister(this);
+	}
+
 	public void buildFile(BuildContext context, IProgressMonitor monitor)
 	{
 		if (context == null)
@@ -422,6 +438,12 @@ public class JSStyleValidator extends AbstractBuildParticipant
 			return;
 		}
 
+		if (isSkipped(context))
+		{
+			context.putProblems(IJSConstants.JSSTYLE_PROBLEM_MARKER_TYPE, Collections.<IProblem> emptyList());
+			return;
+		}
+
 		IParseRootNode ast = null;
 		try
 		{
@@ -432,49 +454,26 @@ public class JSStyleValidator extends AbstractBuildParticipant
 			// ignores the parser exception
 		}
 
-		this.sourcePath = context.getURI().toString();
-		this.problems = new ArrayList<IProblem>(10);
+		Collection<IProblem> problems = new ArrayList<IProblem>(0);
 		try
 		{
 			if (ast != null)
 			{
-				// Wrap the source in an IDocument so we can easily look up line numbers/offsets.
-				this.doc = new Document(context.getContents());
-
-				// Set up the JSLint fields
-				this.predefineds = CollectionsUtil.newSet(DEFAULT_PREDEFINEDS);
-
-				ParseUtil.treeApply(ast, new ParseUtil.IASTVisitor()
+				StyleVisitor visitor = (StyleVisitor) JSVisitorPipeline.getInstance().visit(context, ast, this);
+				if (visitor != null)
 				{
-
-					public boolean exitNode(IParseNode node)
-					{
-						JSStyleValidator.this.exitNode(node);
-						return true;
-					}
-
-					public boolean enterNode(IParseNode node)
-					{
-						JSStyleValidator.this.enterNode(node);
-						return true;
-					}
-				});
+					problems = visitor.problems;
+				}
 			}
 		}
 		catch (Exception e)
 		{
-			IdeLog.logError(JSPlugin.getDefault(),
-					MessageFormat.format("Failed to parse {0} for JS Style Validation", sourcePath), e); //$NON-NLS-1$
+			IdeLog.logError(JSPlugin.getDefault(), MessageFormat.format(
+					"Failed to parse {0} for JS Style Validation", context.getURI()), e); //$NON-NLS-1$
 		}
 
 		// Wipe the intermediate fields
-		this.doc = null;
-		this.sourcePath = null;
-		this.scopeStack = null;
-		this.functionStack = null;
-		this.optionStack = null;
-		this.predefineds = null;
-		this.initialOptions.clear();
+		resetFields();
 
 		// Filter down the list of problems based on filter expressions.
 		final List<String> filters = getFilters();
@@ -485,11 +484,70 @@ public class JSStyleValidator extends AbstractBuildParticipant
 				return !isIgnored(item.getMessage(), filters);
 			}
 		});
-		// Wipe the problems collection since we're done with it.
-		this.problems = null;
 		context.putProblems(IJSConstants.JSSTYLE_PROBLEM_MARKER_TYPE, filtered);
 	}
 
+	public ParseUtil.IASTVisitor createNodeHandler(BuildContext context, IParseRootNode ast)
+	{
+		if (isSkipped(context))
+		{
+			// stay out of walks of minified files
+			return null;
+		}
+
+		// A walk may have been abandoned part way, so start from scratch
+		resetFields();
+
+		this.sourcePath = context.getURI().toString();
+		this.problems = new ArrayList<IProblem>(10);
+
+		// Wrap the source in an IDocument so we can easily look up line numbers/offsets.
+		this.doc = new Document(context.getContents());
+
+		// Set up the JSLint fields
+		this.predefineds = CollectionsUtil.newSet(DEFAULT_PREDEFINEDS);
+
+		return new StyleVisitor(this.problems);
+	}
+
+	private void resetFields()
+	{
+		this.doc = null;
+		this.sourcePath = null;
+		this.scopeStack = null;
+		this.functionStack = null;
+		this.optionStack = null;
+		this.predefineds = null;
+		this.initialOptions.clear();
+		this.problems = null;
+	}
+
+	/**
+	 * Feeds the nodes of a file to the validator, and holds on to the problems found in it. The validator keeps the
+	 * rest of the state for the file it's walking, so only one file may be walked at a time.
+	 */
+	private class StyleVisitor implements ParseUtil.IASTVisitor
+	{
+		private final Collection<IProblem> problems;
+
+		private StyleVisitor(Collection<IProblem> problems)
+		{
+			this.problems = problems;
+		}
+
+		public boolean exitNode(IParseNode node)
+		{
+			JSStyleValidator.this.exitNode(node);
+			return true;
+		}
+
+		public boolean enterNode(IParseNode node)
+		{
+			JSStyleValidator.this.enterNode(node);
+			return true;
+		}
+	}
+
 	public void deleteFile(BuildContext context, IProgressMonitor monitor)
 	{
 		if (context == null)
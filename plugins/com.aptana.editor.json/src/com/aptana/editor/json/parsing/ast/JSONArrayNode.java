@@ -12,6 +12,8 @@ package com.aptana.editor.json.parsing.ast;
  */
 public class JSONArrayNode extends JSONNode
 {
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * JSONArrayNode
 	 */
@@ -14,6 +14,8 @@ import beaver.Symbol;
  */
 public class JSONEntryNode extends JSONNode
 {
+	private static final long serialVersionUID = 1L;
+
 	private Symbol _colon;
 
 	/**
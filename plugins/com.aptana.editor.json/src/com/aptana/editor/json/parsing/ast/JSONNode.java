@@ -15,6 +15,8 @@ import com.aptana.parsing.ast.ParseNode;
  */
 public class JSONNode extends ParseNode
 {
+	private static final long serialVersionUID = 1L;
+
 	private JSONNodeType _type;
 
 	/**
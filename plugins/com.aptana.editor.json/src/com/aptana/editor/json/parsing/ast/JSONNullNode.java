@@ -12,6 +12,8 @@ package com.aptana.editor.json.parsing.ast;
  */
 public class JSONNullNode extends JSONNode
 {
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * JSONNullNode
 	 */
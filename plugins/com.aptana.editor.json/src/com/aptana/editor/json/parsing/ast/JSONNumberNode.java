@@ -12,6 +12,8 @@ package com.aptana.editor.json.parsing.ast;
  */
 public class JSONNumberNode extends JSONNode
 {
+	private static final long serialVersionUID = 1L;
+
 	private String _text;
 
 	/**
@@ -12,6 +12,7 @@ package com.aptana.editor.xml.parsing.ast;
  */
 public class XMLCommentNode extends XMLNode
 {
+	private static final long serialVersionUID = 1L;
 
 	private String fText;
 
@@ -22,6 +22,8 @@ import com.aptana.parsing.lexer.IRange;
 
 public class XMLElementNode extends XMLNode
 {
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * getTagName
 	 * 
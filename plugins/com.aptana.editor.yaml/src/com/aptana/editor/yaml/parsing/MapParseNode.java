@@ -13,6 +13,7 @@ import com.aptana.parsing.ast.ParseNode;
 
 public class MapParseNode extends ParseNode
 {
+	private static final long serialVersionUID = 1L;
 
 	private MappingNode node;
 
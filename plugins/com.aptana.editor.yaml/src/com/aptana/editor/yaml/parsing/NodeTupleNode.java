@@ -9,6 +9,7 @@ import com.aptana.parsing.ast.ParseNode;
 
 public class NodeTupleNode extends ParseNode
 {
+	private static final long serialVersionUID = 1L;
 
 	private NodeTuple tuple;
 
@@ -8,6 +8,7 @@ import com.aptana.parsing.ast.ParseNode;
 
 public class ScalarParseNode extends ParseNode
 {
+	private static final long serialVersionUID = 1L;
 
 	private ScalarNode node;
 
@@ -11,6 +11,7 @@ import com.aptana.parsing.ast.ParseNode;
 
 public class SequenceParseNode extends ParseNode
 {
+	private static final long serialVersionUID = 1L;
 
 	private SequenceNode node;
 
@@ -18,6 +18,7 @@ import com.aptana.parsing.ast.ParseRootNode;
 
 public class YAMLParseRootNode extends ParseRootNode
 {
+	private static final long serialVersionUID = 1L;
 
 	public YAMLParseRootNode(Node yamlRoot, IParseState parseState)
 	{
@@ -16,4 +16,9 @@ public interface IDebugScopes
 	 * Items related to the indexing process
 	 */
 	String INDEXER = IndexPlugin.PLUGIN_ID + "/debug/indexer"; //$NON-NLS-1$
+
+	/**
+	 * Items related to the persistent parse result cache
+	 */
+	String PARSE_CACHE = IndexPlugin.PLUGIN_ID + "/debug/parse_cache"; //$NON-NLS-1$
 }
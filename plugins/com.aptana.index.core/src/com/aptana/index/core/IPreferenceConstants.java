@@ -13,4 +13,15 @@ public interface IPreferenceConstants
 {
 	public static final String FILTERED_INDEX_URIS = "FILTERED_INDEX_URIS"; //$NON-NLS-1$
 	public static final String NO_ITEMS = StringUtil.EMPTY;
+
+	/**
+	 * Boolean preference controlling whether parse results of built files are persisted across sessions
+	 */
+	public static final String PARSE_CACHE_ENABLED = "PARSE_CACHE_ENABLED"; //$NON-NLS-1$
+
+	/**
+	 * The maximum size of the persistent parse cache, in megabytes
+	 */
+	public static final String PARSE_CACHE_MAX_SIZE = "PARSE_CACHE_MAX_SIZE"; //$NON-NLS-1$
+	public static final int DEFAULT_PARSE_CACHE_MAX_SIZE = 64;
 }
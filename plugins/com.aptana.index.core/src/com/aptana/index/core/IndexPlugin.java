@@ -7,12 +7,15 @@
  */
 package com.aptana.index.core;
 
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.Plugin;
 import org.eclipse.core.runtime.jobs.IJobManager;
 import org.eclipse.core.runtime.jobs.Job;
 import org.osgi.framework.BundleContext;
 
 import com.aptana.core.util.ArrayUtil;
+import com.aptana.internal.index.core.ParseResultCache;
 
 /**
  * The activator class controls the plug-in life cycle
@@ -24,6 +27,7 @@ public class IndexPlugin extends Plugin
 
 	private static IndexPlugin plugin;
 	private IndexManager fManager;
+	private ParseResultCache fParseResultCache;
 
 	/**
 	 * Returns the shared instance
@@ -72,6 +76,7 @@ public class IndexPlugin extends Plugin
 		}
 
 		fManager = null;
+		fParseResultCache = null;
 		plugin = null;
 		super.stop(context);
 	}
@@ -84,4 +89,28 @@ public class IndexPlugin extends Plugin
 		}
 		return fManager;
 	}
+
+	/**
+	 * Returns the persistent parse result cache, or null if caching of parse results has been disabled by the user
+	 * 
+	 * @return
+	 */
+	public synchronized ParseResultCache getParseResultCache()
+	{
+		boolean enabled = Platform.getPreferencesService().getBoolean(PLUGIN_ID,
+				IPreferenceConstants.PARSE_CACHE_ENABLED, false, null);
+		if (!enabled)
+		{
+			return null;
+		}
+
+		if (fParseResultCache == null)
+		{
+			IPath location = getStateLocation().append("parseCache"); //$NON-NLS-1$
+			int maxSize = Platform.getPreferencesService().getInt(PLUGIN_ID,
+					IPreferenceConstants.PARSE_CACHE_MAX_SIZE, IPreferenceConstants.DEFAULT_PARSE_CACHE_MAX_SIZE, null);
+			fParseResultCache = new ParseResultCache(location.toFile(), maxSize * 1024L * 1024L);
+		}
+		return fParseResultCache;
+	}
 }
@@ -13,7 +13,9 @@ import java.net.URI;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
@@ -32,8 +34,10 @@ import com.aptana.core.build.IProblem;
 import com.aptana.core.logging.IdeLog;
 import com.aptana.core.util.ArrayUtil;
 import com.aptana.core.util.IOUtil;
+import com.aptana.core.util.MinifiedFileUtil;
 import com.aptana.core.util.StringUtil;
 import com.aptana.index.core.IndexPlugin;
+import com.aptana.internal.index.core.ParseResultCache;
 import com.aptana.parsing.IParseState;
 import com.aptana.parsing.IParseStateCacheKey;
 import com.aptana.parsing.ParseResult;
@@ -52,8 +56,12 @@ public class BuildContext
 	protected Map<String, Collection<IProblem>> problems;
 	private IParseStateCacheKey fParseStateCacheKey;
 	private ParseResult fParseResult;
+	private long fParseTime;
 
 	private String fContents;
+	private Boolean fMinified;
+	private boolean fTopLevelOnly;
+	private Set<String> fSkippedParticipants;
 
 	protected BuildContext()
 	{
@@ -93,7 +101,53 @@ public class BuildContext
 
 	public IParseRootNode getAST() throws CoreException
 	{
-		return getAST(new ParseState(getContents())).getRootNode();
+		String contents = getContents();
+		ParseResultCache cache = getParseResultCache();
+		if (cache == null)
+		{
+			return getAST(new ParseState(contents)).getRootNode();
+		}
+
+		String contentType = getContentType();
+		synchronized (this)
+		{
+			if (fParseResult != null)
+			{
+				return getAST(new ParseState(contents)).getRootNode();
+			}
+		}
+
+		// Try to reuse the tree from a previous session before doing a full parse. The cache reads and writes files,
+		// so we don't hold our lock while it does.
+		ParseResult cached = cache.get(contentType, contents);
+		if (cached != null)
+		{
+			synchronized (this)
+			{
+				if (fParseResult == null)
+				{
+					fParseResult = cached;
+					fParseStateCacheKey = new ParseState(contents).getCacheKey(contentType);
+					return cached.getRootNode();
+				}
+			}
+			return getAST(new ParseState(contents)).getRootNode();
+		}
+
+		ParseResult result = getAST(new ParseState(contents));
+		cache.put(contentType, contents, result);
+		return result.getRootNode();
+	}
+
+	/**
+	 * Returns the persistent cache used to avoid reparsing unchanged files across builds. May be null.
+	 * 
+	 * @return
+	 */
+	protected ParseResultCache getParseResultCache()
+	{
+		IndexPlugin plugin = IndexPlugin.getDefault();
+		return (plugin == null) ? null : plugin.getParseResultCache();
 	}
 
 	/**
@@ -111,6 +165,7 @@ public class BuildContext
 				return fParseResult;
 			}
 			fParseStateCacheKey = newCacheKey;
+			long start = System.nanoTime();
 			// FIXME What if we fail to parse? Should we catch and log that exception here and return null?
 			try
 			{
@@ -127,6 +182,10 @@ public class BuildContext
 			{
 				throw new CoreException(new Status(IStatus.ERROR, IndexPlugin.PLUGIN_ID, e.getMessage(), e));
 			}
+			finally
+			{
+				fParseTime += System.nanoTime() - start;
+			}
 			if (fParseResult == null)
 			{
 				return ParseResult.EMPTY;
@@ -148,6 +207,15 @@ public class BuildContext
 		return ParserPoolFactory.parse(contentType, parseState);
 	}
 
+	/**
+	 * Returns the total time spent parsing this file so far, in nanoseconds. Parse results reused from a cache don't
+	 * count.
+	 */
+	public synchronized long getParseTime()
+	{
+		return fParseTime;
+	}
+
 	public synchronized void resetAST()
 	{
 		fParseResult = null;
@@ -170,6 +238,64 @@ public class BuildContext
 		return fContents;
 	}
 
+	/**
+	 * Determine if the file looks like a minified bundle or is too large to be handled in full. Participants use this
+	 * to skip or cut down expensive work on files nobody edits by hand.
+	 *
+	 * @return
+	 */
+	public synchronized boolean isMinified()
+	{
+		if (fMinified == null)
+		{
+			fMinified = MinifiedFileUtil.isMinified(getName(), getContents());
+		}
+		return fMinified;
+	}
+
+	/**
+	 * Determine if indexers should only record the file's top-level symbols, skipping the expensive inference of
+	 * nested ones. The index build participant sets this for minified files.
+	 *
+	 * @return
+	 */
+	public boolean isTopLevelOnly()
+	{
+		return fTopLevelOnly;
+	}
+
+	public void setTopLevelOnly(boolean topLevelOnly)
+	{
+		fTopLevelOnly = topLevelOnly;
+	}
+
+	/**
+	 * Record that the participant with the given id won't build this file, e.g. because the problems it reported for
+	 * the same contents were taken from a cache.
+	 *
+	 * @param participantId
+	 */
+	public synchronized void skipParticipant(String participantId)
+	{
+		if (fSkippedParticipants == null)
+		{
+			fSkippedParticipants = new HashSet<String>();
+		}
+		fSkippedParticipants.add(participantId);
+	}
+
+	/**
+	 * Determine if the participant with the given id won't build this file. Lets participants avoid preparing work for
+	 * one another that nobody will pick up.
+	 *
+	 * @param participantId
+	 * @return
+	 */
+	public synchronized boolean isParticipantSkipped(String participantId)
+	{
+		return fSkippedParticipants != null && fSkippedParticipants.contains(participantId);
+	}
+
 	public String getCharset() throws CoreException
 	{
 		IFile file = getFile();
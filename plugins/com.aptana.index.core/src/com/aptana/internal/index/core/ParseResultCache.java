@@ -0,0 +1,363 @@
+/**
+ * Aptana Studio
+ * Copyright (c) 2005-2012 by Appcelerator, Inc. All Rights Reserved.
+ * Licensed under the terms of the Eclipse Public License (EPL).
+ * Please see the license-epl.html included with this distribution for details.
+ * Any modifications to this file must keep this entire header intact.
+ */
+package com.aptana.internal.index.core;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.osgi.framework.Bundle;
+import org.osgi.framework.FrameworkUtil;
+
+import com.aptana.core.logging.IdeLog;
+import com.aptana.core.util.LRUFileCache;
+import com.aptana.core.util.StringUtil;
+import com.aptana.index.core.IDebugScopes;
+import com.aptana.index.core.IndexPlugin;
+import com.aptana.parsing.IParser;
+import com.aptana.parsing.IParserPool;
+import com.aptana.parsing.ParseResult;
+import com.aptana.parsing.ParserPoolFactory;
+import com.aptana.parsing.ast.IParseError;
+import com.aptana.parsing.ast.IParseRootNode;
+
+/**
+ * A persistent cache of parse results, stored as one serialized file per (content type, parser version, content hash)
+ * under the index plugin's state location. Entries are evicted in least-recently-used order once the total size of the
+ * cache directory exceeds the configured limit. Parse results whose AST cannot be serialized are simply not cached.
+ */
+public class ParseResultCache
+{
+	private static final String SIGNATURE = "PARSE CACHE VERSION 0.1"; //$NON-NLS-1$
+	private static final String EXTENSION = ".ast"; //$NON-NLS-1$
+
+	/**
+	 * The entry files, evicted in least recently used order
+	 */
+	private final LRUFileCache entries;
+
+	/**
+	 * Parser class loader and version by content type, used to resolve AST classes from the bundles that own them
+	 */
+	private final Map<String, ParserInfo> parserInfos;
+
+	static class ParserInfo
+	{
+		final ClassLoader loader;
+		final String version;
+
+		ParserInfo(ClassLoader loader, String version)
+		{
+			this.loader = loader;
+			this.version = version;
+		}
+	}
+
+	/**
+	 * Resolves classes using the class loader of the parser bundle first so AST node classes from contributing plugins
+	 * can be found.
+	 */
+	private static class ParserObjectInputStream extends ObjectInputStream
+	{
+		private final ClassLoader loader;
+
+		ParserObjectInputStream(InputStream in, ClassLoader loader) throws IOException
+		{
+			super(in);
+			this.loader = loader;
+		}
+
+		@Override
+		protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException
+		{
+			if (loader != null)
+			{
+				try
+				{
+					return Class.forName(desc.getName(), false, loader);
+				}
+				catch (ClassNotFoundException e)
+				{
+					// fall through to the default lookup
+				}
+			}
+			return super.resolveClass(desc);
+		}
+	}
+
+	/**
+	 * ParseResultCache
+	 *
+	 * @param directory
+	 *            The directory where cache entries are written
+	 * @param maxSize
+	 *            The maximum number of bytes the cache may occupy on disk
+	 */
+	public ParseResultCache(File directory, long maxSize)
+	{
+		this.entries = new LRUFileCache(directory, EXTENSION, maxSize);
+		this.parserInfos = new LinkedHashMap<String, ParserInfo>();
+	}
+
+	/**
+	 * Remove all entries from the cache
+	 */
+	public void clear()
+	{
+		entries.clear();
+	}
+
+	/**
+	 * Return the cached parse result for the specified content, or null if there is none
+	 *
+	 * @param contentType
+	 * @param source
+	 * @return
+	 */
+	public ParseResult get(String contentType, String source)
+	{
+		ParserInfo info = getParserInfo(contentType);
+		if (info == null || source == null)
+		{
+			return null;
+		}
+
+		String name = getEntryName(contentType, info, source);
+		if (!entries.touch(name))
+		{
+			return null;
+		}
+
+		File file = entries.getFile(name);
+		ObjectInputStream in = null;
+		try
+		{
+			in = new ParserObjectInputStream(new InflaterInputStream(new BufferedInputStream(new FileInputStream(
+					file))), info.loader);
+
+			if (!SIGNATURE.equals(in.readUTF()) || source.length() != in.readInt())
+			{
+				close(in);
+				in = null;
+				entries.remove(name);
+				return null;
+			}
+
+			IParseRootNode root = (IParseRootNode) in.readObject();
+			IParseError[] errors = (IParseError[]) in.readObject();
+
+			return new ParseResult(root, Arrays.asList(errors));
+		}
+		catch (Exception e)
+		{
+			// stale or corrupted entry, most likely from an AST class that has since changed shape
+			if (IdeLog.isTraceEnabled(IndexPlugin.getDefault(), IDebugScopes.PARSE_CACHE))
+			{
+				IdeLog.logTrace(IndexPlugin.getDefault(),
+						MessageFormat.format("Discarding unreadable parse cache entry {0}", file), e, //$NON-NLS-1$
+						IDebugScopes.PARSE_CACHE);
+			}
+			close(in);
+			in = null;
+			entries.remove(name);
+			return null;
+		}
+		finally
+		{
+			close(in);
+		}
+	}
+
+	/**
+	 * Store the parse result for the specified content. ASTs that cannot be serialized are ignored.
+	 *
+	 * @param contentType
+	 * @param source
+	 * @param result
+	 */
+	public void put(String contentType, String source, ParseResult result)
+	{
+		if (result == null || result.getRootNode() == null || source == null)
+		{
+			return;
+		}
+		ParserInfo info = getParserInfo(contentType);
+		if (info == null)
+		{
+			return;
+		}
+
+		String name = getEntryName(contentType, info, source);
+		File tmpFile = entries.getTempFile(name);
+		if (tmpFile == null)
+		{
+			return;
+		}
+		ObjectOutputStream out = null;
+		boolean written = false;
+		try
+		{
+			out = new ObjectOutputStream(new DeflaterOutputStream(new BufferedOutputStream(new FileOutputStream(
+					tmpFile)), new Deflater(Deflater.BEST_SPEED)));
+			out.writeUTF(SIGNATURE);
+			out.writeInt(source.length());
+			out.writeObject(result.getRootNode());
+
+			List<IParseError> errors = result.getErrors();
+			out.writeObject(errors.toArray(new IParseError[errors.size()]));
+			out.close();
+			out = null;
+			written = true;
+		}
+		catch (Exception e)
+		{
+			// Not all ASTs can be serialized. That's fine, we just don't cache them
+			if (IdeLog.isTraceEnabled(IndexPlugin.getDefault(), IDebugScopes.PARSE_CACHE))
+			{
+				IdeLog.logTrace(IndexPlugin.getDefault(),
+						MessageFormat.format("Unable to cache parse result for {0}", contentType), e, //$NON-NLS-1$
+						IDebugScopes.PARSE_CACHE);
+			}
+		}
+		finally
+		{
+			close(out);
+			if (!written)
+			{
+				tmpFile.delete(); // $codepro.audit.disable deleteFile
+			}
+		}
+
+		if (written)
+		{
+			entries.commit(name, tmpFile);
+		}
+	}
+
+	/**
+	 * Return the total number of bytes used by cache entries
+	 *
+	 * @return
+	 */
+	public long getSize()
+	{
+		return entries.getSize();
+	}
+
+	/**
+	 * getEntryName
+	 *
+	 * @param contentType
+	 * @param info
+	 * @param source
+	 * @return
+	 */
+	private String getEntryName(String contentType, ParserInfo info, String source)
+	{
+		return StringUtil.md5(contentType + ':' + info.version) + '-' + StringUtil.md5(source) + EXTENSION;
+	}
+
+	/**
+	 * Grab the class loader and bundle version of the parser for the specified content type. The version is part of
+	 * the entry key so parser updates don't pick up trees produced by an older grammar.
+	 *
+	 * @param contentType
+	 * @return
+	 */
+	private synchronized ParserInfo getParserInfo(String contentType)
+	{
+		if (contentType == null)
+		{
+			return null;
+		}
+
+		ParserInfo info = parserInfos.get(contentType);
+		if (info == null && !parserInfos.containsKey(contentType))
+		{
+			info = createParserInfo(contentType);
+			parserInfos.put(contentType, info);
+		}
+
+		return info;
+	}
+
+	/**
+	 * Look up the parser registered for the content type
+	 *
+	 * @param contentType
+	 * @return
+	 */
+	ParserInfo createParserInfo(String contentType)
+	{
+		IParserPool pool = ParserPoolFactory.getInstance().getParserPool(contentType);
+		if (pool == null)
+		{
+			return null;
+		}
+		IParser parser = pool.checkOut();
+		if (parser == null)
+		{
+			return null;
+		}
+		try
+		{
+			Class<?> parserClass = parser.getClass();
+			Bundle bundle = FrameworkUtil.getBundle(parserClass);
+			String version = parserClass.getName();
+			if (bundle != null)
+			{
+				version += '_' + bundle.getVersion().toString();
+			}
+			return new ParserInfo(parserClass.getClassLoader(), version);
+		}
+		finally
+		{
+			pool.checkIn(parser);
+		}
+	}
+
+	/**
+	 * close
+	 *
+	 * @param stream
+	 */
+	private static void close(Object stream)
+	{
+		try
+		{
+			if (stream instanceof InputStream)
+			{
+				((InputStream) stream).close();
+			}
+			else if (stream instanceof OutputStream)
+			{
+				((OutputStream) stream).close();
+			}
+		}
+		catch (IOException e)
+		{
+			// ignore
+		}
+	}
+}
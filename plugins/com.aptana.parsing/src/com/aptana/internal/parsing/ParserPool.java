@@ -7,26 +7,134 @@
  */
 package com.aptana.internal.parsing;
 
+import java.text.MessageFormat;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
 import org.eclipse.core.runtime.IConfigurationElement;
 
 import com.aptana.core.logging.IdeLog;
-import com.aptana.core.util.ReapingObjectPool;
+import com.aptana.parsing.IDebugScopes;
 import com.aptana.parsing.IParser;
 import com.aptana.parsing.IParserPool;
 import com.aptana.parsing.ParsingPlugin;
 
-public class ParserPool extends ReapingObjectPool<IParser> implements IParserPool
+/**
+ * A low-contention pool of parsers for a single content type. Idle parsers are kept in a fixed number of slots. Each
+ * thread has a "home" slot derived from its id, so a thread that parses repeatedly gets its own parser back without
+ * taking any lock. When the home slot is empty, the other slots are probed before a new parser is created. When all
+ * slots are taken on check in, the parser is simply dropped, so the number of idle parsers never exceeds the slot
+ * count. No reaper thread is needed: the pool is bounded by construction and idle parsers are cheap to keep around.
+ */
+public class ParserPool implements IParserPool
 {
+	/**
+	 * The minimum number of idle parsers we are willing to hold on to.
+	 */
+	private static final int MIN_SLOTS = 2;
 
 	private IConfigurationElement parserExtension;
+	private volatile AtomicReferenceArray<IParser> slots;
+
+	// instrumentation
+	private final AtomicLong created = new AtomicLong();
+	private final AtomicLong reused = new AtomicLong();
+	private final AtomicLong discarded = new AtomicLong();
 
+	/**
+	 * ParserPool
+	 *
+	 * @param parserExtension
+	 */
 	public ParserPool(IConfigurationElement parserExtension)
+	{
+		this(parserExtension, Math.max(MIN_SLOTS, Runtime.getRuntime().availableProcessors() * 2));
+	}
+
+	/**
+	 * ParserPool
+	 *
+	 * @param parserExtension
+	 * @param capacity
+	 *            The maximum number of idle parsers held by this pool
+	 */
+	public ParserPool(IConfigurationElement parserExtension, int capacity)
 	{
 		this.parserExtension = parserExtension;
-		start();
+		this.slots = new AtomicReferenceArray<IParser>(Math.max(1, capacity));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.aptana.core.util.IObjectPool#checkIn(java.lang.Object)
+	 */
+	public void checkIn(IParser parser)
+	{
+		if (parser == null)
+		{
+			return;
+		}
+
+		AtomicReferenceArray<IParser> slots = this.slots;
+
+		if (slots != null)
+		{
+			int length = slots.length();
+			int home = getHomeSlot(length);
+
+			for (int i = 0; i < length; i++)
+			{
+				if (slots.compareAndSet((home + i) % length, null, parser))
+				{
+					return;
+				}
+			}
+		}
+
+		// pool is full (or disposed), let this instance go
+		discarded.incrementAndGet();
+		expire(parser);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.aptana.core.util.IObjectPool#checkOut()
+	 */
+	public IParser checkOut()
+	{
+		AtomicReferenceArray<IParser> slots = this.slots;
+
+		if (slots != null)
+		{
+			int length = slots.length();
+			int home = getHomeSlot(length);
+
+			for (int i = 0; i < length; i++)
+			{
+				IParser parser = slots.getAndSet((home + i) % length, null);
+
+				if (parser != null)
+				{
+					reused.incrementAndGet();
+					return parser;
+				}
+			}
+		}
+
+		IParser parser = create();
+
+		if (parser != null)
+		{
+			created.incrementAndGet();
+		}
+
+		return parser;
 	}
 
-	@Override
+	/*
+	 * (non-Javadoc)
+	 * @see com.aptana.core.util.IObjectPool#create()
+	 */
 	public IParser create()
 	{
 		try
@@ -40,16 +148,106 @@ public class ParserPool extends ReapingObjectPool<IParser> implements IParserPoo
 		return null;
 	}
 
-	@Override
-	public boolean validate(IParser o)
+	/*
+	 * (non-Javadoc)
+	 * @see com.aptana.core.util.IObjectPool#dispose()
+	 */
+	public void dispose()
 	{
-		// Always keep one available parser
-		return unlockedItems() == 1;
+		AtomicReferenceArray<IParser> slots = this.slots;
+
+		this.slots = null;
+
+		if (slots != null)
+		{
+			for (int i = 0; i < slots.length(); i++)
+			{
+				IParser parser = slots.getAndSet(i, null);
+
+				if (parser != null)
+				{
+					expire(parser);
+				}
+			}
+		}
+
+		if (IdeLog.isTraceEnabled(ParsingPlugin.getDefault(), IDebugScopes.PARSER_POOL))
+		{
+			IdeLog.logTrace(ParsingPlugin.getDefault(), MessageFormat.format(
+					"Disposing parser pool for {0}: created={1}, reused={2}, discarded={3}", //$NON-NLS-1$
+					getContentType(), getCreatedCount(), getReusedCount(), getDiscardedCount()),
+					IDebugScopes.PARSER_POOL);
+		}
 	}
 
-	@Override
+	/*
+	 * (non-Javadoc)
+	 * @see com.aptana.core.util.IObjectPool#expire(java.lang.Object)
+	 */
 	public void expire(IParser o)
 	{
 		// no need to clean the parser up
 	}
+
+	/**
+	 * Return the number of parsers this pool had to instantiate
+	 *
+	 * @return
+	 */
+	public long getCreatedCount()
+	{
+		return created.get();
+	}
+
+	/**
+	 * Return the number of parsers that were dropped because all idle slots were taken
+	 *
+	 * @return
+	 */
+	public long getDiscardedCount()
+	{
+		return discarded.get();
+	}
+
+	/**
+	 * Return the number of check outs that were satisfied by an idle parser
+	 *
+	 * @return
+	 */
+	public long getReusedCount()
+	{
+		return reused.get();
+	}
+
+	/**
+	 * getContentType
+	 *
+	 * @return
+	 */
+	private String getContentType()
+	{
+		return (parserExtension != null) ? parserExtension.getAttribute("content-type") : null; //$NON-NLS-1$
+	}
+
+	/**
+	 * Map the current thread onto one of the idle slots
+	 *
+	 * @param length
+	 * @return
+	 */
+	private int getHomeSlot(int length)
+	{
+		long id = Thread.currentThread().getId();
+
+		return (int) ((id ^ (id >>> 32)) & Integer.MAX_VALUE) % length;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.aptana.core.util.IObjectPool#validate(java.lang.Object)
+	 */
+	public boolean validate(IParser o)
+	{
+		return o != null;
+	}
 }
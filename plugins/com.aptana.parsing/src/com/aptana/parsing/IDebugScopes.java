@@ -19,4 +19,9 @@ public interface IDebugScopes
 	 * Items related to the logging process
 	 */
 	String PARSING = ParsingPlugin.PLUGIN_ID + "/debug/parsing"; //$NON-NLS-1$
+
+	/**
+	 * Items related to parser pool creation and reuse
+	 */
+	String PARSER_POOL = ParsingPlugin.PLUGIN_ID + "/debug/parser_pool"; //$NON-NLS-1$
 }
@@ -160,7 +160,7 @@ public class InsertionRecoveryStrategy<T extends ITypePredicate> implements IRec
 			// create a new simulator to test our updated token stream
 			if (parser instanceof Parser)
 			{
-				Simulator sim = ((Parser) parser).new Simulator();
+				Simulator sim = ((Parser) parser).getSimulator();
 
 				// insert test tokens into stream
 				for (Symbol terminal : terminals)
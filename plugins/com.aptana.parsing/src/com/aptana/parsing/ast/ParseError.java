@@ -7,14 +7,18 @@
  */
 package com.aptana.parsing.ast;
 
+import java.io.Serializable;
+
 import beaver.Symbol;
 
 /**
  * @author cwilliams
  * @author ayeung
  */
-public class ParseError implements IParseError // $codepro.audit.disable consistentSuffixUsage
+public class ParseError implements IParseError, Serializable // $codepro.audit.disable consistentSuffixUsage
 {
+	private static final long serialVersionUID = 1L;
+
 	private Symbol fSymbol;
 	private String fMessage;
 	private final Severity fSeverity;
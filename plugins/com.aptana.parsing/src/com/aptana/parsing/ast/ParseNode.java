@@ -7,6 +7,7 @@
  */
 package com.aptana.parsing.ast;
 
+import java.io.Serializable;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Iterator;
@@ -23,8 +24,12 @@ import com.aptana.parsing.lexer.Range;
 
 public class ParseNode extends Node implements IParseNode
 {
-	protected static final class NameNode implements INameNode
+	private static final long serialVersionUID = 1L;
+
+	protected static final class NameNode implements INameNode, Serializable
 	{
+		private static final long serialVersionUID = 1L;
+
 		private final String fName;
 		private final IRange fRange;
 
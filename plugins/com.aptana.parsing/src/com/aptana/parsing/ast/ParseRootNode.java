@@ -12,9 +12,16 @@ import java.util.List;
 
 import beaver.Symbol;
 
+import com.aptana.parsing.util.OccurrenceIndex;
+
 public class ParseRootNode extends ParseNode implements IParseRootNode
 {
+	private static final long serialVersionUID = 1L;
+
 	private IParseNode[] fComments;
+	// derived from the tree on demand, so not worth keeping in cached trees
+	private transient OccurrenceIndex fOccurrenceIndex;
+	private transient boolean fOccurrenceIndexCreated;
 
 	public ParseRootNode(String language, Symbol[] children, int start, int end)
 	{
@@ -44,4 +51,31 @@ public class ParseRootNode extends ParseNode implements IParseRootNode
 	{
 		fComments = comments;
 	}
+
+	/**
+	 * Returns the index of the identifiers in this tree, created the first time it's asked for, or null if the
+	 * language doesn't provide one.
+	 * 
+	 * @return
+	 */
+	public synchronized OccurrenceIndex getOccurrenceIndex()
+	{
+		if (!fOccurrenceIndexCreated)
+		{
+			fOccurrenceIndex = createOccurrenceIndex();
+			fOccurrenceIndexCreated = true;
+		}
+		return fOccurrenceIndex;
+	}
+
+	/**
+	 * Index the identifiers of this tree. Languages which can tell which identifiers refer to the same thing override
+	 * this; by default there's no index.
+	 * 
+	 * @return
+	 */
+	protected OccurrenceIndex createOccurrenceIndex()
+	{
+		return null;
+	}
 }
@@ -17,6 +17,8 @@ import com.aptana.core.util.StringUtil;
  */
 public class TextNode extends ParseNode
 {
+	private static final long serialVersionUID = 1L;
+
 	private String text;
 
 	public TextNode(String text)
@@ -0,0 +1,255 @@
+/**
+ * Aptana Studio
+ * Copyright (c) 2005-2012 by Appcelerator, Inc. All Rights Reserved.
+ * Licensed under the terms of the GNU Public License (GPL) v3 (with exceptions).
+ * Please see the license.html included with this distribution for details.
+ * Any modifications to this file must keep this entire header intact.
+ */
+package com.aptana.parsing.util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.aptana.core.util.ObjectUtil;
+import com.aptana.parsing.lexer.IRange;
+import com.aptana.parsing.lexer.Range;
+
+/**
+ * Maps the identifiers of a source to where they occur. Occurrences of the same name in the same scope form a group, so
+ * finding the occurrences of the identifier at an offset is a binary search for the identifier followed by a copy of
+ * its group, instead of a walk over the AST or a scan of the whole source.
+ * <p>
+ * An index is built once per AST or source revision, with a {@link Builder}, and is immutable afterwards so it can be
+ * queried from any thread.
+ * </p>
+ */
+public class OccurrenceIndex
+{
+	private static final IRange[] NO_OCCURRENCES = new IRange[0];
+
+	/**
+	 * Collects the occurrences to index
+	 */
+	public static class Builder
+	{
+		private final Map<GroupKey, Integer> fGroups = new HashMap<GroupKey, Integer>();
+		private int[] fOffsets = new int[64];
+		private int[] fLengths = new int[64];
+		private int[] fGroupIds = new int[64];
+		private int fSize;
+
+		/**
+		 * Add an occurrence of a name. Occurrences get grouped with the other ones having an equal name and scope; a
+		 * null scope stands for the global one. Occurrences must not overlap.
+		 *
+		 * @param name
+		 * @param scope
+		 * @param offset
+		 * @param length
+		 */
+		public void add(String name, Object scope, int offset, int length)
+		{
+			if (name == null || name.length() == 0 || offset < 0 || length <= 0)
+			{
+				return;
+			}
+			GroupKey key = new GroupKey(name, scope);
+			Integer group = fGroups.get(key);
+			if (group == null)
+			{
+				group = fGroups.size();
+				fGroups.put(key, group);
+			}
+			if (fSize == fOffsets.length)
+			{
+				fOffsets = grow(fOffsets);
+				fLengths = grow(fLengths);
+				fGroupIds = grow(fGroupIds);
+			}
+			fOffsets[fSize] = offset;
+			fLengths[fSize] = length;
+			fGroupIds[fSize] = group;
+			fSize++;
+		}
+
+		public OccurrenceIndex build()
+		{
+			// sort by offset, carrying the original position along in the low bits
+			long[] order = new long[fSize];
+			for (int i = 0; i < fSize; i++)
+			{
+				order[i] = ((long) fOffsets[i] << 32) | i;
+			}
+			Arrays.sort(order);
+
+			int[] offsets = new int[fSize];
+			int[] lengths = new int[fSize];
+			int[] groupIds = new int[fSize];
+			int[] groupSizes = new int[fGroups.size()];
+			for (int i = 0; i < fSize; i++)
+			{
+				int from = (int) order[i];
+				offsets[i] = fOffsets[from];
+				lengths[i] = fLengths[from];
+				groupIds[i] = fGroupIds[from];
+				groupSizes[groupIds[i]]++;
+			}
+
+			// the members of each group, in offset order
+			int[][] groups = new int[groupSizes.length][];
+			for (int i = 0; i < groups.length; i++)
+			{
+				groups[i] = new int[groupSizes[i]];
+				groupSizes[i] = 0;
+			}
+			for (int i = 0; i < fSize; i++)
+			{
+				int group = groupIds[i];
+				groups[group][groupSizes[group]++] = i;
+			}
+			return new OccurrenceIndex(offsets, lengths, groupIds, groups);
+		}
+
+		private static int[] grow(int[] array)
+		{
+			int[] result = new int[array.length * 2];
+			System.arraycopy(array, 0, result, 0, array.length);
+			return result;
+		}
+	}
+
+	private static class GroupKey
+	{
+		private final String name;
+		private final Object scope;
+
+		private GroupKey(String name, Object scope)
+		{
+			this.name = name;
+			this.scope = scope;
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (!(obj instanceof GroupKey))
+			{
+				return false;
+			}
+			GroupKey other = (GroupKey) obj;
+			return name.equals(other.name) && ObjectUtil.areEqual(scope, other.scope);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return 31 * name.hashCode() + ((scope == null) ? 0 : scope.hashCode());
+		}
+	}
+
+	private final int[] fOffsets;
+	private final int[] fLengths;
+	private final int[] fGroupIds;
+	private final int[][] fGroups;
+
+	private OccurrenceIndex(int[] offsets, int[] lengths, int[] groupIds, int[][] groups)
+	{
+		fOffsets = offsets;
+		fLengths = lengths;
+		fGroupIds = groupIds;
+		fGroups = groups;
+	}
+
+	/**
+	 * Index the words of the source, a word being a run of Unicode identifier characters. All the words are in the
+	 * global scope, so this finds the same occurrences a whole word text search would.
+	 *
+	 * @param source
+	 * @return
+	 */
+	public static OccurrenceIndex createWordIndex(String source)
+	{
+		Builder builder = new Builder();
+		if (source != null)
+		{
+			int length = source.length();
+			int start = -1;
+			for (int i = 0; i <= length; i++)
+			{
+				boolean inWord = i < length && Character.isUnicodeIdentifierPart(source.charAt(i));
+				if (inWord && start == -1)
+				{
+					start = i;
+				}
+				else if (!inWord && start != -1)
+				{
+					builder.add(source.substring(start, i), null, start, i - start);
+					start = -1;
+				}
+			}
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Returns the occurrences of the identifier which covers the given range, including that one, in offset order. The
+	 * result is empty when no indexed identifier covers the range.
+	 *
+	 * @param offset
+	 * @param length
+	 * @return
+	 */
+	public IRange[] getOccurrences(int offset, int length)
+	{
+		int index = findOccurrence(offset);
+		if (index == -1 || offset + length > fOffsets[index] + fLengths[index])
+		{
+			return NO_OCCURRENCES;
+		}
+		int[] group = fGroups[fGroupIds[index]];
+		IRange[] result = new IRange[group.length];
+		for (int i = 0; i < group.length; i++)
+		{
+			int member = group[i];
+			result[i] = new Range(fOffsets[member], fOffsets[member] + fLengths[member] - 1);
+		}
+		return result;
+	}
+
+	/**
+	 * The number of occurrences indexed
+	 *
+	 * @return
+	 */
+	public int size()
+	{
+		return fOffsets.length;
+	}
+
+	/**
+	 * The index of the last occurrence starting at or before the offset, if the offset lies within it or at its end
+	 */
+	private int findOccurrence(int offset)
+	{
+		int low = 0;
+		int high = fOffsets.length - 1;
+		while (low <= high)
+		{
+			int mid = (low + high) >>> 1;
+			if (fOffsets[mid] <= offset)
+			{
+				low = mid + 1;
+			}
+			else
+			{
+				high = mid - 1;
+			}
+		}
+		if (high < 0 || offset > fOffsets[high] + fLengths[high])
+		{
+			return -1;
+		}
+		return high;
+	}
+}
@@ -9,6 +9,8 @@ package com.aptana.scope;
 
 public class NegativeLookaheadSelector extends BinarySelector
 {
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * NegativeLookaheadSelector
 	 * 
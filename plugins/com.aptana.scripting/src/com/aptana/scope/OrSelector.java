@@ -9,6 +9,8 @@ package com.aptana.scope;
 
 public class OrSelector extends BinarySelector
 {
+	private static final long serialVersionUID = 1L;
+
 	private String operator;
 
 	/**
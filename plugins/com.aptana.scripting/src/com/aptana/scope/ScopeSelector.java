@@ -25,6 +25,8 @@ import com.aptana.scripting.model.AbstractBundleElement;
 
 public class ScopeSelector extends Symbol implements IScopeSelector
 {
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * http://manual.macromates.com/en/scope_selectors
 	 * <ol>
@@ -0,0 +1,281 @@
+/**
+ * Aptana Studio
+ * Copyright (c) 2005-2012 by Appcelerator, Inc. All Rights Reserved.
+ * Licensed under the terms of the GNU Public License (GPL) v3 (with exceptions).
+ * Please see the license.html included with this distribution for details.
+ * Any modifications to this file must keep this entire header intact.
+ */
+package com.aptana.scope;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Finds the best match for a scope among a fixed set of selectors, like {@link ScopeSelector#bestMatch} does, without
+ * trying every selector against every scope.
+ * <p>
+ * The selectors are compiled once into an index from the names they contain to the selectors using them. A selector
+ * can only match a scope if one of its names matches one of the scope's segments, so a lookup splits the scope into
+ * segments, looks up each dotted prefix of each segment ("string", "string.quoted", "string.quoted.double") in the
+ * index, and only runs the few selectors found that way. Results are cached per scope string, so the repeated lookups
+ * done while typing don't match anything at all.
+ * </p>
+ * <p>
+ * Matching a selector stores its match results in it, so lookups through the same matcher are serialized.
+ * </p>
+ */
+public class ScopeSelectorMatcher
+{
+	/**
+	 * The best match for a scope: the winning selector, and the length matched in each segment of the scope which
+	 * ranks it against the other selectors (see {@link IScopeSelector#getMatchResults()}).
+	 */
+	public static class Match
+	{
+		private final IScopeSelector selector;
+		private final List<Integer> matchResults;
+
+		private Match(IScopeSelector selector, List<Integer> matchResults)
+		{
+			this.selector = selector;
+			this.matchResults = matchResults;
+		}
+
+		public IScopeSelector getSelector()
+		{
+			return selector;
+		}
+
+		public List<Integer> getMatchResults()
+		{
+			return matchResults;
+		}
+	}
+
+	/**
+	 * The number of scopes whose result we keep before starting over
+	 */
+	private static final int MAX_CACHED_SCOPES = 2048;
+
+	private static final Match NO_MATCH = new Match(null, Collections.<Integer> emptyList());
+
+	private final IScopeSelector[] fSelectors;
+
+	/**
+	 * Maps a name to the indexes of the selectors containing it
+	 */
+	private final Map<String, int[]> fSelectorsByName;
+
+	/**
+	 * Indexes of the selectors we can't index by name, and have to try on every scope
+	 */
+	private final int[] fUnindexed;
+
+	private final Map<String, Match> fCache;
+
+	/**
+	 * Compile the selectors. As with {@link ScopeSelector#bestMatch}, the later of two equally good selectors wins.
+	 *
+	 * @param selectors
+	 */
+	public ScopeSelectorMatcher(Collection<? extends IScopeSelector> selectors)
+	{
+		fSelectors = (selectors == null) ? new IScopeSelector[0] : selectors.toArray(new IScopeSelector[selectors
+				.size()]);
+		fCache = new ConcurrentHashMap<String, Match>();
+
+		Map<String, List<Integer>> byName = new HashMap<String, List<Integer>>();
+		List<Integer> unindexed = new ArrayList<Integer>();
+		for (int i = 0; i < fSelectors.length; i++)
+		{
+			IScopeSelector selector = fSelectors[i];
+			if (selector == null)
+			{
+				continue;
+			}
+			List<String> names = new ArrayList<String>();
+			if (!(selector instanceof ScopeSelector) || !collectNames(((ScopeSelector) selector).getRoot(), names))
+			{
+				unindexed.add(i);
+				continue;
+			}
+			for (String name : names)
+			{
+				List<Integer> indexes = byName.get(name);
+				if (indexes == null)
+				{
+					indexes = new ArrayList<Integer>();
+					byName.put(name, indexes);
+				}
+				if (indexes.isEmpty() || indexes.get(indexes.size() - 1) != i)
+				{
+					indexes.add(i);
+				}
+			}
+		}
+
+		fSelectorsByName = new HashMap<String, int[]>(byName.size());
+		for (Map.Entry<String, List<Integer>> entry : byName.entrySet())
+		{
+			fSelectorsByName.put(entry.getKey(), toArray(entry.getValue()));
+		}
+		fUnindexed = toArray(unindexed);
+	}
+
+	/**
+	 * Collect the names the selector node may match a segment with. Returns false if the node is of a kind we don't
+	 * know, in which case it has to be tried on every scope.
+	 */
+	private static boolean collectNames(ISelectorNode node, List<String> names)
+	{
+		if (node == null)
+		{
+			return true;
+		}
+		if (node instanceof NameSelector)
+		{
+			String name = node.toString();
+			if (name != null && name.length() > 0)
+			{
+				names.add(name);
+			}
+			return true;
+		}
+		if (node instanceof GroupSelector)
+		{
+			return collectNames(((GroupSelector) node).getChild(), names);
+		}
+		if (node instanceof BinarySelector)
+		{
+			BinarySelector binary = (BinarySelector) node;
+			return collectNames(binary.getLeftChild(), names) && collectNames(binary.getRightChild(), names);
+		}
+		return node.getClass() == SelectorNode.class;
+	}
+
+	private static int[] toArray(List<Integer> list)
+	{
+		int[] result = new int[list.size()];
+		for (int i = 0; i < result.length; i++)
+		{
+			result[i] = list.get(i);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the selector matching the scope best, or null if none matches it.
+	 *
+	 * @param scope
+	 * @return
+	 */
+	public IScopeSelector bestMatch(String scope)
+	{
+		return match(scope).getSelector();
+	}
+
+	/**
+	 * Returns the best match for the scope. If no selector matches it, the match holds a null selector.
+	 *
+	 * @param scope
+	 * @return
+	 */
+	public Match match(String scope)
+	{
+		if (scope == null)
+		{
+			return NO_MATCH;
+		}
+		Match result = fCache.get(scope);
+		if (result == null)
+		{
+			result = computeMatch(scope);
+			if (fCache.size() >= MAX_CACHED_SCOPES)
+			{
+				fCache.clear();
+			}
+			fCache.put(scope, result);
+		}
+		return result;
+	}
+
+	private synchronized Match computeMatch(String scope)
+	{
+		BitSet candidates = getCandidates(scope);
+		int[] indexes = new int[candidates.cardinality()];
+		int count = 0;
+		for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1))
+		{
+			indexes[count++] = i;
+		}
+
+		// Same walk as ScopeSelector#bestMatch, restricted to the selectors that may match
+		IScopeSelector bestMatch = null;
+		for (int i = count - 1; i >= 0; i--)
+		{
+			IScopeSelector selector = fSelectors[indexes[i]];
+			if (selector.matches(scope) && (bestMatch == null || selector.compareTo(bestMatch) > 0))
+			{
+				bestMatch = selector;
+			}
+		}
+		if (bestMatch == null)
+		{
+			return NO_MATCH;
+		}
+		return new Match(bestMatch, Collections.unmodifiableList(new ArrayList<Integer>(bestMatch.getMatchResults())));
+	}
+
+	/**
+	 * The indexes of the selectors having a name which matches one of the scope's segments
+	 */
+	private BitSet getCandidates(String scope)
+	{
+		BitSet candidates = new BitSet(fSelectors.length);
+		for (int index : fUnindexed)
+		{
+			candidates.set(index);
+		}
+
+		int length = scope.length();
+		int segmentStart = 0;
+		for (int i = 0; i <= length; i++)
+		{
+			char c = (i < length) ? scope.charAt(i) : ' ';
+			if (c == '.' || isSpace(c))
+			{
+				if (i > segmentStart)
+				{
+					// A name matches a segment if it's the segment up to a period, or the whole segment
+					int[] indexes = fSelectorsByName.get(scope.substring(segmentStart, i));
+					if (indexes != null)
+					{
+						for (int index : indexes)
+						{
+							candidates.set(index);
+						}
+					}
+				}
+				if (c != '.')
+				{
+					segmentStart = i + 1;
+				}
+			}
+		}
+		return candidates;
+	}
+
+	/**
+	 * The characters {@link MatchContext} splits a scope into segments at
+	 */
+	private static boolean isSpace(char c)
+	{
+		return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+	}
+}
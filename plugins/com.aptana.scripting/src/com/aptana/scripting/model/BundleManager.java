@@ -17,6 +17,7 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -46,7 +47,7 @@ import com.aptana.core.util.IConfigurationElementProcessor;
 import com.aptana.core.util.ResourceUtil;
 import com.aptana.core.util.StringUtil;
 import com.aptana.scope.IScopeSelector;
-import com.aptana.scope.ScopeSelector;
+import com.aptana.scope.ScopeSelectorMatcher;
 import com.aptana.scripting.IDebugScopes;
 import com.aptana.scripting.IScriptingSystemProperties;
 import com.aptana.scripting.ScriptLogger;
@@ -217,6 +218,49 @@ public class BundleManager
 		}
 	}
 
+	/**
+	 * What the bundles map a kind of element (indentation and folding markers, smart typing pairs) to per scope
+	 * selector, compiled for lookup. It is kept as long as the bundles provide the same elements, so repeated lookups
+	 * for the same scope are answered from the matcher's cache.
+	 */
+	private static class MarkerMatcher<T>
+	{
+		private final Map<IScopeSelector, T> fMarkers;
+		private final ScopeSelectorMatcher fMatcher;
+
+		MarkerMatcher(Map<IScopeSelector, T> markers)
+		{
+			fMarkers = markers;
+			fMatcher = new ScopeSelectorMatcher(markers.keySet());
+		}
+
+		boolean hasMarkers(Map<IScopeSelector, T> markers)
+		{
+			if (fMarkers.size() != markers.size())
+			{
+				return false;
+			}
+			for (Map.Entry<IScopeSelector, T> entry : markers.entrySet())
+			{
+				if (fMarkers.get(entry.getKey()) != entry.getValue())
+				{
+					return false;
+				}
+			}
+			return true;
+		}
+
+		T getMarker(String scope)
+		{
+			IScopeSelector bestMatch = fMatcher.bestMatch(scope);
+			if (bestMatch == null)
+			{
+				return null;
+			}
+			return fMarkers.get(bestMatch);
+		}
+	}
+
 	// split patterns
 	private static final Pattern DOT_PATTERN = Pattern.compile("\\."); //$NON-NLS-1$
 	private static final Pattern STAR_PATTERN = Pattern.compile("\\*"); //$NON-NLS-1$
@@ -497,6 +541,15 @@ public class BundleManager
 	 */
 	private int fBundlesToLoadInParallel = -1;
 
+	/**
+	 * The indentation and folding markers and the smart typing pairs of the bundles, compiled for lookup by scope
+	 */
+	private volatile MarkerMatcher<RubyRegexp> fDecreaseIndentMatcher;
+	private volatile MarkerMatcher<RubyRegexp> fIncreaseIndentMatcher;
+	private volatile MarkerMatcher<RubyRegexp> fFoldingStartMatcher;
+	private volatile MarkerMatcher<RubyRegexp> fFoldingStopMatcher;
+	private volatile MarkerMatcher<SmartTypingPairsElement> fPairsMatcher;
+
 	/**
 	 * Create a new instance of BundleManager and initialize its internal structure. Note that this constructor is
 	 * private so it can only be instantiated within a static method in this class
@@ -1423,6 +1476,22 @@ public class BundleManager
 		return result;
 	}
 
+	/**
+	 * Returns the matcher for the markers, reusing the current one if it was compiled from the same markers
+	 * 
+	 * @param current
+	 * @param markers
+	 * @return
+	 */
+	private static <T> MarkerMatcher<T> getMarkerMatcher(MarkerMatcher<T> current, Map<IScopeSelector, T> markers)
+	{
+		if (current != null && current.hasMarkers(markers))
+		{
+			return current;
+		}
+		return new MarkerMatcher<T>(markers);
+	}
+
 	/**
 	 * getDecreaseIndentRegexp
 	 * 
@@ -1441,12 +1510,9 @@ public class BundleManager
 		{
 			return null;
 		}
-		IScopeSelector bestMatch = ScopeSelector.bestMatch(map.keySet(), scope);
-		if (bestMatch == null)
-		{
-			return null;
-		}
-		return map.get(bestMatch);
+		MarkerMatcher<RubyRegexp> matcher = getMarkerMatcher(fDecreaseIndentMatcher, map);
+		fDecreaseIndentMatcher = matcher;
+		return matcher.getMarker(scope);
 	}
 
 	/**
@@ -1524,12 +1590,9 @@ public class BundleManager
 		{
 			return null;
 		}
-		IScopeSelector bestMatch = ScopeSelector.bestMatch(map.keySet(), scope);
-		if (bestMatch == null)
-		{
-			return null;
-		}
-		return map.get(bestMatch);
+		MarkerMatcher<RubyRegexp> matcher = getMarkerMatcher(fFoldingStartMatcher, map);
+		fFoldingStartMatcher = matcher;
+		return matcher.getMarker(scope);
 	}
 
 	/**
@@ -1550,12 +1613,9 @@ public class BundleManager
 		{
 			return null;
 		}
-		IScopeSelector bestMatch = ScopeSelector.bestMatch(map.keySet(), scope);
-		if (bestMatch == null)
-		{
-			return null;
-		}
-		return map.get(bestMatch);
+		MarkerMatcher<RubyRegexp> matcher = getMarkerMatcher(fFoldingStopMatcher, map);
+		fFoldingStopMatcher = matcher;
+		return matcher.getMarker(scope);
 	}
 
 	/**
@@ -1576,12 +1636,9 @@ public class BundleManager
 		{
 			return null;
 		}
-		IScopeSelector bestMatch = ScopeSelector.bestMatch(map.keySet(), scope);
-		if (bestMatch == null)
-		{
-			return null;
-		}
-		return map.get(bestMatch);
+		MarkerMatcher<RubyRegexp> matcher = getMarkerMatcher(fIncreaseIndentMatcher, map);
+		fIncreaseIndentMatcher = matcher;
+		return matcher.getMarker(scope);
 	}
 
 	/**
@@ -1643,6 +1700,35 @@ public class BundleManager
 		return result;
 	}
 
+	/**
+	 * Return the active smart typing pairs element whose scope selector matches the specified scope best, or null if
+	 * none matches it. Note that bundle precedence is taken into account, so only visible elements are considered
+	 * 
+	 * @param scope
+	 * @return
+	 */
+	public SmartTypingPairsElement getPairsForScope(String scope)
+	{
+		// keep the bundle order, so the later of two equally good selectors still wins
+		Map<IScopeSelector, SmartTypingPairsElement> map;
+		map = new LinkedHashMap<IScopeSelector, SmartTypingPairsElement>();
+		for (SmartTypingPairsElement pairs : getPairs(null))
+		{
+			IScopeSelector selector = pairs.getScopeSelector();
+			if (selector != null)
+			{
+				map.put(selector, pairs);
+			}
+		}
+		if (map.isEmpty())
+		{
+			return null;
+		}
+		MarkerMatcher<SmartTypingPairsElement> matcher = getMarkerMatcher(fPairsMatcher, map);
+		fPairsMatcher = matcher;
+		return matcher.getMarker(scope);
+	}
+
 	/**
 	 * Return a list of all active project template elements. Note that bundle precedence is taken into account, so only
 	 * visible elements are returned in this list
@@ -18,10 +18,8 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.InvalidPropertiesFormatException;
 import java.util.List;
-import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 
@@ -40,7 +38,9 @@ import com.aptana.core.util.IOUtil;
 import com.aptana.core.util.StringUtil;
 import com.aptana.scope.IScopeSelector;
 import com.aptana.scope.ScopeSelector;
+import com.aptana.scope.ScopeSelectorMatcher;
 import com.aptana.theme.internal.OrderedProperties;
+import com.aptana.theme.internal.TextAttributeCache;
 import com.aptana.theme.internal.ThemeManager;
 
 /**
@@ -91,13 +91,25 @@ public class Theme
 	/**
 	 * A cache to memoize the ultimate TextAttribute generated for a given fully qualified scope.
 	 */
-	private Map<String, TextAttribute> cache;
+	private final TextAttributeCache cache;
+
+	/**
+	 * Scope selectors keep state while matching, and so does the recursion in getDelayedTextAttribute. Matching against
+	 * our rules and changing them is serialized on this lock, reading the cache isn't.
+	 */
+	private final Object matchLock = new Object();
+
+	/**
+	 * The selectors of our rules compiled for lookup, built lazily under the match lock and dropped whenever the rules
+	 * change.
+	 */
+	private ScopeSelectorMatcher ruleMatcher;
 
 	public Theme(ColorManager colormanager, Properties props)
 	{
 		this.colorManager = colormanager;
 		coloringRules = new ArrayList<ThemeRule>();
-		cache = new HashMap<String, TextAttribute>();
+		cache = new TextAttributeCache();
 		parseProps(props);
 		storeDefaults();
 	}
@@ -279,24 +291,44 @@ public class Theme
 
 	public TextAttribute getTextAttribute(String scope)
 	{
-		if (cache.containsKey(scope))
+		TextAttribute ta = cache.get(scope);
+		if (ta != null)
 		{
-			return cache.get(scope);
+			return ta;
+		}
+		synchronized (matchLock)
+		{
+			// Another thread may have computed it while we waited
+			ta = cache.get(scope);
+			if (ta != null)
+			{
+				return ta;
+			}
+			lastSelectorMatch = null;
+			ta = toTextAttribute(getDelayedTextAttribute(scope), true);
+			cache.put(scope, ta);
+			return ta;
 		}
-		lastSelectorMatch = null;
-		TextAttribute ta = toTextAttribute(getDelayedTextAttribute(scope), true);
-		cache.put(scope, ta);
-		return ta;
 	}
 
-	ThemeRule winningRule(String scope)
+	/**
+	 * Returns the rule whose selector matches the scope best, or null if none matches it. Lookups go through the
+	 * theme's compiled selectors, so they're cheap to repeat.
+	 * 
+	 * @param scope
+	 * @return
+	 */
+	public ThemeRule winningRule(String scope)
 	{
-		IScopeSelector match = findMatch(scope);
-		if (match == null)
+		synchronized (matchLock)
 		{
-			return null;
+			IScopeSelector match = findMatch(scope);
+			if (match == null)
+			{
+				return null;
+			}
+			return getRuleForSelector(match);
 		}
-		return getRuleForSelector(match);
 	}
 
 	private DelayedTextAttribute getDelayedTextAttribute(String scope)
@@ -461,16 +493,20 @@ public class Theme
 
 	private IScopeSelector findMatch(String scope)
 	{
-		Collection<IScopeSelector> selectors = new ArrayList<IScopeSelector>();
-		for (ThemeRule rule : coloringRules)
+		if (ruleMatcher == null)
 		{
-			if (rule.isSeparator())
+			Collection<IScopeSelector> selectors = new ArrayList<IScopeSelector>();
+			for (ThemeRule rule : coloringRules)
 			{
-				continue;
+				if (rule.isSeparator())
+				{
+					continue;
+				}
+				selectors.add(rule.getScopeSelector());
 			}
-			selectors.add(rule.getScopeSelector());
+			ruleMatcher = new ScopeSelectorMatcher(selectors);
 		}
-		return ScopeSelector.bestMatch(selectors, scope);
+		return ruleMatcher.bestMatch(scope);
 	}
 
 	private DelayedTextAttribute merge(DelayedTextAttribute childAttr, DelayedTextAttribute parentAttr)
@@ -832,9 +868,13 @@ public class Theme
 				}
 			}
 		}
-		coloringRules.clear();
-		wipeCache();
-		parseProps(props);
+		synchronized (matchLock)
+		{
+			coloringRules.clear();
+			ruleMatcher = null;
+			wipeCache();
+			parseProps(props);
+		}
 		deleteCustomVersion();
 	}
 
@@ -872,8 +912,14 @@ public class Theme
 		{
 			endIndex--;
 		}
-		ThemeRule selected = coloringRules.remove(startIndex);
-		coloringRules.add(endIndex, selected);
+		synchronized (matchLock)
+		{
+			ThemeRule selected = coloringRules.remove(startIndex);
+			coloringRules.add(endIndex, selected);
+			ruleMatcher = null;
+			// The moved rule now wins or loses against the rules it was moved past, for the scopes it matches
+			cache.invalidate(selected.getScopeSelector());
+		}
 		save();
 	}
 
@@ -884,23 +930,32 @@ public class Theme
 
 	public void addNewRule(int index, String ruleName, ScopeSelector selector, DelayedTextAttribute attr)
 	{
-		coloringRules.add(index, new ThemeRule(ruleName, selector, attr));
-		wipeCache();
+		synchronized (matchLock)
+		{
+			coloringRules.add(index, new ThemeRule(ruleName, selector, attr));
+			ruleMatcher = null;
+			cache.invalidate(selector);
+		}
 		save();
 	}
 
 	public void updateRule(int index, ThemeRule newRule)
 	{
-		coloringRules.remove(index);
-		if (index >= coloringRules.size())
-		{
-			coloringRules.add(newRule);
-		}
-		else
+		synchronized (matchLock)
 		{
-			coloringRules.add(index, newRule);
+			ThemeRule oldRule = coloringRules.remove(index);
+			if (index >= coloringRules.size())
+			{
+				coloringRules.add(newRule);
+			}
+			else
+			{
+				coloringRules.add(index, newRule);
+			}
+			ruleMatcher = null;
+			cache.invalidate(oldRule.getScopeSelector());
+			cache.invalidate(newRule.getScopeSelector());
 		}
-		wipeCache();
 		save();
 	}
 
@@ -1132,8 +1187,14 @@ public class Theme
 
 	public void remove(ThemeRule entry)
 	{
-		coloringRules.remove(entry);
-		wipeCache();
+		synchronized (matchLock)
+		{
+			if (coloringRules.remove(entry))
+			{
+				ruleMatcher = null;
+				cache.invalidate(entry.getScopeSelector());
+			}
+		}
 		save();
 	}
 
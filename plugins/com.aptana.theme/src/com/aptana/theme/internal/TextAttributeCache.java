@@ -0,0 +1,170 @@
+/**
+ * Aptana Studio
+ * Copyright (c) 2005-2012 by Appcelerator, Inc. All Rights Reserved.
+ * Licensed under the terms of the GNU Public License (GPL) v3 (with exceptions).
+ * Please see the license.html included with this distribution for details.
+ * Any modifications to this file must keep this entire header intact.
+ */
+package com.aptana.theme.internal;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.jface.text.TextAttribute;
+
+import com.aptana.scope.IScopeSelector;
+
+/**
+ * Memoizes the TextAttribute a theme computes for a fully qualified scope. Lookups don't lock, so the UI thread and
+ * background highlighting can read it concurrently. The number of scopes held is bounded; when full, the scopes which
+ * weren't looked up since the last sweep get dropped first.
+ * <p>
+ * When a rule of the theme changes only the scopes it can match, directly or through one of their parent scopes, need
+ * to be computed again, see {@link #invalidate(IScopeSelector)}.
+ * </p>
+ */
+public class TextAttributeCache
+{
+	public static final int DEFAULT_CAPACITY = 4096;
+
+	private static class Entry
+	{
+		private final TextAttribute attribute;
+		private volatile boolean referenced;
+
+		private Entry(TextAttribute attribute)
+		{
+			this.attribute = attribute;
+		}
+	}
+
+	private final int fCapacity;
+	private final Map<String, Entry> fEntries;
+
+	public TextAttributeCache()
+	{
+		this(DEFAULT_CAPACITY);
+	}
+
+	public TextAttributeCache(int capacity)
+	{
+		fCapacity = Math.max(1, capacity);
+		fEntries = new ConcurrentHashMap<String, Entry>();
+	}
+
+	/**
+	 * Returns the cached attribute for the scope, or null if there's none.
+	 *
+	 * @param scope
+	 * @return
+	 */
+	public TextAttribute get(String scope)
+	{
+		if (scope == null)
+		{
+			return null;
+		}
+		Entry entry = fEntries.get(scope);
+		if (entry == null)
+		{
+			return null;
+		}
+		entry.referenced = true;
+		return entry.attribute;
+	}
+
+	/**
+	 * Cache the attribute computed for the scope. Null scopes and attributes aren't cached.
+	 *
+	 * @param scope
+	 * @param attribute
+	 */
+	public void put(String scope, TextAttribute attribute)
+	{
+		if (scope == null || attribute == null)
+		{
+			return;
+		}
+		if (fEntries.size() >= fCapacity)
+		{
+			evict();
+		}
+		fEntries.put(scope, new Entry(attribute));
+	}
+
+	/**
+	 * Drop the scopes which the selector matches, or one of whose parent scopes it matches. These are the only ones
+	 * whose best matching rule may change when a rule with this selector is added, removed, moved or edited. Since
+	 * matching a selector isn't thread-safe, callers have to serialize this with any other matching done with it.
+	 *
+	 * @param selector
+	 */
+	public void invalidate(IScopeSelector selector)
+	{
+		if (selector == null)
+		{
+			return;
+		}
+		for (Iterator<String> iter = fEntries.keySet().iterator(); iter.hasNext();)
+		{
+			if (matchesScopeOrParent(selector, iter.next()))
+			{
+				iter.remove();
+			}
+		}
+	}
+
+	public void clear()
+	{
+		fEntries.clear();
+	}
+
+	public int size()
+	{
+		return fEntries.size();
+	}
+
+	private static boolean matchesScopeOrParent(IScopeSelector selector, String scope)
+	{
+		String current = scope;
+		while (current.length() > 0)
+		{
+			if (selector.matches(current))
+			{
+				return true;
+			}
+			int index = current.lastIndexOf(' ');
+			if (index == -1)
+			{
+				return false;
+			}
+			current = current.substring(0, index);
+		}
+		return false;
+	}
+
+	/**
+	 * Second chance sweep: scopes looked up since the last sweep lose their mark and stay, the others are dropped until
+	 * the cache is down to three quarters of its capacity.
+	 */
+	private synchronized void evict()
+	{
+		int target = (fCapacity * 3) / 4;
+		for (int pass = 0; pass < 2 && fEntries.size() > target; pass++)
+		{
+			for (Iterator<Entry> iter = fEntries.values().iterator(); iter.hasNext() && fEntries.size() > target;)
+			{
+				Entry entry = iter.next();
+				if (entry.referenced)
+				{
+					entry.referenced = false;
+				}
+				else
+				{
+					iter.remove();
+				}
+			}
+		}
+	}
+}
@@ -157,6 +157,11 @@ public class AbstractBuildParticipantTest extends TestCase
 		assertFalse(participant.isEnabled(BuildType.RECONCILE));
 	}
 
+	public void testNotThreadSafeByDefault() throws Exception
+	{
+		assertFalse(participant.isThreadSafe());
+	}
+
 	public void testChangeFilters() throws Exception
 	{
 		assertEquals(Collections.emptyList(), participant.getFilters());
@@ -0,0 +1,129 @@
+package com.aptana.core.build;
+
+import java.io.ByteArrayInputStream;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.Path;
+
+import com.aptana.testing.utils.ProjectCreator;
+
+@SuppressWarnings("nls")
+public class BuildPrioritiesTest extends TestCase
+{
+
+	private BuildPriorities priorities;
+	private IFile a;
+	private IFile b;
+
+	protected void setUp() throws Exception
+	{
+		super.setUp();
+
+		priorities = new BuildPriorities();
+		a = ResourcesPlugin.getWorkspace().getRoot().getFile(new Path("/project/a.js"));
+		b = ResourcesPlugin.getWorkspace().getRoot().getFile(new Path("/project/b.js"));
+	}
+
+	protected void tearDown() throws Exception
+	{
+		priorities = null;
+		a = null;
+		b = null;
+
+		super.tearDown();
+	}
+
+	public void testNormalByDefault() throws Exception
+	{
+		assertEquals(BuildPriorities.NORMAL, priorities.getPriority(a));
+		assertEquals(-1, priorities.getPrioritizedOrder(a));
+	}
+
+	public void testOpenFilesAreCountedPerEditor() throws Exception
+	{
+		priorities.fileOpened(a);
+		priorities.fileOpened(a);
+		assertEquals(BuildPriorities.OPEN, priorities.getPriority(a));
+
+		priorities.fileClosed(a);
+		assertEquals(BuildPriorities.OPEN, priorities.getPriority(a));
+
+		priorities.fileClosed(a);
+		assertEquals(BuildPriorities.NORMAL, priorities.getPriority(a));
+	}
+
+	public void testPrioritizedUntilBuilt() throws Exception
+	{
+		priorities.fileOpened(a);
+		priorities.prioritize(a);
+		assertEquals(BuildPriorities.URGENT, priorities.getPriority(a));
+
+		priorities.fileBuilt(a);
+		assertEquals(BuildPriorities.OPEN, priorities.getPriority(a));
+	}
+
+	public void testRemovedFilesAreNoLongerPrioritized() throws Exception
+	{
+		priorities.prioritize(a);
+		long count = priorities.getModificationCount();
+
+		priorities.fileRemoved(a);
+		assertEquals(BuildPriorities.NORMAL, priorities.getPriority(a));
+		assertTrue(priorities.getModificationCount() > count);
+	}
+
+	public void testFinishedBuildDropsEarlierRequests() throws Exception
+	{
+		IProject project = ProjectCreator.createAndOpen("build_priorities");
+		try
+		{
+			IFile c = project.getFile("c.js");
+			c.create(new ByteArrayInputStream("var c;".getBytes()), true, null);
+			IFile d = project.getFile("d.js");
+			d.create(new ByteArrayInputStream("var d;".getBytes()), true, null);
+
+			priorities.prioritize(c);
+			// a doesn't exist, and isn't in the project being built
+			priorities.prioritize(a);
+			long count = priorities.getModificationCount();
+			// requested while the build was running
+			priorities.prioritize(d);
+
+			priorities.buildFinished(project, count);
+			assertEquals(BuildPriorities.NORMAL, priorities.getPriority(c));
+			assertEquals(BuildPriorities.NORMAL, priorities.getPriority(a));
+			assertEquals(BuildPriorities.URGENT, priorities.getPriority(d));
+		}
+		finally
+		{
+			project.delete(IResource.FORCE, new NullProgressMonitor());
+		}
+	}
+
+	public void testLatestRequestComesFirst() throws Exception
+	{
+		priorities.prioritize(a);
+		priorities.prioritize(b);
+		assertTrue(priorities.getPrioritizedOrder(b) > priorities.getPrioritizedOrder(a));
+
+		priorities.prioritize(a);
+		assertTrue(priorities.getPrioritizedOrder(a) > priorities.getPrioritizedOrder(b));
+	}
+
+	public void testChangesBumpModificationCount() throws Exception
+	{
+		long count = priorities.getModificationCount();
+		priorities.fileOpened(a);
+		assertTrue(priorities.getModificationCount() > count);
+
+		count = priorities.getModificationCount();
+		priorities.fileBuilt(b);
+		assertEquals(count, priorities.getModificationCount());
+	}
+}
@@ -12,6 +12,7 @@ public class CoreBuildTests extends TestCase
 		TestSuite suite = new TestSuite(CoreBuildTests.class.getName());
 		// $JUnit-BEGIN$
 		suite.addTestSuite(AbstractBuildParticipantTest.class);
+		suite.addTestSuite(BuildPrioritiesTest.class);
 		suite.addTestSuite(ReconcileContextTest.class);
 		suite.addTestSuite(RequiredBuildParticipantTest.class);
 		suite.addTestSuite(UnifiedBuilderTest.class);
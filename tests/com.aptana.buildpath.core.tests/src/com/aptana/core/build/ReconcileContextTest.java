@@ -63,4 +63,9 @@ public class ReconcileContextTest extends TestCase
 			assertTrue(true);
 		}
 	}
+
+	public void testEditorContentsArentCached() throws Exception
+	{
+		assertNull(context.getParseResultCache());
+	}
 }
@@ -1,11 +1,15 @@
 package com.aptana.core.build;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import junit.framework.TestCase;
 
@@ -30,8 +34,11 @@ import org.jmock.lib.legacy.ClassImposteriser;
 
 import com.aptana.core.build.IBuildParticipant.BuildType;
 import com.aptana.core.internal.build.BuildParticipantManager;
+import com.aptana.core.internal.build.ProblemCache;
 import com.aptana.core.resources.IMarkerConstants;
 import com.aptana.core.util.CollectionsUtil;
+import com.aptana.core.util.FileUtil;
+import com.aptana.core.util.StringUtil;
 import com.aptana.index.core.build.BuildContext;
 import com.aptana.testing.utils.ProjectCreator;
 
@@ -128,6 +135,62 @@ public class UnifiedBuilderTest extends TestCase
 		}
 	}
 
+	/**
+	 * Records which threads it runs on, and how many of its builds overlap
+	 */
+	private static class RecordingParticipant extends RequiredBuildParticipant
+	{
+		private final boolean threadSafe;
+		private final Set<String> builtFiles = Collections.synchronizedSet(new HashSet<String>());
+		private final Set<Thread> threads = Collections.synchronizedSet(new HashSet<Thread>());
+		private final AtomicInteger running = new AtomicInteger();
+		private final AtomicInteger maxRunning = new AtomicInteger();
+		private volatile int runningAtBuildEnding = -1;
+
+		private RecordingParticipant(boolean threadSafe)
+		{
+			this.threadSafe = threadSafe;
+		}
+
+		@Override
+		public boolean isThreadSafe()
+		{
+			return threadSafe;
+		}
+
+		public void buildFile(BuildContext context, IProgressMonitor monitor)
+		{
+			int current = running.incrementAndGet();
+			int max = maxRunning.get();
+			while (current > max && !maxRunning.compareAndSet(max, current))
+			{
+				max = maxRunning.get();
+			}
+			try
+			{
+				// give the other workers a chance to overlap with us
+				Thread.sleep(20);
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+			}
+			threads.add(Thread.currentThread());
+			builtFiles.add(context.getName());
+			running.decrementAndGet();
+		}
+
+		@Override
+		public void buildEnding(IProgressMonitor monitor)
+		{
+			runningAtBuildEnding = running.get();
+		}
+
+		public void deleteFile(BuildContext context, IProgressMonitor monitor)
+		{
+		}
+	}
+
 	private UnifiedBuilder builder;
 	private IBuildParticipantManager manager;
 	private IBuildParticipant participant;
@@ -285,6 +348,225 @@ public class UnifiedBuilderTest extends TestCase
 		// PROBLEM/TASK types?
 	}
 
+	public void testThreadSafeParticipantsRunInParallelNextToOthers() throws Exception
+	{
+		int fileCount = 20;
+		for (int i = 0; i < fileCount; i++)
+		{
+			IFile file = project.getFile("file" + i + ".txt");
+			file.create(new ByteArrayInputStream("Hello world!".getBytes()), true, null);
+		}
+
+		final RecordingParticipant serial = new RecordingParticipant(false);
+		final RecordingParticipant threadSafe1 = new RecordingParticipant(true);
+		final RecordingParticipant threadSafe2 = new RecordingParticipant(true);
+		manager = new BuildParticipantManager()
+		{
+			public List<IBuildParticipant> getBuildParticipants(String contentTypeId)
+			{
+				return filterParticipants(getAllBuildParticipants(), contentTypeId);
+			}
+
+			public List<IBuildParticipant> getAllBuildParticipants()
+			{
+				return CollectionsUtil.<IBuildParticipant> newList(serial, threadSafe1, threadSafe2);
+			}
+		};
+		builder = new UnifiedBuilder()
+		{
+			@Override
+			protected IProject getProjectHandle()
+			{
+				return project;
+			}
+
+			@Override
+			protected IBuildParticipantManager getBuildParticipantManager()
+			{
+				return manager;
+			}
+
+			@Override
+			protected int getWorkerCount(int fileCount)
+			{
+				return 4;
+			}
+		};
+		builder.build(IncrementalProjectBuilder.FULL_BUILD, null, new NullProgressMonitor());
+
+		// every file got built by all the participants, .project included
+		assertEquals(fileCount + 1, serial.builtFiles.size());
+		assertEquals(fileCount + 1, threadSafe1.builtFiles.size());
+		assertEquals(fileCount + 1, threadSafe2.builtFiles.size());
+
+		// the participant which isn't thread-safe stayed on the builder thread...
+		assertEquals(Collections.singleton(Thread.currentThread()), serial.threads);
+		assertEquals(1, serial.maxRunning.get());
+		// ...while the thread-safe ones ran on the workers, at the same time
+		assertFalse(threadSafe1.threads.contains(Thread.currentThread()));
+		assertFalse(threadSafe2.threads.contains(Thread.currentThread()));
+		assertTrue(threadSafe1.maxRunning.get() > 1);
+	}
+
+	public void testCanceledBuildWaitsForWorkersBeforeEnding() throws Exception
+	{
+		for (int i = 0; i < 20; i++)
+		{
+			IFile file = project.getFile("file" + i + ".txt");
+			file.create(new ByteArrayInputStream("Hello world!".getBytes()), true, null);
+		}
+
+		final RecordingParticipant threadSafe = new RecordingParticipant(true);
+		// cancels the build once a few files have been handed to the workers
+		final RecordingParticipant canceling = new RecordingParticipant(false)
+		{
+			private int count;
+
+			@Override
+			public void buildFile(BuildContext context, IProgressMonitor monitor)
+			{
+				if (++count == 5)
+				{
+					monitor.setCanceled(true);
+				}
+			}
+		};
+		manager = new BuildParticipantManager()
+		{
+			public List<IBuildParticipant> getBuildParticipants(String contentTypeId)
+			{
+				return filterParticipants(getAllBuildParticipants(), contentTypeId);
+			}
+
+			public List<IBuildParticipant> getAllBuildParticipants()
+			{
+				return CollectionsUtil.<IBuildParticipant> newList(canceling, threadSafe);
+			}
+		};
+		builder = new UnifiedBuilder()
+		{
+			@Override
+			protected IProject getProjectHandle()
+			{
+				return project;
+			}
+
+			@Override
+			protected IBuildParticipantManager getBuildParticipantManager()
+			{
+				return manager;
+			}
+
+			@Override
+			protected int getWorkerCount(int fileCount)
+			{
+				return 4;
+			}
+		};
+		NullProgressMonitor monitor = new NullProgressMonitor();
+		builder.build(IncrementalProjectBuilder.FULL_BUILD, null, monitor);
+
+		assertTrue(monitor.isCanceled());
+		assertTrue(threadSafe.builtFiles.size() < 21);
+		// the build ended only once no worker was building anymore
+		assertEquals(0, threadSafe.runningAtBuildEnding);
+		assertEquals(0, canceling.runningAtBuildEnding);
+	}
+
+	public void testParticipantWithCachedProblemsIsSkipped() throws Exception
+	{
+		final AtomicInteger validations = new AtomicInteger();
+		final IBuildParticipant validator = new AbstractBuildParticipant()
+		{
+			@Override
+			public String getId()
+			{
+				return "com.aptana.test.validator";
+			}
+
+			@Override
+			public String getOptionsKey()
+			{
+				return StringUtil.EMPTY;
+			}
+
+			public void buildFile(BuildContext context, IProgressMonitor monitor)
+			{
+				validations.incrementAndGet();
+				context.putProblems(IMarkerConstants.PROBLEM_MARKER, Collections.<IProblem> emptyList());
+			}
+
+			public void deleteFile(BuildContext context, IProgressMonitor monitor)
+			{
+			}
+		};
+		final Set<Boolean> skipped = Collections.synchronizedSet(new HashSet<Boolean>());
+		final IBuildParticipant observer = new RequiredBuildParticipant()
+		{
+			public void buildFile(BuildContext context, IProgressMonitor monitor)
+			{
+				skipped.add(context.isParticipantSkipped(validator.getId()));
+			}
+
+			public void deleteFile(BuildContext context, IProgressMonitor monitor)
+			{
+			}
+		};
+		manager = new BuildParticipantManager()
+		{
+			public List<IBuildParticipant> getBuildParticipants(String contentTypeId)
+			{
+				return filterParticipants(getAllBuildParticipants(), contentTypeId);
+			}
+
+			public List<IBuildParticipant> getAllBuildParticipants()
+			{
+				return CollectionsUtil.newList(observer, validator);
+			}
+		};
+		File directory = File.createTempFile("problem_cache", "");
+		directory.delete();
+		directory.mkdirs();
+		try
+		{
+			final ProblemCache cache = new ProblemCache(directory, 1024 * 1024);
+			builder = new UnifiedBuilder()
+			{
+				@Override
+				protected IProject getProjectHandle()
+				{
+					return project;
+				}
+
+				@Override
+				protected IBuildParticipantManager getBuildParticipantManager()
+				{
+					return manager;
+				}
+
+				@Override
+				protected ProblemCache getProblemCache()
+				{
+					return cache;
+				}
+			};
+
+			builder.build(IncrementalProjectBuilder.FULL_BUILD, null, new NullProgressMonitor());
+			assertEquals(1, validations.get());
+			assertEquals(Collections.singleton(false), skipped);
+
+			// the validator's problems now come from the cache, and the other participants know it won't run
+			skipped.clear();
+			builder.build(IncrementalProjectBuilder.FULL_BUILD, null, new NullProgressMonitor());
+			assertEquals(1, validations.get());
+			assertEquals(Collections.singleton(true), skipped);
+		}
+		finally
+		{
+			FileUtil.deleteRecursively(directory);
+		}
+	}
+
 	public void testIncrementalBuildWithNoDeltaDoesFullBuild() throws Exception
 	{
 		context.checking(new Expectations()
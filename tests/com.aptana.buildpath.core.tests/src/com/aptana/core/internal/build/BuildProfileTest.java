@@ -0,0 +1,111 @@
+package com.aptana.core.internal.build;
+
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import com.aptana.core.internal.build.BuildProfile.Timing;
+
+public class BuildProfileTest extends TestCase
+{
+
+	private static final long MILLIS = 1000000;
+
+	private BuildProfile profile;
+
+	@Override
+	protected void setUp() throws Exception
+	{
+		super.setUp();
+
+		profile = new BuildProfile("project");
+		profile.record("validator", "com.aptana.contenttype.js", "/project/a.js", 5 * MILLIS, 4 * MILLIS, 1000);
+		profile.record("indexer", "com.aptana.contenttype.js", "/project/a.js", 1 * MILLIS, 1 * MILLIS, 200);
+		profile.record("validator", "com.aptana.contenttype.js", "/project/b.js", 20 * MILLIS, 18 * MILLIS, 3000);
+		profile.recordParse("com.aptana.contenttype.js", "/project/a.js", 2 * MILLIS);
+	}
+
+	@Override
+	protected void tearDown() throws Exception
+	{
+		profile = null;
+		super.tearDown();
+	}
+
+	public void testTotals() throws Exception
+	{
+		Timing total = profile.getTotal();
+		assertEquals(3, total.getCount());
+		assertEquals(26 * MILLIS, total.getWallTime());
+		assertEquals(23 * MILLIS, total.getCPUTime());
+		assertEquals(4200, total.getAllocatedBytes());
+		assertEquals(2 * MILLIS, total.getParseTime());
+	}
+
+	public void testSlowestParticipants() throws Exception
+	{
+		List<Map.Entry<String, Timing>> participants = profile.getSlowestParticipants(10);
+		assertEquals(2, participants.size());
+		assertEquals("validator", participants.get(0).getKey());
+		assertEquals(2, participants.get(0).getValue().getCount());
+		assertEquals(25 * MILLIS, participants.get(0).getValue().getWallTime());
+		assertEquals("indexer", participants.get(1).getKey());
+	}
+
+	public void testSlowestFilesIsLimited() throws Exception
+	{
+		List<Map.Entry<String, Timing>> files = profile.getSlowestFiles(1);
+		assertEquals(1, files.size());
+		assertEquals("/project/b.js", files.get(0).getKey());
+	}
+
+	public void testUnavailableMeasurementsAreReportedAsMissing() throws Exception
+	{
+		profile.record("other", "com.aptana.contenttype.css", "/project/c.css", MILLIS, -1, -1);
+
+		Timing css = profile.getSlowestContentTypes(-1).get(1).getValue();
+		assertEquals(-1, css.getCPUTime());
+		assertEquals(-1, css.getAllocatedBytes());
+		assertEquals(-1, profile.getTotal().getCPUTime());
+	}
+
+	public void testWriteCSV() throws Exception
+	{
+		StringWriter writer = new StringWriter();
+		profile.writeCSV(writer);
+
+		String[] lines = writer.toString().split("\n");
+		assertEquals(7, lines.length);
+		assertEquals("scope,name,count,wallMillis,cpuMillis,allocatedBytes,parseMillis", lines[0]);
+		assertEquals("total,project,3,26.000,23.000,4200,2.000", lines[1]);
+		assertEquals("participant,validator,2,25.000,22.000,4000,0.000", lines[2]);
+		assertEquals("file,/project/b.js,1,20.000,18.000,3000,0.000", lines[5]);
+	}
+
+	public void testWriteJSON() throws Exception
+	{
+		profile = new BuildProfile("my \"project\"");
+		profile.record("validator", "com.aptana.contenttype.js", "/a.js", MILLIS, MILLIS, 10);
+
+		StringWriter writer = new StringWriter();
+		profile.writeJSON(writer);
+
+		String json = writer.toString();
+		assertTrue(json, json.startsWith("{\"project\":\"my \\\"project\\\"\",\"elapsedMillis\":0.000,"));
+		assertTrue(json, json.contains("\"participants\":[{\"name\":\"validator\",\"count\":1,\"wallMillis\":1.000,"));
+		assertTrue(json, json.contains("\"files\":[{\"name\":\"/a.js\""));
+	}
+
+	public void testRecordSample() throws Exception
+	{
+		profile = new BuildProfile("project");
+		BuildProfile.Sample start = profile.start();
+		profile.record("validator", "com.aptana.contenttype.js", "/a.js", start);
+
+		Timing total = profile.getTotal();
+		assertEquals(1, total.getCount());
+		assertTrue(total.getWallTime() >= 0);
+	}
+}
@@ -73,6 +73,105 @@ public class IndexBuildParticipantTest extends TestCase
 		context.assertIsSatisfied();
 	}
 
+	public void testMinifiedFileIndexesTopLevelOnly() throws Exception
+	{
+		final Index index = context.mock(Index.class);
+		final IFileStoreIndexingParticipant indexer = context.mock(IFileStoreIndexingParticipant.class);
+		final BuildContext buildContext = context.mock(BuildContext.class);
+		File file = File.createTempFile("index_bp", ".min.js");
+		file.deleteOnExit();
+		final URI uri = file.toURI();
+		IndexBuildParticipant p = new IndexBuildParticipant()
+		{
+			@Override
+			protected Index getIndex(IProject project)
+			{
+				return index;
+			}
+
+			@Override
+			protected List<IFileStoreIndexingParticipant> getIndexParticipants(BuildContext context)
+			{
+				return CollectionsUtil.newList(indexer);
+			}
+
+			@Override
+			public MinifiedFilePolicy getMinifiedFilePolicy()
+			{
+				return MinifiedFilePolicy.TOP_LEVEL;
+			}
+		};
+		context.checking(new Expectations()
+		{
+			{
+				oneOf(buildContext).getURI();
+				will(returnValue(uri));
+				oneOf(index).remove(uri);
+				oneOf(buildContext).isMinified();
+				will(returnValue(true));
+				// Indexers are told to stick to the top-level symbols
+				oneOf(buildContext).setTopLevelOnly(true);
+				oneOf(indexer).index(with(buildContext), with(index), with(any(IProgressMonitor.class)));
+				oneOf(index).save();
+			}
+		});
+
+		p.buildStarting(null, IncrementalProjectBuilder.FULL_BUILD, new NullProgressMonitor());
+		p.buildFile(buildContext, new NullProgressMonitor());
+		p.buildEnding(new NullProgressMonitor());
+		context.assertIsSatisfied();
+	}
+
+	public void testMinifiedFileSkipped() throws Exception
+	{
+		final Index index = context.mock(Index.class);
+		final IFileStoreIndexingParticipant indexer = context.mock(IFileStoreIndexingParticipant.class);
+		final BuildContext buildContext = context.mock(BuildContext.class);
+		File file = File.createTempFile("index_bp", ".min.js");
+		file.deleteOnExit();
+		final URI uri = file.toURI();
+		IndexBuildParticipant p = new IndexBuildParticipant()
+		{
+			@Override
+			protected Index getIndex(IProject project)
+			{
+				return index;
+			}
+
+			@Override
+			protected List<IFileStoreIndexingParticipant> getIndexParticipants(BuildContext context)
+			{
+				return CollectionsUtil.newList(indexer);
+			}
+
+			@Override
+			public MinifiedFilePolicy getMinifiedFilePolicy()
+			{
+				return MinifiedFilePolicy.SKIP;
+			}
+		};
+		context.checking(new Expectations()
+		{
+			{
+				oneOf(buildContext).getURI();
+				will(returnValue(uri));
+				// The old entries for the file are still removed...
+				oneOf(index).remove(uri);
+				oneOf(buildContext).isMinified();
+				will(returnValue(true));
+				// ...but it isn't indexed again
+				never(indexer).index(with(any(BuildContext.class)), with(any(Index.class)),
+						with(any(IProgressMonitor.class)));
+				oneOf(index).save();
+			}
+		});
+
+		p.buildStarting(null, IncrementalProjectBuilder.FULL_BUILD, new NullProgressMonitor());
+		p.buildFile(buildContext, new NullProgressMonitor());
+		p.buildEnding(new NullProgressMonitor());
+		context.assertIsSatisfied();
+	}
+
 	public void testTypicalBuildWithDeletedFile() throws Exception
 	{
 		final Index index = context.mock(Index.class);
@@ -12,7 +12,10 @@ public class InternalBuildTests extends TestCase
 		TestSuite suite = new TestSuite(InternalBuildTests.class.getName());
 		//$JUnit-BEGIN$
 		suite.addTestSuite(BuildParticipantManagerTest.class);
+		suite.addTestSuite(BuildProfileTest.class);
 		suite.addTestSuite(IndexBuildParticipantTest.class);
+		suite.addTestSuite(LazyBuildParticipantTest.class);
+		suite.addTestSuite(ProblemCacheTest.class);
 		//$JUnit-END$
 		return suite;
 	}
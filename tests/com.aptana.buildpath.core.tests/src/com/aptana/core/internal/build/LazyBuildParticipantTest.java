@@ -0,0 +1,156 @@
+/**
+ * Aptana Studio
+ * Copyright (c) 2005-2012 by Appcelerator, Inc. All Rights Reserved.
+ * Licensed under the terms of the Eclipse Public License (EPL).
+ * Please see the license-epl.html included with this distribution for details.
+ * Any modifications to this file must keep this entire header intact.
+ */
+package com.aptana.core.internal.build;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IncrementalProjectBuilder;
+import org.eclipse.core.runtime.IConfigurationElement;
+import org.eclipse.core.runtime.IContributor;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.jmock.Expectations;
+import org.jmock.Mockery;
+
+import com.aptana.core.build.IBuildParticipant;
+import com.aptana.core.build.IBuildParticipantManager;
+import com.aptana.core.build.RequiredBuildParticipant;
+import com.aptana.core.build.UnifiedBuilder;
+import com.aptana.core.util.CollectionsUtil;
+import com.aptana.core.util.FileUtil;
+import com.aptana.index.core.build.BuildContext;
+import com.aptana.testing.utils.ProjectCreator;
+
+@SuppressWarnings("nls")
+public class LazyBuildParticipantTest extends TestCase
+{
+
+	private Mockery context;
+	private IProject project;
+	private File directory;
+
+	@Override
+	protected void setUp() throws Exception
+	{
+		super.setUp();
+
+		context = new Mockery();
+		directory = File.createTempFile("problem_cache", "");
+		directory.delete();
+		directory.mkdirs();
+	}
+
+	@Override
+	protected void tearDown() throws Exception
+	{
+		try
+		{
+			if (project != null)
+			{
+				project.delete(IResource.FORCE, new NullProgressMonitor());
+			}
+			FileUtil.deleteRecursively(directory);
+		}
+		finally
+		{
+			project = null;
+			directory = null;
+			context = null;
+			super.tearDown();
+		}
+	}
+
+	private LazyBuildParticipant createLazyParticipant(final IBuildParticipant wrapped) throws Exception
+	{
+		final IConfigurationElement ice = context.mock(IConfigurationElement.class);
+		final IContributor contributor = context.mock(IContributor.class);
+		context.checking(new Expectations()
+		{
+			{
+				allowing(ice).getAttribute("id");
+				will(returnValue("com.aptana.test.lazy"));
+				allowing(ice).getAttribute(with(any(String.class)));
+				will(returnValue(null));
+				allowing(ice).getChildren(with(any(String.class)));
+				will(returnValue(new IConfigurationElement[0]));
+				allowing(ice).getContributor();
+				will(returnValue(contributor));
+				allowing(contributor).getName();
+				will(returnValue("com.aptana.buildpath.core.tests"));
+				allowing(ice).createExecutableExtension("class");
+				will(returnValue(wrapped));
+			}
+		});
+		return new LazyBuildParticipant(ice);
+	}
+
+	public void testRequiredParticipantRunsOnCacheHit() throws Exception
+	{
+		final AtomicInteger builds = new AtomicInteger();
+		final LazyBuildParticipant participant = createLazyParticipant(new RequiredBuildParticipant()
+		{
+			public void buildFile(BuildContext context, IProgressMonitor monitor)
+			{
+				builds.incrementAndGet();
+			}
+
+			public void deleteFile(BuildContext context, IProgressMonitor monitor)
+			{
+			}
+		});
+		assertTrue(participant.isRequired());
+
+		project = ProjectCreator.createAndOpen("project_to_build");
+		project.getFile("file.txt").create(new ByteArrayInputStream("Hello world!".getBytes()), true, null);
+		final IBuildParticipantManager manager = new BuildParticipantManager()
+		{
+			public List<IBuildParticipant> getBuildParticipants(String contentTypeId)
+			{
+				return filterParticipants(getAllBuildParticipants(), contentTypeId);
+			}
+
+			public List<IBuildParticipant> getAllBuildParticipants()
+			{
+				return CollectionsUtil.<IBuildParticipant> newList(participant);
+			}
+		};
+		final ProblemCache cache = new ProblemCache(directory, 1024 * 1024);
+		UnifiedBuilder builder = new UnifiedBuilder()
+		{
+			@Override
+			protected IProject getProjectHandle()
+			{
+				return project;
+			}
+
+			@Override
+			protected IBuildParticipantManager getBuildParticipantManager()
+			{
+				return manager;
+			}
+
+			@Override
+			protected ProblemCache getProblemCache()
+			{
+				return cache;
+			}
+		};
+
+		// .project and file.txt, twice: the second build must not be answered from the cache
+		builder.build(IncrementalProjectBuilder.FULL_BUILD, null, new NullProgressMonitor());
+		builder.build(IncrementalProjectBuilder.FULL_BUILD, null, new NullProgressMonitor());
+		assertEquals(4, builds.get());
+	}
+}
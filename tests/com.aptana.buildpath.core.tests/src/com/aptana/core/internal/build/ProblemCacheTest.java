@@ -0,0 +1,184 @@
+/**
+ * Aptana Studio
+ * Copyright (c) 2005-2012 by Appcelerator, Inc. All Rights Reserved.
+ * Licensed under the terms of the Eclipse Public License (EPL).
+ * Please see the license-epl.html included with this distribution for details.
+ * Any modifications to this file must keep this entire header intact.
+ */
+package com.aptana.core.internal.build;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.resources.IMarker;
+
+import com.aptana.core.build.IProblem;
+import com.aptana.core.build.Problem;
+import com.aptana.core.util.FileUtil;
+
+public class ProblemCacheTest extends TestCase
+{
+
+	private static final String MARKER_TYPE = "com.aptana.test.problem";
+	private static final String SOURCE = "var a = 1;";
+
+	private File directory;
+	private ProblemCache cache;
+
+	@Override
+	protected void setUp() throws Exception
+	{
+		super.setUp();
+
+		directory = File.createTempFile("problem_cache", "");
+		directory.delete();
+		directory.mkdirs();
+		cache = new ProblemCache(directory, 1024 * 1024);
+	}
+
+	@Override
+	protected void tearDown() throws Exception
+	{
+		try
+		{
+			cache.clear();
+			FileUtil.deleteRecursively(directory);
+		}
+		finally
+		{
+			cache = null;
+			directory = null;
+			super.tearDown();
+		}
+	}
+
+	private Map<String, Collection<IProblem>> createProblems()
+	{
+		Problem problem = new Problem(IMarker.SEVERITY_WARNING, "Missing semicolon", 4, 2, 1, "file:/a.js",
+				IMarker.PRIORITY_LOW);
+		problem.setAttribute(IProblem.ID, 12);
+		problem.setAttribute(IProblem.ARGUMENTS, "a");
+		List<IProblem> problems = new ArrayList<IProblem>();
+		problems.add(problem);
+
+		Map<String, Collection<IProblem>> result = new HashMap<String, Collection<IProblem>>();
+		result.put(MARKER_TYPE, problems);
+		return result;
+	}
+
+	public void testMissingEntry() throws Exception
+	{
+		assertNull(cache.get("participant", "options", SOURCE, "file:/a.js"));
+	}
+
+	public void testRoundTrip() throws Exception
+	{
+		cache.put("participant", "options", SOURCE, createProblems());
+
+		Map<String, Collection<IProblem>> result = cache.get("participant", "options", SOURCE, "file:/b.js");
+		assertNotNull(result);
+		assertEquals(1, result.size());
+
+		Collection<IProblem> problems = result.get(MARKER_TYPE);
+		assertEquals(1, problems.size());
+
+		IProblem problem = problems.iterator().next();
+		assertEquals(IMarker.SEVERITY_WARNING, problem.getSeverity());
+		assertEquals("Missing semicolon", problem.getMessage());
+		assertEquals(4, problem.getOffset());
+		assertEquals(2, problem.getLength());
+		assertEquals(1, problem.getLineNumber());
+		assertEquals(IMarker.PRIORITY_LOW, problem.getPriority());
+		assertEquals("file:/b.js", problem.getSourcePath());
+		assertEquals(12, problem.getAttributes().get(IProblem.ID));
+		assertEquals("a", problem.getAttributes().get(IProblem.ARGUMENTS));
+	}
+
+	public void testEmptyProblemsAreKept() throws Exception
+	{
+		Map<String, Collection<IProblem>> problems = new HashMap<String, Collection<IProblem>>();
+		problems.put(MARKER_TYPE, Collections.<IProblem> emptyList());
+		cache.put("participant", "options", SOURCE, problems);
+
+		Map<String, Collection<IProblem>> result = cache.get("participant", "options", SOURCE, "file:/a.js");
+		assertNotNull(result);
+		assertTrue(result.containsKey(MARKER_TYPE));
+		assertTrue(result.get(MARKER_TYPE).isEmpty());
+	}
+
+	public void testKeyedByParticipantOptionsAndContents() throws Exception
+	{
+		cache.put("participant", "options", SOURCE, createProblems());
+
+		assertNull(cache.get("other", "options", SOURCE, "file:/a.js"));
+		assertNull(cache.get("participant", "other options", SOURCE, "file:/a.js"));
+		assertNull(cache.get("participant", "options", SOURCE + "\n", "file:/a.js"));
+	}
+
+	public void testUnsupportedAttributesAreNotCached() throws Exception
+	{
+		Map<String, Collection<IProblem>> problems = createProblems();
+		problems.get(MARKER_TYPE).iterator().next().setAttribute("object", new Object());
+		cache.put("participant", "options", SOURCE, problems);
+
+		assertNull(cache.get("participant", "options", SOURCE, "file:/a.js"));
+	}
+
+	public void testEntriesSurviveReload() throws Exception
+	{
+		cache.put("participant", "options", SOURCE, createProblems());
+
+		cache = new ProblemCache(directory, 1024 * 1024);
+		assertNotNull(cache.get("participant", "options", SOURCE, "file:/a.js"));
+	}
+
+	public void testEvictsWhenOverSizeLimit() throws Exception
+	{
+		cache = new ProblemCache(directory, 1);
+		cache.put("participant", "options", SOURCE, createProblems());
+
+		assertEquals(0, cache.getSize());
+		assertNull(cache.get("participant", "options", SOURCE, "file:/a.js"));
+	}
+
+	public void testEvictsLeastRecentlyUsed() throws Exception
+	{
+		cache.put("participant", "options", SOURCE, createProblems());
+		long entrySize = cache.getSize();
+		cache.clear();
+
+		// room for two entries, but not three
+		cache = new ProblemCache(directory, entrySize * 5 / 2);
+		cache.put("participant", "options", "var a = 1;", createProblems());
+		cache.put("participant", "options", "var b = 1;", createProblems());
+		cache.put("participant", "options", "var c = 1;", createProblems());
+
+		assertNull(cache.get("participant", "options", "var a = 1;", "file:/a.js"));
+		assertNotNull(cache.get("participant", "options", "var b = 1;", "file:/a.js"));
+		assertNotNull(cache.get("participant", "options", "var c = 1;", "file:/a.js"));
+	}
+
+	public void testRecentlyReadEntrySurvivesEviction() throws Exception
+	{
+		cache.put("participant", "options", SOURCE, createProblems());
+		long entrySize = cache.getSize();
+		cache.clear();
+
+		cache = new ProblemCache(directory, entrySize * 5 / 2);
+		cache.put("participant", "options", "var a = 1;", createProblems());
+		cache.put("participant", "options", "var b = 1;", createProblems());
+		assertNotNull(cache.get("participant", "options", "var a = 1;", "file:/a.js"));
+		cache.put("participant", "options", "var c = 1;", createProblems());
+
+		assertNotNull(cache.get("participant", "options", "var a = 1;", "file:/a.js"));
+		assertNull(cache.get("participant", "options", "var b = 1;", "file:/a.js"));
+		assertNotNull(cache.get("participant", "options", "var c = 1;", "file:/a.js"));
+	}
+}
@@ -29,6 +29,8 @@ public class AllUtilTests
 		suite.addTestSuite(ImmutableTupleNTest.class);
 		suite.addTestSuite(InputStreamGobblerTest.class);
 		suite.addTestSuite(IOUtilTest.class);
+		suite.addTestSuite(LRUFileCacheTest.class);
+		suite.addTestSuite(MinifiedFileUtilTest.class);
 		suite.addTestSuite(ObjectUtilTest.class);
 		suite.addTestSuite(OutputStreamThreadTest.class);
 		suite.addTestSuite(PlatformUtilTest.class);
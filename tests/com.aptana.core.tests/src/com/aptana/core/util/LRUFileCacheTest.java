@@ -0,0 +1,118 @@
+/**
+ * Aptana Studio
+ * Copyright (c) 2005-2012 by Appcelerator, Inc. All Rights Reserved.
+ * Licensed under the terms of the GNU Public License (GPL) v3 (with exceptions).
+ * Please see the license.html included with this distribution for details.
+ * Any modifications to this file must keep this entire header intact.
+ */
+package com.aptana.core.util;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import junit.framework.TestCase;
+
+@SuppressWarnings("nls")
+public class LRUFileCacheTest extends TestCase
+{
+
+	private static final String EXTENSION = ".entry";
+
+	private File directory;
+
+	@Override
+	protected void setUp() throws Exception
+	{
+		super.setUp();
+
+		directory = File.createTempFile("lru_cache", "");
+		directory.delete();
+		directory.mkdirs();
+	}
+
+	@Override
+	protected void tearDown() throws Exception
+	{
+		try
+		{
+			FileUtil.deleteRecursively(directory);
+		}
+		finally
+		{
+			directory = null;
+			super.tearDown();
+		}
+	}
+
+	private void put(LRUFileCache cache, String name) throws IOException
+	{
+		File tempFile = cache.getTempFile(name);
+		FileOutputStream out = new FileOutputStream(tempFile);
+		try
+		{
+			out.write(new byte[10]);
+		}
+		finally
+		{
+			out.close();
+		}
+		assertTrue(cache.commit(name, tempFile));
+	}
+
+	public void testEvictsLeastRecentlyUsed() throws Exception
+	{
+		LRUFileCache cache = new LRUFileCache(directory, EXTENSION, 25);
+		put(cache, "a" + EXTENSION);
+		put(cache, "b" + EXTENSION);
+		assertTrue(cache.touch("a" + EXTENSION));
+		put(cache, "c" + EXTENSION);
+
+		assertEquals(20, cache.getSize());
+		assertTrue(cache.touch("a" + EXTENSION));
+		assertFalse(cache.touch("b" + EXTENSION));
+		assertFalse(cache.getFile("b" + EXTENSION).exists());
+		assertTrue(cache.touch("c" + EXTENSION));
+	}
+
+	public void testRecencySurvivesRestart() throws Exception
+	{
+		LRUFileCache cache = new LRUFileCache(directory, EXTENSION, 25);
+		put(cache, "a" + EXTENSION);
+		put(cache, "b" + EXTENSION);
+		// make the entries look old, a being the oldest, then read a
+		cache.getFile("a" + EXTENSION).setLastModified(1000000000L);
+		cache.getFile("b" + EXTENSION).setLastModified(2000000000L);
+		assertTrue(cache.touch("a" + EXTENSION));
+		assertTrue(cache.getFile("a" + EXTENSION).lastModified() > 2000000000L);
+
+		cache = new LRUFileCache(directory, EXTENSION, 25);
+		put(cache, "c" + EXTENSION);
+		assertTrue(cache.touch("a" + EXTENSION));
+		assertFalse(cache.touch("b" + EXTENSION));
+	}
+
+	public void testConcurrentWritersGetTheirOwnTempFiles() throws Exception
+	{
+		LRUFileCache cache = new LRUFileCache(directory, EXTENSION, 25);
+		File tempFile1 = cache.getTempFile("a" + EXTENSION);
+		File tempFile2 = cache.getTempFile("a" + EXTENSION);
+		assertFalse(tempFile1.equals(tempFile2));
+
+		assertTrue(cache.commit("a" + EXTENSION, tempFile1));
+		assertTrue(tempFile2.exists());
+		assertTrue(cache.commit("a" + EXTENSION, tempFile2));
+		assertEquals(0, cache.getSize());
+		assertTrue(cache.touch("a" + EXTENSION));
+	}
+
+	public void testDeletesLeftovers() throws Exception
+	{
+		File leftover = new File(directory, "a" + EXTENSION + ".tmp");
+		assertTrue(leftover.createNewFile());
+
+		LRUFileCache cache = new LRUFileCache(directory, EXTENSION, 25);
+		assertFalse(leftover.exists());
+		assertEquals(0, cache.getSize());
+	}
+}
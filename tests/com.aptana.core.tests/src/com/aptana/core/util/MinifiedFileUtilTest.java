@@ -0,0 +1,69 @@
+/**
+ * Aptana Studio
+ * Copyright (c) 2005-2012 by Appcelerator, Inc. All Rights Reserved.
+ * Licensed under the terms of the GNU Public License (GPL) v3 (with exceptions).
+ * Please see the license.html included with this distribution for details.
+ * Any modifications to this file must keep this entire header intact.
+ */
+package com.aptana.core.util;
+
+import junit.framework.TestCase;
+
+public class MinifiedFileUtilTest extends TestCase
+{
+	private static String repeat(String text, int times)
+	{
+		StringBuilder builder = new StringBuilder(text.length() * times);
+		for (int i = 0; i < times; i++)
+		{
+			builder.append(text);
+		}
+		return builder.toString();
+	}
+
+	public void testMinifiedNames()
+	{
+		assertTrue(MinifiedFileUtil.isMinifiedName("jquery.min.js"));
+		assertTrue(MinifiedFileUtil.isMinifiedName("bootstrap.MIN.css"));
+		assertTrue(MinifiedFileUtil.isMinifiedName("underscore-min.js"));
+		assertFalse(MinifiedFileUtil.isMinifiedName("jquery.js"));
+		assertFalse(MinifiedFileUtil.isMinifiedName("admin.js"));
+		assertFalse(MinifiedFileUtil.isMinifiedName(null));
+	}
+
+	public void testRegularSourceIsNotMinified()
+	{
+		String source = repeat("function foo(a, b) {\n\treturn a + b;\n}\n\n", 500);
+		assertFalse(MinifiedFileUtil.isMinified("app.js", source));
+	}
+
+	public void testSmallFilesAreNeverMinified()
+	{
+		assertFalse(MinifiedFileUtil.isMinifiedContents(repeat("a", 1000)));
+		assertFalse(MinifiedFileUtil.isMinifiedContents(null));
+	}
+
+	public void testSingleLongLine()
+	{
+		String source = repeat("var a=function(b){return b+1};", 200);
+		assertTrue(MinifiedFileUtil.isMinified("app.js", source));
+	}
+
+	public void testLongLineFollowedByShortOnes()
+	{
+		String source = repeat("x", MinifiedFileUtil.MAX_LINE_LENGTH + 1) + repeat("\r\nvar a;", 1000);
+		assertTrue(MinifiedFileUtil.isMinifiedContents(source));
+	}
+
+	public void testLongAverageLineLength()
+	{
+		String source = repeat(repeat("a", MinifiedFileUtil.MAX_AVERAGE_LINE_LENGTH * 2) + "\n", 20);
+		assertTrue(MinifiedFileUtil.isMinifiedContents(source));
+	}
+
+	public void testHugeFile()
+	{
+		String source = repeat("var a = 1;\n", (MinifiedFileUtil.MAX_FILE_LENGTH / 11) + 1);
+		assertTrue(MinifiedFileUtil.isMinifiedContents(source));
+	}
+}
@@ -10,6 +10,9 @@ package com.aptana.editor.common;
 import junit.framework.Test;
 import junit.framework.TestSuite;
 
+import com.aptana.editor.common.outline.CommonOutlineElementComparerTest;
+import com.aptana.editor.common.spelling.DirtyRegionsTest;
+
 public class EditorCommonTests
 {
 
@@ -17,6 +20,8 @@ public class EditorCommonTests
 	{
 		TestSuite suite = new TestSuite(EditorCommonTests.class.getName());
 		//$JUnit-BEGIN$
+		suite.addTestSuite(CommonOutlineElementComparerTest.class);
+		suite.addTestSuite(DirtyRegionsTest.class);
 		suite.addTestSuite(RegionsTest.class);
 		suite.addTestSuite(SequenceCharacterScannerTest.class);
 		suite.addTestSuite(TextUtilsTest.class);
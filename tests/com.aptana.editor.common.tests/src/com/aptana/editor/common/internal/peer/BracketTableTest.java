@@ -0,0 +1,126 @@
+/**
+ * Aptana Studio
+ * Copyright (c) 2005-2012 by Appcelerator, Inc. All Rights Reserved.
+ * Licensed under the terms of the GNU Public License (GPL) v3 (with exceptions).
+ * Please see the license.html included with this distribution for details.
+ * Any modifications to this file must keep this entire header intact.
+ */
+package com.aptana.editor.common.internal.peer;
+
+import junit.framework.TestCase;
+
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.ITypedRegion;
+import org.eclipse.jface.text.TypedRegion;
+
+public class BracketTableTest extends TestCase
+{
+
+	private static String[] sameGroup(BracketTable table)
+	{
+		String[] groups = new String[table.size()];
+		for (int i = 0; i < groups.length; i++)
+		{
+			groups[i] = IDocument.DEFAULT_CONTENT_TYPE;
+		}
+		return groups;
+	}
+
+	private static void assertBrackets(String source, BracketTable table)
+	{
+		BracketTable expected = new BracketTable(source);
+		assertEquals(expected.size(), table.size());
+		for (int i = 0; i < table.size(); i++)
+		{
+			assertEquals(expected.getOffset(i), table.getOffset(i));
+			assertEquals(expected.getChar(i), table.getChar(i));
+		}
+	}
+
+	public void testIndexesBrackets()
+	{
+		BracketTable table = new BracketTable("if (a[0] < b) { x = '{'; }");
+		assertEquals(8, table.size());
+		assertEquals(3, table.getOffset(0));
+		assertEquals('(', table.getChar(0));
+		assertEquals(9, table.getOffset(3));
+		assertEquals('<', table.getChar(3));
+		assertEquals(3, table.indexOf(9));
+		assertEquals(-1, table.indexOf(10));
+	}
+
+	public void testPeers()
+	{
+		assertEquals(')', BracketTable.getPeer('('));
+		assertEquals('(', BracketTable.getPeer(')'));
+		assertEquals('>', BracketTable.getPeer('<'));
+		assertEquals(0, BracketTable.getPeer('"'));
+		assertFalse(BracketTable.isBracket('\''));
+	}
+
+	public void testMatchesNestedBrackets()
+	{
+		String source = "f(a[g(1)], (2))";
+		BracketTable table = new BracketTable(source);
+		int[] matches = table.computeMatches(sameGroup(table));
+
+		assertEquals(source.lastIndexOf(')'), table.getOffset(matches[table.indexOf(1)]));
+		assertEquals(source.indexOf(']'), table.getOffset(matches[table.indexOf(3)]));
+		assertEquals(5, table.getOffset(matches[table.indexOf(7)]));
+		assertEquals(13, table.getOffset(matches[table.indexOf(11)]));
+	}
+
+	public void testUnpairedBrackets()
+	{
+		BracketTable table = new BracketTable("(a]) )");
+		int[] matches = table.computeMatches(sameGroup(table));
+
+		assertEquals(3, table.getOffset(matches[table.indexOf(0)]));
+		assertEquals(-1, matches[table.indexOf(2)]);
+		assertEquals(-1, matches[table.indexOf(5)]);
+	}
+
+	public void testOnlyMatchesWithinGroup()
+	{
+		String source = "( /* ) */ )";
+		BracketTable table = new BracketTable(source);
+		ITypedRegion[] partitions = new ITypedRegion[] { new TypedRegion(0, 2, IDocument.DEFAULT_CONTENT_TYPE),
+				new TypedRegion(2, 7, "__js_comment"), new TypedRegion(9, 2, IDocument.DEFAULT_CONTENT_TYPE) };
+		String[] types = table.getContentTypes(partitions);
+		assertEquals(IDocument.DEFAULT_CONTENT_TYPE, types[0]);
+		assertEquals("__js_comment", types[1]);
+
+		int[] matches = table.computeMatches(types);
+		assertEquals(10, table.getOffset(matches[0]));
+		assertEquals(-1, matches[1]);
+	}
+
+	public void testBracketsOutsidePartitionsArentTyped()
+	{
+		BracketTable table = new BracketTable("() ()");
+		String[] types = table.getContentTypes(new ITypedRegion[] { new TypedRegion(0, 2,
+				IDocument.DEFAULT_CONTENT_TYPE) });
+		assertEquals(IDocument.DEFAULT_CONTENT_TYPE, types[1]);
+		assertNull(types[2]);
+		assertEquals(-1, table.computeMatches(types)[2]);
+	}
+
+	public void testFollowsEdits() throws Exception
+	{
+		IDocument document = new Document("function f(a) { return [a]; }");
+		BracketTable table = BracketTable.getTable(document);
+		assertSame(table, BracketTable.getTable(document));
+		int revision = table.getRevision();
+
+		document.replace(11, 0, "(b), ");
+		assertBrackets(document.get(), table);
+		document.replace(0, 9, "");
+		assertBrackets(document.get(), table);
+		document.replace(5, 10, "x<y>");
+		assertBrackets(document.get(), table);
+		document.set("");
+		assertEquals(0, table.size());
+		assertTrue(table.getRevision() > revision);
+	}
+}
@@ -0,0 +1,173 @@
+/**
+ * Aptana Studio
+ * Copyright (c) 2005-2012 by Appcelerator, Inc. All Rights Reserved.
+ * Licensed under the terms of the GNU Public License (GPL) v3 (with exceptions).
+ * Please see the license.html included with this distribution for details.
+ * Any modifications to this file must keep this entire header intact.
+ */
+package com.aptana.editor.common.outline;
+
+import junit.framework.TestCase;
+
+import com.aptana.parsing.ast.ParseNode;
+
+public class CommonOutlineElementComparerTest extends TestCase
+{
+
+	private static class TestNode extends ParseNode
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final String text;
+
+		TestNode(String text, int start)
+		{
+			super("text/test"); //$NON-NLS-1$
+			this.text = text;
+			setLocation(start, start + text.length() - 1);
+		}
+
+		@Override
+		public String getText()
+		{
+			return text;
+		}
+	}
+
+	private CommonOutlineElementComparer comparer;
+
+	@Override
+	protected void setUp() throws Exception
+	{
+		super.setUp();
+		comparer = new CommonOutlineElementComparer();
+	}
+
+	@Override
+	protected void tearDown() throws Exception
+	{
+		comparer = null;
+		super.tearDown();
+	}
+
+	public void testShiftedNodesAreEqual()
+	{
+		TestNode oldRoot = new TestNode("root", 0);
+		TestNode oldChild = new TestNode("foo", 10);
+		oldRoot.addChild(oldChild);
+
+		TestNode newRoot = new TestNode("root", 0);
+		TestNode newChild = new TestNode("foo", 25);
+		newRoot.addChild(newChild);
+
+		assertTrue(comparer.equals(oldChild, newChild));
+		assertEquals(comparer.hashCode(oldChild), comparer.hashCode(newChild));
+	}
+
+	public void testRenamedNodesAreNotEqual()
+	{
+		TestNode oldRoot = new TestNode("root", 0);
+		TestNode oldChild = new TestNode("foo", 10);
+		oldRoot.addChild(oldChild);
+
+		TestNode newRoot = new TestNode("root", 0);
+		TestNode newChild = new TestNode("bar", 10);
+		newRoot.addChild(newChild);
+
+		assertFalse(comparer.equals(oldChild, newChild));
+	}
+
+	public void testNodesUnderDifferentParentsAreNotEqual()
+	{
+		TestNode root = new TestNode("root", 0);
+		TestNode parent1 = new TestNode("a", 0);
+		TestNode parent2 = new TestNode("b", 20);
+		root.addChild(parent1);
+		root.addChild(parent2);
+		TestNode child1 = new TestNode("x", 5);
+		TestNode child2 = new TestNode("x", 25);
+		parent1.addChild(child1);
+		parent2.addChild(child2);
+
+		assertFalse(comparer.equals(child1, child2));
+	}
+
+	public void testSameLookingSiblingsAreToldApart()
+	{
+		TestNode oldRoot = new TestNode("root", 0);
+		TestNode oldFirst = new TestNode("function", 0);
+		TestNode oldSecond = new TestNode("function", 20);
+		oldRoot.addChild(oldFirst);
+		oldRoot.addChild(oldSecond);
+
+		// inserting another kind of node in between doesn't change which is which
+		TestNode newRoot = new TestNode("root", 0);
+		TestNode newFirst = new TestNode("function", 0);
+		TestNode newOther = new TestNode("var", 15);
+		TestNode newSecond = new TestNode("function", 30);
+		newRoot.addChild(newFirst);
+		newRoot.addChild(newOther);
+		newRoot.addChild(newSecond);
+
+		assertFalse(comparer.equals(oldFirst, oldSecond));
+		assertTrue(comparer.equals(oldFirst, newFirst));
+		assertTrue(comparer.equals(oldSecond, newSecond));
+		assertFalse(comparer.equals(oldFirst, newSecond));
+	}
+
+	public void testManySameLookingSiblings()
+	{
+		TestNode oldRoot = new TestNode("root", 0);
+		TestNode newRoot = new TestNode("root", 0);
+		for (int i = 0; i < 100; i++)
+		{
+			oldRoot.addChild(new TestNode("function", i * 10));
+			newRoot.addChild(new TestNode("function", i * 10 + 5));
+		}
+
+		for (int i = 0; i < 100; i++)
+		{
+			assertTrue(comparer.equals(oldRoot.getChild(i), newRoot.getChild(i)));
+			assertEquals(comparer.hashCode(oldRoot.getChild(i)), comparer.hashCode(newRoot.getChild(i)));
+		}
+		assertFalse(comparer.equals(oldRoot.getChild(10), newRoot.getChild(11)));
+		assertFalse(comparer.hashCode(oldRoot.getChild(10)) == comparer.hashCode(oldRoot.getChild(11)));
+	}
+
+	public void testResetForgetsOccurrences()
+	{
+		TestNode root = new TestNode("root", 0);
+		TestNode first = new TestNode("function", 10);
+		TestNode second = new TestNode("function", 20);
+		root.addChild(first);
+		root.addChild(second);
+		TestNode otherRoot = new TestNode("root", 0);
+		TestNode other = new TestNode("function", 10);
+		otherRoot.addChild(other);
+		assertTrue(comparer.equals(first, other));
+
+		// first is now the second function of its parent
+		root.replaceChild(0, new TestNode("function", 0));
+		root.addChild(first);
+		comparer.reset();
+		assertFalse(comparer.equals(first, other));
+	}
+
+	public void testOutlineItems()
+	{
+		TestNode oldRoot = new TestNode("root", 0);
+		TestNode oldChild = new TestNode("foo", 10);
+		oldRoot.addChild(oldChild);
+		TestNode newRoot = new TestNode("root", 0);
+		TestNode newChild = new TestNode("foo", 14);
+		newRoot.addChild(newChild);
+
+		CommonOutlineItem oldItem = new CommonOutlineItem(oldChild, oldChild);
+		CommonOutlineItem newItem = new CommonOutlineItem(newChild, newChild);
+
+		assertFalse(oldItem.equals(newItem));
+		assertTrue(comparer.equals(oldItem, newItem));
+		assertEquals(comparer.hashCode(oldItem), comparer.hashCode(newItem));
+		assertFalse(comparer.equals(oldItem, oldChild));
+	}
+}
@@ -27,6 +27,8 @@ public abstract class CompositeParserTestBase extends TestCase
 
 	static class NamedParseNode extends ParseNode
 	{
+		private static final long serialVersionUID = 1L;
+
 		private String name;
 
 		public NamedParseNode(String language, String name, int startingOffset, int endingOffset)
@@ -58,6 +60,8 @@ public abstract class CompositeParserTestBase extends TestCase
 
 	static class NamedParseRootNode extends NamedParseNode implements IParseRootNode
 	{
+		private static final long serialVersionUID = 1L;
+
 		public NamedParseRootNode(String language, int startingOffset, int endingOffset)
 		{
 			super(language, null, startingOffset, endingOffset);
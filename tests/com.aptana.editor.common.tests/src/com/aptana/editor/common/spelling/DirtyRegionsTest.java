@@ -0,0 +1,102 @@
+/**
+ * Aptana Studio
+ * Copyright (c) 2005-2012 by Appcelerator, Inc. All Rights Reserved.
+ * Licensed under the terms of the GNU Public License (GPL) v3 (with exceptions).
+ * Please see the license.html included with this distribution for details.
+ * Any modifications to this file must keep this entire header intact.
+ */
+package com.aptana.editor.common.spelling;
+
+import junit.framework.TestCase;
+
+import org.eclipse.jface.text.IRegion;
+import org.eclipse.jface.text.Region;
+
+public class DirtyRegionsTest extends TestCase
+{
+
+	private DirtyRegions dirtyRegions;
+
+	@Override
+	protected void setUp() throws Exception
+	{
+		super.setUp();
+		dirtyRegions = new DirtyRegions();
+	}
+
+	@Override
+	protected void tearDown() throws Exception
+	{
+		dirtyRegions = null;
+		super.tearDown();
+	}
+
+	private void assertRegions(IRegion... expected)
+	{
+		IRegion[] actual = dirtyRegions.getRegions(0, Integer.MAX_VALUE / 2);
+		assertEquals(expected.length, actual.length);
+		for (int i = 0; i < expected.length; i++)
+		{
+			assertEquals(expected[i], actual[i]);
+		}
+	}
+
+	public void testTypingMarksInsertedText()
+	{
+		dirtyRegions.documentChanged(10, 0, 1);
+		dirtyRegions.documentChanged(11, 0, 1);
+		dirtyRegions.documentChanged(12, 0, 1);
+
+		assertRegions(new Region(10, 3));
+	}
+
+	public void testDeletionLeavesEmptyRegion()
+	{
+		dirtyRegions.documentChanged(10, 5, 0);
+
+		assertRegions(new Region(10, 0));
+		assertFalse(dirtyRegions.isEmpty());
+	}
+
+	public void testEditsShiftFollowingRegions()
+	{
+		dirtyRegions.add(20, 5);
+		dirtyRegions.documentChanged(0, 0, 3);
+		dirtyRegions.documentChanged(10, 4, 0);
+
+		assertRegions(new Region(0, 3), new Region(10, 0), new Region(19, 5));
+	}
+
+	public void testEditInsideRegionGrowsIt()
+	{
+		dirtyRegions.add(10, 10);
+		dirtyRegions.documentChanged(15, 2, 6);
+
+		assertRegions(new Region(10, 14));
+	}
+
+	public void testRemoveCheckedRegion()
+	{
+		dirtyRegions.add(10, 10);
+		dirtyRegions.documentChanged(30, 1, 0);
+		dirtyRegions.remove(12, 3);
+
+		assertRegions(new Region(10, 2), new Region(15, 5), new Region(30, 0));
+
+		dirtyRegions.remove(0, 40);
+
+		assertTrue(dirtyRegions.isEmpty());
+	}
+
+	public void testRegionsWithinPartition()
+	{
+		dirtyRegions.add(5, 10);
+		dirtyRegions.documentChanged(30, 2, 0);
+
+		IRegion[] regions = dirtyRegions.getRegions(10, 20);
+		assertEquals(2, regions.length);
+		assertEquals(new Region(10, 5), regions[0]);
+		assertEquals(new Region(30, 0), regions[1]);
+		assertEquals(0, dirtyRegions.getRegions(15, 10).length);
+	}
+}
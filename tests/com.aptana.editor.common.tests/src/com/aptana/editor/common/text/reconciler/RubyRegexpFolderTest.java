@@ -178,4 +178,52 @@ public class RubyRegexpFolderTest extends TestCase
 		assertEquals(1, positions.size());
 		assertTrue(positions.contains(new Position(0, src.length()))); // eats whole line at end
 	}
+
+	public void testFoldingAfterEdit() throws Exception
+	{
+		String src = "body {\n" + "	color: red;\n" + "}\n" + "\n" + "div p {\n" + "	background-color: green;\n" + "}\n"
+				+ "\n" + ".one-liner { color: orange; }\n" + "\n" + "#id { \n" + "	font-family: monospace;\n" + "}";
+		IDocument document = new Document(src);
+		RubyRegexpFolder folder = createCSSFolder(document);
+		assertEquals(3, folder.emitFoldingRegions(false, new NullProgressMonitor(), null).size());
+
+		// unchanged lines reuse their earlier match results, which must not change the outcome
+		document.replace(6, 0, "\n	margin: 0;");
+		document.replace(document.getLength() - 1, 0, "}\n");
+		Collection<Position> positions = folder.emitFoldingRegions(false, new NullProgressMonitor(), null).values();
+		Collection<Position> expected = createCSSFolder(document).emitFoldingRegions(false, new NullProgressMonitor(),
+				null).values();
+		assertEquals(3, positions.size());
+		assertTrue(positions.contains(new Position(0, 34)));
+		assertTrue(expected.containsAll(positions));
+		assertTrue(positions.containsAll(expected));
+	}
+
+	private RubyRegexpFolder createCSSFolder(IDocument document)
+	{
+		final RubyRegexp endRegexp = RubyRegexp.newRegexp(runtime, "(?<!\\*)\\*\\*\\/|^\\s*\\}",
+				RegexpOptions.NULL_OPTIONS);
+		final RubyRegexp startRegexp = RubyRegexp.newRegexp(runtime,
+				"\\/\\*\\*(?!\\*)|\\{\\s*($|\\/\\*(?!.*?\\*\\/.*\\S))", RegexpOptions.NULL_OPTIONS);
+		return new RubyRegexpFolder(null, document)
+		{
+			@Override
+			protected RubyRegexp getEndFoldRegexp(String scope)
+			{
+				return endRegexp;
+			}
+
+			@Override
+			protected RubyRegexp getStartFoldRegexp(String scope)
+			{
+				return startRegexp;
+			}
+
+			@Override
+			protected String getScopeAtOffset(int offset) throws BadLocationException
+			{
+				return "source.css";
+			}
+		};
+	}
 }
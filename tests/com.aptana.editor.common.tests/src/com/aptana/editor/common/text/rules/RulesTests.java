@@ -25,6 +25,7 @@ public class RulesTests
 		suite.addTestSuite(SingleCharacterRuleTest.class);
 		suite.addTestSuite(SingleTagRuleTest.class);
 		suite.addTestSuite(ExtendedWordRuleTest.class);
+		suite.addTestSuite(TokenScopeStoreTest.class);
 		//$JUnit-END$
 		return suite;
 	}
@@ -0,0 +1,133 @@
+package com.aptana.editor.common.text.rules;
+
+import junit.framework.TestCase;
+
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+
+public class TokenScopeStoreTest extends TestCase
+{
+
+	private IDocument document;
+	private TokenScopeStore store;
+
+	@Override
+	protected void setUp() throws Exception
+	{
+		super.setUp();
+		document = new Document("var foo = 'bar';");
+		store = TokenScopeStore.getStore(document);
+
+		TokenScopeStore.Ranges ranges = new TokenScopeStore.Ranges();
+		ranges.add(0, 3, "storage.type.js");
+		ranges.add(4, 3, "variable.other.js");
+		ranges.add(8, 1, "keyword.operator.js");
+		ranges.add(10, 5, "string.quoted.single.js");
+		ranges.add(15, 1, "punctuation.terminator.js");
+		store.replace(0, document.getLength(), ranges);
+	}
+
+	@Override
+	protected void tearDown() throws Exception
+	{
+		store = null;
+		document = null;
+		super.tearDown();
+	}
+
+	public void testStoreIsSharedPerDocument() throws Exception
+	{
+		assertSame(store, TokenScopeStore.getStore(document));
+		assertSame(store, TokenScopeStore.peekStore(document));
+		assertNull(TokenScopeStore.peekStore(new Document()));
+	}
+
+	public void testScopeAtOffset() throws Exception
+	{
+		assertEquals(5, store.size());
+		assertEquals("storage.type.js", store.getScope(0));
+		assertEquals("storage.type.js", store.getScope(2));
+		assertNull(store.getScope(3));
+		assertEquals("variable.other.js", store.getScope(4));
+		assertEquals("string.quoted.single.js", store.getScope(14));
+		assertEquals("punctuation.terminator.js", store.getScope(15));
+		assertNull(store.getScope(16));
+	}
+
+	public void testSameScopesAreMerged() throws Exception
+	{
+		TokenScopeStore.Ranges ranges = new TokenScopeStore.Ranges();
+		ranges.add(0, 3, "source.js");
+		ranges.add(3, 1, "source.js");
+		ranges.split();
+		ranges.add(5, 2, "source.js");
+		assertEquals(2, ranges.size());
+	}
+
+	public void testInsertionShiftsFollowingScopes() throws Exception
+	{
+		document.replace(4, 0, "my");
+
+		assertEquals("storage.type.js", store.getScope(0));
+		assertNull(store.getScope(4));
+		assertEquals("variable.other.js", store.getScope(6));
+		assertEquals("string.quoted.single.js", store.getScope(12));
+		assertEquals("punctuation.terminator.js", store.getScope(17));
+	}
+
+	public void testInsertionInsideScopeGrowsIt() throws Exception
+	{
+		document.replace(12, 0, "ba");
+
+		assertEquals("string.quoted.single.js", store.getScope(10));
+		assertEquals("string.quoted.single.js", store.getScope(16));
+		assertEquals("punctuation.terminator.js", store.getScope(17));
+	}
+
+	public void testDeletionDropsScopes() throws Exception
+	{
+		// remove "foo = "
+		document.replace(4, 6, "");
+
+		assertEquals("storage.type.js", store.getScope(0));
+		assertEquals("string.quoted.single.js", store.getScope(4));
+		assertEquals("punctuation.terminator.js", store.getScope(9));
+		assertEquals(3, store.size());
+	}
+
+	public void testReplaceOnlyTouchesRegion() throws Exception
+	{
+		TokenScopeStore.Ranges ranges = new TokenScopeStore.Ranges();
+		ranges.add(4, 3, "entity.name.function.js");
+		store.replace(4, 3, ranges);
+
+		assertEquals("storage.type.js", store.getScope(0));
+		assertEquals("entity.name.function.js", store.getScope(5));
+		assertEquals("keyword.operator.js", store.getScope(8));
+		assertEquals(5, store.size());
+	}
+
+	public void testReplaceClipsOverlappingScopes() throws Exception
+	{
+		store.set(12, 10, "comment.line.js");
+
+		assertEquals("string.quoted.single.js", store.getScope(11));
+		assertEquals("comment.line.js", store.getScope(12));
+		assertEquals("comment.line.js", store.getScope(15));
+	}
+
+	public void testManyEditsInDifferentPlaces() throws Exception
+	{
+		for (int i = 0; i < 50; i++)
+		{
+			document.replace(0, 0, " ");
+			document.replace(document.getLength() - 1, 0, " ");
+		}
+
+		assertEquals("storage.type.js", store.getScope(50));
+		assertEquals("variable.other.js", store.getScope(54));
+		assertEquals("string.quoted.single.js", store.getScope(64));
+		assertNull(store.getScope(document.getLength() - 2));
+		assertEquals("punctuation.terminator.js", store.getScope(document.getLength() - 1));
+	}
+}
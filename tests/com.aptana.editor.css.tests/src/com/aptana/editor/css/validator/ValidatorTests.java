@@ -13,6 +13,7 @@ public class ValidatorTests extends TestCase
 		//$JUnit-BEGIN$
 		suite.addTestSuite(CSSParserValidatorTest.class);
 		suite.addTestSuite(CSSValidatorTest.class);
+		suite.addTestSuite(W3CValidatorPoolTest.class);
 		//$JUnit-END$
 		return suite;
 	}
@@ -0,0 +1,138 @@
+/**
+ * Aptana Studio
+ * Copyright (c) 2005-2012 by Appcelerator, Inc. All Rights Reserved.
+ * Licensed under the terms of the GNU Public License (GPL) v3 (with exceptions).
+ * Please see the license.html included with this distribution for details.
+ * Any modifications to this file must keep this entire header intact.
+ */
+package com.aptana.editor.css.validator;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import com.aptana.editor.css.validator.W3CValidatorPool.ValidatorContext;
+
+public class W3CValidatorPoolTest extends TestCase
+{
+
+	private static final URI FIRST = URI.create("file:/first.css");
+	private static final URI SECOND = URI.create("file:/second.css");
+
+	private W3CValidatorPool pool;
+
+	@Override
+	protected void setUp() throws Exception
+	{
+		super.setUp();
+		pool = new W3CValidatorPool("css21", "all", 2);
+	}
+
+	@Override
+	protected void tearDown() throws Exception
+	{
+		pool = null;
+		super.tearDown();
+	}
+
+	public void testReleasedContextIsReused() throws Exception
+	{
+		List<String> filters = Collections.emptyList();
+		ValidatorContext context = pool.acquire(filters);
+		pool.release(context);
+
+		assertSame(context, pool.acquire(filters));
+	}
+
+	public void testContextsInUseAreNotShared() throws Exception
+	{
+		List<String> filters = Collections.emptyList();
+		ValidatorContext first = pool.acquire(filters);
+		ValidatorContext second = pool.acquire(filters);
+
+		assertNotSame(first, second);
+	}
+
+	public void testPoolIsBounded() throws Exception
+	{
+		List<String> filters = Collections.emptyList();
+		ValidatorContext first = pool.acquire(filters);
+		ValidatorContext second = pool.acquire(filters);
+		ValidatorContext third = pool.acquire(filters);
+		pool.release(first);
+		pool.release(second);
+		pool.release(third);
+
+		List<ValidatorContext> idle = new ArrayList<ValidatorContext>();
+		idle.add(pool.acquire(filters));
+		idle.add(pool.acquire(filters));
+		assertFalse(idle.contains(pool.acquire(filters)));
+	}
+
+	public void testFiltersAreUpdated() throws Exception
+	{
+		ValidatorContext context = pool.acquire(Arrays.asList(".*color.*"));
+		assertTrue(context.isIgnored("Property color doesn't exist"));
+		pool.release(context);
+
+		context = pool.acquire(Arrays.asList(".*margin.*"));
+		assertFalse(context.isIgnored("Property color doesn't exist"));
+		assertTrue(context.isIgnored("Property margin doesn't exist"));
+	}
+
+	public void testReusedContextOnlyReportsTheCurrentFile() throws Exception
+	{
+		List<String> filters = Collections.emptyList();
+		ValidatorContext context = pool.acquire(filters);
+		String report = context.getReport("div {\ncolour: red;\n}", FIRST);
+		assertTrue(report.contains("colour"));
+
+		report = context.getReport("div {\ncolor: red;\n}", SECOND);
+		assertFalse(report.contains("colour"));
+	}
+
+	public void testContextsValidateConcurrently() throws Exception
+	{
+		final List<String> filters = Collections.emptyList();
+		final String expected = pool.acquire(filters).getReport("div {\ncolour: red;\n}", FIRST);
+		final List<String> reports = Collections.synchronizedList(new ArrayList<String>());
+
+		Thread[] threads = new Thread[4];
+		for (int i = 0; i < threads.length; i++)
+		{
+			threads[i] = new Thread()
+			{
+				public void run()
+				{
+					for (int j = 0; j < 10; j++)
+					{
+						ValidatorContext context = pool.acquire(filters);
+						try
+						{
+							reports.add(context.getReport("div {\ncolour: red;\n}", FIRST));
+						}
+						finally
+						{
+							pool.release(context);
+						}
+					}
+				}
+			};
+			threads[i].start();
+		}
+		for (Thread thread : threads)
+		{
+			thread.join();
+		}
+
+		assertEquals(40, reports.size());
+		for (String report : reports)
+		{
+			assertEquals(expected, report);
+		}
+	}
+}
@@ -45,19 +45,23 @@ public class HTMLSourcePartitionScannerTest extends TestCase
 	{
 		if (partitioner == null)
 		{
-			IDocument document = new Document(content);
-			CompositePartitionScanner partitionScanner = new CompositePartitionScanner(HTMLSourceConfiguration
-					.getDefault().createSubPartitionScanner(), new NullSubPartitionScanner(),
-					new NullPartitionerSwitchStrategy());
-			partitioner = new ExtendedFastPartitioner(partitionScanner, HTMLSourceConfiguration.getDefault()
-					.getContentTypes());
-			partitionScanner.setPartitioner(partitioner);
-			partitioner.connect(document);
-			document.setDocumentPartitioner(partitioner);
+			partitioner = connectPartitioner(new Document(content));
 		}
 		return partitioner.getContentType(offset);
 	}
 
+	private ExtendedFastPartitioner connectPartitioner(IDocument document)
+	{
+		CompositePartitionScanner partitionScanner = new CompositePartitionScanner(HTMLSourceConfiguration.getDefault()
+				.createSubPartitionScanner(), new NullSubPartitionScanner(), new NullPartitionerSwitchStrategy());
+		ExtendedFastPartitioner result = new ExtendedFastPartitioner(partitionScanner, HTMLSourceConfiguration
+				.getDefault().getContentTypes());
+		partitionScanner.setPartitioner(result);
+		result.connect(document);
+		document.setDocumentPartitioner(result);
+		return result;
+	}
+
 	// TODO Add tests for script/style/tag/cdata/doctype/default
 
 	public void testPartitioningOfCommentSpanningSingleLine()
@@ -241,6 +245,33 @@ public class HTMLSourcePartitionScannerTest extends TestCase
 		assertContentType(HTMLSourceConfiguration.HTML_TAG_CLOSE, source, 2);
 	}
 
+	public void testRepartitioningAfterSelfClosingScriptTag() throws Exception
+	{
+		StringBuilder source = new StringBuilder();
+		for (int i = 0; i < 40; i++)
+		{
+			source.append("<p>text</p>\n");
+		}
+		source.append("<script src=\"test.js\"/>\n");
+		int textOffset = source.length();
+		source.append("text\n<p>after</p>\n");
+		IDocument document = new Document(source.toString());
+		partitioner = connectPartitioner(document);
+		assertEquals(HTMLSourceConfiguration.HTML_TAG, partitioner.getContentType(textOffset + 5));
+
+		// the text after the self-closing script tag must not be rescanned as JS
+		document.replace(textOffset, 0, "more ");
+		assertEquals(HTMLSourceConfiguration.DEFAULT, partitioner.getContentType(textOffset));
+		assertEquals(HTMLSourceConfiguration.HTML_TAG, partitioner.getContentType(textOffset + 10));
+
+		ExtendedFastPartitioner expected = connectPartitioner(new Document(document.get()));
+		for (int i = 0; i < document.getLength(); i++)
+		{
+			assertEquals("Content type doesn't match full partitioning at " + i, expected.getContentType(i),
+					partitioner.getContentType(i));
+		}
+	}
+
 	public void testIncompleteTag8()
 	{
 		String source = "</><html>";
@@ -0,0 +1,164 @@
+/**
+ * Aptana Studio
+ * Copyright (c) 2005-2012 by Appcelerator, Inc. All Rights Reserved.
+ * Licensed under the terms of the GNU Public License (GPL) v3 (with exceptions).
+ * Please see the license.html included with this distribution for details.
+ * Any modifications to this file must keep this entire header intact.
+ */
+package com.aptana.editor.html.parsing;
+
+import junit.framework.TestCase;
+import beaver.Symbol;
+
+import com.aptana.editor.html.parsing.lexer.HTMLTokens;
+
+/**
+ * HTMLFlexScannerTest
+ */
+public class HTMLFlexScannerTest extends TestCase
+{
+	private HTMLFlexScanner _scanner;
+
+	/*
+	 * (non-Javadoc)
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	@Override
+	protected void setUp() throws java.lang.Exception
+	{
+		super.setUp();
+
+		_scanner = new HTMLFlexScanner();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see junit.framework.TestCase#tearDown()
+	 */
+	@Override
+	protected void tearDown() throws java.lang.Exception
+	{
+		_scanner = null;
+
+		super.tearDown();
+	}
+
+	/**
+	 * assertTokens
+	 *
+	 * @param source
+	 * @param expected
+	 *            The expected token types, followed by the starting and ending offset of each token
+	 * @throws Exception
+	 */
+	protected void assertTokens(String source, int... expected) throws Exception
+	{
+		_scanner.setSource(source);
+
+		for (int i = 0; i < expected.length; i += 3)
+		{
+			Symbol token = _scanner.nextToken();
+			String name = HTMLTokens.getTokenName((short) expected[i]);
+
+			assertEquals("unexpected token type at " + token.getStart(), name, HTMLTokens.getTokenName(token.getId()));
+			assertEquals(name + " start", expected[i + 1], token.getStart());
+			assertEquals(name + " end", expected[i + 2], token.getEnd());
+		}
+
+		assertEquals(HTMLTokens.EOF, _scanner.nextToken().getId());
+	}
+
+	public void testTags() throws Exception
+	{
+		assertTokens("<p class=\"a>b\">x</p>", //
+				HTMLTokens.START_TAG, 0, 14, //
+				HTMLTokens.TEXT, 15, 15, //
+				HTMLTokens.END_TAG, 16, 19);
+	}
+
+	public void testTextIsOneToken() throws Exception
+	{
+		assertTokens("<b>hello there world</b>", //
+				HTMLTokens.START_TAG, 0, 2, //
+				HTMLTokens.TEXT, 3, 19, //
+				HTMLTokens.END_TAG, 20, 23);
+	}
+
+	public void testSplitText() throws Exception
+	{
+		_scanner.setSplitText(true);
+
+		assertTokens("hi there!", //
+				HTMLTokens.TEXT, 0, 1, //
+				HTMLTokens.TEXT, 2, 2, //
+				HTMLTokens.TEXT, 3, 7, //
+				HTMLTokens.TEXT, 8, 8);
+	}
+
+	public void testUnclosedTag() throws Exception
+	{
+		assertTokens("a < b", //
+				HTMLTokens.TEXT, 0, 1, //
+				HTMLTokens.TEXT, 2, 2, //
+				HTMLTokens.TEXT, 3, 4);
+	}
+
+	public void testComment() throws Exception
+	{
+		assertTokens("<!-- <p> -->", HTMLTokens.COMMENT, 0, 11);
+	}
+
+	public void testUnterminatedComment() throws Exception
+	{
+		assertTokens("<!-- <p>", HTMLTokens.COMMENT, 0, 7);
+	}
+
+	public void testDoctypeIsIgnored() throws Exception
+	{
+		assertTokens("<!DOCTYPE html><html>", HTMLTokens.START_TAG, 15, 20);
+	}
+
+	public void testScript() throws Exception
+	{
+		assertTokens("<script>if (a < b) x = '</p>';</script>", //
+				HTMLTokens.SCRIPT, 0, 7, //
+				HTMLTokens.SCRIPT, 8, 29, //
+				HTMLTokens.SCRIPT_END, 30, 38);
+	}
+
+	public void testEmptyScript() throws Exception
+	{
+		assertTokens("<SCRIPT src='a.js'></Script>", //
+				HTMLTokens.SCRIPT, 0, 18, //
+				HTMLTokens.SCRIPT_END, 19, 27);
+	}
+
+	public void testUnterminatedScript() throws Exception
+	{
+		assertTokens("<script>var a;", //
+				HTMLTokens.SCRIPT, 0, 7, //
+				HTMLTokens.SCRIPT, 8, 13);
+	}
+
+	public void testCommentHidesScriptEnd() throws Exception
+	{
+		assertTokens("<script><!-- '</script>' --></script>", //
+				HTMLTokens.SCRIPT, 0, 7, //
+				HTMLTokens.SCRIPT, 8, 27, //
+				HTMLTokens.SCRIPT_END, 28, 36);
+	}
+
+	public void testStyle() throws Exception
+	{
+		assertTokens("<style type=\"text/css\">p { color: red; }</style><p>", //
+				HTMLTokens.STYLE, 0, 22, //
+				HTMLTokens.STYLE, 23, 39, //
+				HTMLTokens.STYLE_END, 40, 47, //
+				HTMLTokens.START_TAG, 48, 50);
+	}
+
+	public void testElementNamedLikeScript() throws Exception
+	{
+		assertTokens("<scripts>", HTMLTokens.START_TAG, 0, 8);
+	}
+}
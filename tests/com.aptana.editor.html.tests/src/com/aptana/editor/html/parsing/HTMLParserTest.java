@@ -250,6 +250,49 @@ public class HTMLParserTest extends TestCase
 		assertEquals(88, cssRootNode.getCommentNodes()[0].getEndingOffset());
 	}
 
+	public void testEmbeddedAttributesParsedLazily() throws Exception
+	{
+		String source = "<html><head><script>var x = 1;</script><style>p {}</style></head>"
+				+ "<body onload=\"init();\" style=\"color: red;\"></body></html>";
+		fParseState = new HTMLParseState(source);
+		IParseNode result = parse();
+
+		// blocks are parsed along with the HTML, attribute values only on demand
+		List<EmbeddedLanguageParse> embeddedParses = HTMLParser.getEmbeddedParses(result);
+		assertEquals(4, embeddedParses.size());
+		for (EmbeddedLanguageParse embeddedParse : embeddedParses)
+		{
+			assertEquals(embeddedParse.getKind() == EmbeddedLanguageParse.Kind.BLOCK, embeddedParse.isParsed());
+		}
+
+		HTMLElementNode html = (HTMLElementNode) result.getChild(0);
+		HTMLElementNode head = (HTMLElementNode) html.getChild(0);
+		HTMLElementNode body = (HTMLElementNode) html.getChild(1);
+
+		// the block's tree is attached by the time the parse returns
+		assertTrue(head.getChild(0).getChild(0) instanceof JSParseRootNode);
+		assertSame(head.getChild(0), head.getChild(0).getChild(0).getParent());
+		assertEquals(1, body.getJSAttributeNodes().length);
+		assertEquals(1, body.getCSSStyleNodes().length);
+		for (EmbeddedLanguageParse embeddedParse : embeddedParses)
+		{
+			assertTrue(embeddedParse.isParsed());
+		}
+	}
+
+	public void testEmbeddedLanguageErrors() throws Exception
+	{
+		String source = "<html><script>var foo = function() {\nhello(\n};</script></html>";
+		fParseState = new HTMLParseState(source);
+		ParseResult parseResult = fParser.parse(fParseState);
+
+		// sub-language errors are part of the HTML result, shifted to the document's offsets
+		List<IParseError> errors = parseResult.getErrors();
+		assertFalse(errors.isEmpty());
+		assertEquals(IJSConstants.CONTENT_TYPE_JS, errors.get(0).getLangauge());
+		assertTrue(errors.get(0).getOffset() >= source.indexOf("var"));
+	}
+
 	public void testMissingEndTagError() throws Exception
 	{
 		String source = "<title><body><div><p></body>";
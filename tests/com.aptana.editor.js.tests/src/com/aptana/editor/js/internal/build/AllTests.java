@@ -12,6 +12,8 @@ public class AllTests extends TestCase
 		TestSuite suite = new TestSuite(AllTests.class.getName());
 		//$JUnit-BEGIN$
 		suite.addTestSuite(JSTaskDetectorTest.class);
+		suite.addTestSuite(JSVisitorPipelineTest.class);
+		suite.addTestSuite(RequireGraphTest.class);
 		//$JUnit-END$
 		return suite;
 	}
@@ -0,0 +1,223 @@
+package com.aptana.editor.js.internal.build;
+
+import java.io.File;
+import java.io.FileOutputStream;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.filesystem.EFS;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+
+import com.aptana.core.build.RequiredBuildParticipant;
+import com.aptana.core.util.FileUtil;
+import com.aptana.core.util.IOUtil;
+import com.aptana.editor.js.IJSConstants;
+import com.aptana.index.core.FileStoreBuildContext;
+import com.aptana.index.core.build.BuildContext;
+import com.aptana.parsing.ast.IParseNode;
+import com.aptana.parsing.ast.IParseRootNode;
+import com.aptana.parsing.util.ParseUtil;
+
+public class JSVisitorPipelineTest extends TestCase
+{
+
+	private static class CountingVisitor implements ParseUtil.IASTVisitor
+	{
+		int entered;
+		int exited;
+
+		public boolean enterNode(IParseNode node)
+		{
+			entered++;
+			return true;
+		}
+
+		public boolean exitNode(IParseNode node)
+		{
+			exited++;
+			return true;
+		}
+	}
+
+	private static class CountingProvider implements JSVisitorPipeline.INodeHandlerProvider
+	{
+		int created;
+
+		public ParseUtil.IASTVisitor createNodeHandler(BuildContext context, IParseRootNode ast)
+		{
+			created++;
+			return new CountingVisitor();
+		}
+	}
+
+	private static class CountingParticipant extends RequiredBuildParticipant implements
+			JSVisitorPipeline.INodeHandlerProvider
+	{
+		private final CountingProvider provider = new CountingProvider();
+
+		@Override
+		public String getId()
+		{
+			return "com.aptana.editor.js.tests.counting";
+		}
+
+		public ParseUtil.IASTVisitor createNodeHandler(BuildContext context, IParseRootNode ast)
+		{
+			return provider.createNodeHandler(context, ast);
+		}
+
+		public void buildFile(BuildContext context, IProgressMonitor monitor)
+		{
+		}
+
+		public void deleteFile(BuildContext context, IProgressMonitor monitor)
+		{
+		}
+	}
+
+	private JSVisitorPipeline pipeline;
+	private IProject project;
+	private File tmpDir;
+	private BuildContext context;
+
+	protected void setUp() throws Exception
+	{
+		super.setUp();
+		pipeline = new JSVisitorPipeline();
+		project = ResourcesPlugin.getWorkspace().getRoot().getProject("visitor_pipeline");
+
+		tmpDir = new File(System.getProperty("java.io.tmpdir"), "testJSVisitorPipeline_" + System.currentTimeMillis());
+		tmpDir.mkdirs();
+		File file = new File(tmpDir, "walk_me.js");
+		IOUtil.write(new FileOutputStream(file), "var a = require('a');\nfunction b(c) { return c + 1; }\n");
+
+		context = new FileStoreBuildContext(EFS.getStore(file.toURI()))
+		{
+			@Override
+			public IProject getProject()
+			{
+				return project;
+			}
+
+			@Override
+			public String getContentType() throws CoreException
+			{
+				return IJSConstants.CONTENT_TYPE_JS;
+			}
+		};
+	}
+
+	protected void tearDown() throws Exception
+	{
+		try
+		{
+			FileUtil.deleteRecursively(tmpDir);
+		}
+		finally
+		{
+			context = null;
+			tmpDir = null;
+			project = null;
+			pipeline = null;
+			super.tearDown();
+		}
+	}
+
+	public void testRegisteredHandlersShareTheWalk() throws Exception
+	{
+		CountingProvider first = new CountingProvider();
+		CountingProvider second = new CountingProvider();
+		pipeline.register(project, second);
+
+		IParseRootNode ast = context.getAST();
+		CountingVisitor firstVisitor = (CountingVisitor) pipeline.visit(context, ast, first);
+		assertEquals(1, first.created);
+		assertEquals(1, second.created);
+		assertTrue(firstVisitor.entered > 0);
+		assertEquals(firstVisitor.entered, firstVisitor.exited);
+
+		// The second participant gets the handler populated by the first walk
+		CountingVisitor secondVisitor = (CountingVisitor) pipeline.visit(context, ast, second);
+		assertEquals(1, first.created);
+		assertEquals(1, second.created);
+		assertEquals(firstVisitor.entered, secondVisitor.entered);
+		assertEquals(firstVisitor.exited, secondVisitor.exited);
+	}
+
+	public void testConsumedWalkIsDropped() throws Exception
+	{
+		CountingProvider first = new CountingProvider();
+		CountingProvider second = new CountingProvider();
+		pipeline.register(project, second);
+
+		IParseRootNode ast = context.getAST();
+		pipeline.visit(context, ast, first);
+		assertTrue(pipeline.hasPendingHandlers(context));
+		pipeline.visit(context, ast, second);
+		assertFalse(pipeline.hasPendingHandlers(context));
+	}
+
+	public void testSkippedParticipantGetsNoHandler() throws Exception
+	{
+		CountingProvider first = new CountingProvider();
+		CountingParticipant participant = new CountingParticipant();
+		pipeline.register(project, participant);
+		context.skipParticipant(participant.getId());
+
+		pipeline.visit(context, context.getAST(), first);
+		assertEquals(1, first.created);
+		assertEquals(0, participant.provider.created);
+		assertFalse(pipeline.hasPendingHandlers(context));
+	}
+
+	public void testUnregisteredProviderWalksAlone() throws Exception
+	{
+		CountingProvider first = new CountingProvider();
+		CountingProvider second = new CountingProvider();
+		pipeline.register(project, second);
+		pipeline.unregister(second);
+
+		IParseRootNode ast = context.getAST();
+		pipeline.visit(context, ast, first);
+		assertEquals(1, first.created);
+		assertEquals(0, second.created);
+
+		CountingVisitor secondVisitor = (CountingVisitor) pipeline.visit(context, ast, second);
+		assertEquals(1, second.created);
+		assertTrue(secondVisitor.entered > 0);
+	}
+
+	public void testFailingHandlerDoesNotStopTheOthers() throws Exception
+	{
+		CountingProvider first = new CountingProvider();
+		pipeline.register(project, new JSVisitorPipeline.INodeHandlerProvider()
+		{
+			public ParseUtil.IASTVisitor createNodeHandler(BuildContext context, IParseRootNode ast)
+			{
+				return new ParseUtil.IASTVisitor()
+				{
+					public boolean enterNode(IParseNode node)
+					{
+						throw new IllegalStateException("broken handler");
+					}
+
+					public boolean exitNode(IParseNode node)
+					{
+						return true;
+					}
+				};
+			}
+		});
+
+		IParseRootNode ast = context.getAST();
+		CountingVisitor visitor = (CountingVisitor) pipeline.visit(context, ast, first);
+
+		CountingVisitor alone = new CountingVisitor();
+		ParseUtil.treeApply(ast, alone);
+		assertEquals(alone.entered, visitor.entered);
+		assertEquals(alone.exited, visitor.exited);
+	}
+}
@@ -0,0 +1,72 @@
+/**
+ * Aptana Studio
+ * Copyright (c) 2005-2012 by Appcelerator, Inc. All Rights Reserved.
+ * Licensed under the terms of the GNU Public License (GPL) v3 (with exceptions).
+ * Please see the license.html included with this distribution for details.
+ * Any modifications to this file must keep this entire header intact.
+ */
+package com.aptana.editor.js.internal.build;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+@SuppressWarnings("nls")
+public class RequireGraphTest extends TestCase
+{
+
+	private static final String APP = "file:/project/app.js";
+	private static final String LIB = "file:/project/lib/util.js";
+	private static final String OTHER = "file:/project/other.js";
+
+	private RequireGraph createGraph()
+	{
+		Map<String, List<String>> requires = new HashMap<String, List<String>>();
+		requires.put(APP, Arrays.asList("./lib/util"));
+		requires.put(OTHER, Arrays.asList("util.js", "missing"));
+		return new RequireGraph(requires);
+	}
+
+	private Set<String> documents(String... documents)
+	{
+		return new HashSet<String>(Arrays.asList(documents));
+	}
+
+	public void testRelativePathsAndModuleIds()
+	{
+		RequireGraph graph = createGraph();
+
+		assertEquals(documents(APP, OTHER), graph.getRequiringDocuments(URI.create(LIB)));
+		assertEquals(documents(OTHER), graph.getRequiringDocuments(URI.create("file:/elsewhere/util.js")));
+		assertTrue(graph.getRequiringDocuments(URI.create(APP)).isEmpty());
+	}
+
+	public void testFileDoesntRequireItself()
+	{
+		RequireGraph graph = createGraph();
+		graph.setRequires(LIB, Arrays.asList("util"));
+
+		assertEquals(documents(APP, OTHER), graph.getRequiringDocuments(URI.create(LIB)));
+	}
+
+	public void testUpdatesReplacePreviousRequires()
+	{
+		RequireGraph graph = createGraph();
+		graph.setRequires(APP, Arrays.asList("./other"));
+		assertEquals(documents(OTHER), graph.getRequiringDocuments(URI.create(LIB)));
+		assertEquals(documents(APP), graph.getRequiringDocuments(URI.create(OTHER)));
+
+		graph.setRequires(APP, Collections.<String> emptyList());
+		assertTrue(graph.getRequiringDocuments(URI.create(OTHER)).isEmpty());
+
+		graph.removeDocument(OTHER);
+		assertTrue(graph.getRequiringDocuments(URI.create(LIB)).isEmpty());
+	}
+}
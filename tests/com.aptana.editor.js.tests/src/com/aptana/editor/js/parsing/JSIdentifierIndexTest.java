@@ -0,0 +1,97 @@
+/**
+ * Aptana Studio
+ * Copyright (c) 2005-2012 by Appcelerator, Inc. All Rights Reserved.
+ * Licensed under the terms of the GNU Public License (GPL) v3 (with exceptions).
+ * Please see the license.html included with this distribution for details.
+ * Any modifications to this file must keep this entire header intact.
+ */
+package com.aptana.editor.js.parsing;
+
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import com.aptana.editor.js.parsing.ast.JSIdentifierNode;
+import com.aptana.editor.js.parsing.ast.JSParseRootNode;
+import com.aptana.parsing.ParseState;
+import com.aptana.parsing.lexer.IRange;
+import com.aptana.parsing.util.OccurrenceIndex;
+
+@SuppressWarnings("nls")
+public class JSIdentifierIndexTest extends TestCase
+{
+	// @formatter:off
+	private static final String SOURCE =
+		"var a = 1;\n" +
+		"function f(a) {\n" +
+		"\treturn a + b;\n" +
+		"}\n" +
+		"function g() {\n" +
+		"\treturn a + b + o.a;\n" +
+		"}\n";
+	// @formatter:on
+
+	private JSParseRootNode root;
+
+	@Override
+	protected void setUp() throws Exception
+	{
+		super.setUp();
+
+		JSParser parser = new JSParser();
+		root = (JSParseRootNode) parser.parse(new ParseState(SOURCE)).getRootNode();
+	}
+
+	@Override
+	protected void tearDown() throws Exception
+	{
+		root = null;
+
+		super.tearDown();
+	}
+
+	private void assertOccurrences(int offset, int... expected)
+	{
+		OccurrenceIndex index = root.getOccurrenceIndex();
+		IRange[] occurrences = index.getOccurrences(offset, 0);
+
+		assertEquals(expected.length, occurrences.length);
+		for (int i = 0; i < expected.length; i++)
+		{
+			assertEquals(expected[i], occurrences[i].getStartingOffset());
+			assertEquals(1, occurrences[i].getLength());
+		}
+	}
+
+	public void testParameterShadowsGlobal()
+	{
+		assertOccurrences(22, 22, 35);
+		assertOccurrences(35, 22, 35);
+	}
+
+	public void testGlobalVariable()
+	{
+		assertOccurrences(4, 4, 67);
+		assertOccurrences(67, 4, 67);
+	}
+
+	public void testUndeclaredGlobal()
+	{
+		assertOccurrences(39, 39, 71);
+	}
+
+	public void testPropertyName()
+	{
+		assertOccurrences(77, 77);
+	}
+
+	public void testIdentifiersByName()
+	{
+		List<JSIdentifierNode> identifiers = root.getIdentifierIndex().getIdentifiers("a");
+
+		assertEquals(5, identifiers.size());
+		assertEquals(4, identifiers.get(0).getStartingOffset());
+		assertEquals(77, identifiers.get(4).getStartingOffset());
+		assertTrue(root.getIdentifierIndex().getIdentifiers("c").isEmpty());
+	}
+}
@@ -13,11 +13,13 @@ import java.net.URL;
 import org.eclipse.core.filesystem.EFS;
 import org.eclipse.core.filesystem.IFileStore;
 import org.eclipse.core.runtime.FileLocator;
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.test.performance.PerformanceTestCase;
 
 import com.aptana.core.build.AbstractBuildParticipant;
+import com.aptana.core.util.IOUtil;
 import com.aptana.core.util.ResourceUtil;
 import com.aptana.editor.epl.tests.EditorTestHelper;
 import com.aptana.editor.js.JSPlugin;
@@ -30,6 +32,8 @@ import com.aptana.parsing.WorkingParseResult;
 
 public class JSLintValidatorPerformanceTest extends PerformanceTestCase
 {
+	private static final String SMALL_FILE = "var a = 1;\nfunction f(b) {\n\treturn a + b;\n}\n";
+
 	private AbstractBuildParticipant validator;
 
 	@Override
@@ -73,26 +77,17 @@ public class JSLintValidatorPerformanceTest extends PerformanceTestCase
 				Path.fromPortableString("performance/" + filename), null);
 		File file = ResourceUtil.resourcePathToFile(url);
 		IFileStore fileStore = EFS.getStore(file.toURI());
+		perfValidate(fileStore, iterations);
+	}
 
+	protected void perfValidate(IFileStore fileStore, int iterations) throws Exception
+	{
 		// Ok now actually validate the thing, the real work
 		for (int i = 0; i < iterations; i++)
 		{
 			EditorTestHelper.joinBackgroundActivities();
 
-			// Force a re-parse every time so we're comparing apples to apples for JSLint
-			BuildContext context = new FileStoreBuildContext(fileStore)
-			{
-				@Override
-				protected ParseResult parse(String contentType, IParseState parseState, WorkingParseResult working)
-						throws Exception
-				{
-					if (reparseEveryTime())
-					{
-						return new JSParser().parse(parseState);
-					}
-					return super.parse(contentType, parseState, working);
-				}
-			};
+			BuildContext context = createContext(fileStore);
 			// Don't measure reading in string...
 			context.getContents();
 
@@ -104,6 +99,33 @@ public class JSLintValidatorPerformanceTest extends PerformanceTestCase
 		assertPerformance();
 	}
 
+	protected BuildContext createContext(IFileStore fileStore)
+	{
+		// Force a re-parse every time so we're comparing apples to apples for JSLint
+		return new FileStoreBuildContext(fileStore)
+		{
+			@Override
+			protected ParseResult parse(String contentType, IParseState parseState, WorkingParseResult working)
+					throws Exception
+			{
+				if (reparseEveryTime())
+				{
+					return new JSParser().parse(parseState);
+				}
+				return super.parse(contentType, parseState, working);
+			}
+		};
+	}
+
+	protected IFileStore createSmallFile() throws Exception
+	{
+		File file = File.createTempFile("small", ".js");
+		file.deleteOnExit();
+		IFileStore fileStore = EFS.getLocalFileSystem().fromLocalFile(file);
+		IOUtil.write(fileStore.openOutputStream(EFS.NONE, new NullProgressMonitor()), SMALL_FILE);
+		return fileStore;
+	}
+
 	protected boolean reparseEveryTime()
 	{
 		return false;
@@ -137,4 +159,54 @@ public class JSLintValidatorPerformanceTest extends PerformanceTestCase
 	{
 		perfValidate("tiny_mce.js", 10);
 	}
+
+	/**
+	 * Lints a tiny file over and over, which mostly measures the overhead the validator has for every file.
+	 */
+	public void testValidateSmallFile() throws Exception
+	{
+		perfValidate(createSmallFile(), 100);
+	}
+
+	/**
+	 * Lints a tiny file on several threads at once, like a parallel build does. Each thread gets its own validator,
+	 * since not all validators tested here are thread-safe.
+	 */
+	public void testValidateSmallFilesInParallel() throws Exception
+	{
+		final IFileStore fileStore = createSmallFile();
+		for (int i = 0; i < 10; i++)
+		{
+			EditorTestHelper.joinBackgroundActivities();
+
+			Thread[] threads = new Thread[4];
+			for (int j = 0; j < threads.length; j++)
+			{
+				threads[j] = new Thread(new Runnable()
+				{
+					public void run()
+					{
+						AbstractBuildParticipant threadValidator = createValidator();
+						for (int k = 0; k < 25; k++)
+						{
+							threadValidator.buildFile(createContext(fileStore), null);
+						}
+					}
+				});
+			}
+
+			startMeasuring();
+			for (Thread thread : threads)
+			{
+				thread.start();
+			}
+			for (Thread thread : threads)
+			{
+				thread.join();
+			}
+			stopMeasuring();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
 }
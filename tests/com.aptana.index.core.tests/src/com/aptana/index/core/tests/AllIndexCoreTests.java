@@ -7,6 +7,7 @@ import junit.framework.TestSuite;
 import com.aptana.index.core.IndexCoreTests;
 import com.aptana.index.core.build.BuildContextTest;
 import com.aptana.internal.index.core.DiskIndexTest;
+import com.aptana.internal.index.core.ParseResultCacheTest;
 
 public class AllIndexCoreTests extends TestCase
 {
@@ -16,6 +17,7 @@ public class AllIndexCoreTests extends TestCase
 		TestSuite suite = new TestSuite(AllIndexCoreTests.class.getName());
 		// $JUnit-BEGIN$
 		suite.addTestSuite(DiskIndexTest.class);
+		suite.addTestSuite(ParseResultCacheTest.class);
 		suite.addTestSuite(BuildContextTest.class);
 		suite.addTest(IndexCoreTests.suite());
 		// $JUnit-END$
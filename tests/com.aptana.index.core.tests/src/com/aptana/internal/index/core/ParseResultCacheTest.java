@@ -0,0 +1,101 @@
+/**
+ * Aptana Studio
+ * Copyright (c) 2005-2012 by Appcelerator, Inc. All Rights Reserved.
+ * Licensed under the terms of the GNU Public License (GPL) v3 (with exceptions).
+ * Please see the license.html included with this distribution for details.
+ * Any modifications to this file must keep this entire header intact.
+ */
+package com.aptana.internal.index.core;
+
+import java.io.File;
+import java.util.Collections;
+
+import junit.framework.TestCase;
+import beaver.Symbol;
+
+import com.aptana.core.util.FileUtil;
+import com.aptana.parsing.ParseResult;
+import com.aptana.parsing.ast.IParseError;
+import com.aptana.parsing.ast.ParseRootNode;
+
+@SuppressWarnings("nls")
+public class ParseResultCacheTest extends TestCase
+{
+
+	private static final String CONTENT_TYPE = "com.aptana.test.contenttype";
+
+	private File directory;
+
+	@Override
+	protected void setUp() throws Exception
+	{
+		super.setUp();
+
+		directory = File.createTempFile("parse_cache", "");
+		directory.delete();
+		directory.mkdirs();
+	}
+
+	@Override
+	protected void tearDown() throws Exception
+	{
+		try
+		{
+			FileUtil.deleteRecursively(directory);
+		}
+		finally
+		{
+			directory = null;
+			super.tearDown();
+		}
+	}
+
+	private ParseResultCache createCache(long maxSize)
+	{
+		return new ParseResultCache(directory, maxSize)
+		{
+			@Override
+			ParserInfo createParserInfo(String contentType)
+			{
+				return new ParserInfo(getClass().getClassLoader(), "test");
+			}
+		};
+	}
+
+	private ParseResult createResult(String source)
+	{
+		return new ParseResult(new ParseRootNode("test", new Symbol[0], 0, source.length() - 1),
+				Collections.<IParseError> emptyList());
+	}
+
+	public void testRoundTrip()
+	{
+		ParseResultCache cache = createCache(1024 * 1024);
+		assertNull(cache.get(CONTENT_TYPE, "a = 1;"));
+
+		cache.put(CONTENT_TYPE, "a = 1;", createResult("a = 1;"));
+		ParseResult result = cache.get(CONTENT_TYPE, "a = 1;");
+		assertNotNull(result);
+		assertEquals("test", result.getRootNode().getLanguage());
+		assertNull(cache.get(CONTENT_TYPE, "a = 2;"));
+	}
+
+	public void testRecentlyReadEntrySurvivesEviction()
+	{
+		ParseResultCache cache = createCache(1024 * 1024);
+		cache.put(CONTENT_TYPE, "a = 1;", createResult("a = 1;"));
+		long entrySize = cache.getSize();
+		cache.clear();
+
+		// room for two entries, but not three
+		cache = createCache(entrySize * 5 / 2);
+		cache.put(CONTENT_TYPE, "a = 1;", createResult("a = 1;"));
+		cache.put(CONTENT_TYPE, "b = 2;", createResult("b = 2;"));
+		assertNotNull(cache.get(CONTENT_TYPE, "a = 1;"));
+		cache.put(CONTENT_TYPE, "c = 3;", createResult("c = 3;"));
+
+		assertNotNull(cache.get(CONTENT_TYPE, "a = 1;"));
+		assertNull(cache.get(CONTENT_TYPE, "b = 2;"));
+		assertNotNull(cache.get(CONTENT_TYPE, "c = 3;"));
+	}
+}
@@ -14,6 +14,8 @@ public class ParseNodeTests extends TestCase
 {
 	static class TextNode extends ParseNode
 	{
+		private static final long serialVersionUID = 1L;
+
 		private String _text;
 		
 		public TextNode(String text)
@@ -19,6 +19,7 @@ public class AllTests
 		TestSuite suite = new TestSuite("Test for com.aptana.parsing.pool");
 		//$JUnit-BEGIN$
 		suite.addTestSuite(ParsingPoolFactoryTest.class);
+		suite.addTestSuite(ParserPoolTest.class);
 		//$JUnit-END$
 		return suite;
 	}
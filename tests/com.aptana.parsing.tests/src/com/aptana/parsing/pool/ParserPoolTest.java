@@ -0,0 +1,106 @@
+/**
+ * Aptana Studio
+ * Copyright (c) 2005-2012 by Appcelerator, Inc. All Rights Reserved.
+ * Licensed under the terms of the GNU Public License (GPL) v3 (with exceptions).
+ * Please see the license.html included with this distribution for details.
+ * Any modifications to this file must keep this entire header intact.
+ */
+package com.aptana.parsing.pool;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import com.aptana.internal.parsing.ParserPool;
+import com.aptana.parsing.AbstractParser;
+import com.aptana.parsing.IParseState;
+import com.aptana.parsing.IParser;
+import com.aptana.parsing.WorkingParseResult;
+
+public class ParserPoolTest extends TestCase
+{
+	private static final class TestParser extends AbstractParser
+	{
+		protected void parse(IParseState parseState, WorkingParseResult working) throws Exception
+		{
+		}
+	}
+
+	private static final class TestParserPool extends ParserPool
+	{
+		TestParserPool(int capacity)
+		{
+			super(null, capacity);
+		}
+
+		@Override
+		public IParser create()
+		{
+			return new TestParser();
+		}
+	}
+
+	public void testReuseOnSameThread()
+	{
+		TestParserPool pool = new TestParserPool(4);
+
+		IParser first = pool.checkOut();
+		pool.checkIn(first);
+		IParser second = pool.checkOut();
+
+		assertSame(first, second);
+		assertEquals(1, pool.getCreatedCount());
+		assertEquals(1, pool.getReusedCount());
+	}
+
+	public void testNestedCheckOutCreatesNewParser()
+	{
+		TestParserPool pool = new TestParserPool(4);
+
+		IParser outer = pool.checkOut();
+		IParser inner = pool.checkOut();
+
+		assertNotSame(outer, inner);
+		assertEquals(2, pool.getCreatedCount());
+		assertEquals(0, pool.getReusedCount());
+	}
+
+	public void testCapacityIsEnforced()
+	{
+		TestParserPool pool = new TestParserPool(2);
+		List<IParser> parsers = new ArrayList<IParser>();
+
+		for (int i = 0; i < 5; i++)
+		{
+			parsers.add(pool.checkOut());
+		}
+		for (IParser parser : parsers)
+		{
+			pool.checkIn(parser);
+		}
+
+		assertEquals(5, pool.getCreatedCount());
+		assertEquals(3, pool.getDiscardedCount());
+
+		// only the two idle parsers can be reused, the third check out creates a new one
+		pool.checkOut();
+		pool.checkOut();
+		pool.checkOut();
+
+		assertEquals(2, pool.getReusedCount());
+		assertEquals(6, pool.getCreatedCount());
+	}
+
+	public void testCheckInAfterDispose()
+	{
+		TestParserPool pool = new TestParserPool(2);
+		IParser parser = pool.checkOut();
+
+		pool.dispose();
+		pool.checkIn(parser);
+
+		assertEquals(1, pool.getDiscardedCount());
+		assertNotSame(parser, pool.checkOut());
+	}
+}
@@ -35,6 +35,7 @@ public class AllTests
 		suite.addTest(com.aptana.parsing.ast.AllTests.suite());
 		suite.addTest(com.aptana.parsing.lexer.LexerTests.suite());
 		suite.addTest(com.aptana.parsing.pool.AllTests.suite());
+		suite.addTestSuite(com.aptana.parsing.util.OccurrenceIndexTest.class);
 		suite.addTest(com.aptana.sax.AllTests.suite());
 		// $JUnit-END$
 		return suite;
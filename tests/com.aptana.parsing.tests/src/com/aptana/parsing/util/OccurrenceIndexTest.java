@@ -0,0 +1,59 @@
+/**
+ * Aptana Studio
+ * Copyright (c) 2005-2012 by Appcelerator, Inc. All Rights Reserved.
+ * Licensed under the terms of the GNU Public License (GPL) v3 (with exceptions).
+ * Please see the license.html included with this distribution for details.
+ * Any modifications to this file must keep this entire header intact.
+ */
+package com.aptana.parsing.util;
+
+import junit.framework.TestCase;
+
+import com.aptana.parsing.lexer.IRange;
+import com.aptana.parsing.lexer.Range;
+
+@SuppressWarnings("nls")
+public class OccurrenceIndexTest extends TestCase
+{
+	private void assertOccurrences(IRange[] actual, IRange... expected)
+	{
+		assertEquals(expected.length, actual.length);
+		for (int i = 0; i < expected.length; i++)
+		{
+			assertEquals(expected[i], actual[i]);
+		}
+	}
+
+	public void testWordIndex()
+	{
+		OccurrenceIndex index = OccurrenceIndex.createWordIndex("foo bar(foo); foobar");
+
+		assertEquals(4, index.size());
+		assertOccurrences(index.getOccurrences(1, 0), new Range(0, 2), new Range(8, 10));
+		assertOccurrences(index.getOccurrences(8, 3), new Range(0, 2), new Range(8, 10));
+		assertOccurrences(index.getOccurrences(14, 6), new Range(14, 19));
+	}
+
+	public void testOffsetOutsideOfWords()
+	{
+		OccurrenceIndex index = OccurrenceIndex.createWordIndex("foo  bar");
+
+		assertOccurrences(index.getOccurrences(4, 0));
+		assertOccurrences(index.getOccurrences(2, 3));
+		assertOccurrences(index.getOccurrences(20, 0));
+	}
+
+	public void testScopes()
+	{
+		OccurrenceIndex.Builder builder = new OccurrenceIndex.Builder();
+		Object scope = new Object();
+		builder.add("a", scope, 30, 1);
+		builder.add("a", null, 0, 1);
+		builder.add("a", scope, 10, 1);
+		builder.add("a", null, 20, 1);
+		OccurrenceIndex index = builder.build();
+
+		assertOccurrences(index.getOccurrences(30, 1), new Range(10, 10), new Range(30, 30));
+		assertOccurrences(index.getOccurrences(20, 1), new Range(0, 0), new Range(20, 20));
+	}
+}
@@ -21,6 +21,7 @@ public class AllTests
 		suite.addTestSuite(NameSelectorTests.class);
 		suite.addTestSuite(OrSelectorTests.class);
 		suite.addTestSuite(NegativeLookaheadTests.class);
+		suite.addTestSuite(ScopeSelectorMatcherTests.class);
 		// $JUnit-END$
 		return suite;
 	}
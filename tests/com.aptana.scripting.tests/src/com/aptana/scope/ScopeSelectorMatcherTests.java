@@ -0,0 +1,118 @@
+/**
+ * Aptana Studio
+ * Copyright (c) 2005-2012 by Appcelerator, Inc. All Rights Reserved.
+ * Licensed under the terms of the GNU Public License (GPL) v3 (with exceptions).
+ * Please see the license.html included with this distribution for details.
+ * Any modifications to this file must keep this entire header intact.
+ */
+package com.aptana.scope;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+public class ScopeSelectorMatcherTests extends TestCase
+{
+	private static final String[] SCOPES = new String[] {
+			"text.html.markdown meta.disable-markdown meta.tag.block.any.html entity.name.tag.block.any.html",
+			"text.html.markdown meta.disable-markdown meta.tag.block.any.html string.quoted.double.html",
+			"source.php string.quoted", "source.js constant.numeric.js", "source.js string.quoted.single.js",
+			"source.js storage.type.function.js", "text.html.basic source.php.embedded.html source.php string",
+			"text.html.basic meta.tag.sgml.html meta.tag.sgml.doctype.html entity.name.tag.doctype.html",
+			"source.css string.quoted.single.css", "source.ruby", "" };
+
+	private List<IScopeSelector> selectors;
+
+	@Override
+	protected void setUp() throws Exception
+	{
+		super.setUp();
+		selectors = new ArrayList<IScopeSelector>();
+		selectors.add(new ScopeSelector("entity"));
+		selectors.add(new ScopeSelector("meta.tag entity"));
+		selectors.add(new ScopeSelector("meta.tag.block entity"));
+		selectors.add(new ScopeSelector(
+				"string - string.unquoted.old-plist - string.unquoted.heredoc, string.unquoted.heredoc string"));
+		selectors.add(new ScopeSelector("string"));
+		selectors.add(new ScopeSelector("string.quoted"));
+		selectors.add(new ScopeSelector("source.php"));
+		selectors.add(new ScopeSelector(
+				"source.js storage - storage.type.function - source.php, source.js constant - source.php"));
+		selectors.add(new ScopeSelector("constant.numeric"));
+		selectors.add(new ScopeSelector("source.js string - source.php, source.js keyword.operator"));
+		selectors.add(new ScopeSelector("text.html source.php & string"));
+		selectors.add(new ScopeSelector(
+				"entity.name.tag.doctype.html, meta.tag.sgml.html, string.quoted.double.doctype.identifiers-and-DTDs.html"));
+		selectors.add(new ScopeSelector("(source.css | source.sass) string"));
+	}
+
+	@Override
+	protected void tearDown() throws Exception
+	{
+		selectors = null;
+		super.tearDown();
+	}
+
+	public void testAgreesWithBestMatch()
+	{
+		ScopeSelectorMatcher matcher = new ScopeSelectorMatcher(selectors);
+
+		for (String scope : SCOPES)
+		{
+			assertEquals(scope, ScopeSelector.bestMatch(selectors, scope), matcher.bestMatch(scope));
+		}
+	}
+
+	public void testLaterSelectorWinsTie()
+	{
+		IScopeSelector first = new ScopeSelector("string");
+		IScopeSelector second = new ScopeSelector("string");
+		ScopeSelectorMatcher matcher = new ScopeSelectorMatcher(Arrays.asList(first, second));
+
+		assertSame(second, matcher.bestMatch("source.js string.quoted.js"));
+	}
+
+	public void testMatchResults()
+	{
+		ScopeSelectorMatcher matcher = new ScopeSelectorMatcher(selectors);
+
+		ScopeSelectorMatcher.Match match = matcher.match("source.php string.quoted");
+		assertEquals(new ScopeSelector("string.quoted"), match.getSelector());
+		assertEquals(Arrays.asList(0, 13), match.getMatchResults());
+	}
+
+	public void testNoMatch()
+	{
+		ScopeSelectorMatcher matcher = new ScopeSelectorMatcher(selectors);
+
+		assertNull(matcher.bestMatch("source.ruby"));
+		assertNull(matcher.bestMatch(null));
+		assertTrue(matcher.match("source.ruby").getMatchResults().isEmpty());
+	}
+
+	public void testNameMustEndAtPeriod()
+	{
+		ScopeSelectorMatcher matcher = new ScopeSelectorMatcher(selectors);
+
+		assertNull(matcher.bestMatch("source.javascript strings.quoted"));
+	}
+
+	public void testResultsAreCached()
+	{
+		ScopeSelectorMatcher matcher = new ScopeSelectorMatcher(selectors);
+
+		assertSame(matcher.match("source.php string.quoted"), matcher.match("source.php string.quoted"));
+	}
+
+	public void testMatchAnyScopeSelector()
+	{
+		IScopeSelector any = new MatchAnyScopeSelector();
+		IScopeSelector string = new ScopeSelector("string");
+		ScopeSelectorMatcher matcher = new ScopeSelectorMatcher(Arrays.asList(string, any));
+
+		assertSame(string, matcher.bestMatch("source.js string.quoted.js"));
+		assertSame(any, matcher.bestMatch("source.js"));
+	}
+}
@@ -10,6 +10,8 @@ package com.aptana.theme;
 import junit.framework.Test;
 import junit.framework.TestSuite;
 
+import com.aptana.theme.internal.TextAttributeCacheTest;
+
 public class ThemeTests
 {
 
@@ -19,6 +21,7 @@ public class ThemeTests
 		//$JUnit-BEGIN$
 		suite.addTestSuite(TextmateImporterTest.class);
 		suite.addTestSuite(ThemeExporterTest.class);
+		suite.addTestSuite(TextAttributeCacheTest.class);
 		suite.addTestSuite(ThemeTest.class);
 		//$JUnit-END$
 		return suite;
@@ -0,0 +1,102 @@
+/**
+ * Aptana Studio
+ * Copyright (c) 2005-2012 by Appcelerator, Inc. All Rights Reserved.
+ * Licensed under the terms of the GNU Public License (GPL) v3 (with exceptions).
+ * Please see the license.html included with this distribution for details.
+ * Any modifications to this file must keep this entire header intact.
+ */
+package com.aptana.theme.internal;
+
+import junit.framework.TestCase;
+
+import org.eclipse.jface.text.TextAttribute;
+
+import com.aptana.scope.ScopeSelector;
+
+@SuppressWarnings("nls")
+public class TextAttributeCacheTest extends TestCase
+{
+
+	private static final TextAttribute ATTRIBUTE = new TextAttribute(null);
+
+	private TextAttributeCache cache;
+
+	@Override
+	protected void setUp() throws Exception
+	{
+		super.setUp();
+		cache = new TextAttributeCache(8);
+	}
+
+	@Override
+	protected void tearDown() throws Exception
+	{
+		cache = null;
+		super.tearDown();
+	}
+
+	public void testGetReturnsCachedAttribute() throws Exception
+	{
+		cache.put("source.js", ATTRIBUTE);
+
+		assertSame(ATTRIBUTE, cache.get("source.js"));
+		assertNull(cache.get("source.css"));
+		assertNull(cache.get(null));
+	}
+
+	public void testSizeIsBounded() throws Exception
+	{
+		for (int i = 0; i < 100; i++)
+		{
+			cache.put("scope" + i, ATTRIBUTE);
+		}
+
+		assertTrue(cache.size() <= 8);
+		assertSame(ATTRIBUTE, cache.get("scope99"));
+	}
+
+	public void testRecentlyUsedScopesSurviveEviction() throws Exception
+	{
+		cache.put("source.js", ATTRIBUTE);
+		for (int i = 0; i < 20; i++)
+		{
+			cache.get("source.js");
+			cache.put("scope" + i, ATTRIBUTE);
+		}
+
+		assertSame(ATTRIBUTE, cache.get("source.js"));
+	}
+
+	public void testInvalidateOnlyDropsMatchingScopes() throws Exception
+	{
+		cache.put("source.js constant.language.js", ATTRIBUTE);
+		cache.put("source.js string.quoted.double.js", ATTRIBUTE);
+		cache.put("source.css constant.numeric.css", ATTRIBUTE);
+
+		cache.invalidate(new ScopeSelector("constant.language"));
+
+		assertNull(cache.get("source.js constant.language.js"));
+		assertSame(ATTRIBUTE, cache.get("source.js string.quoted.double.js"));
+		assertSame(ATTRIBUTE, cache.get("source.css constant.numeric.css"));
+	}
+
+	public void testInvalidateDropsScopesMatchedThroughParent() throws Exception
+	{
+		cache.put("source.js string.quoted.double.js", ATTRIBUTE);
+		cache.put("source.css", ATTRIBUTE);
+
+		cache.invalidate(new ScopeSelector("source.js"));
+
+		assertNull(cache.get("source.js string.quoted.double.js"));
+		assertSame(ATTRIBUTE, cache.get("source.css"));
+	}
+
+	public void testClear() throws Exception
+	{
+		cache.put("source.js", ATTRIBUTE);
+		cache.clear();
+
+		assertEquals(0, cache.size());
+		assertNull(cache.get("source.js"));
+	}
+}